@@ -91,6 +91,39 @@ public @interface HystrixCollapser {
      */
     Scope scope() default Scope.REQUEST;
 
+    /**
+     * Method name which maps a response of the batch command to the argument of the collapser method it answers, turning on streaming mode.
+     * <p/>
+     * In streaming mode the batch method returns {@code rx.Observable} of responses in any order instead of a {@code java.util.List}
+     * ordered like its arguments, and each collapser call completes as soon as its response is emitted, instead of waiting for the whole batch.
+     * A collapser call without a response fails once the batch completes. The collapser method must return {@code rx.Observable}.
+     * <p/>
+     * Method must have the following signature, where the returned key must be equal to the argument of the collapser method:
+     * <pre>
+     *     Object method(ResponseType response)
+     * </pre>
+     * Example:
+     * <pre>
+     *     @HystrixCollapser(batchMethod = "getUserByIds", responseKeyMethod = "getUserId")
+     *     public Observable<User> getUserById(String id) {
+     *         return null;
+     *     }
+     *
+     *     @HystrixCommand
+     *     public Observable<User> getUserByIds(List<String> ids) {
+     *         return userService.streamUsers(ids);
+     *     }
+     *
+     *     public String getUserId(User user) {
+     *         return user.getId();
+     *     }
+     * </pre>
+     * default => the batch method returns {@code java.util.List}
+     *
+     * @return method name of response key method
+     */
+    String responseKeyMethod() default "";
+
     /**
      * Specifies collapser properties.
      *
@@ -24,6 +24,8 @@ import com.netflix.hystrix.contrib.javanica.annotation.HystrixCommand;
 import com.netflix.hystrix.contrib.javanica.annotation.HystrixException;
 import com.netflix.hystrix.contrib.javanica.command.CommandExecutor;
 import com.netflix.hystrix.contrib.javanica.command.ExecutionType;
+import com.netflix.hystrix.contrib.javanica.command.GenericSetterBuilder;
+import com.netflix.hystrix.contrib.javanica.command.HystrixCommandBuilderFactory;
 import com.netflix.hystrix.contrib.javanica.command.HystrixCommandFactory;
 import com.netflix.hystrix.contrib.javanica.command.MetaHolder;
 import com.netflix.hystrix.contrib.javanica.exception.CommandActionExecutionException;
@@ -51,6 +53,8 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Future;
 
 import static com.netflix.hystrix.contrib.javanica.utils.AopUtils.getDeclaredMethod;
@@ -67,6 +71,8 @@ public class HystrixCommandAspect {
 
     private static final Map<HystrixPointcutType, MetaHolderFactory> META_HOLDER_FACTORY_MAP;
 
+    private static final ConcurrentMap<InvocationPlanKey, InvocationPlan> INVOCATION_PLANS = new ConcurrentHashMap<InvocationPlanKey, InvocationPlan>();
+
     static {
         META_HOLDER_FACTORY_MAP = ImmutableMap.<HystrixPointcutType, MetaHolderFactory>builder()
                 .put(HystrixPointcutType.COMMAND, new CommandMetaHolderFactory())
@@ -85,14 +91,7 @@ public class HystrixCommandAspect {
 
     @Around("hystrixCommandAnnotationPointcut() || hystrixCollapserAnnotationPointcut()")
     public Object methodsAnnotatedWithHystrixCommand(final ProceedingJoinPoint joinPoint) throws Throwable {
-        Method method = getMethodFromTarget(joinPoint);
-        Validate.notNull(method, "failed to get method from joinPoint: %s", joinPoint);
-        if (method.isAnnotationPresent(HystrixCommand.class) && method.isAnnotationPresent(HystrixCollapser.class)) {
-            throw new IllegalStateException("method cannot be annotated with HystrixCommand and HystrixCollapser " +
-                    "annotations at the same time");
-        }
-        MetaHolderFactory metaHolderFactory = META_HOLDER_FACTORY_MAP.get(HystrixPointcutType.of(method));
-        MetaHolder metaHolder = metaHolderFactory.create(joinPoint);
+        MetaHolder metaHolder = getInvocationPlan(joinPoint).bind(joinPoint);
         HystrixInvokable invokable = HystrixCommandFactory.getInstance().create(metaHolder);
         ExecutionType executionType = metaHolder.isCollapserAnnotationPresent() ?
                 metaHolder.getCollapserExecutionType() : metaHolder.getExecutionType();
@@ -112,6 +111,33 @@ public class HystrixCommandAspect {
         return result;
     }
 
+    private static InvocationPlan getInvocationPlan(final ProceedingJoinPoint joinPoint) {
+        InvocationPlanKey key = new InvocationPlanKey(((MethodSignature) joinPoint.getSignature()).getMethod(), joinPoint.getTarget().getClass());
+        InvocationPlan plan = INVOCATION_PLANS.get(key);
+        if (plan == null) {
+            plan = compileInvocationPlan(joinPoint);
+            InvocationPlan existing = INVOCATION_PLANS.putIfAbsent(key, plan);
+            if (existing != null) {
+                plan = existing;
+            }
+        }
+        return plan;
+    }
+
+    private static InvocationPlan compileInvocationPlan(final ProceedingJoinPoint joinPoint) {
+        Method method = getMethodFromTarget(joinPoint);
+        Validate.notNull(method, "failed to get method from joinPoint: %s", joinPoint);
+        if (method.isAnnotationPresent(HystrixCommand.class) && method.isAnnotationPresent(HystrixCollapser.class)) {
+            throw new IllegalStateException("method cannot be annotated with HystrixCommand and HystrixCollapser " +
+                    "annotations at the same time");
+        }
+        MetaHolderFactory metaHolderFactory = META_HOLDER_FACTORY_MAP.get(HystrixPointcutType.of(method));
+        MetaHolder template = metaHolderFactory.create(null, method, joinPoint.getTarget(), null, joinPoint);
+        GenericSetterBuilder setterBuilder = HystrixCommandBuilderFactory.getInstance().createGenericSetterBuilder(template);
+        // the plan outlives this call, so it must not keep its target
+        return new InvocationPlan(MetaHolder.builder(template).obj(null).joinPoint(null).setterBuilder(setterBuilder).build());
+    }
+
     private Object executeObservable(HystrixInvokable invokable, ExecutionType executionType, final MetaHolder metaHolder) {
         return mapObservable(((Observable) CommandExecutor.execute(invokable, executionType, metaHolder))
                 .onErrorResumeNext(new Func1<Throwable, Observable>() {
@@ -166,17 +192,51 @@ public class HystrixCommandAspect {
     }
 
     /**
-     * A factory to create MetaHolder depending on {@link HystrixPointcutType}.
+     * Everything about an intercepted method that doesn't change from call to call: the annotations, the fallback, the default properties
+     * of its class and the setters of its command, resolved once per method and target class.
      */
-    private static abstract class MetaHolderFactory {
-        public MetaHolder create(final ProceedingJoinPoint joinPoint) {
-            Method method = getMethodFromTarget(joinPoint);
-            Object obj = joinPoint.getTarget();
-            Object[] args = joinPoint.getArgs();
-            Object proxy = joinPoint.getThis();
-            return create(proxy, method, obj, args, joinPoint);
+    private static final class InvocationPlan {
+        private final MetaHolder template;
+
+        private InvocationPlan(MetaHolder template) {
+            this.template = template;
         }
 
+        MetaHolder bind(final ProceedingJoinPoint joinPoint) {
+            return MetaHolder.builder(template)
+                    .args(joinPoint.getArgs()).obj(joinPoint.getTarget()).proxyObj(joinPoint.getThis())
+                    .joinPoint(joinPoint)
+                    .build();
+        }
+    }
+
+    private static final class InvocationPlanKey {
+        private final Method method;
+        private final Class<?> targetType;
+
+        private InvocationPlanKey(Method method, Class<?> targetType) {
+            this.method = method;
+            this.targetType = targetType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof InvocationPlanKey)) return false;
+            InvocationPlanKey that = (InvocationPlanKey) o;
+            return method.equals(that.method) && targetType.equals(that.targetType);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * method.hashCode() + targetType.hashCode();
+        }
+    }
+
+    /**
+     * A factory to create MetaHolder depending on {@link HystrixPointcutType}.
+     */
+    private static abstract class MetaHolderFactory {
         public abstract MetaHolder create(Object proxy, Method method, Object obj, Object[] args, final ProceedingJoinPoint joinPoint);
 
         MetaHolder.Builder metaHolderBuilder(Object proxy, Method method, Object obj, Object[] args, final ProceedingJoinPoint joinPoint) {
@@ -250,6 +310,18 @@ public class HystrixCommandAspect {
             builder.hystrixCommand(hystrixCommand);
             builder.executionType(ExecutionType.getExecutionType(batchReturnType));
             builder.observable(observable);
+            if (StringUtils.isNotBlank(hystrixCollapser.responseKeyMethod())) {
+                if (!observable || !Observable.class.equals(batchReturnType)) {
+                    throw new IllegalStateException("collapser with response key method requires both collapser and batch methods " +
+                            "to return rx.Observable: " + collapserMethod);
+                }
+                Method responseKeyMethod = getDeclaredMethod(obj.getClass(), hystrixCollapser.responseKeyMethod(), collapserMethodReturnType);
+                if (responseKeyMethod == null) {
+                    throw new IllegalStateException("response key method is absent: " + hystrixCollapser.responseKeyMethod() +
+                            "(" + collapserMethodReturnType.getName() + ")");
+                }
+                builder.collapserResponseKeyMethod(AopUtils.makeAccessible(responseKeyMethod));
+            }
             FallbackMethod fallbackMethod = MethodProvider.getInstance().getFallbackMethod(obj.getClass(), batchCommandMethod);
             if (fallbackMethod.isPresent()) {
                 fallbackMethod.validateReturnType(batchCommandMethod);
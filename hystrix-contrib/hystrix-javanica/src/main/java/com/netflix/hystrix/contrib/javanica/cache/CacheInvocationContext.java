@@ -15,9 +15,7 @@
  */
 package com.netflix.hystrix.contrib.javanica.cache;
 
-import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Iterables;
 import com.netflix.hystrix.contrib.javanica.command.ExecutionType;
 import com.netflix.hystrix.contrib.javanica.command.MethodExecutionAction;
 
@@ -58,26 +56,24 @@ public class CacheInvocationContext<A extends Annotation> {
         this.target = target;
         this.cacheKeyMethod = cacheKeyMethod;
         this.cacheAnnotation = cacheAnnotation;
-        Class<?>[] parametersTypes = method.getParameterTypes();
-        int parameterCount = parametersTypes.length;
+        // types and annotations of the parameters are read once per method, only the values are bound here
+        CacheMethodMetadata metadata = CacheMethodMetadata.of(method);
+        List<CacheInvocationParameter> methodParameters = metadata.getParameters();
+        int parameterCount = methodParameters.size();
         if (parameterCount > 0) {
-            Annotation[][] parametersAnnotations = method.getParameterAnnotations();
-            ImmutableList.Builder<CacheInvocationParameter> parametersBuilder = ImmutableList.builder();
+            CacheInvocationParameter[] boundParameters = new CacheInvocationParameter[parameterCount];
             for (int pos = 0; pos < parameterCount; pos++) {
-                Class<?> paramType = parametersTypes[pos];
-                Object val = args[pos];
-                parametersBuilder.add(new CacheInvocationParameter(paramType, val, parametersAnnotations[pos], pos));
+                boundParameters[pos] = new CacheInvocationParameter(methodParameters.get(pos), args[pos]);
             }
-            parameters = parametersBuilder.build();
+            parameters = ImmutableList.copyOf(boundParameters);
             // get key parameters
-            Iterable<CacheInvocationParameter> filtered = Iterables.filter(parameters, new Predicate<CacheInvocationParameter>() {
-                @Override
-                public boolean apply(CacheInvocationParameter input) {
-                    return input.hasCacheKeyAnnotation();
+            int[] keyParameterPositions = metadata.getKeyParameterPositions();
+            if (keyParameterPositions != null) {
+                CacheInvocationParameter[] boundKeyParameters = new CacheInvocationParameter[keyParameterPositions.length];
+                for (int i = 0; i < keyParameterPositions.length; i++) {
+                    boundKeyParameters[i] = boundParameters[keyParameterPositions[i]];
                 }
-            });
-            if (filtered.iterator().hasNext()) {
-                keyParameters = ImmutableList.<CacheInvocationParameter>builder().addAll(filtered).build();
+                keyParameters = ImmutableList.copyOf(boundKeyParameters);
             } else {
                 keyParameters = parameters;
             }
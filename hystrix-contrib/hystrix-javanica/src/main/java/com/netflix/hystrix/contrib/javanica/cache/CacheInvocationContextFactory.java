@@ -23,8 +23,11 @@ import com.netflix.hystrix.contrib.javanica.exception.HystrixCachingException;
 import org.apache.commons.lang3.StringUtils;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static com.netflix.hystrix.contrib.javanica.utils.AopUtils.getDeclaredMethod;
+import static com.netflix.hystrix.contrib.javanica.utils.AopUtils.makeAccessible;
 
 /**
  * Factory to create certain {@link CacheInvocationContext}.
@@ -33,6 +36,9 @@ import static com.netflix.hystrix.contrib.javanica.utils.AopUtils.getDeclaredMet
  */
 public class CacheInvocationContextFactory {
 
+    /* cache key methods found for a command method of a class, so each of them is resolved and made accessible once */
+    private static final ConcurrentMap<CacheKeyMethodKey, Method> CACHE_KEY_METHODS = new ConcurrentHashMap<CacheKeyMethodKey, Method>();
+
     /**
      * Create {@link CacheInvocationContext} parametrized with {@link CacheResult} annotation.
      *
@@ -41,8 +47,8 @@ public class CacheInvocationContextFactory {
      */
     public static CacheInvocationContext<CacheResult> createCacheResultInvocationContext(MetaHolder metaHolder) {
         Method method = metaHolder.getMethod();
-        if (method.isAnnotationPresent(CacheResult.class)) {
-            CacheResult cacheResult = method.getAnnotation(CacheResult.class);
+        CacheResult cacheResult = CacheMethodMetadata.of(method).getCacheResult();
+        if (cacheResult != null) {
             MethodExecutionAction cacheKeyMethod = createCacheKeyAction(cacheResult.cacheKeyMethod(), metaHolder);
             return new CacheInvocationContext<CacheResult>(cacheResult, cacheKeyMethod, metaHolder.getObj(), method, metaHolder.getArgs());
         }
@@ -57,8 +63,8 @@ public class CacheInvocationContextFactory {
      */
     public static CacheInvocationContext<CacheRemove> createCacheRemoveInvocationContext(MetaHolder metaHolder) {
         Method method = metaHolder.getMethod();
-        if (method.isAnnotationPresent(CacheRemove.class)) {
-            CacheRemove cacheRemove = method.getAnnotation(CacheRemove.class);
+        CacheRemove cacheRemove = CacheMethodMetadata.of(method).getCacheRemove();
+        if (cacheRemove != null) {
             MethodExecutionAction cacheKeyMethod = createCacheKeyAction(cacheRemove.cacheKeyMethod(), metaHolder);
             return new CacheInvocationContext<CacheRemove>(cacheRemove, cacheKeyMethod, metaHolder.getObj(), method, metaHolder.getArgs());
         }
@@ -68,7 +74,19 @@ public class CacheInvocationContextFactory {
     private static MethodExecutionAction createCacheKeyAction(String method, MetaHolder metaHolder) {
         MethodExecutionAction cacheKeyAction = null;
         if (StringUtils.isNotBlank(method)) {
-            Method cacheKeyMethod = getDeclaredMethod(metaHolder.getObj().getClass(), method,
+            Method cacheKeyMethod = getCacheKeyMethod(method, metaHolder);
+
+            MetaHolder cMetaHolder = MetaHolder.builder().obj(metaHolder.getObj()).method(cacheKeyMethod).args(metaHolder.getArgs()).build();
+            cacheKeyAction = new MethodExecutionAction(cMetaHolder.getObj(), cacheKeyMethod, cMetaHolder.getArgs(), cMetaHolder);
+        }
+        return cacheKeyAction;
+    }
+
+    private static Method getCacheKeyMethod(String method, MetaHolder metaHolder) {
+        CacheKeyMethodKey key = new CacheKeyMethodKey(metaHolder.getObj().getClass(), metaHolder.getMethod(), method);
+        Method cacheKeyMethod = CACHE_KEY_METHODS.get(key);
+        if (cacheKeyMethod == null) {
+            cacheKeyMethod = getDeclaredMethod(metaHolder.getObj().getClass(), method,
                     metaHolder.getMethod().getParameterTypes());
             if (cacheKeyMethod == null) {
                 throw new HystrixCachingException("method with name '" + method + "' doesn't exist in class '"
@@ -78,11 +96,41 @@ public class CacheInvocationContextFactory {
                 throw new HystrixCachingException("return type of cacheKey method must be String. Method: '" + method + "', Class: '"
                         + metaHolder.getObj().getClass() + "'");
             }
+            makeAccessible(cacheKeyMethod);
+            Method existing = CACHE_KEY_METHODS.putIfAbsent(key, cacheKeyMethod);
+            if (existing != null) {
+                cacheKeyMethod = existing;
+            }
+        }
+        return cacheKeyMethod;
+    }
 
-            MetaHolder cMetaHolder = MetaHolder.builder().obj(metaHolder.getObj()).method(cacheKeyMethod).args(metaHolder.getArgs()).build();
-            cacheKeyAction = new MethodExecutionAction(cMetaHolder.getObj(), cacheKeyMethod, cMetaHolder.getArgs(), cMetaHolder);
+    private static final class CacheKeyMethodKey {
+        private final Class<?> type;
+        private final Method commandMethod;
+        private final String name;
+
+        private CacheKeyMethodKey(Class<?> type, Method commandMethod, String name) {
+            this.type = type;
+            this.commandMethod = commandMethod;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CacheKeyMethodKey)) return false;
+            CacheKeyMethodKey that = (CacheKeyMethodKey) o;
+            return type.equals(that.type) && commandMethod.equals(that.commandMethod) && name.equals(that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = type.hashCode();
+            result = 31 * result + commandMethod.hashCode();
+            result = 31 * result + name.hashCode();
+            return result;
         }
-        return cacheKeyAction;
     }
 
 }
@@ -19,6 +19,7 @@ import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.netflix.hystrix.contrib.javanica.cache.annotation.CacheKey;
+import org.apache.commons.lang3.StringUtils;
 
 import java.lang.annotation.Annotation;
 import java.util.Arrays;
@@ -37,6 +38,7 @@ public class CacheInvocationParameter {
     private final CacheKey cacheKeyAnnotation;
     private final Set<Annotation> annotations;
     private final int position;
+    private final String[] cacheKeyPropertyPath;
 
     public CacheInvocationParameter(Class<?> rawType, Object value, Annotation[] annotations, int position) {
         this.rawType = rawType;
@@ -44,6 +46,23 @@ public class CacheInvocationParameter {
         this.annotations = ImmutableSet.<Annotation>builder().addAll(Arrays.asList(annotations)).build();
         this.position = position;
         this.cacheKeyAnnotation = (CacheKey) cacheKeyAnnotation();
+        this.cacheKeyPropertyPath = cacheKeyAnnotation != null && StringUtils.isNotBlank(cacheKeyAnnotation.value())
+                ? StringUtils.split(cacheKeyAnnotation.value(), ".") : null;
+    }
+
+    /**
+     * Creates the parameter of a call from the parameter of its method resolved in advance.
+     *
+     * @param parameter the parameter of the method
+     * @param value     the value of the parameter in this call
+     */
+    CacheInvocationParameter(CacheInvocationParameter parameter, Object value) {
+        this.rawType = parameter.rawType;
+        this.value = value;
+        this.annotations = parameter.annotations;
+        this.position = parameter.position;
+        this.cacheKeyAnnotation = parameter.cacheKeyAnnotation;
+        this.cacheKeyPropertyPath = parameter.cacheKeyPropertyPath;
     }
 
     /**
@@ -100,6 +119,15 @@ public class CacheInvocationParameter {
         return position;
     }
 
+    /**
+     * Gets the names of the nested properties of the parameter value to use as cache key, as given by {@link CacheKey#value()}.
+     *
+     * @return property names or null if the parameter value itself is the cache key
+     */
+    String[] getCacheKeyPropertyPath() {
+        return cacheKeyPropertyPath;
+    }
+
     private Annotation cacheKeyAnnotation() {
         return Iterables.tryFind(annotations, new Predicate<Annotation>() {
             @Override
@@ -0,0 +1,101 @@
+/**
+ * Copyright 2016 Netflix, Inc.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.contrib.javanica.cache;
+
+import com.google.common.collect.ImmutableList;
+import com.netflix.hystrix.contrib.javanica.cache.annotation.CacheRemove;
+import com.netflix.hystrix.contrib.javanica.cache.annotation.CacheResult;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Caching annotations and parameters of a method, which are read once per method and then bound to the arguments of each call.
+ */
+final class CacheMethodMetadata {
+
+    private static final ConcurrentMap<Method, CacheMethodMetadata> METADATA = new ConcurrentHashMap<Method, CacheMethodMetadata>();
+
+    private final CacheResult cacheResult;
+    private final CacheRemove cacheRemove;
+    /* parameters without values */
+    private final List<CacheInvocationParameter> parameters;
+    /* positions of the parameters used as cache key, see CacheInvocationContext#getKeyParameters() */
+    private final int[] keyParameterPositions;
+
+    private CacheMethodMetadata(Method method) {
+        this.cacheResult = method.getAnnotation(CacheResult.class);
+        this.cacheRemove = method.getAnnotation(CacheRemove.class);
+        Class<?>[] parametersTypes = method.getParameterTypes();
+        Annotation[][] parametersAnnotations = method.getParameterAnnotations();
+        ImmutableList.Builder<CacheInvocationParameter> parametersBuilder = ImmutableList.builder();
+        int keyParameterCount = 0;
+        for (int pos = 0; pos < parametersTypes.length; pos++) {
+            CacheInvocationParameter parameter = new CacheInvocationParameter(parametersTypes[pos], null, parametersAnnotations[pos], pos);
+            parametersBuilder.add(parameter);
+            if (parameter.hasCacheKeyAnnotation()) {
+                keyParameterCount++;
+            }
+        }
+        this.parameters = parametersBuilder.build();
+        if (keyParameterCount > 0) {
+            keyParameterPositions = new int[keyParameterCount];
+            int index = 0;
+            for (CacheInvocationParameter parameter : parameters) {
+                if (parameter.hasCacheKeyAnnotation()) {
+                    keyParameterPositions[index++] = parameter.getPosition();
+                }
+            }
+        } else {
+            keyParameterPositions = null;
+        }
+    }
+
+    static CacheMethodMetadata of(Method method) {
+        CacheMethodMetadata metadata = METADATA.get(method);
+        if (metadata == null) {
+            metadata = new CacheMethodMetadata(method);
+            CacheMethodMetadata existing = METADATA.putIfAbsent(method, metadata);
+            if (existing != null) {
+                metadata = existing;
+            }
+        }
+        return metadata;
+    }
+
+    CacheResult getCacheResult() {
+        return cacheResult;
+    }
+
+    CacheRemove getCacheRemove() {
+        return cacheRemove;
+    }
+
+    List<CacheInvocationParameter> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * @return positions of the parameters annotated with {@link com.netflix.hystrix.contrib.javanica.cache.annotation.CacheKey},
+     * or null if all parameters are part of the cache key
+     */
+    int[] getKeyParameterPositions() {
+        return keyParameterPositions;
+    }
+}
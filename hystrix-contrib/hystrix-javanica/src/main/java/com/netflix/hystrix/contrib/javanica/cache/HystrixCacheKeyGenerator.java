@@ -16,17 +16,17 @@
 package com.netflix.hystrix.contrib.javanica.cache;
 
 
-import com.netflix.hystrix.contrib.javanica.cache.annotation.CacheKey;
 import com.netflix.hystrix.contrib.javanica.command.MethodExecutionAction;
 import com.netflix.hystrix.contrib.javanica.exception.HystrixCacheKeyGenerationException;
-import org.apache.commons.lang3.StringUtils;
 
 import java.beans.IntrospectionException;
 import java.beans.PropertyDescriptor;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
-import java.util.Arrays;
+import java.lang.reflect.Method;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Generates a {@link HystrixGeneratedCacheKey} based on
@@ -40,6 +40,14 @@ public class HystrixCacheKeyGenerator {
 
     private static final HystrixCacheKeyGenerator INSTANCE = new HystrixCacheKeyGenerator();
 
+    private static final int MAX_CACHED_CACHE_KEY_BUILDER_CAPACITY = 1024;
+
+    /* builder of the current thread, reused by all keys which aren't a single argument */
+    private static final ThreadLocal<StringBuilder> CACHE_KEY_BUILDER = new ThreadLocal<StringBuilder>();
+
+    /* getters of the properties given by CacheKey#value(), by property name and type of the object they are read from */
+    private final ConcurrentMap<PropertyKey, Method> readMethods = new ConcurrentHashMap<PropertyKey, Method>();
+
     public static HystrixCacheKeyGenerator getInstance() {
         return INSTANCE;
     }
@@ -54,23 +62,53 @@ public class HystrixCacheKeyGenerator {
             }
         } else {
             if (cacheInvocationContext.hasKeyParameters()) {
-                StringBuilder cacheKeyBuilder = new StringBuilder();
-                for (CacheInvocationParameter parameter : cacheInvocationContext.getKeyParameters()) {
-                    CacheKey cacheKey = parameter.getCacheKeyAnnotation();
-                    if (cacheKey != null && StringUtils.isNotBlank(cacheKey.value())) {
-                        appendPropertyValue(cacheKeyBuilder, Arrays.asList(StringUtils.split(cacheKey.value(), ".")), parameter.getValue());
-                    } else {
-                        cacheKeyBuilder.append(parameter.getValue());
+                List<CacheInvocationParameter> keyParameters = cacheInvocationContext.getKeyParameters();
+                if (keyParameters.size() == 1 && keyParameters.get(0).getCacheKeyPropertyPath() == null) {
+                    // the most common key is a single argument, which needs no builder
+                    return new DefaultHystrixGeneratedCacheKey(String.valueOf(keyParameters.get(0).getValue()));
+                }
+                StringBuilder cacheKeyBuilder = acquireCacheKeyBuilder();
+                try {
+                    for (CacheInvocationParameter parameter : keyParameters) {
+                        String[] propertyPath = parameter.getCacheKeyPropertyPath();
+                        if (propertyPath != null) {
+                            appendPropertyValue(cacheKeyBuilder, propertyPath, parameter.getValue());
+                        } else {
+                            cacheKeyBuilder.append(parameter.getValue());
+                        }
                     }
+                    return new DefaultHystrixGeneratedCacheKey(cacheKeyBuilder.toString());
+                } finally {
+                    releaseCacheKeyBuilder(cacheKeyBuilder);
                 }
-                return new DefaultHystrixGeneratedCacheKey(cacheKeyBuilder.toString());
             } else {
                 return DefaultHystrixGeneratedCacheKey.EMPTY;
             }
         }
     }
 
-    private Object appendPropertyValue(StringBuilder cacheKeyBuilder, List<String> names, Object obj) throws HystrixCacheKeyGenerationException {
+    /**
+     * Takes the builder of the current thread, or a new one if it is already in use, for instance when generating a key calls
+     * {@link Object#toString()} of an argument which generates a key itself.
+     */
+    private static StringBuilder acquireCacheKeyBuilder() {
+        StringBuilder cacheKeyBuilder = CACHE_KEY_BUILDER.get();
+        if (cacheKeyBuilder == null) {
+            return new StringBuilder();
+        }
+        CACHE_KEY_BUILDER.set(null);
+        return cacheKeyBuilder;
+    }
+
+    private static void releaseCacheKeyBuilder(StringBuilder cacheKeyBuilder) {
+        // don't hold on to the memory of an unusually long key
+        if (cacheKeyBuilder.capacity() <= MAX_CACHED_CACHE_KEY_BUILDER_CAPACITY) {
+            cacheKeyBuilder.setLength(0);
+            CACHE_KEY_BUILDER.set(cacheKeyBuilder);
+        }
+    }
+
+    private Object appendPropertyValue(StringBuilder cacheKeyBuilder, String[] names, Object obj) throws HystrixCacheKeyGenerationException {
         for (String name : names) {
             if (obj != null) {
                 obj = getPropertyValue(name, obj);
@@ -84,8 +122,7 @@ public class HystrixCacheKeyGenerator {
 
     private Object getPropertyValue(String name, Object obj) throws HystrixCacheKeyGenerationException {
         try {
-            return new PropertyDescriptor(name, obj.getClass())
-                    .getReadMethod().invoke(obj);
+            return getReadMethod(name, obj.getClass()).invoke(obj);
         } catch (IllegalAccessException e) {
             throw new HystrixCacheKeyGenerationException(e);
         } catch (IntrospectionException e) {
@@ -95,4 +132,37 @@ public class HystrixCacheKeyGenerator {
         }
     }
 
+    private Method getReadMethod(String name, Class<?> type) throws IntrospectionException {
+        PropertyKey key = new PropertyKey(type, name);
+        Method readMethod = readMethods.get(key);
+        if (readMethod == null) {
+            readMethod = new PropertyDescriptor(name, type).getReadMethod();
+            readMethods.putIfAbsent(key, readMethod);
+        }
+        return readMethod;
+    }
+
+    private static final class PropertyKey {
+        private final Class<?> type;
+        private final String name;
+
+        private PropertyKey(Class<?> type, String name) {
+            this.type = type;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PropertyKey)) return false;
+            PropertyKey that = (PropertyKey) o;
+            return type.equals(that.type) && name.equals(that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type.hashCode() + name.hashCode();
+        }
+    }
+
 }
@@ -45,7 +45,7 @@ public class CommandCollapser extends HystrixCollapser<List<Object>, Object, Obj
      * @param metaHolder the {@link MetaHolder}
      */
     public CommandCollapser(MetaHolder metaHolder) {
-        super(HystrixCommandBuilderFactory.getInstance().create(metaHolder).getSetterBuilder().buildCollapserCommandSetter());
+        super(HystrixCommandBuilderFactory.getInstance().createGenericSetterBuilder(metaHolder).buildCollapserCommandSetter());
         this.metaHolder = metaHolder;
     }
 
@@ -0,0 +1,143 @@
+/**
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.contrib.javanica.collapser;
+
+import com.netflix.hystrix.HystrixCollapser.CollapsedRequest;
+import com.netflix.hystrix.HystrixObservableCollapser;
+import com.netflix.hystrix.HystrixObservableCommand;
+import com.netflix.hystrix.contrib.javanica.command.ExecutionType;
+import com.netflix.hystrix.contrib.javanica.command.GenericObservableCommand;
+import com.netflix.hystrix.contrib.javanica.command.HystrixCommandBuilderFactory;
+import com.netflix.hystrix.contrib.javanica.command.MetaHolder;
+import com.netflix.hystrix.contrib.javanica.command.MethodExecutionAction;
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Func1;
+
+import java.util.Collection;
+
+import static org.slf4j.helpers.MessageFormatter.format;
+
+/**
+ * Collapses multiple requests into a single {@link HystrixObservableCommand} execution whose responses are matched to the requests
+ * by key as they are emitted, see {@link com.netflix.hystrix.contrib.javanica.annotation.HystrixCollapser#responseKeyMethod()}.
+ */
+public class ObservableCommandCollapser extends HystrixObservableCollapser<Object, Object, Object, Object> {
+
+    private static final String MISSING_RESPONSE_MSG = "No response for collapsed request. Collapser key: '{}', argument: '{}'";
+
+    private final MetaHolder metaHolder;
+
+    /* the argument of a request is the array of arguments of the collapser method, which has exactly one */
+    private static final Func1<Object, Object> REQUEST_ARGUMENT_KEY_SELECTOR = new Func1<Object, Object>() {
+        @Override
+        public Object call(Object requestArgument) {
+            return ((Object[]) requestArgument)[0];
+        }
+    };
+
+    private static final Func1<Object, Object> IDENTITY = new Func1<Object, Object>() {
+        @Override
+        public Object call(Object response) {
+            return response;
+        }
+    };
+
+    private final Func1<Object, Object> batchReturnTypeKeySelector;
+
+    /**
+     * Constructor with parameters.
+     *
+     * @param metaHolder the {@link MetaHolder}
+     */
+    public ObservableCommandCollapser(MetaHolder metaHolder) {
+        super(HystrixCommandBuilderFactory.getInstance().createGenericSetterBuilder(metaHolder).buildObservableCollapserCommandSetter());
+        this.metaHolder = metaHolder;
+        // the key method is a plain method of the target, it's never woven
+        MetaHolder keyMetaHolder = MetaHolder.builder()
+                .obj(metaHolder.getObj())
+                .method(metaHolder.getCollapserResponseKeyMethod())
+                .build();
+        final MethodExecutionAction keyAction = new MethodExecutionAction(keyMetaHolder.getObj(),
+                keyMetaHolder.getMethod(), keyMetaHolder);
+        this.batchReturnTypeKeySelector = new Func1<Object, Object>() {
+            @Override
+            public Object call(Object response) {
+                return keyAction.executeWithArgs(ExecutionType.SYNCHRONOUS, new Object[]{response});
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getRequestArgument() {
+        return metaHolder.getArgs();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Every request has exactly one response, so it completes with that response instead of waiting for the end of the batch.
+     */
+    @Override
+    public Observable<Object> toObservable(Scheduler observeOn) {
+        return super.toObservable(observeOn).take(1);
+    }
+
+    /**
+     * Creates batch command.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected HystrixObservableCommand<Object> createCommand(Collection<CollapsedRequest<Object, Object>> collapsedRequests) {
+        return new GenericObservableCommand(HystrixCommandBuilderFactory.getInstance().create(metaHolder, collapsedRequests));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Func1<Object, Object> getBatchReturnTypeKeySelector() {
+        return batchReturnTypeKeySelector;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Func1<Object, Object> getRequestArgumentKeySelector() {
+        return REQUEST_ARGUMENT_KEY_SELECTOR;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onMissingResponse(CollapsedRequest<Object, Object> request) {
+        request.setException(new IllegalStateException(format(MISSING_RESPONSE_MSG, getCollapserKey().name(),
+                REQUEST_ARGUMENT_KEY_SELECTOR.call(request.getArgument())).getMessage()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Func1<Object, Object> getBatchReturnTypeToResponseTypeMapper() {
+        return IDENTITY;
+    }
+}
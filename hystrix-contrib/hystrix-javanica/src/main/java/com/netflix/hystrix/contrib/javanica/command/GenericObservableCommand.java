@@ -16,6 +16,7 @@
 package com.netflix.hystrix.contrib.javanica.command;
 
 
+import com.netflix.hystrix.HystrixCollapser;
 import com.netflix.hystrix.HystrixObservableCommand;
 import com.netflix.hystrix.contrib.javanica.cache.CacheInvocationContext;
 import com.netflix.hystrix.contrib.javanica.cache.HystrixCacheKeyGenerator;
@@ -34,6 +35,8 @@ import rx.Single;
 import rx.functions.Func1;
 
 import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import static com.netflix.hystrix.contrib.javanica.utils.CommonUtils.createArgsForFallback;
@@ -49,6 +52,7 @@ public class GenericObservableCommand extends HystrixObservableCommand {
     private final CacheInvocationContext<CacheRemove> cacheRemoveInvocationContext;
     private final List<Class<? extends Throwable>> ignoreExceptions;
     private final ExecutionType executionType;
+    private final Collection<HystrixCollapser.CollapsedRequest<Object, Object>> collapsedRequests;
     private final HystrixCacheKeyGenerator defaultCacheKeyGenerator = HystrixCacheKeyGenerator.getInstance();
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GenericObservableCommand.class);
@@ -60,6 +64,7 @@ public class GenericObservableCommand extends HystrixObservableCommand {
         this.cacheRemoveInvocationContext = builder.getCacheRemoveInvocationContext();
         this.ignoreExceptions = builder.getIgnoreExceptions();
         this.executionType = builder.getExecutionType();
+        this.collapsedRequests = builder.getCollapsedRequests();
     }
 
     /**
@@ -69,7 +74,7 @@ public class GenericObservableCommand extends HystrixObservableCommand {
     protected Observable construct() {
         Observable result;
         try {
-            Observable observable = toObservable(commandActions.getCommandAction().execute(executionType));
+            Observable observable = toObservable(executeCommandAction());
             result = observable
                     .onErrorResumeNext(new Func1<Throwable, Observable>() {
                         @Override
@@ -103,7 +108,7 @@ public class GenericObservableCommand extends HystrixObservableCommand {
                 cause = cause.getCause();
             }
 
-            Object[] args = createArgsForFallback(metaHolder, cause);
+            Object[] args = isBatch() ? createArgsForFallback(toBatchArgs(), metaHolder, cause) : createArgsForFallback(metaHolder, cause);
             try {
                 Object res = commandActions.getFallbackAction().executeWithArgs(executionType, args);
                 if (res instanceof Observable) {
@@ -165,6 +170,29 @@ public class GenericObservableCommand extends HystrixObservableCommand {
         return false;
     }
 
+    private Object executeCommandAction() {
+        if (isBatch()) {
+            return commandActions.getCommandAction().executeWithArgs(executionType, toBatchArgs());
+        }
+        return commandActions.getCommandAction().execute(executionType);
+    }
+
+    /**
+     * Checks whether this command executes the batch of a streaming collapser, see
+     * {@link com.netflix.hystrix.contrib.javanica.collapser.ObservableCommandCollapser}.
+     */
+    private boolean isBatch() {
+        return collapsedRequests != null && !collapsedRequests.isEmpty();
+    }
+
+    private Object[] toBatchArgs() {
+        List<Object> batchArgs = new ArrayList<Object>(collapsedRequests.size());
+        for (HystrixCollapser.CollapsedRequest<Object, Object> request : collapsedRequests) {
+            batchArgs.add(((Object[]) request.getArgument())[0]);
+        }
+        return new Object[]{batchArgs};
+    }
+
     private Observable toObservable(Object obj) {
         if (Observable.class.isAssignableFrom(obj.getClass())) {
             return (Observable) obj;
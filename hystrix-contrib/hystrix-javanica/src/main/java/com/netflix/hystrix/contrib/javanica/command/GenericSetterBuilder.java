@@ -21,6 +21,7 @@ import com.netflix.hystrix.HystrixCollapserProperties;
 import com.netflix.hystrix.HystrixCommand;
 import com.netflix.hystrix.HystrixCommandGroupKey;
 import com.netflix.hystrix.HystrixCommandKey;
+import com.netflix.hystrix.HystrixObservableCollapser;
 import com.netflix.hystrix.HystrixObservableCommand;
 import com.netflix.hystrix.HystrixThreadPoolKey;
 import com.netflix.hystrix.contrib.javanica.annotation.HystrixProperty;
@@ -35,7 +36,8 @@ import java.util.List;
 import static com.netflix.hystrix.contrib.javanica.conf.HystrixPropertiesManager.initializeCollapserProperties;
 
 /**
- * Builder for Hystrix Setters: {@link HystrixCommand.Setter}, {@link HystrixObservableCommand.Setter}, {@link HystrixCollapser.Setter}.
+ * Builder for Hystrix Setters: {@link HystrixCommand.Setter}, {@link HystrixObservableCommand.Setter}, {@link HystrixCollapser.Setter},
+ * {@link HystrixObservableCollapser.Setter}.
  */
 @Immutable
 public class GenericSetterBuilder {
@@ -49,6 +51,12 @@ public class GenericSetterBuilder {
     private List<HystrixProperty> collapserProperties = Collections.emptyList();
     private List<HystrixProperty> threadPoolProperties = Collections.emptyList();
 
+    /* setters only depend on the values above, so they are built once and shared by all commands of this builder */
+    private volatile HystrixCommand.Setter commandSetter;
+    private volatile HystrixObservableCommand.Setter observableCommandSetter;
+    private volatile HystrixCollapser.Setter collapserSetter;
+    private volatile HystrixObservableCollapser.Setter observableCollapserSetter;
+
     public GenericSetterBuilder(Builder builder) {
         this.groupKey = builder.groupKey;
         this.commandKey = builder.commandKey;
@@ -66,11 +74,47 @@ public class GenericSetterBuilder {
 
 
     /**
-     * Creates instance of {@link HystrixCommand.Setter}.
+     * Gets instance of {@link HystrixCommand.Setter}, creating it on first use.
      *
      * @return the instance of {@link HystrixCommand.Setter}
      */
     public HystrixCommand.Setter build() throws HystrixPropertyException {
+        HystrixCommand.Setter setter = commandSetter;
+        if (setter == null) {
+            setter = createCommandSetter();
+            commandSetter = setter;
+        }
+        return setter;
+    }
+
+    public HystrixObservableCommand.Setter buildObservableCommandSetter() {
+        HystrixObservableCommand.Setter setter = observableCommandSetter;
+        if (setter == null) {
+            setter = createObservableCommandSetter();
+            observableCommandSetter = setter;
+        }
+        return setter;
+    }
+
+    public HystrixCollapser.Setter buildCollapserCommandSetter() {
+        HystrixCollapser.Setter setter = collapserSetter;
+        if (setter == null) {
+            setter = createCollapserCommandSetter();
+            collapserSetter = setter;
+        }
+        return setter;
+    }
+
+    public HystrixObservableCollapser.Setter buildObservableCollapserCommandSetter() {
+        HystrixObservableCollapser.Setter setter = observableCollapserSetter;
+        if (setter == null) {
+            setter = createObservableCollapserCommandSetter();
+            observableCollapserSetter = setter;
+        }
+        return setter;
+    }
+
+    private HystrixCommand.Setter createCommandSetter() throws HystrixPropertyException {
         HystrixCommand.Setter setter = HystrixCommand.Setter
                 .withGroupKey(HystrixCommandGroupKey.Factory.asKey(groupKey))
                 .andCommandKey(HystrixCommandKey.Factory.asKey(commandKey));
@@ -91,7 +135,7 @@ public class GenericSetterBuilder {
     }
 
     // todo dmgcodevil: it would be better to reuse the code from build() method
-    public HystrixObservableCommand.Setter buildObservableCommandSetter() {
+    private HystrixObservableCommand.Setter createObservableCommandSetter() {
         HystrixObservableCommand.Setter setter = HystrixObservableCommand.Setter
                 .withGroupKey(HystrixCommandGroupKey.Factory.asKey(groupKey))
                 .andCommandKey(HystrixCommandKey.Factory.asKey(commandKey));
@@ -103,12 +147,24 @@ public class GenericSetterBuilder {
         return setter;
     }
 
-    public HystrixCollapser.Setter buildCollapserCommandSetter(){
+    private HystrixCollapser.Setter createCollapserCommandSetter() {
         HystrixCollapserProperties.Setter propSetter = initializeCollapserProperties(collapserProperties);
         return HystrixCollapser.Setter.withCollapserKey(HystrixCollapserKey.Factory.asKey(collapserKey)).andScope(scope)
                 .andCollapserPropertiesDefaults(propSetter);
     }
 
+    private HystrixObservableCollapser.Setter createObservableCollapserCommandSetter() {
+        HystrixCollapserProperties.Setter propSetter = initializeCollapserProperties(collapserProperties);
+        HystrixObservableCollapser.Setter setter = HystrixObservableCollapser.Setter
+                .withCollapserKey(HystrixCollapserKey.Factory.asKey(collapserKey))
+                .andCollapserPropertiesDefaults(propSetter);
+        if (scope != null) {
+            // both collapsers have the same scopes, but in different enums
+            setter.andScope(HystrixObservableCollapser.Scope.valueOf(scope.name()));
+        }
+        return setter;
+    }
+
     private String getInfo() {
         return "groupKey: '" + groupKey + "', commandKey: '" + commandKey + "', threadPoolKey: '" + threadPoolKey + "'";
     }
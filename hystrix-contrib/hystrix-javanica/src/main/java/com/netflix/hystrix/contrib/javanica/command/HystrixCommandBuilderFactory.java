@@ -24,9 +24,12 @@ import org.apache.commons.lang3.Validate;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static com.netflix.hystrix.contrib.javanica.cache.CacheInvocationContextFactory.createCacheRemoveInvocationContext;
 import static com.netflix.hystrix.contrib.javanica.cache.CacheInvocationContextFactory.createCacheResultInvocationContext;
+import static com.netflix.hystrix.contrib.javanica.utils.AopUtils.makeAccessible;
 import static com.netflix.hystrix.contrib.javanica.utils.EnvUtils.isCompileWeaving;
 import static com.netflix.hystrix.contrib.javanica.utils.ajc.AjcUtils.getAjcMethodAroundAdvice;
 
@@ -35,10 +38,11 @@ import static com.netflix.hystrix.contrib.javanica.utils.ajc.AjcUtils.getAjcMeth
  */
 public class HystrixCommandBuilderFactory {
 
-    // todo Add Cache
-
     private static final HystrixCommandBuilderFactory INSTANCE = new HystrixCommandBuilderFactory();
 
+    /* fallback methods found and validated for a command method of a class */
+    private final ConcurrentMap<FallbackKey, FallbackMethod> fallbackMethods = new ConcurrentHashMap<FallbackKey, FallbackMethod>();
+
     public static HystrixCommandBuilderFactory getInstance() {
         return INSTANCE;
     }
@@ -70,7 +74,16 @@ public class HystrixCommandBuilderFactory {
         Validate.isTrue(metaHolder.isCommandAnnotationPresent(), "hystrixCommand annotation is absent");
     }
 
-    private GenericSetterBuilder createGenericSetterBuilder(MetaHolder metaHolder) {
+    /**
+     * Gets the setter builder of the given meta holder, creating it if it wasn't resolved in advance.
+     *
+     * @param metaHolder the meta holder
+     * @return the setter builder for the command or collapser of the given meta holder
+     */
+    public GenericSetterBuilder createGenericSetterBuilder(MetaHolder metaHolder) {
+        if (metaHolder.getSetterBuilder() != null) {
+            return metaHolder.getSetterBuilder();
+        }
         GenericSetterBuilder.Builder setterBuilder = GenericSetterBuilder.builder()
                 .groupKey(metaHolder.getCommandGroupKey())
                 .threadPoolKey(metaHolder.getThreadPoolKey())
@@ -98,16 +111,14 @@ public class HystrixCommandBuilderFactory {
 
     private CommandAction createFallbackAction(MetaHolder metaHolder) {
 
-        FallbackMethod fallbackMethod = MethodProvider.getInstance().getFallbackMethod(metaHolder.getObj().getClass(),
-                metaHolder.getMethod(), metaHolder.isExtendedFallback());
-        fallbackMethod.validateReturnType(metaHolder.getMethod());
+        FallbackMethod fallbackMethod = getFallbackMethod(metaHolder.getObj().getClass(), metaHolder.getMethod(), metaHolder.isExtendedFallback());
         CommandAction fallbackAction = null;
         if (fallbackMethod.isPresent()) {
 
             Method fMethod = fallbackMethod.getMethod();
             Object[] args = fallbackMethod.isDefault() ? new Object[0] : metaHolder.getArgs();
             if (fallbackMethod.isCommand()) {
-                fMethod.setAccessible(true);
+                makeAccessible(fMethod);
                 HystrixCommand hystrixCommand = fMethod.getAnnotation(HystrixCommand.class);
                 MetaHolder fmMetaHolder = MetaHolder.builder()
                         .obj(metaHolder.getObj())
@@ -148,6 +159,18 @@ public class HystrixCommandBuilderFactory {
         return fallbackAction;
     }
 
+    private FallbackMethod getFallbackMethod(Class<?> enclosingType, Method commandMethod, boolean extended) {
+        FallbackKey key = new FallbackKey(enclosingType, commandMethod, extended);
+        FallbackMethod fallbackMethod = fallbackMethods.get(key);
+        if (fallbackMethod == null) {
+            fallbackMethod = MethodProvider.getInstance().getFallbackMethod(enclosingType, commandMethod, extended);
+            // only valid fallbacks are cached, so that an invalid one keeps failing every call
+            fallbackMethod.validateReturnType(commandMethod);
+            fallbackMethods.putIfAbsent(key, fallbackMethod);
+        }
+        return fallbackMethod;
+    }
+
     private Method getAjcMethod(Object target, Method fallback) {
         if (isCompileWeaving()) {
             return getAjcMethodAroundAdvice(target.getClass(), fallback);
@@ -155,4 +178,32 @@ public class HystrixCommandBuilderFactory {
         return null;
     }
 
+    private static final class FallbackKey {
+        private final Class<?> enclosingType;
+        private final Method commandMethod;
+        private final boolean extended;
+
+        private FallbackKey(Class<?> enclosingType, Method commandMethod, boolean extended) {
+            this.enclosingType = enclosingType;
+            this.commandMethod = commandMethod;
+            this.extended = extended;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof FallbackKey)) return false;
+            FallbackKey that = (FallbackKey) o;
+            return extended == that.extended && enclosingType.equals(that.enclosingType) && commandMethod.equals(that.commandMethod);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = enclosingType.hashCode();
+            result = 31 * result + commandMethod.hashCode();
+            result = 31 * result + (extended ? 1 : 0);
+            return result;
+        }
+    }
+
 }
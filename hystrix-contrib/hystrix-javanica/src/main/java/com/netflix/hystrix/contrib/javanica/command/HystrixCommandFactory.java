@@ -17,6 +17,7 @@ package com.netflix.hystrix.contrib.javanica.command;
 
 import com.netflix.hystrix.HystrixInvokable;
 import com.netflix.hystrix.contrib.javanica.collapser.CommandCollapser;
+import com.netflix.hystrix.contrib.javanica.collapser.ObservableCommandCollapser;
 
 /**
  * Created by dmgcodevil.
@@ -36,7 +37,11 @@ public class HystrixCommandFactory {
     public HystrixInvokable create(MetaHolder metaHolder) {
         HystrixInvokable executable;
         if (metaHolder.isCollapserAnnotationPresent()) {
-            executable = new CommandCollapser(metaHolder);
+            if (metaHolder.getCollapserResponseKeyMethod() != null) {
+                executable = new ObservableCommandCollapser(metaHolder);
+            } else {
+                executable = new CommandCollapser(metaHolder);
+            }
         } else if (metaHolder.isObservable()) {
             executable = new GenericObservableCommand(HystrixCommandBuilderFactory.getInstance().create(metaHolder));
         } else {
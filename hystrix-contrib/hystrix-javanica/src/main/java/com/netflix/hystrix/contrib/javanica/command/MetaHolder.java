@@ -45,6 +45,7 @@ public final class MetaHolder {
 
     private final Method method;
     private final Method cacheKeyMethod;
+    private final Method collapserResponseKeyMethod;
     private final Method ajcMethod;
     private final Method fallbackMethod;
     private final Object obj;
@@ -65,6 +66,7 @@ public final class MetaHolder {
     private final JoinPoint joinPoint;
     private final boolean observable;
     private final ObservableExecutionMode observableExecutionMode;
+    private final GenericSetterBuilder setterBuilder;
 
     private static final Function identityFun = new Function<Object, Object>() {
         @Nullable
@@ -78,6 +80,7 @@ public final class MetaHolder {
         this.hystrixCommand = builder.hystrixCommand;
         this.method = builder.method;
         this.cacheKeyMethod = builder.cacheKeyMethod;
+        this.collapserResponseKeyMethod = builder.collapserResponseKeyMethod;
         this.fallbackMethod = builder.fallbackMethod;
         this.ajcMethod = builder.ajcMethod;
         this.obj = builder.obj;
@@ -100,12 +103,52 @@ public final class MetaHolder {
         this.extendedParentFallback = builder.extendedParentFallback;
         this.observable = builder.observable;
         this.observableExecutionMode = builder.observableExecutionMode;
+        this.setterBuilder = builder.setterBuilder;
     }
 
     public static Builder builder() {
         return new Builder();
     }
 
+    /**
+     * Creates a builder initialized with all values of the given meta holder, for instance to bind a template that was resolved once per
+     * method to the target and arguments of a call.
+     *
+     * @param metaHolder the meta holder to copy
+     * @return new builder
+     */
+    public static Builder builder(MetaHolder metaHolder) {
+        Builder builder = new Builder();
+        builder.hystrixCollapser = metaHolder.hystrixCollapser;
+        builder.hystrixCommand = metaHolder.hystrixCommand;
+        builder.defaultProperties = metaHolder.defaultProperties;
+        builder.method = metaHolder.method;
+        builder.cacheKeyMethod = metaHolder.cacheKeyMethod;
+        builder.collapserResponseKeyMethod = metaHolder.collapserResponseKeyMethod;
+        builder.fallbackMethod = metaHolder.fallbackMethod;
+        builder.ajcMethod = metaHolder.ajcMethod;
+        builder.obj = metaHolder.obj;
+        builder.proxyObj = metaHolder.proxyObj;
+        builder.closure = metaHolder.closure;
+        builder.args = metaHolder.args;
+        builder.defaultGroupKey = metaHolder.defaultGroupKey;
+        builder.defaultCommandKey = metaHolder.defaultCommandKey;
+        builder.defaultCollapserKey = metaHolder.defaultCollapserKey;
+        builder.defaultThreadPoolKey = metaHolder.defaultThreadPoolKey;
+        builder.executionType = metaHolder.executionType;
+        builder.collapserExecutionType = metaHolder.collapserExecutionType;
+        builder.fallbackExecutionType = metaHolder.fallbackExecutionType;
+        builder.extendedFallback = metaHolder.extendedFallback;
+        builder.fallback = metaHolder.fallback;
+        builder.extendedParentFallback = metaHolder.extendedParentFallback;
+        builder.defaultFallback = metaHolder.defaultFallback;
+        builder.observable = metaHolder.observable;
+        builder.joinPoint = metaHolder.joinPoint;
+        builder.observableExecutionMode = metaHolder.observableExecutionMode;
+        builder.setterBuilder = metaHolder.setterBuilder;
+        return builder;
+    }
+
     public HystrixCollapser getHystrixCollapser() {
         return hystrixCollapser;
     }
@@ -122,6 +165,14 @@ public final class MetaHolder {
         return cacheKeyMethod;
     }
 
+    /**
+     * @return the method mapping a response of a streaming batch command to its collapser argument, or null if the collapser
+     * isn't streaming, see {@link HystrixCollapser#responseKeyMethod()}
+     */
+    public Method getCollapserResponseKeyMethod() {
+        return collapserResponseKeyMethod;
+    }
+
     public Method getAjcMethod() {
         return ajcMethod;
     }
@@ -302,6 +353,13 @@ public final class MetaHolder {
         return observableExecutionMode;
     }
 
+    /**
+     * @return the setter builder resolved in advance for the method of this meta holder, or null if it must be created from this meta holder
+     */
+    public GenericSetterBuilder getSetterBuilder() {
+        return setterBuilder;
+    }
+
     public boolean raiseHystrixExceptionsContains(HystrixException hystrixException) {
         return getRaiseHystrixExceptions().contains(hystrixException);
     }
@@ -358,6 +416,7 @@ public final class MetaHolder {
         private DefaultProperties defaultProperties;
         private Method method;
         private Method cacheKeyMethod;
+        private Method collapserResponseKeyMethod;
         private Method fallbackMethod;
         private Method ajcMethod;
         private Object obj;
@@ -378,6 +437,7 @@ public final class MetaHolder {
         private boolean observable;
         private JoinPoint joinPoint;
         private ObservableExecutionMode observableExecutionMode;
+        private GenericSetterBuilder setterBuilder;
 
         public Builder hystrixCollapser(HystrixCollapser hystrixCollapser) {
             this.hystrixCollapser = hystrixCollapser;
@@ -399,6 +459,11 @@ public final class MetaHolder {
             return this;
         }
 
+        public Builder collapserResponseKeyMethod(Method collapserResponseKeyMethod) {
+            this.collapserResponseKeyMethod = collapserResponseKeyMethod;
+            return this;
+        }
+
         public Builder fallbackMethod(Method fallbackMethod) {
             this.fallbackMethod = fallbackMethod;
             return this;
@@ -504,6 +569,11 @@ public final class MetaHolder {
             return this;
         }
 
+        public Builder setterBuilder(GenericSetterBuilder setterBuilder) {
+            this.setterBuilder = setterBuilder;
+            return this;
+        }
+
         public MetaHolder build() {
             return new MetaHolder(this);
         }
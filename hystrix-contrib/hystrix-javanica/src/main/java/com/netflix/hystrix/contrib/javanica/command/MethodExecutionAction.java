@@ -24,6 +24,7 @@ import com.netflix.hystrix.contrib.javanica.exception.ExceptionUtils;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
+import static com.netflix.hystrix.contrib.javanica.utils.AopUtils.makeAccessible;
 import static com.netflix.hystrix.contrib.javanica.utils.EnvUtils.isCompileWeaving;
 import static com.netflix.hystrix.contrib.javanica.utils.ajc.AjcUtils.invokeAjcMethod;
 
@@ -109,7 +110,7 @@ public class MethodExecutionAction implements CommandAction {
     private Object execute(Object o, Method m, Object... args) throws CommandActionExecutionException {
         Object result = null;
         try {
-            m.setAccessible(true); // suppress Java language access
+            makeAccessible(m); // suppress Java language access
             if (isCompileWeaving() && metaHolder.getAjcMethod() != null) {
                 result = invokeAjcMethod(metaHolder.getAjcMethod(), o, metaHolder, args);
             } else {
@@ -126,7 +127,7 @@ public class MethodExecutionAction implements CommandAction {
     private Object executeClj(Object o, Method m, Object... args){
         Object result = null;
         try {
-            m.setAccessible(true); // suppress Java language access
+            makeAccessible(m); // suppress Java language access
             result = m.invoke(o, args);
         } catch (IllegalAccessException e) {
             propagateCause(e);
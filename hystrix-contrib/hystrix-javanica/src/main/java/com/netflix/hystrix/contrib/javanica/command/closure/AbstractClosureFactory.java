@@ -22,6 +22,7 @@ import com.netflix.hystrix.contrib.javanica.command.MetaHolder;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
+import static com.netflix.hystrix.contrib.javanica.utils.AopUtils.makeAccessible;
 import static com.netflix.hystrix.contrib.javanica.utils.EnvUtils.isCompileWeaving;
 import static com.netflix.hystrix.contrib.javanica.utils.ajc.AjcUtils.invokeAjcMethod;
 import static org.slf4j.helpers.MessageFormatter.format;
@@ -38,7 +39,7 @@ public abstract class AbstractClosureFactory implements ClosureFactory {
     public Closure createClosure(MetaHolder metaHolder, Method method, Object o, Object... args) {
         try {
             Object closureObj;
-            method.setAccessible(true);
+            makeAccessible(method);
             if (isCompileWeaving()) {
                 closureObj = invokeAjcMethod(metaHolder.getAjcMethod(), o, metaHolder, args);
             } else {
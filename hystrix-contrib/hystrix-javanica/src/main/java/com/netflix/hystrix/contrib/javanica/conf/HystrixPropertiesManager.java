@@ -42,12 +42,16 @@ public final class HystrixPropertiesManager {
     public static final String EXECUTION_TIMEOUT_ENABLED = "execution.timeout.enabled";
     public static final String EXECUTION_ISOLATION_THREAD_INTERRUPT_ON_TIMEOUT = "execution.isolation.thread.interruptOnTimeout";
     public static final String EXECUTION_ISOLATION_SEMAPHORE_MAX_CONCURRENT_REQUESTS = "execution.isolation.semaphore.maxConcurrentRequests";
+    public static final String EXECUTION_ISOLATION_SEMAPHORE_ADAPTIVE_LIMIT_ENABLED = "execution.isolation.semaphore.adaptiveLimit.enabled";
 
     /**
      * Command fallback properties.
      */
     public static final String FALLBACK_ISOLATION_SEMAPHORE_MAX_CONCURRENT_REQUESTS = "fallback.isolation.semaphore.maxConcurrentRequests";
     public static final String FALLBACK_ENABLED = "fallback.enabled";
+    public static final String FALLBACK_STALE_ENABLED = "fallback.stale.enabled";
+    public static final String FALLBACK_STALE_MAX_SIZE = "fallback.stale.maxSize";
+    public static final String FALLBACK_STALE_MAX_AGE_IN_MILLISECONDS = "fallback.stale.maxAgeInMilliseconds";
 
     /**
      * Command circuit breaker properties.
@@ -56,6 +60,7 @@ public final class HystrixPropertiesManager {
     public static final String CIRCUIT_BREAKER_REQUEST_VOLUME_THRESHOLD = "circuitBreaker.requestVolumeThreshold";
     public static final String CIRCUIT_BREAKER_SLEEP_WINDOW_IN_MILLISECONDS = "circuitBreaker.sleepWindowInMilliseconds";
     public static final String CIRCUIT_BREAKER_ERROR_THRESHOLD_PERCENTAGE = "circuitBreaker.errorThresholdPercentage";
+    public static final String CIRCUIT_BREAKER_SLIDING_WINDOW_SIZE = "circuitBreaker.slidingWindowSize";
     public static final String CIRCUIT_BREAKER_FORCE_OPEN = "circuitBreaker.forceOpen";
     public static final String CIRCUIT_BREAKER_FORCE_CLOSED = "circuitBreaker.forceClosed";
 
@@ -66,13 +71,18 @@ public final class HystrixPropertiesManager {
     public static final String METRICS_ROLLING_PERCENTILE_TIME_IN_MILLISECONDS = "metrics.rollingPercentile.timeInMilliseconds";
     public static final String METRICS_ROLLING_PERCENTILE_NUM_BUCKETS = "metrics.rollingPercentile.numBuckets";
     public static final String METRICS_ROLLING_PERCENTILE_BUCKET_SIZE = "metrics.rollingPercentile.bucketSize";
+    public static final String METRICS_ROLLING_PERCENTILE_INCREMENTAL_ENABLED = "metrics.rollingPercentile.incremental.enabled";
     public static final String METRICS_HEALTH_SNAPSHOT_INTERVAL_IN_MILLISECONDS = "metrics.healthSnapshot.intervalInMilliseconds";
 
     /**
      * Command CommandRequest Context properties.
      */
     public static final String REQUEST_CACHE_ENABLED = "requestCache.enabled";
+    public static final String REQUEST_CACHE_GLOBAL_ENABLED = "requestCache.global.enabled";
+    public static final String REQUEST_CACHE_GLOBAL_MAX_SIZE = "requestCache.global.maxSize";
+    public static final String REQUEST_CACHE_GLOBAL_TTL_IN_MILLISECONDS = "requestCache.global.ttlInMilliseconds";
     public static final String REQUEST_LOG_ENABLED = "requestLog.enabled";
+    public static final String REQUEST_LOG_SUMMARY_ENABLED = "requestLog.summary.enabled";
 
     /**
      * Thread pool properties.
@@ -81,6 +91,8 @@ public final class HystrixPropertiesManager {
     public static final String CORE_SIZE = "coreSize";
     public static final String MAXIMUM_SIZE = "maximumSize";
     public static final String ALLOW_MAXIMUM_SIZE_TO_DIVERGE_FROM_CORE_SIZE = "allowMaximumSizeToDivergeFromCoreSize";
+    public static final String ADAPTIVE_LIMIT_ENABLED = "adaptiveLimit.enabled";
+    public static final String LOCK_FREE_QUEUE_ENABLED = "lockFreeQueue.enabled";
     public static final String KEEP_ALIVE_TIME_MINUTES = "keepAliveTimeMinutes";
     public static final String QUEUE_SIZE_REJECTION_THRESHOLD = "queueSizeRejectionThreshold";
     public static final String METRICS_ROLLING_STATS_NUM_BUCKETS = "metrics.rollingStats.numBuckets";
@@ -91,6 +103,13 @@ public final class HystrixPropertiesManager {
      */
     public static final String MAX_REQUESTS_IN_BATCH = "maxRequestsInBatch";
     public static final String TIMER_DELAY_IN_MILLISECONDS = "timerDelayInMilliseconds";
+    public static final String ADAPTIVE_TIMER_DELAY_ENABLED = "adaptiveTimerDelay.enabled";
+    public static final String ADAPTIVE_TIMER_DELAY_MIN_IN_MILLISECONDS = "adaptiveTimerDelay.minInMilliseconds";
+    public static final String ADAPTIVE_TIMER_DELAY_MAX_IN_MILLISECONDS = "adaptiveTimerDelay.maxInMilliseconds";
+    public static final String ADAPTIVE_TIMER_DELAY_TARGET_BATCH_SIZE = "adaptiveTimerDelay.targetBatchSize";
+    public static final String ADAPTIVE_TIMER_DELAY_LATENCY_BUDGET_IN_MILLISECONDS = "adaptiveTimerDelay.latencyBudgetInMilliseconds";
+    public static final String EARLY_DISPATCH_ENABLED = "earlyDispatch.enabled";
+    public static final String MAX_WEIGHT_IN_BATCH = "maxWeightInBatch";
 
     /**
      * Creates and sets Hystrix command properties.
@@ -170,6 +189,12 @@ public final class HystrixPropertiesManager {
                             setter.withExecutionIsolationSemaphoreMaxConcurrentRequests(toInt(EXECUTION_ISOLATION_SEMAPHORE_MAX_CONCURRENT_REQUESTS, value));
                         }
                     })
+                    .put(EXECUTION_ISOLATION_SEMAPHORE_ADAPTIVE_LIMIT_ENABLED, new PropSetter<HystrixCommandProperties.Setter, String>() {
+                        @Override
+                        public void set(HystrixCommandProperties.Setter setter, String value) throws IllegalArgumentException {
+                            setter.withExecutionIsolationSemaphoreAdaptiveLimitEnabled(toBoolean(value));
+                        }
+                    })
                     .put(FALLBACK_ISOLATION_SEMAPHORE_MAX_CONCURRENT_REQUESTS, new PropSetter<HystrixCommandProperties.Setter, String>() {
                         @Override
                         public void set(HystrixCommandProperties.Setter setter, String value) throws IllegalArgumentException {
@@ -182,6 +207,24 @@ public final class HystrixPropertiesManager {
                             setter.withFallbackEnabled(toBoolean(value));
                         }
                     })
+                    .put(FALLBACK_STALE_ENABLED, new PropSetter<HystrixCommandProperties.Setter, String>() {
+                        @Override
+                        public void set(HystrixCommandProperties.Setter setter, String value) throws IllegalArgumentException {
+                            setter.withFallbackStaleEnabled(toBoolean(value));
+                        }
+                    })
+                    .put(FALLBACK_STALE_MAX_SIZE, new PropSetter<HystrixCommandProperties.Setter, String>() {
+                        @Override
+                        public void set(HystrixCommandProperties.Setter setter, String value) throws IllegalArgumentException {
+                            setter.withFallbackStaleMaxSize(toInt(FALLBACK_STALE_MAX_SIZE, value));
+                        }
+                    })
+                    .put(FALLBACK_STALE_MAX_AGE_IN_MILLISECONDS, new PropSetter<HystrixCommandProperties.Setter, String>() {
+                        @Override
+                        public void set(HystrixCommandProperties.Setter setter, String value) throws IllegalArgumentException {
+                            setter.withFallbackStaleMaxAgeInMilliseconds(toInt(FALLBACK_STALE_MAX_AGE_IN_MILLISECONDS, value));
+                        }
+                    })
                     .put(CIRCUIT_BREAKER_ENABLED, new PropSetter<HystrixCommandProperties.Setter, String>() {
                         @Override
                         public void set(HystrixCommandProperties.Setter setter, String value) throws IllegalArgumentException {
@@ -200,6 +243,12 @@ public final class HystrixPropertiesManager {
                             setter.withCircuitBreakerSleepWindowInMilliseconds(toInt(CIRCUIT_BREAKER_SLEEP_WINDOW_IN_MILLISECONDS, value));
                         }
                     })
+                    .put(CIRCUIT_BREAKER_SLIDING_WINDOW_SIZE, new PropSetter<HystrixCommandProperties.Setter, String>() {
+                        @Override
+                        public void set(HystrixCommandProperties.Setter setter, String value) throws IllegalArgumentException {
+                            setter.withCircuitBreakerSlidingWindowSize(toInt(CIRCUIT_BREAKER_SLIDING_WINDOW_SIZE, value));
+                        }
+                    })
                     .put(CIRCUIT_BREAKER_ERROR_THRESHOLD_PERCENTAGE, new PropSetter<HystrixCommandProperties.Setter, String>() {
                         @Override
                         public void set(HystrixCommandProperties.Setter setter, String value) throws IllegalArgumentException {
@@ -254,6 +303,12 @@ public final class HystrixPropertiesManager {
                             setter.withMetricsRollingPercentileBucketSize(toInt(METRICS_ROLLING_PERCENTILE_BUCKET_SIZE, value));
                         }
                     })
+                    .put(METRICS_ROLLING_PERCENTILE_INCREMENTAL_ENABLED, new PropSetter<HystrixCommandProperties.Setter, String>() {
+                        @Override
+                        public void set(HystrixCommandProperties.Setter setter, String value) throws IllegalArgumentException {
+                            setter.withMetricsRollingPercentileIncrementalEnabled(toBoolean(value));
+                        }
+                    })
                     .put(METRICS_HEALTH_SNAPSHOT_INTERVAL_IN_MILLISECONDS, new PropSetter<HystrixCommandProperties.Setter, String>() {
                         @Override
                         public void set(HystrixCommandProperties.Setter setter, String value) throws IllegalArgumentException {
@@ -266,12 +321,36 @@ public final class HystrixPropertiesManager {
                             setter.withRequestCacheEnabled(toBoolean(value));
                         }
                     })
+                    .put(REQUEST_CACHE_GLOBAL_ENABLED, new PropSetter<HystrixCommandProperties.Setter, String>() {
+                        @Override
+                        public void set(HystrixCommandProperties.Setter setter, String value) throws IllegalArgumentException {
+                            setter.withRequestCacheGlobalEnabled(toBoolean(value));
+                        }
+                    })
+                    .put(REQUEST_CACHE_GLOBAL_MAX_SIZE, new PropSetter<HystrixCommandProperties.Setter, String>() {
+                        @Override
+                        public void set(HystrixCommandProperties.Setter setter, String value) throws IllegalArgumentException {
+                            setter.withRequestCacheGlobalMaxSize(toInt(REQUEST_CACHE_GLOBAL_MAX_SIZE, value));
+                        }
+                    })
+                    .put(REQUEST_CACHE_GLOBAL_TTL_IN_MILLISECONDS, new PropSetter<HystrixCommandProperties.Setter, String>() {
+                        @Override
+                        public void set(HystrixCommandProperties.Setter setter, String value) throws IllegalArgumentException {
+                            setter.withRequestCacheGlobalTtlInMilliseconds(toInt(REQUEST_CACHE_GLOBAL_TTL_IN_MILLISECONDS, value));
+                        }
+                    })
                     .put(REQUEST_LOG_ENABLED, new PropSetter<HystrixCommandProperties.Setter, String>() {
                         @Override
                         public void set(HystrixCommandProperties.Setter setter, String value) throws IllegalArgumentException {
                             setter.withRequestLogEnabled(toBoolean(value));
                         }
                     })
+                    .put(REQUEST_LOG_SUMMARY_ENABLED, new PropSetter<HystrixCommandProperties.Setter, String>() {
+                        @Override
+                        public void set(HystrixCommandProperties.Setter setter, String value) throws IllegalArgumentException {
+                            setter.withRequestLogSummaryEnabled(toBoolean(value));
+                        }
+                    })
                     .build();
 
 
@@ -303,6 +382,18 @@ public final class HystrixPropertiesManager {
                             setter.withAllowMaximumSizeToDivergeFromCoreSize(toBoolean(value));
                         }
                     })
+                    .put(ADAPTIVE_LIMIT_ENABLED, new PropSetter<HystrixThreadPoolProperties.Setter, String>() {
+                        @Override
+                        public void set(HystrixThreadPoolProperties.Setter setter, String value) throws IllegalArgumentException {
+                            setter.withAdaptiveLimitEnabled(toBoolean(value));
+                        }
+                    })
+                    .put(LOCK_FREE_QUEUE_ENABLED, new PropSetter<HystrixThreadPoolProperties.Setter, String>() {
+                        @Override
+                        public void set(HystrixThreadPoolProperties.Setter setter, String value) throws IllegalArgumentException {
+                            setter.withLockFreeQueueEnabled(toBoolean(value));
+                        }
+                    })
                     .put(KEEP_ALIVE_TIME_MINUTES, new PropSetter<HystrixThreadPoolProperties.Setter, String>() {
                                 @Override
                                 public void set(HystrixThreadPoolProperties.Setter setter, String value) {
@@ -349,6 +440,48 @@ public final class HystrixPropertiesManager {
                                 }
                             }
                     )
+                    .put(ADAPTIVE_TIMER_DELAY_ENABLED, new PropSetter<HystrixCollapserProperties.Setter, String>() {
+                        @Override
+                        public void set(HystrixCollapserProperties.Setter setter, String value) throws IllegalArgumentException {
+                            setter.withAdaptiveTimerDelayEnabled(toBoolean(value));
+                        }
+                    })
+                    .put(ADAPTIVE_TIMER_DELAY_MIN_IN_MILLISECONDS, new PropSetter<HystrixCollapserProperties.Setter, String>() {
+                        @Override
+                        public void set(HystrixCollapserProperties.Setter setter, String value) throws IllegalArgumentException {
+                            setter.withAdaptiveTimerDelayMinInMilliseconds(toInt(ADAPTIVE_TIMER_DELAY_MIN_IN_MILLISECONDS, value));
+                        }
+                    })
+                    .put(ADAPTIVE_TIMER_DELAY_MAX_IN_MILLISECONDS, new PropSetter<HystrixCollapserProperties.Setter, String>() {
+                        @Override
+                        public void set(HystrixCollapserProperties.Setter setter, String value) throws IllegalArgumentException {
+                            setter.withAdaptiveTimerDelayMaxInMilliseconds(toInt(ADAPTIVE_TIMER_DELAY_MAX_IN_MILLISECONDS, value));
+                        }
+                    })
+                    .put(ADAPTIVE_TIMER_DELAY_TARGET_BATCH_SIZE, new PropSetter<HystrixCollapserProperties.Setter, String>() {
+                        @Override
+                        public void set(HystrixCollapserProperties.Setter setter, String value) throws IllegalArgumentException {
+                            setter.withAdaptiveTimerDelayTargetBatchSize(toInt(ADAPTIVE_TIMER_DELAY_TARGET_BATCH_SIZE, value));
+                        }
+                    })
+                    .put(ADAPTIVE_TIMER_DELAY_LATENCY_BUDGET_IN_MILLISECONDS, new PropSetter<HystrixCollapserProperties.Setter, String>() {
+                        @Override
+                        public void set(HystrixCollapserProperties.Setter setter, String value) throws IllegalArgumentException {
+                            setter.withAdaptiveTimerDelayLatencyBudgetInMilliseconds(toInt(ADAPTIVE_TIMER_DELAY_LATENCY_BUDGET_IN_MILLISECONDS, value));
+                        }
+                    })
+                    .put(EARLY_DISPATCH_ENABLED, new PropSetter<HystrixCollapserProperties.Setter, String>() {
+                        @Override
+                        public void set(HystrixCollapserProperties.Setter setter, String value) throws IllegalArgumentException {
+                            setter.withEarlyDispatchEnabled(toBoolean(value));
+                        }
+                    })
+                    .put(MAX_WEIGHT_IN_BATCH, new PropSetter<HystrixCollapserProperties.Setter, String>() {
+                        @Override
+                        public void set(HystrixCollapserProperties.Setter setter, String value) throws IllegalArgumentException {
+                            setter.withMaxWeightInBatch(toInt(MAX_WEIGHT_IN_BATCH, value));
+                        }
+                    })
                     .put(METRICS_ROLLING_STATS_TIME_IN_MILLISECONDS, new PropSetter<HystrixCollapserProperties.Setter, String>() {
                         @Override
                         public void set(HystrixCollapserProperties.Setter setter, String value) throws IllegalArgumentException {
@@ -36,6 +36,22 @@ public final class AopUtils {
         throw new UnsupportedOperationException("It's prohibited to create instances of the class.");
     }
 
+    /**
+     * Suppresses Java language access checks of the given method.
+     * <p>
+     * Methods invoked by commands are resolved once and shared by all calls, so the (security checked) flag only needs to be set the
+     * first time.
+     *
+     * @param method the method to make accessible
+     * @return the given method
+     */
+    public static Method makeAccessible(Method method) {
+        if (!method.isAccessible()) {
+            method.setAccessible(true);
+        }
+        return method;
+    }
+
     /**
      * Gets a {@link Method} object from target object (not proxy class).
      *
@@ -25,6 +25,9 @@ import java.util.Arrays;
 public final class EnvUtils {
 	
 	private static final String WEAVING_MODE;
+
+	/* resolved on first use, so that a wrong property keeps failing with the message below instead of failing class initialization */
+	private static volatile WeavingMode weavingMode;
 	
 	static {
 		WEAVING_MODE = System.getProperty("weavingMode", WeavingMode.RUNTIME.name()).toUpperCase();
@@ -35,8 +38,14 @@ public final class EnvUtils {
     }
 
     public static WeavingMode getWeavingMode() {
+        WeavingMode mode = weavingMode;
+        if (mode != null) {
+            return mode;
+        }
         try {
-            return WeavingMode.valueOf(EnvUtils.WEAVING_MODE);
+            mode = WeavingMode.valueOf(EnvUtils.WEAVING_MODE);
+            weavingMode = mode;
+            return mode;
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("wrong 'weavingMode' property, supported: " + Arrays.toString(WeavingMode.values()) + ", actual = " + EnvUtils.WEAVING_MODE, e);
         }
@@ -22,6 +22,8 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 
+import static com.netflix.hystrix.contrib.javanica.utils.AopUtils.makeAccessible;
+
 /**
  * Created by dmgcodevil
  */
@@ -79,7 +81,7 @@ public final class AjcUtils {
 
 
     public static Object invokeAjcMethod(Method method, Object target, MetaHolder metaHolder, Object... args) throws InvocationTargetException, IllegalAccessException {
-        method.setAccessible(true);
+        makeAccessible(method);
         Object[] extArgs = new Object[args.length + 2];
         extArgs[0] = target;
         System.arraycopy(args, 0, extArgs, 1, args.length);
@@ -84,6 +84,46 @@ public class HystrixCacheKeyGeneratorTest {
         assertEquals(DefaultHystrixGeneratedCacheKey.EMPTY, actual);
     }
 
+    @Test
+    public void testGenerateCacheKey_givenSameMethodTwice_shouldReturnKeysOfEachCall() throws NoSuchMethodException {
+        // given
+        TestCacheClass testCacheClass = new TestCacheClass();
+        HystrixCacheKeyGenerator keyGenerator = HystrixCacheKeyGenerator.getInstance();
+        User first = new User();
+        first.setProfile(new Profile("first"));
+        User second = new User();
+        second.setProfile(new Profile("second"));
+        // when
+        String firstKey = keyGenerator.generateCacheKey(createContext(testCacheClass, "1", first)).getCacheKey();
+        String secondKey = keyGenerator.generateCacheKey(createContext(testCacheClass, "2", second)).getCacheKey();
+        // then
+        assertEquals("1first", firstKey);
+        assertEquals("2second", secondKey);
+    }
+
+    @Test
+    public void testGenerateCacheKey_givenSingleArgument_shouldReturnArgumentAsCacheKey() throws NoSuchMethodException {
+        // given
+        TestCacheClass testCacheClass = new TestCacheClass();
+        MetaHolder metaHolder = MetaHolder.builder()
+                .method(TestCacheClass.class.getMethod("cacheResultMethod", Integer.class))
+                .args(new Object[]{42})
+                .obj(testCacheClass).build();
+        CacheInvocationContext<CacheResult> context = CacheInvocationContextFactory.createCacheResultInvocationContext(metaHolder);
+        // when
+        String actual = HystrixCacheKeyGenerator.getInstance().generateCacheKey(context).getCacheKey();
+        // then
+        assertEquals("42", actual);
+    }
+
+    private static CacheInvocationContext<CacheResult> createContext(TestCacheClass testCacheClass, String id, User user) throws NoSuchMethodException {
+        MetaHolder metaHolder = MetaHolder.builder()
+                .method(TestCacheClass.class.getMethod("cacheResultMethod", String.class, User.class))
+                .args(new Object[]{id, user})
+                .obj(testCacheClass).build();
+        return CacheInvocationContextFactory.createCacheResultInvocationContext(metaHolder);
+    }
+
     public static class TestCacheClass {
 
         @CacheResult
@@ -96,6 +136,11 @@ public class HystrixCacheKeyGeneratorTest {
             return "test";
         }
 
+        @CacheResult
+        public Object cacheResultMethod(Integer id) {
+            return "test";
+        }
+
     }
 
     public static class User {
@@ -0,0 +1,64 @@
+/**
+ * Copyright 2016 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.contrib.javanica.command;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class GenericSetterBuilderTest {
+
+    @Test
+    public void testSettersAreBuiltOnce() {
+        GenericSetterBuilder setterBuilder = GenericSetterBuilder.builder()
+                .groupKey("group")
+                .commandKey("command")
+                .threadPoolKey("threadPool")
+                .collapserKey("collapser")
+                .build();
+
+        assertSame(setterBuilder.build(), setterBuilder.build());
+        assertSame(setterBuilder.buildObservableCommandSetter(), setterBuilder.buildObservableCommandSetter());
+        assertSame(setterBuilder.buildCollapserCommandSetter(), setterBuilder.buildCollapserCommandSetter());
+        assertSame(setterBuilder.buildObservableCollapserCommandSetter(), setterBuilder.buildObservableCollapserCommandSetter());
+    }
+
+    @Test
+    public void testMetaHolderTemplateIsBoundToCall() throws Exception {
+        GenericSetterBuilder setterBuilder = GenericSetterBuilder.builder().groupKey("group").commandKey("command").build();
+        MetaHolder template = MetaHolder.builder()
+                .method(Object.class.getMethod("toString"))
+                .defaultGroupKey("group")
+                .defaultCommandKey("command")
+                .executionType(ExecutionType.SYNCHRONOUS)
+                .setterBuilder(setterBuilder)
+                .build();
+
+        Object target = new Object();
+        MetaHolder bound = MetaHolder.builder(template).obj(target).args(new Object[]{"arg"}).build();
+
+        assertSame(target, bound.getObj());
+        assertArrayEquals(new Object[]{"arg"}, bound.getArgs());
+        assertSame(template.getMethod(), bound.getMethod());
+        assertEquals("command", bound.getDefaultCommandKey());
+        assertEquals(ExecutionType.SYNCHRONOUS, bound.getExecutionType());
+        assertSame(setterBuilder, HystrixCommandBuilderFactory.getInstance().createGenericSetterBuilder(bound));
+        assertNull(template.getObj());
+    }
+}
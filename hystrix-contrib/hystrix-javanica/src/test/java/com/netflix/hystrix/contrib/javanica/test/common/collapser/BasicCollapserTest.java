@@ -29,16 +29,22 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rx.Observable;
+import rx.Subscriber;
+import rx.functions.Action0;
+import rx.schedulers.Schedulers;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static com.netflix.hystrix.contrib.javanica.test.common.CommonUtils.getHystrixCommandByKey;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Created by dmgcodevil
@@ -188,6 +194,91 @@ public abstract class BasicCollapserTest extends BasicHystrixTest {
         userService.getUserByIdWrongCollapserNoArgs();
     }
 
+    @Test
+    public void testStreamingCompletesEachRequestWithItsResponse() {
+        List<Observable<User>> requests = new ArrayList<Observable<User>>();
+        for (String id : new String[]{"1", "2", "3"}) {
+            // the batch only emits its other responses once the request of its first response has completed
+            requests.add(userService.getUserByIdStreaming(id).doOnCompleted(new Action0() {
+                @Override
+                public void call() {
+                    userService.streamingRequestCompleted.countDown();
+                }
+            }));
+        }
+
+        List<User> users = Observable.merge(requests).toList().toBlocking().single();
+
+        assertEquals(3, users.size());
+        for (User user : users) {
+            assertEquals("name: " + user.getId(), user.getName());
+        }
+        assertEquals(1, HystrixRequestLog.getCurrentRequest().getAllExecutedCommands().size());
+        HystrixInvokableInfo<?> command = getHystrixCommandByKey("getUserByIdsStreaming");
+        assertTrue(command.getExecutionEvents().contains(HystrixEventType.COLLAPSED));
+        assertTrue(command.getExecutionEvents().contains(HystrixEventType.SUCCESS));
+    }
+
+    @Test
+    public void testStreamingMatchesOutOfOrderResponses() {
+        Observable<User> u1 = userService.getUserByIdOutOfOrder("1");
+        Observable<User> u2 = userService.getUserByIdOutOfOrder("2");
+        Observable<User> u3 = userService.getUserByIdOutOfOrder("3");
+
+        assertEquals("name: 1", u1.toBlocking().single().getName());
+        assertEquals("name: 2", u2.toBlocking().single().getName());
+        assertEquals("name: 3", u3.toBlocking().single().getName());
+        assertEquals(1, HystrixRequestLog.getCurrentRequest().getAllExecutedCommands().size());
+        HystrixInvokableInfo<?> command = getHystrixCommandByKey("getUserByIdsOutOfOrder");
+        assertTrue(command.getExecutionEvents().contains(HystrixEventType.COLLAPSED));
+        assertTrue(command.getExecutionEvents().contains(HystrixEventType.SUCCESS));
+    }
+
+    @Test
+    public void testStreamingFailsRequestWithoutResponse() {
+        Observable<User> u1 = userService.getUserByIdWithMissingResponse("1");
+        Observable<User> u2 = userService.getUserByIdWithMissingResponse("unknown");
+
+        assertEquals("name: 1", u1.toBlocking().single().getName());
+        try {
+            u2.toBlocking().single();
+            fail("we expect the request without response to fail");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("No response for collapsed request"));
+        }
+        HystrixInvokableInfo<?> command = getHystrixCommandByKey("getUserByIdsWithMissingResponse");
+        assertTrue(command.getExecutionEvents().contains(HystrixEventType.SUCCESS));
+    }
+
+    @Test
+    public void testStreamingWithFallback() {
+        Observable<User> u1 = userService.getUserByIdStreamingWithFallback("1");
+        Observable<User> u2 = userService.getUserByIdStreamingWithFallback("2");
+
+        // the fallback gets the arguments of the whole batch
+        assertEquals("fallback: 1", u1.toBlocking().single().getName());
+        assertEquals("fallback: 2", u2.toBlocking().single().getName());
+        assertEquals(1, HystrixRequestLog.getCurrentRequest().getAllExecutedCommands().size());
+        HystrixInvokableInfo<?> command = getHystrixCommandByKey("getUserByIdsStreamingWithFallback");
+        assertTrue(command.getExecutionEvents().contains(HystrixEventType.FAILURE));
+        assertTrue(command.getExecutionEvents().contains(HystrixEventType.FALLBACK_SUCCESS));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStreamingWrongCollapserMethodReturnType() {
+        userService.getUserByIdStreamingWrongCollapserMethodReturnType("1");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStreamingWrongBatchMethodReturnType() {
+        userService.getUserByIdStreamingWrongBatchMethodReturnType("1");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStreamingResponseKeyMethodAbsent() {
+        userService.getUserByIdStreamingResponseKeyMethodAbsent("1");
+    }
+
     public static class UserService {
 
         public static final Logger log = LoggerFactory.getLogger(UserService.class);
@@ -286,6 +377,109 @@ public abstract class BasicCollapserTest extends BasicHystrixTest {
             return users;
         }
 
+        public final CountDownLatch streamingRequestCompleted = new CountDownLatch(1);
+
+        @HystrixCollapser(batchMethod = "getUserByIdsStreaming", responseKeyMethod = "getUserId",
+                collapserProperties = {@HystrixProperty(name = "timerDelayInMilliseconds", value = "200")})
+        public Observable<User> getUserByIdStreaming(String id) {
+            return null;
+        }
+
+        @HystrixCommand(commandProperties = {
+                @HystrixProperty(name = "execution.isolation.thread.timeoutInMilliseconds", value = "10000")// for debug
+        })
+        public Observable<User> getUserByIdsStreaming(final List<String> ids) {
+            return Observable.create(new Observable.OnSubscribe<User>() {
+                @Override
+                public void call(Subscriber<? super User> subscriber) {
+                    try {
+                        subscriber.onNext(new User(ids.get(0), "name: " + ids.get(0)));
+                        if (!streamingRequestCompleted.await(5, TimeUnit.SECONDS)) {
+                            throw new IllegalStateException("no request completed before the end of the batch");
+                        }
+                        for (String id : ids.subList(1, ids.size())) {
+                            subscriber.onNext(new User(id, "name: " + id));
+                        }
+                        subscriber.onCompleted();
+                    } catch (Exception e) {
+                        subscriber.onError(e);
+                    }
+                }
+            }).subscribeOn(Schedulers.io());
+        }
+
+        @HystrixCollapser(batchMethod = "getUserByIdsOutOfOrder", responseKeyMethod = "getUserId",
+                collapserProperties = {@HystrixProperty(name = "timerDelayInMilliseconds", value = "200")})
+        public Observable<User> getUserByIdOutOfOrder(String id) {
+            return null;
+        }
+
+        @HystrixCommand
+        public Observable<User> getUserByIdsOutOfOrder(List<String> ids) {
+            List<User> users = new ArrayList<User>();
+            for (String id : ids) {
+                users.add(0, new User(id, "name: " + id));
+            }
+            return Observable.from(users);
+        }
+
+        @HystrixCollapser(batchMethod = "getUserByIdsWithMissingResponse", responseKeyMethod = "getUserId",
+                collapserProperties = {@HystrixProperty(name = "timerDelayInMilliseconds", value = "200")})
+        public Observable<User> getUserByIdWithMissingResponse(String id) {
+            return null;
+        }
+
+        @HystrixCommand
+        public Observable<User> getUserByIdsWithMissingResponse(List<String> ids) {
+            List<User> users = new ArrayList<User>();
+            for (String id : ids) {
+                if (!id.equals("unknown")) {
+                    users.add(new User(id, "name: " + id));
+                }
+            }
+            return Observable.from(users);
+        }
+
+        @HystrixCollapser(batchMethod = "getUserByIdsStreamingWithFallback", responseKeyMethod = "getUserId",
+                collapserProperties = {@HystrixProperty(name = "timerDelayInMilliseconds", value = "200")})
+        public Observable<User> getUserByIdStreamingWithFallback(String id) {
+            return null;
+        }
+
+        @HystrixCommand(fallbackMethod = "getUserByIdsStreamingFallback")
+        public Observable<User> getUserByIdsStreamingWithFallback(List<String> ids) {
+            throw new RuntimeException("not found");
+        }
+
+        private Observable<User> getUserByIdsStreamingFallback(List<String> ids) {
+            List<User> users = new ArrayList<User>();
+            for (String id : ids) {
+                users.add(new User(id, "fallback: " + id));
+            }
+            return Observable.from(users);
+        }
+
+        private String getUserId(User user) {
+            return user.getId();
+        }
+
+        // wrong return type, expected: Observable<User>, because the collapser has a response key method
+        @HystrixCollapser(batchMethod = "getUserByIdsOutOfOrder", responseKeyMethod = "getUserId")
+        public Future<User> getUserByIdStreamingWrongCollapserMethodReturnType(String id) {
+            return null;
+        }
+
+        // wrong batch return type, expected: Observable<User>, because the collapser has a response key method
+        @HystrixCollapser(batchMethod = "getUserByIds", responseKeyMethod = "getUserId")
+        public Observable<User> getUserByIdStreamingWrongBatchMethodReturnType(String id) {
+            return null;
+        }
+
+        @HystrixCollapser(batchMethod = "getUserByIdsOutOfOrder", responseKeyMethod = "getUserName")
+        public Observable<User> getUserByIdStreamingResponseKeyMethodAbsent(String id) {
+            return null;
+        }
+
         // wrong return type, expected: Future<User> or User, because batch command getUserByIds returns List<User>
         @HystrixCollapser(batchMethod = "getUserByIds")
         public Long getUserByIdWrongCollapserMethodReturnType(String id) {
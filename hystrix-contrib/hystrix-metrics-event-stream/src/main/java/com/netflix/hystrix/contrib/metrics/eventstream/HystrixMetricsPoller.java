@@ -502,6 +502,7 @@ public class HystrixMetricsPoller {
             json.writeBooleanField("propertyValue_requestCacheEnabled", collapserMetrics.getProperties().requestCacheEnabled().get());
             json.writeNumberField("propertyValue_maxRequestsInBatch", collapserMetrics.getProperties().maxRequestsInBatch().get());
             json.writeNumberField("propertyValue_timerDelayInMilliseconds", collapserMetrics.getProperties().timerDelayInMilliseconds().get());
+            json.writeNumberField("currentTimerDelayInMilliseconds", collapserMetrics.getCurrentTimerDelayInMilliseconds());
 
             json.writeNumberField("reportingHosts", 1); // this will get summed across all instances in a cluster
 
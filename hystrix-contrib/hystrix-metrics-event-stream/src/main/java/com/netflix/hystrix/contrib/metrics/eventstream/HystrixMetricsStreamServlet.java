@@ -19,14 +19,18 @@ import com.netflix.config.DynamicIntProperty;
 import com.netflix.config.DynamicPropertyFactory;
 import com.netflix.hystrix.contrib.sample.stream.HystrixSampleSseServlet;
 import com.netflix.hystrix.metric.consumer.HystrixDashboardStream;
+import com.netflix.hystrix.serial.SerialHystrixDashboardBinary;
 import com.netflix.hystrix.serial.SerialHystrixDashboardData;
 import rx.Observable;
+import rx.functions.Func0;
 import rx.functions.Func1;
 
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Streams Hystrix metrics in text/event-stream format.
+ * Streams Hystrix metrics in text/event-stream format, or as {@link SerialHystrixDashboardBinary} frames to clients accepting
+ * {@link SerialHystrixDashboardBinary#CONTENT_TYPE}.
  * <p>
  * Install by:
  * <p>
@@ -59,6 +63,8 @@ public class HystrixMetricsStreamServlet extends HystrixSampleSseServlet {
         this(HystrixDashboardStream.getInstance().observe(), DEFAULT_PAUSE_POLLER_THREAD_DELAY_IN_MS);
     }
 
+    private final Observable<HystrixDashboardStream.DashboardData> dashboardStream;
+
     /* package-private */ HystrixMetricsStreamServlet(Observable<HystrixDashboardStream.DashboardData> sampleStream, int pausePollerThreadDelayInMs) {
         super(sampleStream.concatMap(new Func1<HystrixDashboardStream.DashboardData, Observable<String>>() {
             @Override
@@ -66,6 +72,27 @@ public class HystrixMetricsStreamServlet extends HystrixSampleSseServlet {
                 return Observable.from(SerialHystrixDashboardData.toMultipleJsonStrings(dashboardData));
             }
         }), pausePollerThreadDelayInMs);
+        this.dashboardStream = sampleStream;
+    }
+
+    @Override
+    protected Observable<byte[]> createBinarySampleStream() {
+        return Observable.defer(new Func0<Observable<byte[]>>() {
+            @Override
+            public Observable<byte[]> call() {
+                final SerialHystrixDashboardBinary.Encoder encoder = new SerialHystrixDashboardBinary.Encoder();
+                return dashboardStream.map(new Func1<HystrixDashboardStream.DashboardData, byte[]>() {
+                    @Override
+                    public byte[] call(HystrixDashboardStream.DashboardData dashboardData) {
+                        // the encoder reuses its buffer, so copy out the frame before it is written on another thread
+                        ByteBuffer frame = encoder.encode(dashboardData);
+                        byte[] bytes = new byte[frame.remaining()];
+                        frame.get(bytes);
+                        return bytes;
+                    }
+                });
+            }
+        });
     }
 
     @Override
@@ -15,6 +15,7 @@
  */
 package com.netflix.hystrix.contrib.sample.stream;
 
+import com.netflix.hystrix.serial.SerialHystrixDashboardBinary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rx.Observable;
@@ -26,6 +27,7 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -66,6 +68,22 @@ public abstract class HystrixSampleSseServlet extends HttpServlet {
 
     protected abstract void decrementCurrentConcurrentConnections();
 
+    /**
+     * Streams for clients accepting {@link SerialHystrixDashboardBinary#CONTENT_TYPE} instead of text/event-stream.
+     * <p>
+     * Called once per connection, since the frames of a binary stream are encoded against the ones before them.
+     *
+     * @return stream of frames to send to a new connection, or null to always send text/event-stream
+     */
+    protected Observable<byte[]> createBinarySampleStream() {
+        return null;
+    }
+
+    private static boolean acceptsBinary(HttpServletRequest request) {
+        String accept = request.getHeader("Accept");
+        return accept != null && accept.contains(SerialHystrixDashboardBinary.CONTENT_TYPE);
+    }
+
     /**
      * Handle incoming GETs
      */
@@ -123,48 +141,91 @@ public abstract class HystrixSampleSseServlet extends HttpServlet {
             if (numberConnections > maxNumberConnectionsAllowed) {
                 response.sendError(503, "MaxConcurrentConnections reached: " + maxNumberConnectionsAllowed);
             } else {
+                final Observable<byte[]> binarySampleStream = acceptsBinary(request) ? createBinarySampleStream() : null;
+                final PrintWriter writer;
+                final DataOutputStream output;
+
                 /* initialize response */
-                response.setHeader("Content-Type", "text/event-stream;charset=UTF-8");
+                if (binarySampleStream != null) {
+                    response.setHeader("Content-Type", SerialHystrixDashboardBinary.CONTENT_TYPE);
+                    writer = null;
+                    output = new DataOutputStream(response.getOutputStream());
+                } else {
+                    response.setHeader("Content-Type", "text/event-stream;charset=UTF-8");
+                    writer = response.getWriter();
+                    output = null;
+                }
                 response.setHeader("Cache-Control", "no-cache, no-store, max-age=0, must-revalidate");
                 response.setHeader("Pragma", "no-cache");
 
-                final PrintWriter writer = response.getWriter();
-
                 //since the sample stream is based on Observable.interval, events will get published on an RxComputation thread
                 //since writing to the servlet response is blocking, use the Rx IO thread for the write that occurs in the onNext
-                sampleSubscription = sampleStream
-                        .observeOn(Schedulers.io())
-                        .subscribe(new Subscriber<String>() {
-                            @Override
-                            public void onCompleted() {
-                                logger.error("HystrixSampleSseServlet: ({}) received unexpected OnCompleted from sample stream", getClass().getSimpleName());
-                                moreDataWillBeSent.set(false);
-                            }
+                if (binarySampleStream != null) {
+                    sampleSubscription = binarySampleStream
+                            .observeOn(Schedulers.io())
+                            .subscribe(new Subscriber<byte[]>() {
+                                @Override
+                                public void onCompleted() {
+                                    logger.error("HystrixSampleSseServlet: ({}) received unexpected OnCompleted from binary sample stream", getClass().getSimpleName());
+                                    moreDataWillBeSent.set(false);
+                                }
 
-                            @Override
-                            public void onError(Throwable e) {
-                                moreDataWillBeSent.set(false);
-                            }
+                                @Override
+                                public void onError(Throwable e) {
+                                    moreDataWillBeSent.set(false);
+                                }
 
-                            @Override
-                            public void onNext(String sampleDataAsString) {
-                                if (sampleDataAsString != null) {
-                                    try {
-                                        // avoid concurrent writes with ping
-                                        synchronized (responseWriteLock) {
-                                            writer.print("data: " + sampleDataAsString + "\n\n");
-                                            // explicitly check for client disconnect - PrintWriter does not throw exceptions
-                                            if (writer.checkError()) {
-                                                moreDataWillBeSent.set(false);
+                                @Override
+                                public void onNext(byte[] frame) {
+                                    if (frame != null && frame.length > 0) {
+                                        try {
+                                            // avoid concurrent writes with ping
+                                            synchronized (responseWriteLock) {
+                                                output.writeInt(frame.length);
+                                                output.write(frame);
+                                                output.flush();
                                             }
-                                            writer.flush();
+                                        } catch (Exception ex) {
+                                            moreDataWillBeSent.set(false);
                                         }
-                                    } catch (Exception ex) {
-                                        moreDataWillBeSent.set(false);
                                     }
                                 }
-                            }
-                        });
+                            });
+                } else {
+                    sampleSubscription = sampleStream
+                            .observeOn(Schedulers.io())
+                            .subscribe(new Subscriber<String>() {
+                                @Override
+                                public void onCompleted() {
+                                    logger.error("HystrixSampleSseServlet: ({}) received unexpected OnCompleted from sample stream", getClass().getSimpleName());
+                                    moreDataWillBeSent.set(false);
+                                }
+
+                                @Override
+                                public void onError(Throwable e) {
+                                    moreDataWillBeSent.set(false);
+                                }
+
+                                @Override
+                                public void onNext(String sampleDataAsString) {
+                                    if (sampleDataAsString != null) {
+                                        try {
+                                            // avoid concurrent writes with ping
+                                            synchronized (responseWriteLock) {
+                                                writer.print("data: " + sampleDataAsString + "\n\n");
+                                                // explicitly check for client disconnect - PrintWriter does not throw exceptions
+                                                if (writer.checkError()) {
+                                                    moreDataWillBeSent.set(false);
+                                                }
+                                                writer.flush();
+                                            }
+                                        } catch (Exception ex) {
+                                            moreDataWillBeSent.set(false);
+                                        }
+                                    }
+                                }
+                            });
+                }
 
                 while (moreDataWillBeSent.get() && !isDestroyed) {
                     try {
@@ -173,12 +234,18 @@ public abstract class HystrixSampleSseServlet extends HttpServlet {
 
                         // avoid concurrent writes with sample
                         synchronized (responseWriteLock) {
-                            writer.print("ping: \n\n");
-                            // explicitly check for client disconnect - PrintWriter does not throw exceptions
-                            if (writer.checkError()) {
-                                moreDataWillBeSent.set(false);
+                            if (output != null) {
+                                // an empty frame is a ping, a failed write throws on client disconnect
+                                output.writeInt(0);
+                                output.flush();
+                            } else {
+                                writer.print("ping: \n\n");
+                                // explicitly check for client disconnect - PrintWriter does not throw exceptions
+                                if (writer.checkError()) {
+                                    moreDataWillBeSent.set(false);
+                                }
+                                writer.flush();
                             }
-                            writer.flush();
                         }
                     } catch (Exception ex) {
                         moreDataWillBeSent.set(false);
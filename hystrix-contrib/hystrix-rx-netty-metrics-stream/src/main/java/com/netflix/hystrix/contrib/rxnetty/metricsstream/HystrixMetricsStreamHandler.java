@@ -18,6 +18,7 @@ package com.netflix.hystrix.contrib.rxnetty.metricsstream;
 import com.netflix.hystrix.HystrixCollapserMetrics;
 import com.netflix.hystrix.HystrixCommandMetrics;
 import com.netflix.hystrix.HystrixThreadPoolMetrics;
+import com.netflix.hystrix.serial.SerialHystrixDashboardBinary;
 import com.netflix.hystrix.serial.SerialHystrixDashboardData;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.UnpooledByteBufAllocator;
@@ -31,6 +32,7 @@ import rx.subjects.PublishSubject;
 import rx.subjects.Subject;
 import rx.subscriptions.MultipleAssignmentSubscription;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.concurrent.TimeUnit;
 
@@ -40,6 +42,8 @@ import java.util.concurrent.TimeUnit;
  * (default "/hystrix.stream"), and sends unbounded SSE streams back to the client. All other requests
  * are transparently forwarded to the application handlers.
  * <p/>
+ * Clients accepting {@link SerialHystrixDashboardBinary#CONTENT_TYPE} get length-prefixed binary frames instead of SSE.
+ * <p/>
  * For RxNetty client tapping into SSE stream: remember to use unpooled HTTP connections. If not, the pooled HTTP
  * connection will not be closed on unsubscribe event and the event stream will continue to flow towards the client
  * (unless the client is shutdown).
@@ -74,6 +78,10 @@ public class HystrixMetricsStreamHandler<I, O> implements RequestHandler<I, O> {
     @Override
     public Observable<Void> handle(HttpServerRequest<I> request, HttpServerResponse<O> response) {
         if (request.getPath().startsWith(hystrixPrefix)) {
+            String accept = request.getHeaders().get("Accept");
+            if (accept != null && accept.contains(SerialHystrixDashboardBinary.CONTENT_TYPE)) {
+                return handleHystrixBinaryRequest(response);
+            }
             return handleHystrixRequest(response);
         }
         return appHandler.handle(request, response);
@@ -111,8 +119,39 @@ public class HystrixMetricsStreamHandler<I, O> implements RequestHandler<I, O> {
         return subject;
     }
 
+    private Observable<Void> handleHystrixBinaryRequest(final HttpServerResponse<O> response) {
+        writeHeaders(response, SerialHystrixDashboardBinary.CONTENT_TYPE);
+
+        // frames are encoded against the previous ones, so every connection gets its own encoder
+        final SerialHystrixDashboardBinary.Encoder encoder = new SerialHystrixDashboardBinary.Encoder();
+        final Subject<Void, Void> subject = PublishSubject.create();
+        final MultipleAssignmentSubscription subscription = new MultipleAssignmentSubscription();
+        Subscription actionSubscription = Observable.interval(interval, TimeUnit.MILLISECONDS)
+                .subscribe(new Action1<Long>() {
+                    @Override
+                    public void call(Long tick) {
+                        if (!response.getChannel().isOpen()) {
+                            subscription.unsubscribe();
+                            return;
+                        }
+                        try {
+                            writeFrame(encoder.encode(HystrixCommandMetrics.getInstances(), HystrixThreadPoolMetrics.getInstances(),
+                                    HystrixCollapserMetrics.getInstances()), response);
+                        } catch (Exception e) {
+                            subject.onError(e);
+                        }
+                    }
+                });
+        subscription.set(actionSubscription);
+        return subject;
+    }
+
     private void writeHeaders(HttpServerResponse<O> response) {
-        response.getHeaders().add("Content-Type", "text/event-stream;charset=UTF-8");
+        writeHeaders(response, "text/event-stream;charset=UTF-8");
+    }
+
+    private void writeHeaders(HttpServerResponse<O> response, String contentType) {
+        response.getHeaders().add("Content-Type", contentType);
         response.getHeaders().add("Cache-Control", "no-cache, no-store, max-age=0, must-revalidate");
         response.getHeaders().add("Pragma", "no-cache");
     }
@@ -126,4 +165,12 @@ public class HystrixMetricsStreamHandler<I, O> implements RequestHandler<I, O> {
         byteBuf.writeBytes(FOOTER);
         response.writeAndFlush((O) byteBuf);
     }
+
+    @SuppressWarnings("unchecked")
+    private void writeFrame(ByteBuffer frame, HttpServerResponse<O> response) {
+        ByteBuf byteBuf = UnpooledByteBufAllocator.DEFAULT.buffer(frame.remaining() + 4);
+        byteBuf.writeInt(frame.remaining());
+        byteBuf.writeBytes(frame);
+        response.writeAndFlush((O) byteBuf);
+    }
 }
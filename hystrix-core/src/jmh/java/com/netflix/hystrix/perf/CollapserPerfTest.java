@@ -16,6 +16,7 @@
 package com.netflix.hystrix.perf;
 
 import com.netflix.hystrix.HystrixCollapser;
+import com.netflix.hystrix.HystrixCollapser.CollapsedRequest;
 import com.netflix.hystrix.HystrixCollapserKey;
 import com.netflix.hystrix.HystrixCollapserProperties;
 import com.netflix.hystrix.HystrixCommand;
@@ -23,6 +24,8 @@ import com.netflix.hystrix.HystrixCommandGroupKey;
 import com.netflix.hystrix.HystrixThreadPool;
 import com.netflix.hystrix.HystrixThreadPoolKey;
 import com.netflix.hystrix.HystrixThreadPoolProperties;
+import com.netflix.hystrix.collapser.HystrixCollapserBridge;
+import com.netflix.hystrix.collapser.RequestBatch;
 import com.netflix.hystrix.strategy.concurrency.HystrixRequestContext;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -34,14 +37,17 @@ import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.infra.Blackhole;
 import rx.Observable;
 import rx.Subscription;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class CollapserPerfTest {
     @State(Scope.Benchmark)
@@ -93,6 +99,78 @@ public class CollapserPerfTest {
 
     }
 
+    /**
+     * A single batch shared by all benchmark threads, to measure contention on {@link RequestBatch#offer(Object)} alone.
+     * The batch command does no work, and a full batch is swapped for a fresh one by whichever thread finds it full.
+     */
+    @State(Scope.Benchmark)
+    public static class SharedBatchState {
+        final HystrixCollapserProperties properties = new HystrixCollapserProperties(HystrixCollapserKey.Factory.asKey("PERF-BATCH"), HystrixCollapserProperties.Setter().withMaxRequestsInBatch(1000)) {};
+        final AtomicReference<RequestBatch<Void, Long, Long>> batch = new AtomicReference<RequestBatch<Void, Long, Long>>();
+
+        final HystrixCollapserBridge<Void, Long, Long> bridge = new HystrixCollapserBridge<Void, Long, Long>() {
+            @Override
+            public Collection<Collection<CollapsedRequest<Long, Long>>> shardRequests(Collection<CollapsedRequest<Long, Long>> requests) {
+                return Collections.singletonList(requests);
+            }
+
+            @Override
+            public Observable<Void> createObservableCommand(Collection<CollapsedRequest<Long, Long>> requests) {
+                return Observable.empty();
+            }
+
+            @Override
+            public Observable<Void> mapResponseToRequests(Observable<Void> batchResponse, Collection<CollapsedRequest<Long, Long>> requests) {
+                for (CollapsedRequest<Long, Long> request: requests) {
+                    request.setResponse(request.getArgument());
+                }
+                return Observable.empty();
+            }
+
+            @Override
+            public HystrixCollapserKey getCollapserKey() {
+                return HystrixCollapserKey.Factory.asKey("PERF-BATCH");
+            }
+        };
+
+        @Setup
+        public void setUp() {
+            batch.set(newBatch());
+        }
+
+        RequestBatch<Void, Long, Long> newBatch() {
+            return new RequestBatch<Void, Long, Long>(properties, bridge, properties.maxRequestsInBatch().get());
+        }
+
+        Observable<Long> offer(Long arg) {
+            while (true) {
+                RequestBatch<Void, Long, Long> current = batch.get();
+                Observable<Long> response = current.offer(arg);
+                if (response != null) {
+                    return response;
+                }
+                if (batch.compareAndSet(current, newBatch())) {
+                    current.executeBatchIfNotAlreadyStarted();
+                }
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ArgumentState {
+        long next = 0;
+        long threadOffset;
+
+        @Setup
+        public void setUp() {
+            threadOffset = Thread.currentThread().getId() << 40;
+        }
+
+        Long nextArgument() {
+            return threadOffset + next++;
+        }
+    }
+
     private static class IdentityCollapser extends HystrixCollapser<List<String>, String, String> {
 
         private final int arg;
@@ -161,4 +239,20 @@ public class CollapserPerfTest {
     public List<String> observeCollapsedAndWait(CollapserState collapserState, ThreadPoolState threadPoolState) {
         return collapserState.executionHandle.toList().toBlocking().single();
     }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Threads(1)
+    public Observable<Long> offerToSharedBatchSingleThread(SharedBatchState batchState, ArgumentState argumentState) {
+        return batchState.offer(argumentState.nextArgument());
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Threads(8)
+    public Observable<Long> offerToSharedBatchEightThreads(SharedBatchState batchState, ArgumentState argumentState) {
+        return batchState.offer(argumentState.nextArgument());
+    }
 }
@@ -32,6 +32,7 @@ import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
 
 import java.util.concurrent.TimeUnit;
 
@@ -149,4 +150,47 @@ public class CommandExecutionAndConcurrentMetricsReadPerfTest {
                 + metrics.getRollingMaxConcurrentExecutions();
 
     }
+
+    /**
+     * Only read the counters (no latency percentiles), so nothing observes the per-event completion stream and the
+     * write path is just the striped counters.  Run at increasing thread counts to show how writes scale with fan-in.
+     */
+    private static long readCounters(CommandState state) {
+        HystrixCommandMetrics metrics = state.command.getMetrics();
+        return metrics.getCumulativeCount(HystrixEventType.SUCCESS)
+                + metrics.getRollingCount(HystrixEventType.FAILURE)
+                + metrics.getHealthCounts().getErrorPercentage();
+    }
+
+    @Benchmark
+    @Threads(8)
+    @BenchmarkMode({Mode.Throughput})
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long countersOnly8Threads(CommandState state) {
+        return state.command.observe().toBlocking().first() + readCounters(state);
+    }
+
+    @Benchmark
+    @Threads(16)
+    @BenchmarkMode({Mode.Throughput})
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long countersOnly16Threads(CommandState state) {
+        return state.command.observe().toBlocking().first() + readCounters(state);
+    }
+
+    @Benchmark
+    @Threads(32)
+    @BenchmarkMode({Mode.Throughput})
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long countersOnly32Threads(CommandState state) {
+        return state.command.observe().toBlocking().first() + readCounters(state);
+    }
+
+    @Benchmark
+    @Threads(64)
+    @BenchmarkMode({Mode.Throughput})
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long countersOnly64Threads(CommandState state) {
+        return state.command.observe().toBlocking().first() + readCounters(state);
+    }
 }
@@ -317,6 +317,9 @@ public class CommandExecutionPerfTest {
         }
     }
 
+    /**
+     * A whole command execution.  Run with <code>-prof gc</code> to see the allocation per execution.
+     */
     @Benchmark
     @BenchmarkMode({Mode.Throughput})
     @OutputTimeUnit(TimeUnit.MILLISECONDS)
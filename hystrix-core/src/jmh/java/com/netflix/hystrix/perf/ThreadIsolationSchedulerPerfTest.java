@@ -0,0 +1,123 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.perf;
+
+import com.netflix.hystrix.HystrixThreadPool;
+import com.netflix.hystrix.HystrixThreadPoolKey;
+import com.netflix.hystrix.HystrixThreadPoolProperties;
+import com.netflix.hystrix.strategy.HystrixPlugins;
+import com.netflix.hystrix.strategy.concurrency.HystrixConcurrencyStrategy;
+import com.netflix.hystrix.strategy.concurrency.HystrixContextScheduler;
+import com.netflix.hystrix.strategy.concurrency.HystrixRequestContext;
+import com.netflix.hystrix.strategy.concurrency.HystrixThreadPoolScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Func0;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the schedulers for thread-isolated executions: {@link HystrixContextScheduler}, which wraps the action several times and
+ * submits it as a {@link java.util.concurrent.Future}, and {@link HystrixThreadPoolScheduler}, which uses a single task object.
+ * <p>
+ * Each invocation creates the scheduler, as {@link HystrixThreadPool#getScheduler(Func0)} does for every command.
+ * Run with <code>-prof gc</code> to compare allocations per operation.
+ */
+public class ThreadIsolationSchedulerPerfTest {
+
+    @State(Scope.Benchmark)
+    public static class ThreadPoolState {
+        HystrixThreadPool hystrixThreadPool;
+        HystrixConcurrencyStrategy concurrencyStrategy;
+        Func0<Boolean> shouldInterruptThread;
+
+        @Param({"CONTEXT", "THREAD_POOL"})
+        public String scheduler;
+
+        @Setup
+        public void setUp() {
+            hystrixThreadPool = new HystrixThreadPool.HystrixThreadPoolDefault(
+                    HystrixThreadPoolKey.Factory.asKey("PERF")
+                    , HystrixThreadPoolProperties.Setter().withCoreSize(100));
+            concurrencyStrategy = HystrixPlugins.getInstance().getConcurrencyStrategy();
+            shouldInterruptThread = new Func0<Boolean>() {
+                @Override
+                public Boolean call() {
+                    return false;
+                }
+            };
+        }
+
+        @TearDown
+        public void tearDown() {
+            hystrixThreadPool.getExecutor().shutdownNow();
+        }
+
+        Scheduler newScheduler() {
+            if (scheduler.equals("CONTEXT")) {
+                return new HystrixContextScheduler(concurrencyStrategy, hystrixThreadPool, shouldInterruptThread);
+            } else {
+                return new HystrixThreadPoolScheduler(concurrencyStrategy, hystrixThreadPool, shouldInterruptThread);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class RequestContextState {
+        HystrixRequestContext requestContext;
+
+        @Param({"true", "false"})
+        public boolean setUpRequestContext;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            if (setUpRequestContext) {
+                requestContext = HystrixRequestContext.initializeContext();
+            }
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() {
+            if (setUpRequestContext) {
+                requestContext.shutdown();
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Integer subscribeOnThroughput(ThreadPoolState state, RequestContextState contextState) {
+        return Observable.just(1).subscribeOn(state.newScheduler()).toBlocking().single();
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.SampleTime})
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Integer subscribeOnLatency(ThreadPoolState state, RequestContextState contextState) {
+        return Observable.just(1).subscribeOn(state.newScheduler()).toBlocking().single();
+    }
+}
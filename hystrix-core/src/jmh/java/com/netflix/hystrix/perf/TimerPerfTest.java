@@ -0,0 +1,99 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.perf;
+
+import com.netflix.hystrix.HystrixTimerThreadPoolProperties;
+import com.netflix.hystrix.strategy.HystrixPlugins;
+import com.netflix.hystrix.strategy.properties.HystrixPropertiesStrategy;
+import com.netflix.hystrix.util.HystrixTimer;
+import com.netflix.hystrix.util.HystrixTimer.TimerListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.lang.ref.Reference;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of arming and clearing a timer (what every command execution does for its timeout) on the
+ * {@link java.util.concurrent.ScheduledThreadPoolExecutor} against the hashed timing wheel.
+ */
+public class TimerPerfTest {
+
+    private static final TimerListener listener = new TimerListener() {
+        @Override
+        public void tick() {
+        }
+
+        @Override
+        public int getIntervalTimeInMilliseconds() {
+            return 1000;
+        }
+    };
+
+    @State(Scope.Benchmark)
+    public static class TimerState {
+        @Param({"false", "true"})
+        public boolean wheelEnabled;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            HystrixTimer.reset();
+            HystrixPlugins.reset();
+            final HystrixTimerThreadPoolProperties properties = new HystrixTimerThreadPoolProperties(HystrixTimerThreadPoolProperties.Setter()
+                    .withCoreSize(Runtime.getRuntime().availableProcessors())
+                    .withWheelEnabled(wheelEnabled)) {
+            };
+            HystrixPlugins.getInstance().registerPropertiesStrategy(new HystrixPropertiesStrategy() {
+                @Override
+                public HystrixTimerThreadPoolProperties getTimerThreadPoolProperties() {
+                    return properties;
+                }
+            });
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            HystrixTimer.reset();
+            HystrixPlugins.reset();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Reference<TimerListener> addAndClearOneShot(TimerState state) {
+        Reference<TimerListener> ref = HystrixTimer.getInstance().addOneShotTimerListener(listener);
+        ref.clear();
+        return ref;
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput})
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Reference<TimerListener> addAndClearRepeating(TimerState state) {
+        Reference<TimerListener> ref = HystrixTimer.getInstance().addTimerListener(listener);
+        ref.clear();
+        return ref;
+    }
+}
@@ -28,6 +28,7 @@ import com.netflix.hystrix.strategy.concurrency.HystrixContextRunnable;
 import com.netflix.hystrix.strategy.concurrency.HystrixRequestContext;
 import com.netflix.hystrix.strategy.eventnotifier.HystrixEventNotifier;
 import com.netflix.hystrix.strategy.executionhook.HystrixCommandExecutionHook;
+import com.netflix.hystrix.strategy.metrics.HystrixMetricsPublisher;
 import com.netflix.hystrix.strategy.metrics.HystrixMetricsPublisherFactory;
 import com.netflix.hystrix.strategy.properties.HystrixPropertiesFactory;
 import com.netflix.hystrix.strategy.properties.HystrixPropertiesStrategy;
@@ -49,9 +50,11 @@ import rx.subjects.ReplaySubject;
 import rx.subscriptions.CompositeSubscription;
 
 import java.lang.ref.Reference;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -117,6 +120,9 @@ import java.util.concurrent.atomic.AtomicReference;
      */
     protected volatile ExecutionResult executionResult = ExecutionResult.EMPTY; //state on shared execution
 
+    /* The steps of an execution are recorded here in place and published to executionResult before the fallback and when the command terminates */
+    private final MutableExecutionResult executionRecord = new MutableExecutionResult();
+
     protected volatile boolean isResponseFromCache = false;
     protected volatile ExecutionResult executionResultAtTimeOfCancellation;
     protected volatile long commandStartTimestamp = -1L;
@@ -130,6 +136,7 @@ import java.util.concurrent.atomic.AtomicReference;
      */
     protected final HystrixRequestCache requestCache;
     protected final HystrixRequestLog currentRequestLog;
+    private volatile int requestLogIndex = -1;
 
     // this is a micro-optimization but saves about 1-2microseconds (on 2011 MacBook Pro) 
     // on the repetitive string processing that will occur on the same classes over and over again
@@ -161,20 +168,36 @@ import java.util.concurrent.atomic.AtomicReference;
 
         this.commandGroup = initGroupKey(group);
         this.commandKey = initCommandKey(key, getClass());
-        this.properties = initCommandProperties(this.commandKey, propertiesStrategy, commandPropertiesDefaults);
-        this.threadPoolKey = initThreadPoolKey(threadPoolKey, this.commandGroup, this.properties.executionIsolationThreadPoolKeyOverride().get());
-        this.metrics = initMetrics(metrics, this.commandGroup, this.threadPoolKey, this.commandKey, this.properties);
-        this.circuitBreaker = initCircuitBreaker(this.properties.circuitBreakerEnabled().get(), circuitBreaker, this.commandGroup, this.commandKey, this.properties, this.metrics);
-        this.threadPool = initThreadPool(threadPool, this.threadPoolKey, threadPoolPropertiesDefaults);
 
-        //Strategies from plugins
-        this.eventNotifier = HystrixPlugins.getInstance().getEventNotifier();
-        this.concurrencyStrategy = HystrixPlugins.getInstance().getConcurrencyStrategy();
-        HystrixMetricsPublisherFactory.createOrRetrievePublisherForCommand(this.commandKey, this.commandGroup, this.metrics, this.circuitBreaker, this.properties);
-        this.executionHook = initExecutionHook(executionHook);
+        // everything resolved from the keys alone is shared by all instances of the command, unless a test passed its own implementations
+        final CommandPrototype prototype = circuitBreaker == null && threadPool == null && metrics == null && propertiesStrategy == null && executionHook == null
+                ? CommandPrototype.getInstance(this.commandGroup, this.commandKey, threadPoolKey, commandPropertiesDefaults, threadPoolPropertiesDefaults) : null;
+        if (prototype != null) {
+            this.properties = prototype.properties;
+            this.threadPoolKey = prototype.threadPoolKey;
+            this.metrics = prototype.metrics;
+            this.circuitBreaker = prototype.circuitBreaker;
+            this.threadPool = prototype.threadPool;
+            this.eventNotifier = prototype.eventNotifier;
+            this.concurrencyStrategy = prototype.concurrencyStrategy;
+            this.executionHook = prototype.executionHook;
+            this.requestCache = prototype.requestCache;
+        } else {
+            this.properties = initCommandProperties(this.commandKey, propertiesStrategy, commandPropertiesDefaults);
+            this.threadPoolKey = initThreadPoolKey(threadPoolKey, this.commandGroup, this.properties.executionIsolationThreadPoolKeyOverride().get());
+            this.metrics = initMetrics(metrics, this.commandGroup, this.threadPoolKey, this.commandKey, this.properties);
+            this.circuitBreaker = initCircuitBreaker(this.properties.circuitBreakerEnabled().get(), circuitBreaker, this.commandGroup, this.commandKey, this.properties, this.metrics);
+            this.threadPool = initThreadPool(threadPool, this.threadPoolKey, threadPoolPropertiesDefaults);
 
-        this.requestCache = HystrixRequestCache.getInstance(this.commandKey, this.concurrencyStrategy);
-        this.currentRequestLog = initRequestLog(this.properties.requestLogEnabled().get(), this.concurrencyStrategy);
+            //Strategies from plugins
+            this.eventNotifier = HystrixPlugins.getInstance().getEventNotifier();
+            this.concurrencyStrategy = HystrixPlugins.getInstance().getConcurrencyStrategy();
+            HystrixMetricsPublisherFactory.createOrRetrievePublisherForCommand(this.commandKey, this.commandGroup, this.metrics, this.circuitBreaker, this.properties);
+            this.executionHook = initExecutionHook(executionHook);
+
+            this.requestCache = HystrixRequestCache.getInstance(this.commandKey, this.concurrencyStrategy);
+        }
+        this.currentRequestLog = initRequestLog(this.properties.snapshot().requestLogEnabled(), this.concurrencyStrategy);
 
         /* fallback semaphore override if applicable */
         this.fallbackSemaphoreOverride = fallbackSemaphore;
@@ -183,6 +206,112 @@ import java.util.concurrent.atomic.AtomicReference;
         this.executionSemaphoreOverride = executionSemaphore;
     }
 
+    /**
+     * Wiring of a command resolved from its keys, properties and plugins, so that constructing another instance of the command copies references
+     * instead of looking each of them up in its factory.
+     * <p>
+     * A prototype is replaced when the thread-pool key override or circuit-breaker enabled property changes, when a plugin is replaced, and
+     * whenever the metrics, circuit-breakers or thread-pools it refers to are reset.
+     *
+     * @ExcludeFromJavadoc
+     * @ThreadSafe
+     */
+    /* package */static final class CommandPrototype {
+        // String is CommandKey.name() (we can't use CommandKey directly as we can't guarantee it implements hashcode/equals correctly)
+        private static final ConcurrentHashMap<String, CommandPrototype> prototypes = new ConcurrentHashMap<String, CommandPrototype>();
+
+        private final HystrixCommandGroupKey commandGroup;
+        private final HystrixThreadPoolKey threadPoolKeyFromConstructor;
+        private final String threadPoolKeyOverride;
+        private final boolean circuitBreakerEnabled;
+        private final HystrixPropertiesStrategy propertiesStrategy;
+        private final HystrixMetricsPublisher metricsPublisher;
+        private final HystrixCommandExecutionHook executionHookPlugin;
+
+        private final HystrixCommandProperties properties;
+        private final HystrixThreadPoolKey threadPoolKey;
+        private final HystrixCommandMetrics metrics;
+        private final HystrixCircuitBreaker circuitBreaker;
+        private final HystrixThreadPool threadPool;
+        private final HystrixEventNotifier eventNotifier;
+        private final HystrixConcurrencyStrategy concurrencyStrategy;
+        private final HystrixCommandExecutionHook executionHook;
+        private final HystrixRequestCache requestCache;
+
+        private CommandPrototype(HystrixCommandGroupKey commandGroup, HystrixCommandKey commandKey, HystrixThreadPoolKey threadPoolKey,
+                HystrixCommandProperties properties, HystrixThreadPoolProperties.Setter threadPoolPropertiesDefaults, HystrixPlugins plugins) {
+            this.commandGroup = commandGroup;
+            this.threadPoolKeyFromConstructor = threadPoolKey;
+            this.threadPoolKeyOverride = properties.executionIsolationThreadPoolKeyOverride().get();
+            this.circuitBreakerEnabled = properties.circuitBreakerEnabled().get();
+            this.propertiesStrategy = plugins.getPropertiesStrategy();
+            this.metricsPublisher = plugins.getMetricsPublisher();
+            this.executionHookPlugin = plugins.getCommandExecutionHook();
+
+            this.properties = properties;
+            this.threadPoolKey = initThreadPoolKey(threadPoolKey, commandGroup, threadPoolKeyOverride);
+            this.metrics = initMetrics(null, commandGroup, this.threadPoolKey, commandKey, properties);
+            this.circuitBreaker = initCircuitBreaker(circuitBreakerEnabled, null, commandGroup, commandKey, properties, metrics);
+            this.threadPool = initThreadPool(null, this.threadPoolKey, threadPoolPropertiesDefaults);
+            this.eventNotifier = plugins.getEventNotifier();
+            this.concurrencyStrategy = plugins.getConcurrencyStrategy();
+            HystrixMetricsPublisherFactory.createOrRetrievePublisherForCommand(commandKey, commandGroup, metrics, circuitBreaker, properties);
+            this.executionHook = new ExecutionHookDeprecationWrapper(executionHookPlugin);
+            this.requestCache = HystrixRequestCache.getInstance(commandKey, concurrencyStrategy);
+        }
+
+        /**
+         * @return prototype for the command, or null if its properties are not cached by the {@link HystrixPropertiesStrategy} so every instance needs its own
+         */
+        /* package */static CommandPrototype getInstance(HystrixCommandGroupKey commandGroup, HystrixCommandKey commandKey, HystrixThreadPoolKey threadPoolKey,
+                HystrixCommandProperties.Setter commandPropertiesDefaults, HystrixThreadPoolProperties.Setter threadPoolPropertiesDefaults) {
+            final HystrixPlugins plugins = HystrixPlugins.getInstance();
+            final CommandPrototype prototype = prototypes.get(commandKey.name());
+            if (prototype != null && prototype.isValidFor(commandGroup, threadPoolKey, plugins)) {
+                return prototype;
+            }
+
+            final HystrixPropertiesStrategy propertiesStrategy = plugins.getPropertiesStrategy();
+            if (propertiesStrategy.getCommandPropertiesCacheKey(commandKey, commandPropertiesDefaults) == null) {
+                return null;
+            }
+            final HystrixCommandProperties properties = HystrixPropertiesFactory.getCommandProperties(commandKey, commandPropertiesDefaults);
+            final HystrixThreadPoolKey resolvedThreadPoolKey = initThreadPoolKey(threadPoolKey, commandGroup, properties.executionIsolationThreadPoolKeyOverride().get());
+            if (propertiesStrategy.getThreadPoolPropertiesCacheKey(resolvedThreadPoolKey, threadPoolPropertiesDefaults) == null) {
+                return null;
+            }
+
+            // racing threads resolve the same instances from the factories, so whichever prototype is stored is equivalent
+            final CommandPrototype created = new CommandPrototype(commandGroup, commandKey, threadPoolKey, properties, threadPoolPropertiesDefaults, plugins);
+            prototypes.put(commandKey.name(), created);
+            return created;
+        }
+
+        private boolean isValidFor(HystrixCommandGroupKey commandGroup, HystrixThreadPoolKey threadPoolKey, HystrixPlugins plugins) {
+            return this.commandGroup.name().equals(commandGroup.name())
+                    && (threadPoolKey == null ? threadPoolKeyFromConstructor == null
+                            : threadPoolKeyFromConstructor != null && threadPoolKeyFromConstructor.name().equals(threadPoolKey.name()))
+                    && equal(threadPoolKeyOverride, properties.executionIsolationThreadPoolKeyOverride().get())
+                    && circuitBreakerEnabled == properties.circuitBreakerEnabled().get()
+                    && eventNotifier == plugins.getEventNotifier()
+                    && concurrencyStrategy == plugins.getConcurrencyStrategy()
+                    && propertiesStrategy == plugins.getPropertiesStrategy()
+                    && metricsPublisher == plugins.getMetricsPublisher()
+                    && executionHookPlugin == plugins.getCommandExecutionHook();
+        }
+
+        private static boolean equal(String a, String b) {
+            return a == null ? b == null : a.equals(b);
+        }
+
+        /**
+         * Clears all prototypes. Invoked whenever the metrics, circuit-breakers or thread-pools they refer to are reset.
+         */
+        /* package */static void reset() {
+            prototypes.clear();
+        }
+    }
+
     private static HystrixCommandGroupKey initGroupKey(final HystrixCommandGroupKey fromConstructor) {
         if (fromConstructor == null) {
             throw new IllegalStateException("HystrixCommandGroup can not be NULL");
@@ -296,7 +425,26 @@ import java.util.concurrent.atomic.AtomicReference;
      */
     /* package */void markAsCollapsedCommand(HystrixCollapserKey collapserKey, int sizeOfBatch) {
         eventNotifier.markEvent(HystrixEventType.COLLAPSED, this.commandKey);
-        executionResult = executionResult.markCollapsed(collapserKey, sizeOfBatch);
+        executionRecord.markCollapsed(collapserKey, sizeOfBatch);
+    }
+
+    /**
+     * Allow {@link HystrixCommandResponseFromCache} to copy the state of the command that executed into this command instance.
+     *
+     * @param originalCommand command whose response is served from cache
+     */
+    /* package */void copyExecutionResultFrom(AbstractCommand<?> originalCommand) {
+        executionRecord.set(originalCommand.executionRecord.snapshot());
+        executionResult = executionRecord.snapshot();
+    }
+
+    /**
+     * Allow {@link HystrixCommandResponseFromCache} to mark this command instance as unsubscribed from before the cached response completed.
+     */
+    /* package */void markAsCancelledFromCache() {
+        executionRecord.addEvent(HystrixEventType.CANCELLED);
+        executionRecord.setExecutionLatency(-1);
+        executionResult = executionRecord.publish();
     }
 
     /**
@@ -384,26 +532,26 @@ import java.util.concurrent.atomic.AtomicReference;
             public void call() {
                 circuitBreaker.markNonSuccess();
                 if (_cmd.commandState.compareAndSet(CommandState.OBSERVABLE_CHAIN_CREATED, CommandState.UNSUBSCRIBED)) {
-                    if (!_cmd.executionResult.containsTerminalEvent()) {
+                    if (!_cmd.executionRecord.containsTerminalEvent()) {
                         _cmd.eventNotifier.markEvent(HystrixEventType.CANCELLED, _cmd.commandKey);
                         try {
                             executionHook.onUnsubscribe(_cmd);
                         } catch (Throwable hookEx) {
                             logger.warn("Error calling HystrixCommandExecutionHook.onUnsubscribe", hookEx);
                         }
-                        _cmd.executionResultAtTimeOfCancellation = _cmd.executionResult
+                        _cmd.executionResultAtTimeOfCancellation = _cmd.executionRecord.snapshot()
                                 .addEvent((int) (System.currentTimeMillis() - _cmd.commandStartTimestamp), HystrixEventType.CANCELLED);
                     }
                     handleCommandEnd(false); //user code never ran
                 } else if (_cmd.commandState.compareAndSet(CommandState.USER_CODE_EXECUTED, CommandState.UNSUBSCRIBED)) {
-                    if (!_cmd.executionResult.containsTerminalEvent()) {
+                    if (!_cmd.executionRecord.containsTerminalEvent()) {
                         _cmd.eventNotifier.markEvent(HystrixEventType.CANCELLED, _cmd.commandKey);
                         try {
                             executionHook.onUnsubscribe(_cmd);
                         } catch (Throwable hookEx) {
                             logger.warn("Error calling HystrixCommandExecutionHook.onUnsubscribe", hookEx);
                         }
-                        _cmd.executionResultAtTimeOfCancellation = _cmd.executionResult
+                        _cmd.executionResultAtTimeOfCancellation = _cmd.executionRecord.snapshot()
                                 .addEvent((int) (System.currentTimeMillis() - _cmd.commandStartTimestamp), HystrixEventType.CANCELLED);
                     }
                     handleCommandEnd(true); //user code did run
@@ -464,10 +612,10 @@ import java.util.concurrent.atomic.AtomicReference;
 
                 commandStartTimestamp = System.currentTimeMillis();
 
-                if (properties.requestLogEnabled().get()) {
+                if (properties.snapshot().requestLogEnabled()) {
                     // log this command execution regardless of what happened
                     if (currentRequestLog != null) {
-                        currentRequestLog.addExecutedCommand(_cmd);
+                        requestLogIndex = currentRequestLog.addExecutedCommand(_cmd);
                     }
                 }
 
@@ -487,6 +635,14 @@ import java.util.concurrent.atomic.AtomicReference;
                         Observable.defer(applyHystrixSemantics)
                                 .map(wrapWithAllOnNextHooks);
 
+                if (isStaleFallbackEnabled(cacheKey)) {
+                    hystrixObservable = storeStaleResponse(cacheKey, hystrixObservable);
+                }
+
+                if (isGlobalCachingEnabled(cacheKey)) {
+                    hystrixObservable = applyGlobalCache(cacheKey, hystrixObservable);
+                }
+
                 Observable<R> afterCache;
 
                 // put in cache
@@ -543,7 +699,7 @@ import java.util.concurrent.atomic.AtomicReference;
             if (executionSemaphore.tryAcquire()) {
                 try {
                     /* used to track userThreadExecutionTime */
-                    executionResult = executionResult.setInvocationStartTime(System.currentTimeMillis());
+                    executionRecord.setInvocationStartTime(System.currentTimeMillis());
                     return executeCommandAndObserve(_cmd)
                             .doOnError(markExceptionThrown)
                             .doOnTerminate(singleSemaphoreRelease)
@@ -552,6 +708,7 @@ import java.util.concurrent.atomic.AtomicReference;
                     return Observable.error(e);
                 }
             } else {
+                markCircuitBreakerFailure();
                 return handleSemaphoreRejectionViaFallback();
             }
         } else {
@@ -561,6 +718,16 @@ import java.util.concurrent.atomic.AtomicReference;
 
     abstract protected boolean commandIsScalar();
 
+    /**
+     * Counts a FAILURE, TIMEOUT, THREAD_POOL_REJECTED or SEMAPHORE_REJECTED execution against circuit breakers that keep their own
+     * error counts. Unlike {@link HystrixCircuitBreaker#markNonSuccess()} this excludes bad requests and cancellations, like {@link HystrixCommandMetrics.HealthCounts}.
+     */
+    private void markCircuitBreakerFailure() {
+        if (circuitBreaker instanceof HystrixCircuitBreaker.AbstractCircuitBreaker) {
+            ((HystrixCircuitBreaker.AbstractCircuitBreaker) circuitBreaker).markFailure();
+        }
+    }
+
     /**
      * This decorates "Hystrix" functionality around the run() Observable.
      *
@@ -573,14 +740,14 @@ import java.util.concurrent.atomic.AtomicReference;
             @Override
             public void call(R r) {
                 if (shouldOutputOnNextEvents()) {
-                    executionResult = executionResult.addEvent(HystrixEventType.EMIT);
+                    executionRecord.addEvent(HystrixEventType.EMIT);
                     eventNotifier.markEvent(HystrixEventType.EMIT, commandKey);
                 }
                 if (commandIsScalar()) {
-                    long latency = System.currentTimeMillis() - executionResult.getStartTimestamp();
+                    long latency = System.currentTimeMillis() - executionRecord.getStartTimestamp();
                     eventNotifier.markEvent(HystrixEventType.SUCCESS, commandKey);
-                    executionResult = executionResult.addEvent((int) latency, HystrixEventType.SUCCESS);
-                    eventNotifier.markCommandExecution(getCommandKey(), properties.executionIsolationStrategy().get(), (int) latency, executionResult.getOrderedList());
+                    executionRecord.addEvent((int) latency, HystrixEventType.SUCCESS);
+                    eventNotifier.markCommandExecution(getCommandKey(), properties.snapshot().executionIsolationStrategy(), (int) latency, executionRecord.getOrderedList());
                     circuitBreaker.markSuccess();
                 }
             }
@@ -590,10 +757,10 @@ import java.util.concurrent.atomic.AtomicReference;
             @Override
             public void call() {
                 if (!commandIsScalar()) {
-                    long latency = System.currentTimeMillis() - executionResult.getStartTimestamp();
+                    long latency = System.currentTimeMillis() - executionRecord.getStartTimestamp();
                     eventNotifier.markEvent(HystrixEventType.SUCCESS, commandKey);
-                    executionResult = executionResult.addEvent((int) latency, HystrixEventType.SUCCESS);
-                    eventNotifier.markCommandExecution(getCommandKey(), properties.executionIsolationStrategy().get(), (int) latency, executionResult.getOrderedList());
+                    executionRecord.addEvent((int) latency, HystrixEventType.SUCCESS);
+                    eventNotifier.markCommandExecution(getCommandKey(), properties.snapshot().executionIsolationStrategy(), (int) latency, executionRecord.getOrderedList());
                     circuitBreaker.markSuccess();
                 }
             }
@@ -604,10 +771,12 @@ import java.util.concurrent.atomic.AtomicReference;
             public Observable<R> call(Throwable t) {
                 circuitBreaker.markNonSuccess();
                 Exception e = getExceptionFromThrowable(t);
-                executionResult = executionResult.setExecutionException(e);
+                executionRecord.setExecutionException(e);
                 if (e instanceof RejectedExecutionException) {
+                    markCircuitBreakerFailure();
                     return handleThreadPoolRejectionViaFallback(e);
                 } else if (t instanceof HystrixTimeoutException) {
+                    markCircuitBreakerFailure();
                     return handleTimeoutViaFallback();
                 } else if (t instanceof HystrixBadRequestException) {
                     return handleBadRequestByEmittingError(e);
@@ -620,6 +789,7 @@ import java.util.concurrent.atomic.AtomicReference;
                         return Observable.error(e);
                     }
 
+                    markCircuitBreakerFailure();
                     return handleFailureViaFallback(e);
                 }
             }
@@ -633,7 +803,7 @@ import java.util.concurrent.atomic.AtomicReference;
         };
 
         Observable<R> execution;
-        if (properties.executionTimeoutEnabled().get()) {
+        if (properties.snapshot().executionTimeoutEnabled()) {
             execution = executeCommandWithSpecifiedIsolation(_cmd)
                     .lift(new HystrixObservableTimeoutOperator<R>(_cmd));
         } else {
@@ -647,17 +817,20 @@ import java.util.concurrent.atomic.AtomicReference;
     }
 
     private Observable<R> executeCommandWithSpecifiedIsolation(final AbstractCommand<R> _cmd) {
-        if (properties.executionIsolationStrategy().get() == ExecutionIsolationStrategy.THREAD) {
+        final ExecutionIsolationStrategy isolationStrategy = properties.snapshot().executionIsolationStrategy();
+        if (isolationStrategy == ExecutionIsolationStrategy.THREAD || isolationStrategy == ExecutionIsolationStrategy.VIRTUAL) {
             // mark that we are executing in a thread (even if we end up being rejected we still were a THREAD execution and not SEMAPHORE)
+            final HystrixThreadPool isolationThreadPool = isolationStrategy == ExecutionIsolationStrategy.VIRTUAL ?
+                    HystrixThreadPool.Factory.getVirtualInstance(threadPoolKey, threadPool) : threadPool;
             return Observable.defer(new Func0<Observable<R>>() {
                 @Override
                 public Observable<R> call() {
-                    executionResult = executionResult.setExecutionOccurred();
+                    executionRecord.setExecutionOccurred();
                     if (!commandState.compareAndSet(CommandState.OBSERVABLE_CHAIN_CREATED, CommandState.USER_CODE_EXECUTED)) {
                         return Observable.error(new IllegalStateException("execution attempted while in state : " + commandState.get().name()));
                     }
 
-                    metrics.markCommandStart(commandKey, threadPoolKey, ExecutionIsolationStrategy.THREAD);
+                    metrics.markCommandStart(commandKey, threadPoolKey, isolationStrategy);
 
                     if (isCommandTimedOut.get() == TimedOutStatus.TIMED_OUT) {
                         // the command timed out in the wrapping thread so we will return immediately
@@ -670,7 +843,7 @@ import java.util.concurrent.atomic.AtomicReference;
                         threadPool.markThreadExecution();
                         // store the command that is being run
                         endCurrentThreadExecutingCommand = Hystrix.startCurrentThreadExecutingCommand(getCommandKey());
-                        executionResult = executionResult.setExecutedInThread();
+                        executionRecord.setExecutedInThread();
                         /**
                          * If any of these hooks throw an exception, then it appears as if the actual execution threw an error
                          */
@@ -709,17 +882,17 @@ import java.util.concurrent.atomic.AtomicReference;
                     }
                     //if it was terminal, then other cleanup handled it
                 }
-            }).subscribeOn(threadPool.getScheduler(new Func0<Boolean>() {
+            }).subscribeOn(isolationThreadPool.getScheduler(new Func0<Boolean>() {
                 @Override
                 public Boolean call() {
-                    return properties.executionIsolationThreadInterruptOnTimeout().get() && _cmd.isCommandTimedOut.get() == TimedOutStatus.TIMED_OUT;
+                    return properties.snapshot().executionIsolationThreadInterruptOnTimeout() && _cmd.isCommandTimedOut.get() == TimedOutStatus.TIMED_OUT;
                 }
             }));
         } else {
             return Observable.defer(new Func0<Observable<R>>() {
                 @Override
                 public Observable<R> call() {
-                    executionResult = executionResult.setExecutionOccurred();
+                    executionRecord.setExecutionOccurred();
                     if (!commandState.compareAndSet(CommandState.OBSERVABLE_CHAIN_CREATED, CommandState.USER_CODE_EXECUTED)) {
                         return Observable.error(new IllegalStateException("execution attempted while in state : " + commandState.get().name()));
                     }
@@ -757,10 +930,11 @@ import java.util.concurrent.atomic.AtomicReference;
      */
     private Observable<R> getFallbackOrThrowException(final AbstractCommand<R> _cmd, final HystrixEventType eventType, final FailureType failureType, final String message, final Exception originalException) {
         final HystrixRequestContext requestContext = HystrixRequestContext.getContextForCurrentThread();
-        long latency = System.currentTimeMillis() - executionResult.getStartTimestamp();
+        long latency = System.currentTimeMillis() - executionRecord.getStartTimestamp();
         // record the executionResult
         // do this before executing fallback so it can be queried from within getFallback (see See https://github.com/Netflix/Hystrix/pull/144)
-        executionResult = executionResult.addEvent((int) latency, eventType);
+        executionRecord.addEvent((int) latency, eventType);
+        executionResult = executionRecord.publish();
 
         if (isUnrecoverable(originalException)) {
             logger.error("Unrecoverable Error for HystrixCommand so will throw HystrixRuntimeException and not apply fallback. ", originalException);
@@ -773,7 +947,7 @@ import java.util.concurrent.atomic.AtomicReference;
                 logger.warn("Recovered from java.lang.Error by serving Hystrix fallback", originalException);
             }
 
-            if (properties.fallbackEnabled().get()) {
+            if (properties.snapshot().fallbackEnabled()) {
                 /* fallback behavior is permitted so attempt */
 
                 final Action1<Notification<? super R>> setRequestContext = new Action1<Notification<? super R>>() {
@@ -787,7 +961,7 @@ import java.util.concurrent.atomic.AtomicReference;
                     @Override
                     public void call(R r) {
                         if (shouldOutputOnNextEvents()) {
-                            executionResult = executionResult.addEvent(HystrixEventType.FALLBACK_EMIT);
+                            executionRecord.addEvent(HystrixEventType.FALLBACK_EMIT);
                             eventNotifier.markEvent(HystrixEventType.FALLBACK_EMIT, commandKey);
                         }
                     }
@@ -796,9 +970,9 @@ import java.util.concurrent.atomic.AtomicReference;
                 final Action0 markFallbackCompleted = new Action0() {
                     @Override
                     public void call() {
-                        long latency = System.currentTimeMillis() - executionResult.getStartTimestamp();
+                        long latency = System.currentTimeMillis() - executionRecord.getStartTimestamp();
                         eventNotifier.markEvent(HystrixEventType.FALLBACK_SUCCESS, commandKey);
-                        executionResult = executionResult.addEvent((int) latency, HystrixEventType.FALLBACK_SUCCESS);
+                        executionRecord.addEvent((int) latency, HystrixEventType.FALLBACK_SUCCESS);
                     }
                 };
 
@@ -809,19 +983,19 @@ import java.util.concurrent.atomic.AtomicReference;
                         Exception e = wrapWithOnErrorHook(failureType, originalException);
                         Exception fe = getExceptionFromThrowable(t);
 
-                        long latency = System.currentTimeMillis() - executionResult.getStartTimestamp();
+                        long latency = System.currentTimeMillis() - executionRecord.getStartTimestamp();
                         Exception toEmit;
 
                         if (fe instanceof UnsupportedOperationException) {
                             logger.debug("No fallback for HystrixCommand. ", fe); // debug only since we're throwing the exception and someone higher will do something with it
                             eventNotifier.markEvent(HystrixEventType.FALLBACK_MISSING, commandKey);
-                            executionResult = executionResult.addEvent((int) latency, HystrixEventType.FALLBACK_MISSING);
+                            executionRecord.addEvent((int) latency, HystrixEventType.FALLBACK_MISSING);
 
                             toEmit = new HystrixRuntimeException(failureType, _cmd.getClass(), getLogMessagePrefix() + " " + message + " and no fallback available.", e, fe);
                         } else {
                             logger.debug("HystrixCommand execution " + failureType.name() + " and fallback failed.", fe);
                             eventNotifier.markEvent(HystrixEventType.FALLBACK_FAILURE, commandKey);
-                            executionResult = executionResult.addEvent((int) latency, HystrixEventType.FALLBACK_FAILURE);
+                            executionRecord.addEvent((int) latency, HystrixEventType.FALLBACK_FAILURE);
 
                             toEmit = new HystrixRuntimeException(failureType, _cmd.getClass(), getLogMessagePrefix() + " " + message + " and fallback failed.", e, fe);
                         }
@@ -835,6 +1009,28 @@ import java.util.concurrent.atomic.AtomicReference;
                     }
                 };
 
+                // failures may be caused by the arguments, so only responses that could not be executed are served stale
+                if (eventType != HystrixEventType.FAILURE && isStaleFallbackEnabled(getCacheKey())) {
+                    List<?> staleResponse = HystrixStaleResponseCache.getInstance(commandKey, properties).get(getCacheKey());
+                    if (staleResponse != null) {
+                        Observable<R> staleExecutionChain;
+                        try {
+                            executionHook.onFallbackStart(this);
+                            staleExecutionChain = handleStaleResponse(staleResponse);
+                        } catch (Throwable ex) {
+                            staleExecutionChain = Observable.error(ex);
+                        }
+                        // a stale response runs no user code, so it does not acquire the fallback semaphore
+                        return staleExecutionChain
+                                .doOnEach(setRequestContext)
+                                .lift(new FallbackHookApplication(_cmd))
+                                .lift(new DeprecatedOnFallbackHookApplication(_cmd))
+                                .doOnNext(markFallbackEmit)
+                                .doOnCompleted(markFallbackCompleted)
+                                .onErrorResumeNext(handleFallbackError);
+                    }
+                }
+
                 final TryableSemaphore fallbackSemaphore = getFallbackSemaphore();
                 final AtomicBoolean semaphoreHasBeenReleased = new AtomicBoolean(false);
                 final Action0 singleSemaphoreRelease = new Action0() {
@@ -927,6 +1123,160 @@ import java.util.concurrent.atomic.AtomicReference;
                 });
     }
 
+    /**
+     * Serve the response from the {@link HystrixGlobalCache} if it is there, wait for it if another command is loading it,
+     * or otherwise execute and store the response if it is successful.
+     */
+    private Observable<R> applyGlobalCache(final String cacheKey, final Observable<R> execution) {
+        final HystrixGlobalCache globalCache = HystrixGlobalCache.getInstance(commandKey, properties);
+        return Observable.defer(new Func0<Observable<R>>() {
+            @Override
+            public Observable<R> call() {
+                while (true) {
+                    HystrixGlobalCache.Entry existing = globalCache.get(cacheKey);
+                    if (existing instanceof HystrixGlobalCache.Value) {
+                        return handleGlobalCacheHit(((HystrixGlobalCache.Value) existing).getResponse());
+                    } else if (existing instanceof HystrixGlobalCache.Load) {
+                        return waitForGlobalCacheLoad((HystrixGlobalCache.Load) existing, execution);
+                    }
+                    HystrixGlobalCache.Load load = globalCache.startLoad(cacheKey);
+                    if (load != null) {
+                        markGlobalCacheMiss();
+                        return loadIntoGlobalCache(globalCache, load, execution);
+                    }
+                    // another command started loading or stored the response in the meantime
+                }
+            }
+        });
+    }
+
+    /**
+     * Wait for another command to load the response.  The wait is bounded by the execution timeout of this command, after which it
+     * executes on its own as if the load had been abandoned.
+     */
+    private Observable<R> waitForGlobalCacheLoad(HystrixGlobalCache.Load load, final Observable<R> execution) {
+        final HystrixRequestContext currentRequestContext = HystrixRequestContext.getContextForCurrentThread();
+        Observable<List<?>> loadedResponse = load.getResponse();
+        final HystrixCommandProperties.Snapshot propertiesSnapshot = properties.snapshot();
+        if (propertiesSnapshot.executionTimeoutEnabled()) {
+            loadedResponse = loadedResponse.timeout(propertiesSnapshot.executionTimeoutInMilliseconds(), TimeUnit.MILLISECONDS, Observable.<List<?>>just(null));
+        }
+        return loadedResponse.flatMap(new Func1<List<?>, Observable<R>>() {
+            @Override
+            public Observable<R> call(List<?> response) {
+                if (response != null) {
+                    return handleGlobalCacheHit(response);
+                }
+                // the other command did not succeed in time, so execute this one on its own, in its own request context
+                markGlobalCacheMiss();
+                return Observable.create(new Observable.OnSubscribe<R>() {
+                    @Override
+                    public void call(Subscriber<? super R> subscriber) {
+                        HystrixRequestContext loadingRequestContext = HystrixRequestContext.getContextForCurrentThread();
+                        HystrixRequestContext.setContextOnCurrentThread(currentRequestContext);
+                        try {
+                            execution.unsafeSubscribe(subscriber);
+                        } finally {
+                            HystrixRequestContext.setContextOnCurrentThread(loadingRequestContext);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private Observable<R> loadIntoGlobalCache(final HystrixGlobalCache globalCache, final HystrixGlobalCache.Load load, Observable<R> execution) {
+        final List<R> response = new ArrayList<R>();
+        final Action0 abandonLoad = new Action0() {
+            @Override
+            public void call() {
+                globalCache.abandon(load);
+            }
+        };
+        return execution
+                .doOnNext(new Action1<R>() {
+                    @Override
+                    public void call(R r) {
+                        response.add(r);
+                    }
+                })
+                .doOnCompleted(new Action0() {
+                    @Override
+                    public void call() {
+                        // fallbacks are not cached
+                        if (executionRecord.contains(HystrixEventType.SUCCESS)) {
+                            int evicted = globalCache.complete(load, response);
+                            if (evicted > 0) {
+                                executionRecord.addEvent(HystrixEventType.GLOBAL_CACHE_EVICTION);
+                                for (int i = 0; i < evicted; i++) {
+                                    eventNotifier.markEvent(HystrixEventType.GLOBAL_CACHE_EVICTION, commandKey);
+                                }
+                            }
+                        } else {
+                            globalCache.abandon(load);
+                        }
+                    }
+                })
+                .doOnTerminate(abandonLoad)
+                .doOnUnsubscribe(abandonLoad);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Observable<R> handleGlobalCacheHit(List<?> response) {
+        executionRecord.addEvent(HystrixEventType.GLOBAL_CACHE_HIT);
+        eventNotifier.markEvent(HystrixEventType.GLOBAL_CACHE_HIT, commandKey);
+        try {
+            executionHook.onCacheHit(this);
+        } catch (Throwable hookEx) {
+            logger.warn("Error calling HystrixCommandExecutionHook.onCacheHit", hookEx);
+        }
+        return Observable.from((List<R>) response);
+    }
+
+    /**
+     * Keep the response of a successful execution in the {@link HystrixStaleResponseCache}, to be served when a later execution is not possible.
+     */
+    private Observable<R> storeStaleResponse(final String cacheKey, Observable<R> execution) {
+        final List<R> response = new ArrayList<R>();
+        return execution
+                .doOnNext(new Action1<R>() {
+                    @Override
+                    public void call(R r) {
+                        response.add(r);
+                    }
+                })
+                .doOnCompleted(new Action0() {
+                    @Override
+                    public void call() {
+                        // fallbacks, including stale responses, are not stored
+                        if (executionRecord.contains(HystrixEventType.SUCCESS)) {
+                            HystrixStaleResponseCache.getInstance(commandKey, properties).put(cacheKey, response);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Serve a stale response in place of the fallback.  The caller applies the fallback hooks and marks FALLBACK_SUCCESS as it does for
+     * {@link #getFallbackObservable()}.
+     */
+    @SuppressWarnings("unchecked")
+    private Observable<R> handleStaleResponse(List<?> staleResponse) {
+        return Observable.from((List<R>) staleResponse)
+                .doOnCompleted(new Action0() {
+                    @Override
+                    public void call() {
+                        eventNotifier.markEvent(HystrixEventType.FALLBACK_STALE, commandKey);
+                        executionRecord.addEvent(HystrixEventType.FALLBACK_STALE);
+                    }
+                });
+    }
+
+    private void markGlobalCacheMiss() {
+        executionRecord.addEvent(HystrixEventType.GLOBAL_CACHE_MISS);
+        eventNotifier.markEvent(HystrixEventType.GLOBAL_CACHE_MISS, commandKey);
+    }
+
     private void cleanUpAfterResponseFromCache(boolean commandExecutionStarted) {
         Reference<TimerListener> tl = timeoutTimer.get();
         if (tl != null) {
@@ -934,14 +1284,14 @@ import java.util.concurrent.atomic.AtomicReference;
         }
 
         final long latency = System.currentTimeMillis() - commandStartTimestamp;
-        executionResult = executionResult
-                .addEvent(-1, HystrixEventType.RESPONSE_FROM_CACHE)
-                .markUserThreadCompletion(latency)
-                .setNotExecutedInThread();
+        executionRecord.addEvent(-1, HystrixEventType.RESPONSE_FROM_CACHE);
+        executionRecord.markUserThreadCompletion(latency);
+        executionRecord.setNotExecutedInThread();
         ExecutionResult cacheOnlyForMetrics = ExecutionResult.from(HystrixEventType.RESPONSE_FROM_CACHE)
                 .markUserThreadCompletion(latency);
         metrics.markCommandDone(cacheOnlyForMetrics, commandKey, threadPoolKey, commandExecutionStarted);
         eventNotifier.markEvent(HystrixEventType.RESPONSE_FROM_CACHE, commandKey);
+        summarizeInRequestLog();
     }
 
     private void handleCommandEnd(boolean commandExecutionStarted) {
@@ -951,7 +1301,8 @@ import java.util.concurrent.atomic.AtomicReference;
         }
 
         long userThreadLatency = System.currentTimeMillis() - commandStartTimestamp;
-        executionResult = executionResult.markUserThreadCompletion((int) userThreadLatency);
+        executionRecord.markUserThreadCompletion((int) userThreadLatency);
+        executionResult = executionRecord.publish();
         if (executionResultAtTimeOfCancellation == null) {
             metrics.markCommandDone(executionResult, commandKey, threadPoolKey, commandExecutionStarted);
         } else {
@@ -961,11 +1312,19 @@ import java.util.concurrent.atomic.AtomicReference;
         if (endCurrentThreadExecutingCommand != null) {
             endCurrentThreadExecutingCommand.call();
         }
+        summarizeInRequestLog();
+    }
+
+    private void summarizeInRequestLog() {
+        if (requestLogIndex >= 0 && properties.snapshot().requestLogSummaryEnabled()) {
+            // the request log no longer needs this instance, only the outcome of its execution
+            currentRequestLog.summarizeExecutedCommand(requestLogIndex, this);
+        }
     }
 
     private Observable<R> handleSemaphoreRejectionViaFallback() {
         Exception semaphoreRejectionException = new RuntimeException("could not acquire a semaphore for execution");
-        executionResult = executionResult.setExecutionException(semaphoreRejectionException);
+        executionRecord.setExecutionException(semaphoreRejectionException);
         eventNotifier.markEvent(HystrixEventType.SEMAPHORE_REJECTED, commandKey);
         logger.debug("HystrixCommand Execution Rejection by Semaphore."); // debug only since we're throwing the exception and someone higher will do something with it
         // retrieve a fallback or throw an exception if no fallback available
@@ -978,7 +1337,7 @@ import java.util.concurrent.atomic.AtomicReference;
         eventNotifier.markEvent(HystrixEventType.SHORT_CIRCUITED, commandKey);
         // short-circuit and go directly to fallback (or throw an exception if no fallback implemented)
         Exception shortCircuitException = new RuntimeException("Hystrix circuit short-circuited and is OPEN");
-        executionResult = executionResult.setExecutionException(shortCircuitException);
+        executionRecord.setExecutionException(shortCircuitException);
         try {
             return getFallbackOrThrowException(this, HystrixEventType.SHORT_CIRCUITED, FailureType.SHORTCIRCUIT,
                     "short-circuited", shortCircuitException);
@@ -1002,9 +1361,9 @@ import java.util.concurrent.atomic.AtomicReference;
         Exception toEmit = underlying;
 
         try {
-            long executionLatency = System.currentTimeMillis() - executionResult.getStartTimestamp();
+            long executionLatency = System.currentTimeMillis() - executionRecord.getStartTimestamp();
             eventNotifier.markEvent(HystrixEventType.BAD_REQUEST, commandKey);
-            executionResult = executionResult.addEvent((int) executionLatency, HystrixEventType.BAD_REQUEST);
+            executionRecord.addEvent((int) executionLatency, HystrixEventType.BAD_REQUEST);
             Exception decorated = executionHook.onError(this, FailureType.BAD_REQUEST_EXCEPTION, underlying);
 
             if (decorated instanceof HystrixBadRequestException) {
@@ -1031,14 +1390,14 @@ import java.util.concurrent.atomic.AtomicReference;
         eventNotifier.markEvent(HystrixEventType.FAILURE, commandKey);
 
         // record the exception
-        executionResult = executionResult.setException(underlying);
+        executionRecord.setException(underlying);
         return getFallbackOrThrowException(this, HystrixEventType.FAILURE, FailureType.COMMAND_EXCEPTION, "failed", underlying);
     }
 
     private Observable<R> handleFallbackRejectionByEmittingError() {
-        long latencyWithFallback = System.currentTimeMillis() - executionResult.getStartTimestamp();
+        long latencyWithFallback = System.currentTimeMillis() - executionRecord.getStartTimestamp();
         eventNotifier.markEvent(HystrixEventType.FALLBACK_REJECTION, commandKey);
-        executionResult = executionResult.addEvent((int) latencyWithFallback, HystrixEventType.FALLBACK_REJECTION);
+        executionRecord.addEvent((int) latencyWithFallback, HystrixEventType.FALLBACK_REJECTION);
         logger.debug("HystrixCommand Fallback Rejection."); // debug only since we're throwing the exception and someone higher will do something with it
         // if we couldn't acquire a permit, we "fail fast" by throwing an exception
         return Observable.error(new HystrixRuntimeException(FailureType.REJECTED_SEMAPHORE_FALLBACK, this.getClass(), getLogMessagePrefix() + " fallback execution rejected.", null, null));
@@ -1165,11 +1524,11 @@ import java.util.concurrent.atomic.AtomicReference;
 
                 @Override
                 public int getIntervalTimeInMilliseconds() {
-                    return originalCommand.properties.executionTimeoutInMilliseconds().get();
+                    return originalCommand.properties.snapshot().executionTimeoutInMilliseconds();
                 }
             };
 
-            final Reference<TimerListener> tl = HystrixTimer.getInstance().addTimerListener(listener);
+            final Reference<TimerListener> tl = HystrixTimer.getInstance().addOneShotTimerListener(listener);
 
             // set externally so execute/queue can see this
             originalCommand.timeoutTimer.set(tl);
@@ -1254,12 +1613,16 @@ import java.util.concurrent.atomic.AtomicReference;
      * @return TryableSemaphore
      */
     protected TryableSemaphore getExecutionSemaphore() {
-        if (properties.executionIsolationStrategy().get() == ExecutionIsolationStrategy.SEMAPHORE) {
+        if (properties.snapshot().executionIsolationStrategy() == ExecutionIsolationStrategy.SEMAPHORE) {
             if (executionSemaphoreOverride == null) {
                 TryableSemaphore _s = executionSemaphorePerCircuit.get(commandKey.name());
                 if (_s == null) {
                     // we didn't find one cache so setup
-                    executionSemaphorePerCircuit.putIfAbsent(commandKey.name(), new TryableSemaphoreActual(properties.executionIsolationSemaphoreMaxConcurrentRequests()));
+                    HystrixProperty<Integer> numberOfPermits = metrics.getAdaptiveConcurrencyLimit();
+                    if (numberOfPermits == null) {
+                        numberOfPermits = properties.executionIsolationSemaphoreMaxConcurrentRequests();
+                    }
+                    executionSemaphorePerCircuit.putIfAbsent(commandKey.name(), new TryableSemaphoreActual(numberOfPermits));
                     // assign whatever got set (this or another thread)
                     return executionSemaphorePerCircuit.get(commandKey.name());
                 } else {
@@ -1724,7 +2087,15 @@ import java.util.concurrent.atomic.AtomicReference;
     }
 
     protected boolean isRequestCachingEnabled() {
-        return properties.requestCacheEnabled().get() && getCacheKey() != null;
+        return properties.snapshot().requestCacheEnabled() && getCacheKey() != null;
+    }
+
+    private boolean isGlobalCachingEnabled(String cacheKey) {
+        return properties.snapshot().requestCacheGlobalEnabled() && cacheKey != null;
+    }
+
+    private boolean isStaleFallbackEnabled(String cacheKey) {
+        return properties.snapshot().fallbackStaleEnabled() && cacheKey != null;
     }
 
     protected String getLogMessagePrefix() {
@@ -1749,7 +2120,7 @@ import java.util.concurrent.atomic.AtomicReference;
      * @return boolean
      */
     public boolean isCircuitBreakerOpen() {
-        return properties.circuitBreakerForceOpen().get() || (!properties.circuitBreakerForceClosed().get() && circuitBreaker.isOpen());
+        return properties.snapshot().circuitBreakerForceOpen() || (!properties.snapshot().circuitBreakerForceClosed() && circuitBreaker.isOpen());
     }
 
     /**
@@ -1802,7 +2173,7 @@ import java.util.concurrent.atomic.AtomicReference;
      * @return Throwable or null
      */
     public Throwable getFailedExecutionException() {
-        return executionResult.getException();
+        return executionRecord.getException();
     }
 
     /**
@@ -1822,7 +2193,7 @@ import java.util.concurrent.atomic.AtomicReference;
      * @return Throwable or null
      */
     public Throwable getExecutionException() {
-        return executionResult.getExecutionException();
+        return executionRecord.getExecutionException();
     }
 
     /**
@@ -1905,7 +2276,7 @@ import java.util.concurrent.atomic.AtomicReference;
     private ExecutionResult getCommandResult() {
         ExecutionResult resultToReturn;
         if (executionResultAtTimeOfCancellation == null) {
-            resultToReturn = executionResult;
+            resultToReturn = executionRecord.snapshot();
         } else {
             resultToReturn = executionResultAtTimeOfCancellation;
         }
@@ -1942,7 +2313,7 @@ import java.util.concurrent.atomic.AtomicReference;
 
     @Override
     public HystrixCollapserKey getOriginatingCollapserKey() {
-        return executionResult.getCollapserKey();
+        return executionRecord.getCollapserKey();
     }
 
     /**
@@ -1961,7 +2332,7 @@ import java.util.concurrent.atomic.AtomicReference;
       * @return long
      */
     public long getCommandRunStartTimeInNanos() {
-        return executionResult.getCommandRunStartTimeInNanos();
+        return executionRecord.getCommandRunStartTimeInNanos();
     }
 
     @Override
@@ -28,6 +28,8 @@ import java.util.List;
  * <p>
  * This being immutable forces and ensure thread-safety instead of using AtomicInteger/ConcurrentLinkedQueue and determining
  * when it's safe to mutate the object directly versus needing to deep-copy clone to a new instance.
+ * <p>
+ * A command records its own execution in place and only takes an immutable snapshot of it when it publishes its state.
  */
 public class ExecutionResult {
     private final EventCounts eventCounts;
@@ -40,35 +42,57 @@ public class ExecutionResult {
     private final boolean isExecutedInThread;
     private final HystrixCollapserKey collapserKey;
 
-    private static final HystrixEventType[] ALL_EVENT_TYPES = HystrixEventType.values();
+    /* package */ static final HystrixEventType[] ALL_EVENT_TYPES = HystrixEventType.values();
     private static final int NUM_EVENT_TYPES = ALL_EVENT_TYPES.length;
-    private static final BitSet EXCEPTION_PRODUCING_EVENTS = new BitSet(NUM_EVENT_TYPES);
-    private static final BitSet TERMINAL_EVENTS = new BitSet(NUM_EVENT_TYPES);
+    private static final long EXCEPTION_PRODUCING_EVENTS;
+    /* package */ static final long TERMINAL_EVENTS;
 
     static {
+        if (NUM_EVENT_TYPES > 64) {
+            throw new IllegalStateException("EventCounts stores events in a 64-bit mask but there are " + NUM_EVENT_TYPES + " HystrixEventTypes");
+        }
+
+        long exceptionProducingEvents = 0L;
         for (HystrixEventType eventType: HystrixEventType.EXCEPTION_PRODUCING_EVENT_TYPES) {
-            EXCEPTION_PRODUCING_EVENTS.set(eventType.ordinal());
+            exceptionProducingEvents |= bit(eventType);
         }
+        EXCEPTION_PRODUCING_EVENTS = exceptionProducingEvents;
 
+        long terminalEvents = 0L;
         for (HystrixEventType eventType: HystrixEventType.TERMINAL_EVENT_TYPES) {
-            TERMINAL_EVENTS.set(eventType.ordinal());
+            terminalEvents |= bit(eventType);
         }
+        TERMINAL_EVENTS = terminalEvents;
+    }
+
+    /* package */ static long bit(HystrixEventType eventType) {
+        return 1L << eventType.ordinal();
     }
 
+    /**
+     * Immutable set of events with counts for the ones that may occur more than once.
+     * <p>
+     * The set is a single <code>long</code> bit mask (one bit per {@link HystrixEventType} ordinal) rather than a {@link BitSet}
+     * so that adding an event, which happens several times per command execution, allocates just this object.
+     */
     public static class EventCounts {
-        private final BitSet events;
+        private final long events;
         private final int numEmissions;
         private final int numFallbackEmissions;
         private final int numCollapsed;
 
         EventCounts() {
-            this.events = new BitSet(NUM_EVENT_TYPES);
+            this.events = 0L;
             this.numEmissions = 0;
             this.numFallbackEmissions = 0;
             this.numCollapsed = 0;
         }
 
         EventCounts(BitSet events, int numEmissions, int numFallbackEmissions, int numCollapsed) {
+            this(toMask(events), numEmissions, numFallbackEmissions, numCollapsed);
+        }
+
+        /* package */ EventCounts(long events, int numEmissions, int numFallbackEmissions, int numCollapsed) {
             this.events = events;
             this.numEmissions = numEmissions;
             this.numFallbackEmissions = numFallbackEmissions;
@@ -76,70 +100,82 @@ public class ExecutionResult {
         }
 
         EventCounts(HystrixEventType... eventTypes) {
-            BitSet newBitSet = new BitSet(NUM_EVENT_TYPES);
+            long newEvents = 0L;
             int localNumEmits = 0;
             int localNumFallbackEmits = 0;
             int localNumCollapsed = 0;
             for (HystrixEventType eventType: eventTypes) {
                 switch (eventType) {
                     case EMIT:
-                        newBitSet.set(HystrixEventType.EMIT.ordinal());
                         localNumEmits++;
                         break;
                     case FALLBACK_EMIT:
-                        newBitSet.set(HystrixEventType.FALLBACK_EMIT.ordinal());
                         localNumFallbackEmits++;
                         break;
                     case COLLAPSED:
-                        newBitSet.set(HystrixEventType.COLLAPSED.ordinal());
                         localNumCollapsed++;
                         break;
                     default:
-                        newBitSet.set(eventType.ordinal());
                         break;
                 }
+                newEvents |= bit(eventType);
             }
-            this.events = newBitSet;
+            this.events = newEvents;
             this.numEmissions = localNumEmits;
             this.numFallbackEmissions = localNumFallbackEmits;
             this.numCollapsed = localNumCollapsed;
         }
 
+        private static long toMask(BitSet bitSet) {
+            long mask = 0L;
+            for (int i = bitSet.nextSetBit(0); i >= 0 && i < 64; i = bitSet.nextSetBit(i + 1)) {
+                mask |= 1L << i;
+            }
+            return mask;
+        }
+
         EventCounts plus(HystrixEventType eventType) {
             return plus(eventType, 1);
         }
 
         EventCounts plus(HystrixEventType eventType, int count) {
-            BitSet newBitSet = (BitSet) events.clone();
             int localNumEmits = numEmissions;
             int localNumFallbackEmits =  numFallbackEmissions;
             int localNumCollapsed = numCollapsed;
             switch (eventType) {
                 case EMIT:
-                    newBitSet.set(HystrixEventType.EMIT.ordinal());
                     localNumEmits += count;
                     break;
                 case FALLBACK_EMIT:
-                    newBitSet.set(HystrixEventType.FALLBACK_EMIT.ordinal());
                     localNumFallbackEmits += count;
                     break;
                 case COLLAPSED:
-                    newBitSet.set(HystrixEventType.COLLAPSED.ordinal());
                     localNumCollapsed += count;
                     break;
                 default:
-                    newBitSet.set(eventType.ordinal());
+                    if (contains(eventType)) {
+                        //nothing to count, and this is immutable so it can be shared
+                        return this;
+                    }
                     break;
             }
-            return new EventCounts(newBitSet, localNumEmits, localNumFallbackEmits, localNumCollapsed);
+            return new EventCounts(events | bit(eventType), localNumEmits, localNumFallbackEmits, localNumCollapsed);
         }
 
         public boolean contains(HystrixEventType eventType) {
-            return events.get(eventType.ordinal());
+            return (events & bit(eventType)) != 0;
         }
 
         public boolean containsAnyOf(BitSet other) {
-            return events.intersects(other);
+            return (events & toMask(other)) != 0;
+        }
+
+        /* package */ boolean containsAnyOf(long other) {
+            return (events & other) != 0;
+        }
+
+        /* package */ long getEvents() {
+            return events;
         }
 
         public int getCount(HystrixEventType eventType) {
@@ -162,13 +198,13 @@ public class ExecutionResult {
             if (numEmissions != that.numEmissions) return false;
             if (numFallbackEmissions != that.numFallbackEmissions) return false;
             if (numCollapsed != that.numCollapsed) return false;
-            return events.equals(that.events);
+            return events == that.events;
 
         }
 
         @Override
         public int hashCode() {
-            int result = events.hashCode();
+            int result = (int) (events ^ (events >>> 32));
             result = 31 * result + numEmissions;
             result = 31 * result + numFallbackEmissions;
             result = 31 * result + numCollapsed;
@@ -177,8 +213,18 @@ public class ExecutionResult {
 
         @Override
         public String toString() {
+            StringBuilder eventsString = new StringBuilder("{");
+            for (int i = 0; i < NUM_EVENT_TYPES; i++) {
+                if ((events & (1L << i)) != 0) {
+                    if (eventsString.length() > 1) {
+                        eventsString.append(", ");
+                    }
+                    eventsString.append(i);
+                }
+            }
+            eventsString.append('}');
             return "EventCounts{" +
-                    "events=" + events +
+                    "events=" + eventsString +
                     ", numEmissions=" + numEmissions +
                     ", numFallbackEmissions=" + numFallbackEmissions +
                     ", numCollapsed=" + numCollapsed +
@@ -186,7 +232,7 @@ public class ExecutionResult {
         }
     }
 
-    private ExecutionResult(EventCounts eventCounts, long startTimestamp, int executionLatency,
+    /* package */ ExecutionResult(EventCounts eventCounts, long startTimestamp, int executionLatency,
                             int userThreadLatency, Exception failedExecutionException, Exception executionException,
                             boolean executionOccurred, boolean isExecutedInThread, HystrixCollapserKey collapserKey) {
         this.eventCounts = eventCounts;
@@ -224,37 +270,63 @@ public class ExecutionResult {
         }
     }
 
+    /*
+     * The setters below return this instance when nothing would change so that the common execution path does not
+     * allocate a copy for every step.
+     */
+
     public ExecutionResult setExecutionOccurred() {
+        if (executionOccurred) {
+            return this;
+        }
         return new ExecutionResult(eventCounts, startTimestamp, executionLatency, userThreadLatency,
                 failedExecutionException, executionException, true, isExecutedInThread, collapserKey);
     }
 
     public ExecutionResult setExecutionLatency(int executionLatency) {
+        if (this.executionLatency == executionLatency) {
+            return this;
+        }
         return new ExecutionResult(eventCounts, startTimestamp, executionLatency, userThreadLatency,
                 failedExecutionException, executionException, executionOccurred, isExecutedInThread, collapserKey);
     }
 
     public ExecutionResult setException(Exception e) {
+        if (failedExecutionException == e) {
+            return this;
+        }
         return new ExecutionResult(eventCounts, startTimestamp, executionLatency, userThreadLatency, e,
                 executionException, executionOccurred, isExecutedInThread, collapserKey);
     }
 
     public ExecutionResult setExecutionException(Exception executionException) {
+        if (this.executionException == executionException) {
+            return this;
+        }
         return new ExecutionResult(eventCounts, startTimestamp, executionLatency, userThreadLatency,
                 failedExecutionException, executionException, executionOccurred, isExecutedInThread, collapserKey);
     }
 
     public ExecutionResult setInvocationStartTime(long startTimestamp) {
+        if (this.startTimestamp == startTimestamp) {
+            return this;
+        }
         return new ExecutionResult(eventCounts, startTimestamp, executionLatency, userThreadLatency,
                 failedExecutionException, executionException, executionOccurred, isExecutedInThread, collapserKey);
     }
 
     public ExecutionResult setExecutedInThread() {
+        if (isExecutedInThread) {
+            return this;
+        }
         return new ExecutionResult(eventCounts, startTimestamp, executionLatency, userThreadLatency,
                 failedExecutionException, executionException, executionOccurred, true, collapserKey);
     }
 
     public ExecutionResult setNotExecutedInThread() {
+        if (!isExecutedInThread) {
+            return this;
+        }
         return new ExecutionResult(eventCounts, startTimestamp, executionLatency, userThreadLatency,
                 failedExecutionException, executionException, executionOccurred, false, collapserKey);
     }
@@ -278,10 +350,14 @@ public class ExecutionResult {
      * Creates a new ExecutionResult by adding the defined 'event' to the ones on the current instance.
      *
      * @param eventType event to add
-     * @return new {@link ExecutionResult} with event added
+     * @return new {@link ExecutionResult} with event added, or this instance if the event is already present and not counted
      */
     public ExecutionResult addEvent(HystrixEventType eventType) {
-        return new ExecutionResult(eventCounts.plus(eventType), startTimestamp, executionLatency,
+        EventCounts newEventCounts = eventCounts.plus(eventType);
+        if (newEventCounts == eventCounts) {
+            return this;
+        }
+        return new ExecutionResult(newEventCounts, startTimestamp, executionLatency,
                 userThreadLatency, failedExecutionException, executionException,
                 executionOccurred, isExecutedInThread, collapserKey);
     }
@@ -341,7 +417,7 @@ public class ExecutionResult {
     }
 
     public List<HystrixEventType> getOrderedList() {
-        List<HystrixEventType> eventList = new ArrayList<HystrixEventType>();
+        List<HystrixEventType> eventList = new ArrayList<HystrixEventType>(Long.bitCount(eventCounts.events));
         for (HystrixEventType eventType: ALL_EVENT_TYPES) {
             if (eventCounts.contains(eventType)) {
                 eventList.add(eventType);
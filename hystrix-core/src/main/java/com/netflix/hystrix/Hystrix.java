@@ -72,10 +72,15 @@ public class Hystrix {
         HystrixCollapserMetrics.reset();
         // clear collapsers
         HystrixCollapser.reset();
+        // clear global response caches
+        HystrixGlobalCache.reset();
+        HystrixStaleResponseCache.reset();
         // clear circuit breakers
         HystrixCircuitBreaker.Factory.reset();
         HystrixPlugins.reset();
         HystrixPropertiesFactory.reset();
+        // clear command prototypes, which refer to the plugins and properties
+        AbstractCommand.CommandPrototype.reset();
         currentCommand.set(new ConcurrentStack<HystrixCommandKey>());
     }
 
@@ -16,6 +16,7 @@
 package com.netflix.hystrix;
 
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -26,7 +27,7 @@ import rx.Subscription;
 /**
  * Circuit-breaker logic that is hooked into {@link HystrixCommand} execution and will stop allowing executions if failures have gone past the defined threshold.
  * <p>
- * The default (and only) implementation  will then allow a single retry after a defined sleepWindow until the execution
+ * The default implementations will then allow a single retry after a defined sleepWindow until the execution
  * succeeds at which point it will again close the circuit and allow executions again.
  */
 public interface HystrixCircuitBreaker {
@@ -98,7 +99,7 @@ public interface HystrixCircuitBreaker {
             // Create and add to the map ... use putIfAbsent to atomically handle the possible race-condition of
             // 2 threads hitting this point at the same time and let ConcurrentHashMap provide us our thread-safety
             // If 2 threads hit here only one will get added and the other will get a non-null response instead.
-            HystrixCircuitBreaker cbForCommand = circuitBreakersByCommand.putIfAbsent(key.name(), new HystrixCircuitBreakerImpl(key, group, properties, metrics));
+            HystrixCircuitBreaker cbForCommand = circuitBreakersByCommand.putIfAbsent(key.name(), create(key, group, properties, metrics));
             if (cbForCommand == null) {
                 // this means the putIfAbsent step just created a new one so let's retrieve and return it
                 return circuitBreakersByCommand.get(key.name());
@@ -109,6 +110,14 @@ public interface HystrixCircuitBreaker {
             }
         }
 
+        private static HystrixCircuitBreaker create(HystrixCommandKey key, HystrixCommandGroupKey group, HystrixCommandProperties properties, HystrixCommandMetrics metrics) {
+            int slidingWindowSize = properties.circuitBreakerSlidingWindowSize().get();
+            if (slidingWindowSize > 0) {
+                return new SlidingWindowCircuitBreaker(properties, slidingWindowSize);
+            }
+            return new HystrixCircuitBreakerImpl(key, group, properties, metrics);
+        }
+
         /**
          * Get the {@link HystrixCircuitBreaker} instance for a given {@link HystrixCommandKey} or null if none exists.
          * 
@@ -125,30 +134,158 @@ public interface HystrixCircuitBreaker {
          */
         /* package */static void reset() {
             circuitBreakersByCommand.clear();
+            AbstractCommand.CommandPrototype.reset();
         }
     }
 
 
     /**
-     * The default production implementation of {@link HystrixCircuitBreaker}.
-     * 
+     * The OPEN/HALF_OPEN/CLOSED state machine shared by the production implementations of {@link HystrixCircuitBreaker}.
+     * <p>
+     * Subclasses decide when a CLOSED circuit trips by calling {@link #tripCircuit()}.
+     *
      * @ExcludeFromJavadoc
      * @ThreadSafe
      */
-    /* package */class HystrixCircuitBreakerImpl implements HystrixCircuitBreaker {
-        private final HystrixCommandProperties properties;
-        private final HystrixCommandMetrics metrics;
+    /* package */abstract class AbstractCircuitBreaker implements HystrixCircuitBreaker {
+        protected final HystrixCommandProperties properties;
 
         enum Status {
             CLOSED, OPEN, HALF_OPEN;
         }
 
-        private final AtomicReference<Status> status = new AtomicReference<Status>(Status.CLOSED);
-        private final AtomicLong circuitOpened = new AtomicLong(-1);
+        protected final AtomicReference<Status> status = new AtomicReference<Status>(Status.CLOSED);
+        protected final AtomicLong circuitOpened = new AtomicLong(-1);
+
+        protected AbstractCircuitBreaker(HystrixCommandProperties properties) {
+            this.properties = properties;
+        }
+
+        /**
+         * Invoked on FAILURE, TIMEOUT, THREAD_POOL_REJECTED and SEMAPHORE_REJECTED executions.
+         * <p>
+         * Unlike {@link #markNonSuccess()} it is not invoked for bad requests or cancelled executions, which do not count as errors.
+         */
+        void markFailure() {
+        }
+
+        /**
+         * Opens a CLOSED circuit.
+         */
+        protected void tripCircuit() {
+            if (status.compareAndSet(Status.CLOSED, Status.OPEN)) {
+                circuitOpened.set(System.currentTimeMillis());
+            }
+        }
+
+        /**
+         * Closes a HALF_OPEN circuit.
+         *
+         * @return true if this thread won the race to close the circuit
+         */
+        protected boolean closeHalfOpenCircuit() {
+            if (status.compareAndSet(Status.HALF_OPEN, Status.CLOSED)) {
+                circuitOpened.set(-1L);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Re-opens a HALF_OPEN circuit.
+         *
+         * @return true if this thread won the race to re-open the circuit
+         */
+        protected boolean reopenHalfOpenCircuit() {
+            if (status.compareAndSet(Status.HALF_OPEN, Status.OPEN)) {
+                //This thread wins the race to re-open the circuit - it resets the start time for the sleep window
+                circuitOpened.set(System.currentTimeMillis());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean isOpen() {
+            if (properties.circuitBreakerForceOpen().get()) {
+                return true;
+            }
+            if (properties.circuitBreakerForceClosed().get()) {
+                return false;
+            }
+            return circuitOpened.get() >= 0;
+        }
+
+        @Override
+        public boolean allowRequest() {
+            if (properties.circuitBreakerForceOpen().get()) {
+                return false;
+            }
+            if (properties.circuitBreakerForceClosed().get()) {
+                return true;
+            }
+            if (circuitOpened.get() == -1) {
+                return true;
+            } else {
+                if (status.get().equals(Status.HALF_OPEN)) {
+                    return false;
+                } else {
+                    return isAfterSleepWindow();
+                }
+            }
+        }
+
+        private boolean isAfterSleepWindow() {
+            final long circuitOpenTime = circuitOpened.get();
+            final long currentTime = System.currentTimeMillis();
+            final long sleepWindowTime = properties.circuitBreakerSleepWindowInMilliseconds().get();
+            return currentTime > circuitOpenTime + sleepWindowTime;
+        }
+
+        @Override
+        public boolean attemptExecution() {
+            if (properties.circuitBreakerForceOpen().get()) {
+                return false;
+            }
+            if (properties.circuitBreakerForceClosed().get()) {
+                return true;
+            }
+            if (circuitOpened.get() == -1) {
+                return true;
+            } else {
+                if (isAfterSleepWindow()) {
+                    //only the first request after sleep window should execute
+                    //if the executing command succeeds, the status will transition to CLOSED
+                    //if the executing command fails, the status will transition to OPEN
+                    //if the executing command gets unsubscribed, the status will transition to OPEN
+                    if (status.compareAndSet(Status.OPEN, Status.HALF_OPEN)) {
+                        return true;
+                    } else {
+                        return false;
+                    }
+                } else {
+                    return false;
+                }
+            }
+        }
+    }
+
+    /**
+     * The default production implementation of {@link HystrixCircuitBreaker}.
+     * <p>
+     * Trips when a {@link HealthCounts} snapshot of the {@link HystrixCommandMetrics} is past the thresholds, so the decision is taken
+     * at most once per {@link HystrixCommandProperties#metricsHealthSnapshotIntervalInMilliseconds()}.
+     * 
+     * @ExcludeFromJavadoc
+     * @ThreadSafe
+     */
+    /* package */class HystrixCircuitBreakerImpl extends AbstractCircuitBreaker {
+        private final HystrixCommandMetrics metrics;
+
         private final AtomicReference<Subscription> activeSubscription = new AtomicReference<Subscription>(null);
 
         protected HystrixCircuitBreakerImpl(HystrixCommandKey key, HystrixCommandGroupKey commandGroup, final HystrixCommandProperties properties, HystrixCommandMetrics metrics) {
-            this.properties = properties;
+            super(properties);
             this.metrics = metrics;
 
             //On a timer, this will set the circuit between OPEN/CLOSED as command executions occur
@@ -191,9 +328,7 @@ public interface HystrixCircuitBreaker {
                                     // if it was open, we need to wait for sleep window to elapse
                                 } else {
                                     // our failure rate is too high, we need to set the state to OPEN
-                                    if (status.compareAndSet(Status.CLOSED, Status.OPEN)) {
-                                        circuitOpened.set(System.currentTimeMillis());
-                                    }
+                                    tripCircuit();
                                 }
                             }
                         }
@@ -202,7 +337,7 @@ public interface HystrixCircuitBreaker {
 
         @Override
         public void markSuccess() {
-            if (status.compareAndSet(Status.HALF_OPEN, Status.CLOSED)) {
+            if (closeHalfOpenCircuit()) {
                 //This thread wins the race to close the circuit - it resets the stream to start it over from 0
                 metrics.resetStream();
                 Subscription previousSubscription = activeSubscription.get();
@@ -211,79 +346,115 @@ public interface HystrixCircuitBreaker {
                 }
                 Subscription newSubscription = subscribeToStream();
                 activeSubscription.set(newSubscription);
-                circuitOpened.set(-1L);
             }
         }
 
         @Override
         public void markNonSuccess() {
-            if (status.compareAndSet(Status.HALF_OPEN, Status.OPEN)) {
-                //This thread wins the race to re-open the circuit - it resets the start time for the sleep window
-                circuitOpened.set(System.currentTimeMillis());
-            }
+            reopenHalfOpenCircuit();
+        }
+    }
+
+    /**
+     * Implementation of {@link HystrixCircuitBreaker} which keeps the outcomes of the last
+     * {@link HystrixCommandProperties#circuitBreakerSlidingWindowSize()} executions in a ring and evaluates the error
+     * percentage inline in {@link #markFailure()}, so the circuit trips on the failure that crosses the threshold
+     * instead of on the next health snapshot.
+     * <p>
+     * Like {@link HealthCounts}, only successes and FAILURE, TIMEOUT, THREAD_POOL_REJECTED and SEMAPHORE_REJECTED executions
+     * are counted, bad requests and cancellations are not.
+     *
+     * @ExcludeFromJavadoc
+     * @ThreadSafe
+     */
+    /* package */class SlidingWindowCircuitBreaker extends AbstractCircuitBreaker {
+        private final int size;
+        // replaced, not cleared, when the circuit closes so that concurrent marks never see a half-cleared ring
+        private volatile OutcomeRing outcomes;
+
+        SlidingWindowCircuitBreaker(HystrixCommandProperties properties, int size) {
+            super(properties);
+            this.size = size;
+            this.outcomes = new OutcomeRing(size);
         }
 
         @Override
-        public boolean isOpen() {
-            if (properties.circuitBreakerForceOpen().get()) {
-                return true;
-            }
-            if (properties.circuitBreakerForceClosed().get()) {
-                return false;
+        public void markSuccess() {
+            outcomes.add(OutcomeRing.SUCCESS);
+            if (closeHalfOpenCircuit()) {
+                //This thread wins the race to close the circuit - it starts over with an empty window
+                outcomes = new OutcomeRing(size);
             }
-            return circuitOpened.get() >= 0;
         }
 
         @Override
-        public boolean allowRequest() {
-            if (properties.circuitBreakerForceOpen().get()) {
-                return false;
+        public void markNonSuccess() {
+            reopenHalfOpenCircuit();
+        }
+
+        @Override
+        void markFailure() {
+            long counts = outcomes.add(OutcomeRing.FAILURE);
+            if (status.get() != Status.CLOSED) {
+                return;
             }
-            if (properties.circuitBreakerForceClosed().get()) {
-                return true;
+            long total = OutcomeRing.total(counts);
+            // a window smaller than the volume threshold still trips once it is full
+            if (total < Math.min(properties.circuitBreakerRequestVolumeThreshold().get(), size)) {
+                return;
             }
-            if (circuitOpened.get() == -1) {
-                return true;
-            } else {
-                if (status.get().equals(Status.HALF_OPEN)) {
-                    return false;
-                } else {
-                    return isAfterSleepWindow();
-                }
+            int errorPercentage = (int) (OutcomeRing.failures(counts) * 100L / total);
+            if (errorPercentage >= properties.circuitBreakerErrorThresholdPercentage().get()) {
+                tripCircuit();
             }
         }
 
-        private boolean isAfterSleepWindow() {
-            final long circuitOpenTime = circuitOpened.get();
-            final long currentTime = System.currentTimeMillis();
-            final long sleepWindowTime = properties.circuitBreakerSleepWindowInMilliseconds().get();
-            return currentTime > circuitOpenTime + sleepWindowTime;
-        }
+        /**
+         * Last N outcomes with their running totals packed into one long, {@code total << 32 | failures}, so that
+         * every mark is a slot swap and a single atomic add.
+         */
+        /* package */static class OutcomeRing {
+            static final int EMPTY = 0;
+            static final int SUCCESS = 1;
+            static final int FAILURE = 2;
 
-        @Override
-        public boolean attemptExecution() {
-            if (properties.circuitBreakerForceOpen().get()) {
-                return false;
-            }
-            if (properties.circuitBreakerForceClosed().get()) {
-                return true;
+            private final AtomicIntegerArray slots;
+            private final AtomicLong cursor = new AtomicLong();
+            private final AtomicLong counts = new AtomicLong();
+
+            OutcomeRing(int size) {
+                this.slots = new AtomicIntegerArray(size);
             }
-            if (circuitOpened.get() == -1) {
-                return true;
-            } else {
-                if (isAfterSleepWindow()) {
-                    //only the first request after sleep window should execute
-                    //if the executing command succeeds, the status will transition to CLOSED
-                    //if the executing command fails, the status will transition to OPEN
-                    //if the executing command gets unsubscribed, the status will transition to OPEN
-                    if (status.compareAndSet(Status.OPEN, Status.HALF_OPEN)) {
-                        return true;
-                    } else {
-                        return false;
-                    }
-                } else {
-                    return false;
+
+            /**
+             * @return the packed counts including this outcome
+             */
+            long add(int outcome) {
+                int slot = (int) (cursor.getAndIncrement() % slots.length());
+                int evicted = slots.getAndSet(slot, outcome);
+                long delta = 0;
+                if (evicted == EMPTY) {
+                    delta += 1L << 32;
+                } else if (evicted == FAILURE) {
+                    delta -= 1;
+                }
+                if (outcome == FAILURE) {
+                    delta += 1;
                 }
+                return counts.addAndGet(delta);
+            }
+
+            long counts() {
+                return counts.get();
+            }
+
+            static long total(long counts) {
+                return (counts - (int) counts) >> 32;
+            }
+
+            // may be briefly negative while concurrent marks are being added
+            static int failures(long counts) {
+                return Math.max((int) counts, 0);
             }
         }
     }
@@ -126,8 +126,6 @@ public abstract class HystrixCollapser<BatchReturnType, ResponseType, RequestArg
         }
 
         HystrixCollapserProperties properties = HystrixPropertiesFactory.getCollapserProperties(collapserKey, propertiesBuilder);
-        this.collapserFactory = new RequestCollapserFactory<BatchReturnType, ResponseType, RequestArgumentType>(collapserKey, scope, timer, properties);
-        this.requestCache = HystrixRequestCache.getInstance(collapserKey, HystrixPlugins.getInstance().getConcurrencyStrategy());
 
         if (metrics == null) {
             this.metrics = HystrixCollapserMetrics.getInstance(collapserKey, properties);
@@ -135,6 +133,9 @@ public abstract class HystrixCollapser<BatchReturnType, ResponseType, RequestArg
             this.metrics = metrics;
         }
 
+        this.collapserFactory = new RequestCollapserFactory<BatchReturnType, ResponseType, RequestArgumentType>(collapserKey, scope, timer, properties, this.metrics.getTimerDelayInMilliseconds());
+        this.requestCache = HystrixRequestCache.getInstance(collapserKey, HystrixPlugins.getInstance().getConcurrencyStrategy());
+
         final HystrixCollapser<BatchReturnType, ResponseType, RequestArgumentType> self = this;
 
          /* strategy: HystrixMetricsPublisherCollapser */
@@ -159,7 +160,14 @@ public abstract class HystrixCollapser<BatchReturnType, ResponseType, RequestArg
                 command.markAsCollapsedCommand(this.getCollapserKey(), requests.size());
                 self.metrics.markBatch(requests.size());
 
-                return command.toObservable();
+                final int batchSize = requests.size();
+                final long startTime = System.currentTimeMillis();
+                return command.toObservable().doOnTerminate(new Action0() {
+                    @Override
+                    public void call() {
+                        self.metrics.markBatchCompleted(batchSize, System.currentTimeMillis() - startTime);
+                    }
+                });
             }
 
             @Override
@@ -232,6 +240,17 @@ public abstract class HystrixCollapser<BatchReturnType, ResponseType, RequestArg
      */
     public abstract RequestArgumentType getRequestArgument();
 
+    /**
+     * Weight of this request, counted towards {@link HystrixCollapserProperties#maxWeightInBatch()} when early dispatch is enabled.
+     * <p>
+     * Override to dispatch batches by payload size or cost rather than by number of requests. Defaults to 1.
+     * 
+     * @return weight of the request argument
+     */
+    protected int getRequestWeight() {
+        return 1;
+    }
+
     /**
      * Factory method to create a new {@link HystrixCommand}{@code <BatchReturnType>} command object each time a batch needs to be executed.
      * <p>
@@ -395,7 +414,7 @@ public abstract class HystrixCollapser<BatchReturnType, ResponseType, RequestArg
                 }
 
                 RequestCollapser<BatchReturnType, ResponseType, RequestArgumentType> requestCollapser = collapserFactory.getRequestCollapser(collapserInstanceWrapper);
-                Observable<ResponseType> response = requestCollapser.submitRequest(getRequestArgument());
+                Observable<ResponseType> response = requestCollapser.submitRequest(getRequestArgument(), getRequestWeight());
 
                 if (isRequestCacheEnabled && cacheKey != null) {
                     HystrixCachedObservable<ResponseType> toCache = HystrixCachedObservable.from(response);
@@ -15,12 +15,14 @@
  */
 package com.netflix.hystrix;
 
+import com.netflix.hystrix.metric.HystrixAdaptiveCollapserWindow;
 import com.netflix.hystrix.metric.HystrixCollapserEvent;
 import com.netflix.hystrix.metric.HystrixThreadEventStream;
 import com.netflix.hystrix.metric.consumer.CumulativeCollapserEventCounterStream;
 import com.netflix.hystrix.metric.consumer.RollingCollapserBatchSizeDistributionStream;
 import com.netflix.hystrix.metric.consumer.RollingCollapserEventCounterStream;
 import com.netflix.hystrix.strategy.eventnotifier.HystrixEventNotifier;
+import com.netflix.hystrix.strategy.properties.HystrixProperty;
 import com.netflix.hystrix.util.HystrixRollingNumberEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -114,6 +116,7 @@ public class HystrixCollapserMetrics extends HystrixMetrics {
     private final RollingCollapserEventCounterStream rollingCollapserEventCounterStream;
     private final CumulativeCollapserEventCounterStream cumulativeCollapserEventCounterStream;
     private final RollingCollapserBatchSizeDistributionStream rollingCollapserBatchSizeDistributionStream;
+    private final HystrixAdaptiveCollapserWindow adaptiveTimerDelay;
 
     /* package */HystrixCollapserMetrics(HystrixCollapserKey key, HystrixCollapserProperties properties) {
         super(null);
@@ -123,6 +126,12 @@ public class HystrixCollapserMetrics extends HystrixMetrics {
         rollingCollapserEventCounterStream = RollingCollapserEventCounterStream.getInstance(key, properties);
         cumulativeCollapserEventCounterStream = CumulativeCollapserEventCounterStream.getInstance(key, properties);
         rollingCollapserBatchSizeDistributionStream = RollingCollapserBatchSizeDistributionStream.getInstance(key, properties);
+
+        if (properties.adaptiveTimerDelayEnabled().get()) {
+            adaptiveTimerDelay = new HystrixAdaptiveCollapserWindow(properties);
+        } else {
+            adaptiveTimerDelay = null;
+        }
     }
 
     /**
@@ -173,6 +182,24 @@ public class HystrixCollapserMetrics extends HystrixMetrics {
         return rollingCollapserBatchSizeDistributionStream.getLatestMean();
     }
 
+    /**
+     * Delay between batch executions currently in use: the adaptive delay if {@link HystrixCollapserProperties#adaptiveTimerDelayEnabled()} is set,
+     * otherwise {@link HystrixCollapserProperties#timerDelayInMilliseconds()}.
+     *
+     * @return delay in milliseconds
+     */
+    public int getCurrentTimerDelayInMilliseconds() {
+        return getTimerDelayInMilliseconds().get();
+    }
+
+    /* package */ HystrixProperty<Integer> getTimerDelayInMilliseconds() {
+        if (adaptiveTimerDelay != null) {
+            return adaptiveTimerDelay;
+        } else {
+            return properties.timerDelayInMilliseconds();
+        }
+    }
+
     /**
      * Retrieve the shard size for the {@link HystrixCollapser} being invoked at a given percentile.
      * <p>
@@ -205,4 +232,16 @@ public class HystrixCollapserMetrics extends HystrixMetrics {
 
     public void markShards(int numShards) {
     }
+
+    /**
+     * Feed a terminated batch command to the adaptive timer delay, if enabled.
+     *
+     * @param batchSize number of requests in the batch
+     * @param latencyInMilliseconds time from the start of the batch command until it terminated
+     */
+    public void markBatchCompleted(int batchSize, long latencyInMilliseconds) {
+        if (adaptiveTimerDelay != null) {
+            adaptiveTimerDelay.onBatchCompleted(batchSize, latencyInMilliseconds);
+        }
+    }
 }
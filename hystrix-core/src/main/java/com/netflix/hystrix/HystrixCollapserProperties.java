@@ -34,7 +34,14 @@ public abstract class HystrixCollapserProperties {
     /* defaults */
     private static final Integer default_maxRequestsInBatch = Integer.MAX_VALUE;
     private static final Integer default_timerDelayInMilliseconds = 10;
+    private static final Boolean default_adaptiveTimerDelayEnabled = false;
+    private static final Integer default_adaptiveTimerDelayMinInMilliseconds = 1;
+    private static final Integer default_adaptiveTimerDelayMaxInMilliseconds = 100;
+    private static final Integer default_adaptiveTimerDelayTargetBatchSize = 10;
+    private static final Integer default_adaptiveTimerDelayLatencyBudgetInMilliseconds = Integer.MAX_VALUE;
     private static final Boolean default_requestCacheEnabled = true;
+    private static final Boolean default_earlyDispatchEnabled = false;
+    private static final Integer default_maxWeightInBatch = Integer.MAX_VALUE;
     /* package */ static final Integer default_metricsRollingStatisticalWindow = 10000;// default => statisticalWindow: 10000 = 10 seconds (and default of 10 buckets so each bucket is 1 second)
     private static final Integer default_metricsRollingStatisticalWindowBuckets = 10;// default => statisticalWindowBuckets: 10 = 10 buckets in a 10 second window so each bucket is 1 second
     private static final Boolean default_metricsRollingPercentileEnabled = true;
@@ -44,7 +51,14 @@ public abstract class HystrixCollapserProperties {
 
     private final HystrixProperty<Integer> maxRequestsInBatch;
     private final HystrixProperty<Integer> timerDelayInMilliseconds;
+    private final HystrixProperty<Boolean> adaptiveTimerDelayEnabled;
+    private final HystrixProperty<Integer> adaptiveTimerDelayMinInMilliseconds;
+    private final HystrixProperty<Integer> adaptiveTimerDelayMaxInMilliseconds;
+    private final HystrixProperty<Integer> adaptiveTimerDelayTargetBatchSize;
+    private final HystrixProperty<Integer> adaptiveTimerDelayLatencyBudgetInMilliseconds;
     private final HystrixProperty<Boolean> requestCacheEnabled;
+    private final HystrixProperty<Boolean> earlyDispatchEnabled;
+    private final HystrixProperty<Integer> maxWeightInBatch;
     private final HystrixProperty<Integer> metricsRollingStatisticalWindowInMilliseconds; // milliseconds back that will be tracked
     private final HystrixProperty<Integer> metricsRollingStatisticalWindowBuckets; // number of buckets in the statisticalWindow
     private final HystrixProperty<Boolean> metricsRollingPercentileEnabled; // Whether monitoring should be enabled
@@ -63,7 +77,14 @@ public abstract class HystrixCollapserProperties {
     protected HystrixCollapserProperties(HystrixCollapserKey key, Setter builder, String propertyPrefix) {
         this.maxRequestsInBatch = getProperty(propertyPrefix, key, "maxRequestsInBatch", builder.getMaxRequestsInBatch(), default_maxRequestsInBatch);
         this.timerDelayInMilliseconds = getProperty(propertyPrefix, key, "timerDelayInMilliseconds", builder.getTimerDelayInMilliseconds(), default_timerDelayInMilliseconds);
+        this.adaptiveTimerDelayEnabled = getProperty(propertyPrefix, key, "adaptiveTimerDelay.enabled", builder.getAdaptiveTimerDelayEnabled(), default_adaptiveTimerDelayEnabled);
+        this.adaptiveTimerDelayMinInMilliseconds = getProperty(propertyPrefix, key, "adaptiveTimerDelay.minInMilliseconds", builder.getAdaptiveTimerDelayMinInMilliseconds(), default_adaptiveTimerDelayMinInMilliseconds);
+        this.adaptiveTimerDelayMaxInMilliseconds = getProperty(propertyPrefix, key, "adaptiveTimerDelay.maxInMilliseconds", builder.getAdaptiveTimerDelayMaxInMilliseconds(), default_adaptiveTimerDelayMaxInMilliseconds);
+        this.adaptiveTimerDelayTargetBatchSize = getProperty(propertyPrefix, key, "adaptiveTimerDelay.targetBatchSize", builder.getAdaptiveTimerDelayTargetBatchSize(), default_adaptiveTimerDelayTargetBatchSize);
+        this.adaptiveTimerDelayLatencyBudgetInMilliseconds = getProperty(propertyPrefix, key, "adaptiveTimerDelay.latencyBudgetInMilliseconds", builder.getAdaptiveTimerDelayLatencyBudgetInMilliseconds(), default_adaptiveTimerDelayLatencyBudgetInMilliseconds);
         this.requestCacheEnabled = getProperty(propertyPrefix, key, "requestCache.enabled", builder.getRequestCacheEnabled(), default_requestCacheEnabled);
+        this.earlyDispatchEnabled = getProperty(propertyPrefix, key, "earlyDispatch.enabled", builder.getEarlyDispatchEnabled(), default_earlyDispatchEnabled);
+        this.maxWeightInBatch = getProperty(propertyPrefix, key, "maxWeightInBatch", builder.getMaxWeightInBatch(), default_maxWeightInBatch);
         this.metricsRollingStatisticalWindowInMilliseconds = getProperty(propertyPrefix, key, "metrics.rollingStats.timeInMilliseconds", builder.getMetricsRollingStatisticalWindowInMilliseconds(), default_metricsRollingStatisticalWindow);
         this.metricsRollingStatisticalWindowBuckets = getProperty(propertyPrefix, key, "metrics.rollingStats.numBuckets", builder.getMetricsRollingStatisticalWindowBuckets(), default_metricsRollingStatisticalWindowBuckets);
         this.metricsRollingPercentileEnabled = getProperty(propertyPrefix, key, "metrics.rollingPercentile.enabled", builder.getMetricsRollingPercentileEnabled(), default_metricsRollingPercentileEnabled);
@@ -127,6 +148,75 @@ public abstract class HystrixCollapserProperties {
         return timerDelayInMilliseconds;
     }
 
+    /**
+     * Whether the delay between batch executions adapts to the observed batch size and batch latency, between {@link #adaptiveTimerDelayMinInMilliseconds}
+     * and {@link #adaptiveTimerDelayMaxInMilliseconds}, instead of staying at {@link #timerDelayInMilliseconds} (which is then only the starting point).
+     * <p>
+     * Read when the {@link HystrixCollapserMetrics} of the collapser are created.
+     *
+     * @return {@code HystrixProperty<Boolean>}
+     */
+    public HystrixProperty<Boolean> adaptiveTimerDelayEnabled() {
+        return adaptiveTimerDelayEnabled;
+    }
+
+    /**
+     * Lower bound of the adaptive delay between batch executions.  The collapser timer ticks at this interval when {@link #adaptiveTimerDelayEnabled} is true.
+     *
+     * @return {@code HystrixProperty<Integer>}
+     */
+    public HystrixProperty<Integer> adaptiveTimerDelayMinInMilliseconds() {
+        return adaptiveTimerDelayMinInMilliseconds;
+    }
+
+    /**
+     * Upper bound of the adaptive delay between batch executions.
+     *
+     * @return {@code HystrixProperty<Integer>}
+     */
+    public HystrixProperty<Integer> adaptiveTimerDelayMaxInMilliseconds() {
+        return adaptiveTimerDelayMaxInMilliseconds;
+    }
+
+    /**
+     * Batch size the adaptive delay aims for.  If it can not be reached within {@link #adaptiveTimerDelayMaxInMilliseconds} the shortest delay is used instead,
+     * as waiting would add latency without collapsing enough requests to pay for it.
+     *
+     * @return {@code HystrixProperty<Integer>}
+     */
+    public HystrixProperty<Integer> adaptiveTimerDelayTargetBatchSize() {
+        return adaptiveTimerDelayTargetBatchSize;
+    }
+
+    /**
+     * Upper bound on the adaptive delay plus the latency of the batch command, so that collapsing does not push requests past this budget.
+     *
+     * @return {@code HystrixProperty<Integer>}
+     */
+    public HystrixProperty<Integer> adaptiveTimerDelayLatencyBudgetInMilliseconds() {
+        return adaptiveTimerDelayLatencyBudgetInMilliseconds;
+    }
+
+    /**
+     * Whether a batch is executed on the submitting thread as soon as it reaches {@link #maxRequestsInBatch} or {@link #maxWeightInBatch},
+     * rather than on the next timer tick or the next submission that finds it full.
+     *
+     * @return {@code HystrixProperty<Boolean>}
+     */
+    public HystrixProperty<Boolean> earlyDispatchEnabled() {
+        return earlyDispatchEnabled;
+    }
+
+    /**
+     * The total weight of requests (see {@link HystrixCollapser#getRequestWeight()}) at which a batch is executed early.
+     * Only used when {@link #earlyDispatchEnabled} is true.
+     *
+     * @return {@code HystrixProperty<Integer>}
+     */
+    public HystrixProperty<Integer> maxWeightInBatch() {
+        return maxWeightInBatch;
+    }
+
     /**
      * Duration of statistical rolling window in milliseconds. This is passed into {@link HystrixRollingNumber} inside {@link HystrixCommandMetrics}.
      *
@@ -216,7 +306,14 @@ public abstract class HystrixCollapserProperties {
         @Deprecated private Boolean collapsingEnabled = null;
         private Integer maxRequestsInBatch = null;
         private Integer timerDelayInMilliseconds = null;
+        private Boolean adaptiveTimerDelayEnabled = null;
+        private Integer adaptiveTimerDelayMinInMilliseconds = null;
+        private Integer adaptiveTimerDelayMaxInMilliseconds = null;
+        private Integer adaptiveTimerDelayTargetBatchSize = null;
+        private Integer adaptiveTimerDelayLatencyBudgetInMilliseconds = null;
         private Boolean requestCacheEnabled = null;
+        private Boolean earlyDispatchEnabled = null;
+        private Integer maxWeightInBatch = null;
         private Integer metricsRollingStatisticalWindowInMilliseconds = null;
         private Integer metricsRollingStatisticalWindowBuckets = null;
         private Integer metricsRollingPercentileBucketSize = null;
@@ -243,10 +340,38 @@ public abstract class HystrixCollapserProperties {
             return timerDelayInMilliseconds;
         }
 
+        public Boolean getAdaptiveTimerDelayEnabled() {
+            return adaptiveTimerDelayEnabled;
+        }
+
+        public Integer getAdaptiveTimerDelayMinInMilliseconds() {
+            return adaptiveTimerDelayMinInMilliseconds;
+        }
+
+        public Integer getAdaptiveTimerDelayMaxInMilliseconds() {
+            return adaptiveTimerDelayMaxInMilliseconds;
+        }
+
+        public Integer getAdaptiveTimerDelayTargetBatchSize() {
+            return adaptiveTimerDelayTargetBatchSize;
+        }
+
+        public Integer getAdaptiveTimerDelayLatencyBudgetInMilliseconds() {
+            return adaptiveTimerDelayLatencyBudgetInMilliseconds;
+        }
+
         public Boolean getRequestCacheEnabled() {
             return requestCacheEnabled;
         }
 
+        public Boolean getEarlyDispatchEnabled() {
+            return earlyDispatchEnabled;
+        }
+
+        public Integer getMaxWeightInBatch() {
+            return maxWeightInBatch;
+        }
+
         public Integer getMetricsRollingStatisticalWindowInMilliseconds() {
             return metricsRollingStatisticalWindowInMilliseconds;
         }
@@ -290,11 +415,46 @@ public abstract class HystrixCollapserProperties {
             return this;
         }
 
+        public Setter withAdaptiveTimerDelayEnabled(boolean value) {
+            this.adaptiveTimerDelayEnabled = value;
+            return this;
+        }
+
+        public Setter withAdaptiveTimerDelayMinInMilliseconds(int value) {
+            this.adaptiveTimerDelayMinInMilliseconds = value;
+            return this;
+        }
+
+        public Setter withAdaptiveTimerDelayMaxInMilliseconds(int value) {
+            this.adaptiveTimerDelayMaxInMilliseconds = value;
+            return this;
+        }
+
+        public Setter withAdaptiveTimerDelayTargetBatchSize(int value) {
+            this.adaptiveTimerDelayTargetBatchSize = value;
+            return this;
+        }
+
+        public Setter withAdaptiveTimerDelayLatencyBudgetInMilliseconds(int value) {
+            this.adaptiveTimerDelayLatencyBudgetInMilliseconds = value;
+            return this;
+        }
+
         public Setter withRequestCacheEnabled(boolean value) {
             this.requestCacheEnabled = value;
             return this;
         }
 
+        public Setter withEarlyDispatchEnabled(boolean value) {
+            this.earlyDispatchEnabled = value;
+            return this;
+        }
+
+        public Setter withMaxWeightInBatch(int value) {
+            this.maxWeightInBatch = value;
+            return this;
+        }
+
         public Setter withMetricsRollingStatisticalWindowInMilliseconds(int value) {
             this.metricsRollingStatisticalWindowInMilliseconds = value;
             return this;
@@ -332,7 +492,14 @@ public abstract class HystrixCollapserProperties {
             return new Setter()
                     .withMaxRequestsInBatch(Integer.MAX_VALUE)
                     .withTimerDelayInMilliseconds(10)
-                    .withRequestCacheEnabled(true);
+                    .withAdaptiveTimerDelayEnabled(false)
+                    .withAdaptiveTimerDelayMinInMilliseconds(1)
+                    .withAdaptiveTimerDelayMaxInMilliseconds(100)
+                    .withAdaptiveTimerDelayTargetBatchSize(10)
+                    .withAdaptiveTimerDelayLatencyBudgetInMilliseconds(Integer.MAX_VALUE)
+                    .withRequestCacheEnabled(true)
+                    .withEarlyDispatchEnabled(false)
+                    .withMaxWeightInBatch(Integer.MAX_VALUE);
         }
 
         /**
@@ -360,6 +527,41 @@ public abstract class HystrixCollapserProperties {
                     return HystrixProperty.Factory.asProperty(builder.timerDelayInMilliseconds);
                 }
 
+                @Override
+                public HystrixProperty<Boolean> adaptiveTimerDelayEnabled() {
+                    return HystrixProperty.Factory.asProperty(builder.adaptiveTimerDelayEnabled);
+                }
+
+                @Override
+                public HystrixProperty<Integer> adaptiveTimerDelayMinInMilliseconds() {
+                    return HystrixProperty.Factory.asProperty(builder.adaptiveTimerDelayMinInMilliseconds);
+                }
+
+                @Override
+                public HystrixProperty<Integer> adaptiveTimerDelayMaxInMilliseconds() {
+                    return HystrixProperty.Factory.asProperty(builder.adaptiveTimerDelayMaxInMilliseconds);
+                }
+
+                @Override
+                public HystrixProperty<Integer> adaptiveTimerDelayTargetBatchSize() {
+                    return HystrixProperty.Factory.asProperty(builder.adaptiveTimerDelayTargetBatchSize);
+                }
+
+                @Override
+                public HystrixProperty<Integer> adaptiveTimerDelayLatencyBudgetInMilliseconds() {
+                    return HystrixProperty.Factory.asProperty(builder.adaptiveTimerDelayLatencyBudgetInMilliseconds);
+                }
+
+                @Override
+                public HystrixProperty<Boolean> earlyDispatchEnabled() {
+                    return HystrixProperty.Factory.asProperty(builder.earlyDispatchEnabled);
+                }
+
+                @Override
+                public HystrixProperty<Integer> maxWeightInBatch() {
+                    return HystrixProperty.Factory.asProperty(builder.maxWeightInBatch);
+                }
+
             };
         }
 
@@ -15,7 +15,9 @@
  */
 package com.netflix.hystrix;
 
+import com.netflix.hystrix.metric.HystrixAdaptiveConcurrencyLimit;
 import com.netflix.hystrix.metric.HystrixCommandCompletion;
+import com.netflix.hystrix.metric.HystrixCommandCompletionStream;
 import com.netflix.hystrix.metric.HystrixThreadEventStream;
 import com.netflix.hystrix.metric.consumer.CumulativeCommandEventCounterStream;
 import com.netflix.hystrix.metric.consumer.HealthCountsStream;
@@ -28,6 +30,8 @@ import com.netflix.hystrix.strategy.eventnotifier.HystrixEventNotifier;
 import com.netflix.hystrix.util.HystrixRollingNumberEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import rx.Subscription;
+import rx.functions.Action1;
 import rx.functions.Func0;
 import rx.functions.Func2;
 
@@ -167,6 +171,7 @@ public class HystrixCommandMetrics extends HystrixMetrics {
             metricsInstance.unsubscribeAll();
         }
         metrics.clear();
+        AbstractCommand.CommandPrototype.reset();
     }
 
     private final HystrixCommandProperties properties;
@@ -182,6 +187,9 @@ public class HystrixCommandMetrics extends HystrixMetrics {
     private final RollingCommandUserLatencyDistributionStream rollingCommandUserLatencyDistributionStream;
     private final RollingCommandMaxConcurrencyStream rollingCommandMaxConcurrencyStream;
 
+    private final HystrixAdaptiveConcurrencyLimit executionSemaphoreLimit;
+    private final Subscription executionSemaphoreLimitSubscription;
+
     /* package */HystrixCommandMetrics(final HystrixCommandKey key, HystrixCommandGroupKey commandGroup, HystrixThreadPoolKey threadPoolKey, HystrixCommandProperties properties, HystrixEventNotifier eventNotifier) {
         super(null);
         this.key = key;
@@ -196,6 +204,19 @@ public class HystrixCommandMetrics extends HystrixMetrics {
         rollingCommandLatencyDistributionStream = RollingCommandLatencyDistributionStream.getInstance(key, properties);
         rollingCommandUserLatencyDistributionStream = RollingCommandUserLatencyDistributionStream.getInstance(key, properties);
         rollingCommandMaxConcurrencyStream = RollingCommandMaxConcurrencyStream.getInstance(key, properties);
+
+        if (properties.executionIsolationSemaphoreAdaptiveLimitEnabled().get()) {
+            executionSemaphoreLimit = new HystrixAdaptiveConcurrencyLimit(properties.executionIsolationSemaphoreMaxConcurrentRequests());
+            executionSemaphoreLimitSubscription = HystrixCommandCompletionStream.getInstance(key).observe().subscribe(new Action1<HystrixCommandCompletion>() {
+                @Override
+                public void call(HystrixCommandCompletion completion) {
+                    executionSemaphoreLimit.onCompletion(completion);
+                }
+            });
+        } else {
+            executionSemaphoreLimit = null;
+            executionSemaphoreLimitSubscription = null;
+        }
     }
 
     /* package */ synchronized void resetStream() {
@@ -322,6 +343,29 @@ public class HystrixCommandMetrics extends HystrixMetrics {
         return rollingCommandMaxConcurrencyStream.getLatestRollingMax();
     }
 
+    /**
+     * Current number of concurrent executions of {@link HystrixCommand#run()} permitted by the execution semaphore.
+     * <p>
+     * This is {@link HystrixCommandProperties#executionIsolationSemaphoreMaxConcurrentRequests()} unless
+     * {@link HystrixCommandProperties#executionIsolationSemaphoreAdaptiveLimitEnabled()} is set, in which case it follows recent latency.
+     *
+     * @return int
+     */
+    public int getCurrentConcurrencyLimit() {
+        if (executionSemaphoreLimit != null) {
+            return executionSemaphoreLimit.get();
+        } else {
+            return properties.executionIsolationSemaphoreMaxConcurrentRequests().get();
+        }
+    }
+
+    /**
+     * @return adaptive limit of the execution semaphore, or null if it is not enabled
+     */
+    /* package */ HystrixAdaptiveConcurrencyLimit getAdaptiveConcurrencyLimit() {
+        return executionSemaphoreLimit;
+    }
+
     /**
      * Current number of concurrent executions of {@link HystrixCommand#run()};
      * 
@@ -375,6 +419,9 @@ public class HystrixCommandMetrics extends HystrixMetrics {
     }
 
     private void unsubscribeAll() {
+        if (executionSemaphoreLimitSubscription != null) {
+            executionSemaphoreLimitSubscription.unsubscribe();
+        }
         healthCountsStream.unsubscribe();
         rollingCommandEventCounterStream.unsubscribe();
         cumulativeCommandEventCounterStream.unsubscribe();
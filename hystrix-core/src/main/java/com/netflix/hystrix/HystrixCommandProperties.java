@@ -24,6 +24,9 @@ import java.util.concurrent.Future;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.netflix.hystrix.strategy.HystrixPlugins;
+import com.netflix.hystrix.strategy.properties.HystrixDynamicProperties;
+import com.netflix.hystrix.strategy.properties.HystrixDynamicPropertiesSystemProperties;
 import com.netflix.hystrix.strategy.properties.HystrixDynamicProperty;
 import com.netflix.hystrix.strategy.properties.HystrixPropertiesStrategy;
 import com.netflix.hystrix.strategy.properties.HystrixProperty;
@@ -44,6 +47,7 @@ public abstract class HystrixCommandProperties {
     private static final Integer default_circuitBreakerRequestVolumeThreshold = 20;// default => statisticalWindowVolumeThreshold: 20 requests in 10 seconds must occur before statistics matter
     private static final Integer default_circuitBreakerSleepWindowInMilliseconds = 5000;// default => sleepWindow: 5000 = 5 seconds that we will sleep before trying again after tripping the circuit
     private static final Integer default_circuitBreakerErrorThresholdPercentage = 50;// default => errorThresholdPercentage = 50 = if 50%+ of requests in 10 seconds are failures or latent then we will trip the circuit
+    private static final Integer default_circuitBreakerSlidingWindowSize = 0;// default => slidingWindowSize: 0 = trip on health snapshots of the rolling statistical window
     private static final Boolean default_circuitBreakerForceOpen = false;// default => forceCircuitOpen = false (we want to allow traffic)
     /* package */ static final Boolean default_circuitBreakerForceClosed = false;// default => ignoreErrors = false 
     private static final Integer default_executionTimeoutInMilliseconds = 1000; // default => executionTimeoutInMilliseconds: 1000 = 1 second
@@ -53,14 +57,23 @@ public abstract class HystrixCommandProperties {
     private static final Boolean default_executionIsolationThreadInterruptOnFutureCancel = false;
     private static final Boolean default_metricsRollingPercentileEnabled = true;
     private static final Boolean default_requestCacheEnabled = true;
+    private static final Boolean default_requestCacheGlobalEnabled = false;
+    private static final Integer default_requestCacheGlobalMaxSize = 1000;
+    private static final Integer default_requestCacheGlobalTtlInMilliseconds = 60000;
     private static final Integer default_fallbackIsolationSemaphoreMaxConcurrentRequests = 10;
     private static final Boolean default_fallbackEnabled = true;
+    private static final Boolean default_fallbackStaleEnabled = false;
+    private static final Integer default_fallbackStaleMaxSize = 1000;
+    private static final Integer default_fallbackStaleMaxAgeInMilliseconds = 300000; // 5 minutes
     private static final Integer default_executionIsolationSemaphoreMaxConcurrentRequests = 10;
+    private static final Boolean default_executionIsolationSemaphoreAdaptiveLimitEnabled = false;
     private static final Boolean default_requestLogEnabled = true;
+    private static final Boolean default_requestLogSummaryEnabled = false;
     private static final Boolean default_circuitBreakerEnabled = true;
     private static final Integer default_metricsRollingPercentileWindow = 60000; // default to 1 minute for RollingPercentile 
     private static final Integer default_metricsRollingPercentileWindowBuckets = 6; // default to 6 buckets (10 seconds each in 60 second window)
     private static final Integer default_metricsRollingPercentileBucketSize = 100; // default to 100 values max per bucket
+    private static final Boolean default_metricsRollingPercentileIncrementalEnabled = false;
     private static final Integer default_metricsHealthSnapshotIntervalInMilliseconds = 500; // default to 500ms as max frequency between allowing snapshots of health (error percentage etc)
 
     @SuppressWarnings("unused") private final HystrixCommandKey key;
@@ -68,6 +81,7 @@ public abstract class HystrixCommandProperties {
     private final HystrixProperty<Integer> circuitBreakerSleepWindowInMilliseconds; // milliseconds after tripping circuit before allowing retry
     private final HystrixProperty<Boolean> circuitBreakerEnabled; // Whether circuit breaker should be enabled.
     private final HystrixProperty<Integer> circuitBreakerErrorThresholdPercentage; // % of 'marks' that must be failed to trip the circuit
+    private final HystrixProperty<Integer> circuitBreakerSlidingWindowSize; // number of most recent 'marks' evaluated on every failure to trip the circuit
     private final HystrixProperty<Boolean> circuitBreakerForceOpen; // a property to allow forcing the circuit open (stopping all requests)
     private final HystrixProperty<Boolean> circuitBreakerForceClosed; // a property to allow ignoring errors and therefore never trip 'open' (ie. allow all traffic through)
     private final HystrixProperty<ExecutionIsolationStrategy> executionIsolationStrategy; // Whether a command should be executed in a separate thread or not.
@@ -75,8 +89,12 @@ public abstract class HystrixCommandProperties {
     private final HystrixProperty<Boolean> executionTimeoutEnabled; //Whether timeout should be triggered
     private final HystrixProperty<String> executionIsolationThreadPoolKeyOverride; // What thread-pool this command should run in (if running on a separate thread).
     private final HystrixProperty<Integer> executionIsolationSemaphoreMaxConcurrentRequests; // Number of permits for execution semaphore
+    private final HystrixProperty<Boolean> executionIsolationSemaphoreAdaptiveLimitEnabled; // Whether the execution semaphore permits adapt to latency
     private final HystrixProperty<Integer> fallbackIsolationSemaphoreMaxConcurrentRequests; // Number of permits for fallback semaphore
     private final HystrixProperty<Boolean> fallbackEnabled; // Whether fallback should be attempted.
+    private final HystrixProperty<Boolean> fallbackStaleEnabled; // Whether the last successful response is served when execution is not possible
+    private final HystrixProperty<Integer> fallbackStaleMaxSize; // Maximum number of last successful responses kept
+    private final HystrixProperty<Integer> fallbackStaleMaxAgeInMilliseconds; // Maximum age of a last successful response that is served
     private final HystrixProperty<Boolean> executionIsolationThreadInterruptOnTimeout; // Whether an underlying Future/Thread (when runInSeparateThread == true) should be interrupted after a timeout
     private final HystrixProperty<Boolean> executionIsolationThreadInterruptOnFutureCancel; // Whether canceling an underlying Future/Thread (when runInSeparateThread == true) should interrupt the execution thread
     private final HystrixProperty<Integer> metricsRollingStatisticalWindowInMilliseconds; // milliseconds back that will be tracked
@@ -85,9 +103,18 @@ public abstract class HystrixCommandProperties {
     private final HystrixProperty<Integer> metricsRollingPercentileWindowInMilliseconds; // number of milliseconds that will be tracked in RollingPercentile
     private final HystrixProperty<Integer> metricsRollingPercentileWindowBuckets; // number of buckets percentileWindow will be divided into
     private final HystrixProperty<Integer> metricsRollingPercentileBucketSize; // how many values will be stored in each percentileWindowBucket
+    private final HystrixProperty<Boolean> metricsRollingPercentileIncrementalEnabled; // whether the percentile window is kept as one aggregate updated per bucket
     private final HystrixProperty<Integer> metricsHealthSnapshotIntervalInMilliseconds; // time between health snapshots
     private final HystrixProperty<Boolean> requestLogEnabled; // whether command request logging is enabled.
+    private final HystrixProperty<Boolean> requestLogSummaryEnabled; // whether completed commands are replaced by a summary in the request log
     private final HystrixProperty<Boolean> requestCacheEnabled; // Whether request caching is enabled.
+    private final HystrixProperty<Boolean> requestCacheGlobalEnabled; // Whether successful responses are also cached across requests
+    private final HystrixProperty<Integer> requestCacheGlobalMaxSize; // Maximum number of responses in the global cache
+    private final HystrixProperty<Integer> requestCacheGlobalTtlInMilliseconds; // How long a response stays in the global cache
+    private volatile Snapshot snapshot; // values read on every execution, built on first use
+
+    // compared by name so that core does not load Archaius
+    private static final String ARCHAIUS_DYNAMIC_PROPERTIES = "com.netflix.hystrix.strategy.properties.archaius.HystrixDynamicPropertiesArchaius";
 
     /**
      * Isolation strategy to use when executing a {@link HystrixCommand}.
@@ -95,10 +122,12 @@ public abstract class HystrixCommandProperties {
      * <ul>
      * <li>THREAD: Execute the {@link HystrixCommand#run()} method on a separate thread and restrict concurrent executions using the thread-pool size.</li>
      * <li>SEMAPHORE: Execute the {@link HystrixCommand#run()} method on the calling thread and restrict concurrent executions using the semaphore permit count.</li>
+     * <li>VIRTUAL: Execute the {@link HystrixCommand#run()} method on a new virtual thread and restrict concurrent executions using a semaphore sized by the thread-pool coreSize.
+     * Metrics are reported against the thread-pool as with THREAD.  On runtimes without virtual threads this behaves exactly like THREAD.</li>
      * </ul>
      */
     public static enum ExecutionIsolationStrategy {
-        THREAD, SEMAPHORE
+        THREAD, SEMAPHORE, VIRTUAL
     }
 
     protected HystrixCommandProperties(HystrixCommandKey key) {
@@ -116,6 +145,7 @@ public abstract class HystrixCommandProperties {
         this.circuitBreakerRequestVolumeThreshold = getProperty(propertyPrefix, key, "circuitBreaker.requestVolumeThreshold", builder.getCircuitBreakerRequestVolumeThreshold(), default_circuitBreakerRequestVolumeThreshold);
         this.circuitBreakerSleepWindowInMilliseconds = getProperty(propertyPrefix, key, "circuitBreaker.sleepWindowInMilliseconds", builder.getCircuitBreakerSleepWindowInMilliseconds(), default_circuitBreakerSleepWindowInMilliseconds);
         this.circuitBreakerErrorThresholdPercentage = getProperty(propertyPrefix, key, "circuitBreaker.errorThresholdPercentage", builder.getCircuitBreakerErrorThresholdPercentage(), default_circuitBreakerErrorThresholdPercentage);
+        this.circuitBreakerSlidingWindowSize = getProperty(propertyPrefix, key, "circuitBreaker.slidingWindowSize", builder.getCircuitBreakerSlidingWindowSize(), default_circuitBreakerSlidingWindowSize);
         this.circuitBreakerForceOpen = getProperty(propertyPrefix, key, "circuitBreaker.forceOpen", builder.getCircuitBreakerForceOpen(), default_circuitBreakerForceOpen);
         this.circuitBreakerForceClosed = getProperty(propertyPrefix, key, "circuitBreaker.forceClosed", builder.getCircuitBreakerForceClosed(), default_circuitBreakerForceClosed);
         this.executionIsolationStrategy = getProperty(propertyPrefix, key, "execution.isolation.strategy", builder.getExecutionIsolationStrategy(), default_executionIsolationStrategy);
@@ -125,22 +155,85 @@ public abstract class HystrixCommandProperties {
         this.executionIsolationThreadInterruptOnTimeout = getProperty(propertyPrefix, key, "execution.isolation.thread.interruptOnTimeout", builder.getExecutionIsolationThreadInterruptOnTimeout(), default_executionIsolationThreadInterruptOnTimeout);
         this.executionIsolationThreadInterruptOnFutureCancel = getProperty(propertyPrefix, key, "execution.isolation.thread.interruptOnFutureCancel", builder.getExecutionIsolationThreadInterruptOnFutureCancel(), default_executionIsolationThreadInterruptOnFutureCancel);
         this.executionIsolationSemaphoreMaxConcurrentRequests = getProperty(propertyPrefix, key, "execution.isolation.semaphore.maxConcurrentRequests", builder.getExecutionIsolationSemaphoreMaxConcurrentRequests(), default_executionIsolationSemaphoreMaxConcurrentRequests);
+        this.executionIsolationSemaphoreAdaptiveLimitEnabled = getProperty(propertyPrefix, key, "execution.isolation.semaphore.adaptiveLimit.enabled", builder.getExecutionIsolationSemaphoreAdaptiveLimitEnabled(), default_executionIsolationSemaphoreAdaptiveLimitEnabled);
         this.fallbackIsolationSemaphoreMaxConcurrentRequests = getProperty(propertyPrefix, key, "fallback.isolation.semaphore.maxConcurrentRequests", builder.getFallbackIsolationSemaphoreMaxConcurrentRequests(), default_fallbackIsolationSemaphoreMaxConcurrentRequests);
         this.fallbackEnabled = getProperty(propertyPrefix, key, "fallback.enabled", builder.getFallbackEnabled(), default_fallbackEnabled);
+        this.fallbackStaleEnabled = getProperty(propertyPrefix, key, "fallback.stale.enabled", builder.getFallbackStaleEnabled(), default_fallbackStaleEnabled);
+        this.fallbackStaleMaxSize = getProperty(propertyPrefix, key, "fallback.stale.maxSize", builder.getFallbackStaleMaxSize(), default_fallbackStaleMaxSize);
+        this.fallbackStaleMaxAgeInMilliseconds = getProperty(propertyPrefix, key, "fallback.stale.maxAgeInMilliseconds", builder.getFallbackStaleMaxAgeInMilliseconds(), default_fallbackStaleMaxAgeInMilliseconds);
         this.metricsRollingStatisticalWindowInMilliseconds = getProperty(propertyPrefix, key, "metrics.rollingStats.timeInMilliseconds", builder.getMetricsRollingStatisticalWindowInMilliseconds(), default_metricsRollingStatisticalWindow);
         this.metricsRollingStatisticalWindowBuckets = getProperty(propertyPrefix, key, "metrics.rollingStats.numBuckets", builder.getMetricsRollingStatisticalWindowBuckets(), default_metricsRollingStatisticalWindowBuckets);
         this.metricsRollingPercentileEnabled = getProperty(propertyPrefix, key, "metrics.rollingPercentile.enabled", builder.getMetricsRollingPercentileEnabled(), default_metricsRollingPercentileEnabled);
         this.metricsRollingPercentileWindowInMilliseconds = getProperty(propertyPrefix, key, "metrics.rollingPercentile.timeInMilliseconds", builder.getMetricsRollingPercentileWindowInMilliseconds(), default_metricsRollingPercentileWindow);
         this.metricsRollingPercentileWindowBuckets = getProperty(propertyPrefix, key, "metrics.rollingPercentile.numBuckets", builder.getMetricsRollingPercentileWindowBuckets(), default_metricsRollingPercentileWindowBuckets);
         this.metricsRollingPercentileBucketSize = getProperty(propertyPrefix, key, "metrics.rollingPercentile.bucketSize", builder.getMetricsRollingPercentileBucketSize(), default_metricsRollingPercentileBucketSize);
+        this.metricsRollingPercentileIncrementalEnabled = getProperty(propertyPrefix, key, "metrics.rollingPercentile.incremental.enabled", builder.getMetricsRollingPercentileIncrementalEnabled(), default_metricsRollingPercentileIncrementalEnabled);
         this.metricsHealthSnapshotIntervalInMilliseconds = getProperty(propertyPrefix, key, "metrics.healthSnapshot.intervalInMilliseconds", builder.getMetricsHealthSnapshotIntervalInMilliseconds(), default_metricsHealthSnapshotIntervalInMilliseconds);
         this.requestCacheEnabled = getProperty(propertyPrefix, key, "requestCache.enabled", builder.getRequestCacheEnabled(), default_requestCacheEnabled);
+        this.requestCacheGlobalEnabled = getProperty(propertyPrefix, key, "requestCache.global.enabled", builder.getRequestCacheGlobalEnabled(), default_requestCacheGlobalEnabled);
+        this.requestCacheGlobalMaxSize = getProperty(propertyPrefix, key, "requestCache.global.maxSize", builder.getRequestCacheGlobalMaxSize(), default_requestCacheGlobalMaxSize);
+        this.requestCacheGlobalTtlInMilliseconds = getProperty(propertyPrefix, key, "requestCache.global.ttlInMilliseconds", builder.getRequestCacheGlobalTtlInMilliseconds(), default_requestCacheGlobalTtlInMilliseconds);
         this.requestLogEnabled = getProperty(propertyPrefix, key, "requestLog.enabled", builder.getRequestLogEnabled(), default_requestLogEnabled);
+        this.requestLogSummaryEnabled = getProperty(propertyPrefix, key, "requestLog.summary.enabled", builder.getRequestLogSummaryEnabled(), default_requestLogSummaryEnabled);
 
         // threadpool doesn't have a global override, only instance level makes sense
         this.executionIsolationThreadPoolKeyOverride = forString().add(propertyPrefix + ".command." + key.name() + ".threadPoolKeyOverride", null).build();
     }
 
+    /**
+     * The values of the properties that are read on every execution of a command, compiled into a {@link Snapshot} so that reading them is a field load
+     * instead of a walk of the property chain.
+     * <p>
+     * If every property behind the snapshot is a {@link HystrixDynamicProperty} and the resolved {@link HystrixDynamicProperties} is the Archaius
+     * implementation, the snapshot is immutable and replaced whenever one of their callbacks fires. Otherwise the snapshot reads through to the
+     * properties on every call: {@link HystrixDynamicPropertiesSystemProperties} (and possibly other implementations) never fire callbacks, and a
+     * {@link HystrixPropertiesStrategy} may return plain {@link HystrixProperty} instances.
+     *
+     * @return {@link Snapshot}
+     */
+    public Snapshot snapshot() {
+        Snapshot s = snapshot;
+        if (s == null) {
+            synchronized (this) {
+                s = snapshot;
+                if (s == null) {
+                    s = initSnapshot(HystrixPlugins.getInstance().getDynamicProperties());
+                    snapshot = s;
+                }
+            }
+        }
+        return s;
+    }
+
+    /* package */ Snapshot initSnapshot(HystrixDynamicProperties dynamicProperties) {
+        if (!ARCHAIUS_DYNAMIC_PROPERTIES.equals(dynamicProperties.getClass().getName())) {
+            return new LiveSnapshot(this);
+        }
+        final HystrixProperty<?>[] properties = new HystrixProperty<?>[] {
+                executionIsolationStrategy(), executionTimeoutEnabled(), executionTimeoutInMilliseconds(), executionIsolationThreadInterruptOnTimeout(),
+                fallbackEnabled(), fallbackStaleEnabled(), circuitBreakerForceOpen(), circuitBreakerForceClosed(),
+                requestCacheEnabled(), requestCacheGlobalEnabled(), requestLogEnabled(), requestLogSummaryEnabled() };
+        for (HystrixProperty<?> property : properties) {
+            if (!(property instanceof HystrixDynamicProperty)) {
+                return new LiveSnapshot(this);
+            }
+        }
+        final Runnable refresh = new Runnable() {
+
+            @Override
+            public void run() {
+                // a new snapshot reads every property again, so callbacks racing each other still leave the latest values
+                snapshot = new Snapshot(HystrixCommandProperties.this);
+            }
+
+        };
+        for (HystrixProperty<?> property : properties) {
+            ((HystrixDynamicProperty<?>) property).addCallback(refresh);
+        }
+        // read after registering so that a change in between is not lost
+        return new Snapshot(this);
+    }
+
     /**
      * Whether to use a {@link HystrixCircuitBreaker} or not. If false no circuit-breaker logic will be used and all requests permitted.
      * <p>
@@ -199,6 +292,19 @@ public abstract class HystrixCommandProperties {
         return circuitBreakerRequestVolumeThreshold;
     }
 
+    /**
+     * Number of most recent executions the {@link HystrixCircuitBreaker} keeps the outcome of and evaluates on every failure.
+     * <p>
+     * If greater than 0 the circuit trips as soon as the error percentage of the last executions reaches {@link #circuitBreakerErrorThresholdPercentage()},
+     * with at least {@link #circuitBreakerRequestVolumeThreshold()} (capped at this size) executions recorded. If 0 the circuit trips on
+     * health snapshots taken every {@link #metricsHealthSnapshotIntervalInMilliseconds()}.  Only read when the circuit breaker of a command is created.
+     *
+     * @return {@code HystrixProperty<Integer>}
+     */
+    public HystrixProperty<Integer> circuitBreakerSlidingWindowSize() {
+        return circuitBreakerSlidingWindowSize;
+    }
+
     /**
      * The time in milliseconds after a {@link HystrixCircuitBreaker} trips open that it should wait before trying requests again.
      * 
@@ -219,12 +325,26 @@ public abstract class HystrixCommandProperties {
         return executionIsolationSemaphoreMaxConcurrentRequests;
     }
 
+    /**
+     * Whether the number of concurrent requests permitted to {@link HystrixCommand#run()} should follow the latency of recent executions, shrinking when
+     * latency rises above its long-term average and growing back up to {@link #executionIsolationSemaphoreMaxConcurrentRequests()} when it recovers.
+     * <p>
+     * Applicable only when {@link #executionIsolationStrategy()} == SEMAPHORE.  Only read when the metrics of a command are created.
+     *
+     * @return {@code HystrixProperty<Boolean>}
+     */
+    public HystrixProperty<Boolean> executionIsolationSemaphoreAdaptiveLimitEnabled() {
+        return executionIsolationSemaphoreAdaptiveLimitEnabled;
+    }
+
     /**
      * What isolation strategy {@link HystrixCommand#run()} will be executed with.
      * <p>
      * If {@link ExecutionIsolationStrategy#THREAD} then it will be executed on a separate thread and concurrent requests limited by the number of threads in the thread-pool.
      * <p>
      * If {@link ExecutionIsolationStrategy#SEMAPHORE} then it will be executed on the calling thread and concurrent requests limited by the semaphore count.
+     * <p>
+     * If {@link ExecutionIsolationStrategy#VIRTUAL} then it will be executed on a virtual thread and concurrent requests limited by the coreSize of the thread-pool.
      * 
      * @return {@code HystrixProperty<Boolean>}
      */
@@ -333,6 +453,36 @@ public abstract class HystrixCommandProperties {
         return fallbackEnabled;
     }
 
+    /**
+     * Whether the last successful response for the same {@link HystrixCommand#getCacheKey()} is served, without calling {@link HystrixCommand#getFallback()},
+     * when the command is short-circuited, times out or is rejected.
+     * <p>
+     * When the circuit half-opens and a response is available, it is served while the trial execution runs in the background and refreshes it.
+     * 
+     * @return {@code HystrixProperty<Boolean>}
+     */
+    public HystrixProperty<Boolean> fallbackStaleEnabled() {
+        return fallbackStaleEnabled;
+    }
+
+    /**
+     * Maximum number of last successful responses kept per command for {@link #fallbackStaleEnabled()}.
+     * 
+     * @return {@code HystrixProperty<Integer>}
+     */
+    public HystrixProperty<Integer> fallbackStaleMaxSize() {
+        return fallbackStaleMaxSize;
+    }
+
+    /**
+     * Maximum age in milliseconds of a last successful response that is still served for {@link #fallbackStaleEnabled()}.
+     * 
+     * @return {@code HystrixProperty<Integer>}
+     */
+    public HystrixProperty<Integer> fallbackStaleMaxAgeInMilliseconds() {
+        return fallbackStaleMaxAgeInMilliseconds;
+    }
+
     /**
      * Time in milliseconds to wait between allowing health snapshots to be taken that calculate success and error percentages and affect {@link HystrixCircuitBreaker#isOpen()} status.
      * <p>
@@ -362,6 +512,18 @@ public abstract class HystrixCommandProperties {
         return metricsRollingPercentileEnabled;
     }
 
+    /**
+     * Whether the latency percentile window should be kept as a single histogram that the newest bucket is added to and the
+     * evicted bucket is subtracted from, rather than merged from all buckets each time the window rolls.
+     * <p>
+     * Only read when the latency distribution streams of a command are created.
+     *
+     * @return {@code HystrixProperty<Boolean>}
+     */
+    public HystrixProperty<Boolean> metricsRollingPercentileIncrementalEnabled() {
+        return metricsRollingPercentileIncrementalEnabled;
+    }
+
     /**
      * Duration of percentile rolling window in milliseconds. This is passed into {@link HystrixRollingPercentile} inside {@link HystrixCommandMetrics}.
      * 
@@ -417,6 +579,33 @@ public abstract class HystrixCommandProperties {
         return requestCacheEnabled;
     }
 
+    /**
+     * Whether successful responses of {@link HystrixCommand#getCacheKey()} should also be cached across requests in the {@link HystrixGlobalCache}.
+     * 
+     * @return {@code HystrixProperty<Boolean>}
+     */
+    public HystrixProperty<Boolean> requestCacheGlobalEnabled() {
+        return requestCacheGlobalEnabled;
+    }
+
+    /**
+     * Maximum number of responses kept in the {@link HystrixGlobalCache} of this command.
+     * 
+     * @return {@code HystrixProperty<Integer>}
+     */
+    public HystrixProperty<Integer> requestCacheGlobalMaxSize() {
+        return requestCacheGlobalMaxSize;
+    }
+
+    /**
+     * Time in milliseconds a response stays in the {@link HystrixGlobalCache} after it was stored.
+     * 
+     * @return {@code HystrixProperty<Integer>}
+     */
+    public HystrixProperty<Integer> requestCacheGlobalTtlInMilliseconds() {
+        return requestCacheGlobalTtlInMilliseconds;
+    }
+
     /**
      * Whether {@link HystrixCommand} execution and events should be logged to {@link HystrixRequestLog}.
      * 
@@ -426,6 +615,18 @@ public abstract class HystrixCommandProperties {
         return requestLogEnabled;
     }
 
+    /**
+     * Whether a completed {@link HystrixCommand} is replaced in the {@link HystrixRequestLog} by an immutable summary of its execution
+     * (keys, events, latency and cache key), so the command instance can be garbage collected before the request ends.
+     * <p>
+     * Summarized commands are no longer returned by {@link HystrixRequestLog#getExecutedCommands()}, and their exceptions are not kept.
+     * 
+     * @return {@code HystrixProperty<Boolean>}
+     */
+    public HystrixProperty<Boolean> requestLogSummaryEnabled() {
+        return requestLogSummaryEnabled;
+    }
+
     private static HystrixProperty<Boolean> getProperty(String propertyPrefix, HystrixCommandKey key, String instanceProperty, Boolean builderOverrideValue, Boolean defaultValue) {
         return forBoolean()
                 .add(propertyPrefix + ".command." + key.name() + "." + instanceProperty, builderOverrideValue)
@@ -456,7 +657,7 @@ public abstract class HystrixCommandProperties {
     /**
      * HystrixProperty that converts a String to ExecutionIsolationStrategy so we remain TypeSafe.
      */
-    private static final class ExecutionIsolationStrategyHystrixProperty implements HystrixProperty<ExecutionIsolationStrategy> {
+    private static final class ExecutionIsolationStrategyHystrixProperty implements HystrixDynamicProperty<ExecutionIsolationStrategy> {
         private final HystrixDynamicProperty<String> property;
         private volatile ExecutionIsolationStrategy value;
         private final ExecutionIsolationStrategy defaultValue;
@@ -492,6 +693,17 @@ public abstract class HystrixCommandProperties {
             return value;
         }
 
+        @Override
+        public String getName() {
+            return property.getName();
+        }
+
+        @Override
+        public void addCallback(Runnable callback) {
+            // runs after the callback registered in the constructor, so the new value is already parsed
+            property.addCallback(callback);
+        }
+
         private void parseProperty() {
             try {
                 value = ExecutionIsolationStrategy.valueOf(property.get());
@@ -503,6 +715,195 @@ public abstract class HystrixCommandProperties {
         }
     }
 
+    /**
+     * Immutable values of the {@link HystrixCommandProperties} read on every execution of a command, see {@link HystrixCommandProperties#snapshot()}.
+     */
+    public static class Snapshot {
+        private final ExecutionIsolationStrategy executionIsolationStrategy;
+        private final boolean executionTimeoutEnabled;
+        private final int executionTimeoutInMilliseconds;
+        private final boolean executionIsolationThreadInterruptOnTimeout;
+        private final boolean fallbackEnabled;
+        private final boolean fallbackStaleEnabled;
+        private final boolean circuitBreakerForceOpen;
+        private final boolean circuitBreakerForceClosed;
+        private final boolean requestCacheEnabled;
+        private final boolean requestCacheGlobalEnabled;
+        private final boolean requestLogEnabled;
+        private final boolean requestLogSummaryEnabled;
+
+        /* package */Snapshot(HystrixCommandProperties properties) {
+            this.executionIsolationStrategy = properties.executionIsolationStrategy().get();
+            this.executionTimeoutEnabled = properties.executionTimeoutEnabled().get();
+            this.executionTimeoutInMilliseconds = properties.executionTimeoutInMilliseconds().get();
+            this.executionIsolationThreadInterruptOnTimeout = properties.executionIsolationThreadInterruptOnTimeout().get();
+            this.fallbackEnabled = properties.fallbackEnabled().get();
+            this.fallbackStaleEnabled = properties.fallbackStaleEnabled().get();
+            this.circuitBreakerForceOpen = properties.circuitBreakerForceOpen().get();
+            this.circuitBreakerForceClosed = properties.circuitBreakerForceClosed().get();
+            this.requestCacheEnabled = properties.requestCacheEnabled().get();
+            this.requestCacheGlobalEnabled = properties.requestCacheGlobalEnabled().get();
+            this.requestLogEnabled = properties.requestLogEnabled().get();
+            this.requestLogSummaryEnabled = properties.requestLogSummaryEnabled().get();
+        }
+
+        /**
+         * @see HystrixCommandProperties#executionIsolationStrategy()
+         */
+        public ExecutionIsolationStrategy executionIsolationStrategy() {
+            return executionIsolationStrategy;
+        }
+
+        /**
+         * @see HystrixCommandProperties#executionTimeoutEnabled()
+         */
+        public boolean executionTimeoutEnabled() {
+            return executionTimeoutEnabled;
+        }
+
+        /**
+         * @see HystrixCommandProperties#executionTimeoutInMilliseconds()
+         */
+        public int executionTimeoutInMilliseconds() {
+            return executionTimeoutInMilliseconds;
+        }
+
+        /**
+         * @see HystrixCommandProperties#executionIsolationThreadInterruptOnTimeout()
+         */
+        public boolean executionIsolationThreadInterruptOnTimeout() {
+            return executionIsolationThreadInterruptOnTimeout;
+        }
+
+        /**
+         * @see HystrixCommandProperties#fallbackEnabled()
+         */
+        public boolean fallbackEnabled() {
+            return fallbackEnabled;
+        }
+
+        /**
+         * @see HystrixCommandProperties#fallbackStaleEnabled()
+         */
+        public boolean fallbackStaleEnabled() {
+            return fallbackStaleEnabled;
+        }
+
+        /**
+         * @see HystrixCommandProperties#circuitBreakerForceOpen()
+         */
+        public boolean circuitBreakerForceOpen() {
+            return circuitBreakerForceOpen;
+        }
+
+        /**
+         * @see HystrixCommandProperties#circuitBreakerForceClosed()
+         */
+        public boolean circuitBreakerForceClosed() {
+            return circuitBreakerForceClosed;
+        }
+
+        /**
+         * @see HystrixCommandProperties#requestCacheEnabled()
+         */
+        public boolean requestCacheEnabled() {
+            return requestCacheEnabled;
+        }
+
+        /**
+         * @see HystrixCommandProperties#requestCacheGlobalEnabled()
+         */
+        public boolean requestCacheGlobalEnabled() {
+            return requestCacheGlobalEnabled;
+        }
+
+        /**
+         * @see HystrixCommandProperties#requestLogEnabled()
+         */
+        public boolean requestLogEnabled() {
+            return requestLogEnabled;
+        }
+
+        /**
+         * @see HystrixCommandProperties#requestLogSummaryEnabled()
+         */
+        public boolean requestLogSummaryEnabled() {
+            return requestLogSummaryEnabled;
+        }
+    }
+
+    /**
+     * {@link Snapshot} for properties that can't notify of changes, which reads through to them on every call.
+     */
+    private static final class LiveSnapshot extends Snapshot {
+        private final HystrixCommandProperties properties;
+
+        private LiveSnapshot(HystrixCommandProperties properties) {
+            super(properties);
+            this.properties = properties;
+        }
+
+        @Override
+        public ExecutionIsolationStrategy executionIsolationStrategy() {
+            return properties.executionIsolationStrategy().get();
+        }
+
+        @Override
+        public boolean executionTimeoutEnabled() {
+            return properties.executionTimeoutEnabled().get();
+        }
+
+        @Override
+        public int executionTimeoutInMilliseconds() {
+            return properties.executionTimeoutInMilliseconds().get();
+        }
+
+        @Override
+        public boolean executionIsolationThreadInterruptOnTimeout() {
+            return properties.executionIsolationThreadInterruptOnTimeout().get();
+        }
+
+        @Override
+        public boolean fallbackEnabled() {
+            return properties.fallbackEnabled().get();
+        }
+
+        @Override
+        public boolean fallbackStaleEnabled() {
+            return properties.fallbackStaleEnabled().get();
+        }
+
+        @Override
+        public boolean circuitBreakerForceOpen() {
+            return properties.circuitBreakerForceOpen().get();
+        }
+
+        @Override
+        public boolean circuitBreakerForceClosed() {
+            return properties.circuitBreakerForceClosed().get();
+        }
+
+        @Override
+        public boolean requestCacheEnabled() {
+            return properties.requestCacheEnabled().get();
+        }
+
+        @Override
+        public boolean requestCacheGlobalEnabled() {
+            return properties.requestCacheGlobalEnabled().get();
+        }
+
+        @Override
+        public boolean requestLogEnabled() {
+            return properties.requestLogEnabled().get();
+        }
+
+        @Override
+        public boolean requestLogSummaryEnabled() {
+            return properties.requestLogSummaryEnabled().get();
+        }
+    }
+
     /**
      * Factory method to retrieve the default Setter.
      */
@@ -542,7 +943,9 @@ public abstract class HystrixCommandProperties {
         private Boolean circuitBreakerForceOpen = null;
         private Integer circuitBreakerRequestVolumeThreshold = null;
         private Integer circuitBreakerSleepWindowInMilliseconds = null;
+        private Integer circuitBreakerSlidingWindowSize = null;
         private Integer executionIsolationSemaphoreMaxConcurrentRequests = null;
+        private Boolean executionIsolationSemaphoreAdaptiveLimitEnabled = null;
         private ExecutionIsolationStrategy executionIsolationStrategy = null;
         private Boolean executionIsolationThreadInterruptOnTimeout = null;
         private Boolean executionIsolationThreadInterruptOnFutureCancel = null;
@@ -550,16 +953,24 @@ public abstract class HystrixCommandProperties {
         private Boolean executionTimeoutEnabled = null;
         private Integer fallbackIsolationSemaphoreMaxConcurrentRequests = null;
         private Boolean fallbackEnabled = null;
+        private Boolean fallbackStaleEnabled = null;
+        private Integer fallbackStaleMaxSize = null;
+        private Integer fallbackStaleMaxAgeInMilliseconds = null;
         private Integer metricsHealthSnapshotIntervalInMilliseconds = null;
         private Integer metricsRollingPercentileBucketSize = null;
         private Boolean metricsRollingPercentileEnabled = null;
+        private Boolean metricsRollingPercentileIncrementalEnabled = null;
         private Integer metricsRollingPercentileWindowInMilliseconds = null;
         private Integer metricsRollingPercentileWindowBuckets = null;
         /* null means it hasn't been overridden */
         private Integer metricsRollingStatisticalWindowInMilliseconds = null;
         private Integer metricsRollingStatisticalWindowBuckets = null;
         private Boolean requestCacheEnabled = null;
+        private Boolean requestCacheGlobalEnabled = null;
+        private Integer requestCacheGlobalMaxSize = null;
+        private Integer requestCacheGlobalTtlInMilliseconds = null;
         private Boolean requestLogEnabled = null;
+        private Boolean requestLogSummaryEnabled = null;
 
         /* package */ Setter() {
         }
@@ -588,10 +999,18 @@ public abstract class HystrixCommandProperties {
             return circuitBreakerSleepWindowInMilliseconds;
         }
 
+        public Integer getCircuitBreakerSlidingWindowSize() {
+            return circuitBreakerSlidingWindowSize;
+        }
+
         public Integer getExecutionIsolationSemaphoreMaxConcurrentRequests() {
             return executionIsolationSemaphoreMaxConcurrentRequests;
         }
 
+        public Boolean getExecutionIsolationSemaphoreAdaptiveLimitEnabled() {
+            return executionIsolationSemaphoreAdaptiveLimitEnabled;
+        }
+
         public ExecutionIsolationStrategy getExecutionIsolationStrategy() {
             return executionIsolationStrategy;
         }
@@ -628,6 +1047,18 @@ public abstract class HystrixCommandProperties {
             return fallbackEnabled;
         }
 
+        public Boolean getFallbackStaleEnabled() {
+            return fallbackStaleEnabled;
+        }
+
+        public Integer getFallbackStaleMaxSize() {
+            return fallbackStaleMaxSize;
+        }
+
+        public Integer getFallbackStaleMaxAgeInMilliseconds() {
+            return fallbackStaleMaxAgeInMilliseconds;
+        }
+
         public Integer getMetricsHealthSnapshotIntervalInMilliseconds() {
             return metricsHealthSnapshotIntervalInMilliseconds;
         }
@@ -640,6 +1071,10 @@ public abstract class HystrixCommandProperties {
             return metricsRollingPercentileEnabled;
         }
 
+        public Boolean getMetricsRollingPercentileIncrementalEnabled() {
+            return metricsRollingPercentileIncrementalEnabled;
+        }
+
         public Integer getMetricsRollingPercentileWindowInMilliseconds() {
             return metricsRollingPercentileWindowInMilliseconds;
         }
@@ -660,10 +1095,26 @@ public abstract class HystrixCommandProperties {
             return requestCacheEnabled;
         }
 
+        public Boolean getRequestCacheGlobalEnabled() {
+            return requestCacheGlobalEnabled;
+        }
+
+        public Integer getRequestCacheGlobalMaxSize() {
+            return requestCacheGlobalMaxSize;
+        }
+
+        public Integer getRequestCacheGlobalTtlInMilliseconds() {
+            return requestCacheGlobalTtlInMilliseconds;
+        }
+
         public Boolean getRequestLogEnabled() {
             return requestLogEnabled;
         }
 
+        public Boolean getRequestLogSummaryEnabled() {
+            return requestLogSummaryEnabled;
+        }
+
         public Setter withCircuitBreakerEnabled(boolean value) {
             this.circuitBreakerEnabled = value;
             return this;
@@ -694,11 +1145,21 @@ public abstract class HystrixCommandProperties {
             return this;
         }
 
+        public Setter withCircuitBreakerSlidingWindowSize(int value) {
+            this.circuitBreakerSlidingWindowSize = value;
+            return this;
+        }
+
         public Setter withExecutionIsolationSemaphoreMaxConcurrentRequests(int value) {
             this.executionIsolationSemaphoreMaxConcurrentRequests = value;
             return this;
         }
 
+        public Setter withExecutionIsolationSemaphoreAdaptiveLimitEnabled(boolean value) {
+            this.executionIsolationSemaphoreAdaptiveLimitEnabled = value;
+            return this;
+        }
+
         public Setter withExecutionIsolationStrategy(ExecutionIsolationStrategy value) {
             this.executionIsolationStrategy = value;
             return this;
@@ -743,6 +1204,21 @@ public abstract class HystrixCommandProperties {
             return this;
         }
 
+        public Setter withFallbackStaleEnabled(boolean value) {
+            this.fallbackStaleEnabled = value;
+            return this;
+        }
+
+        public Setter withFallbackStaleMaxSize(int value) {
+            this.fallbackStaleMaxSize = value;
+            return this;
+        }
+
+        public Setter withFallbackStaleMaxAgeInMilliseconds(int value) {
+            this.fallbackStaleMaxAgeInMilliseconds = value;
+            return this;
+        }
+
         public Setter withMetricsHealthSnapshotIntervalInMilliseconds(int value) {
             this.metricsHealthSnapshotIntervalInMilliseconds = value;
             return this;
@@ -758,6 +1234,11 @@ public abstract class HystrixCommandProperties {
             return this;
         }
 
+        public Setter withMetricsRollingPercentileIncrementalEnabled(boolean value) {
+            this.metricsRollingPercentileIncrementalEnabled = value;
+            return this;
+        }
+
         public Setter withMetricsRollingPercentileWindowInMilliseconds(int value) {
             this.metricsRollingPercentileWindowInMilliseconds = value;
             return this;
@@ -783,9 +1264,29 @@ public abstract class HystrixCommandProperties {
             return this;
         }
 
+        public Setter withRequestCacheGlobalEnabled(boolean value) {
+            this.requestCacheGlobalEnabled = value;
+            return this;
+        }
+
+        public Setter withRequestCacheGlobalMaxSize(int value) {
+            this.requestCacheGlobalMaxSize = value;
+            return this;
+        }
+
+        public Setter withRequestCacheGlobalTtlInMilliseconds(int value) {
+            this.requestCacheGlobalTtlInMilliseconds = value;
+            return this;
+        }
+
         public Setter withRequestLogEnabled(boolean value) {
             this.requestLogEnabled = value;
             return this;
         }
+
+        public Setter withRequestLogSummaryEnabled(boolean value) {
+            this.requestLogSummaryEnabled = value;
+            return this;
+        }
     }
 }
@@ -44,7 +44,11 @@ public enum HystrixEventType {
     RESPONSE_FROM_CACHE(true),
     CANCELLED(true),
     COLLAPSED(false),
-    COMMAND_MAX_ACTIVE(false);
+    COMMAND_MAX_ACTIVE(false),
+    GLOBAL_CACHE_HIT(true),
+    GLOBAL_CACHE_MISS(false),
+    GLOBAL_CACHE_EVICTION(false),
+    FALLBACK_STALE(false);
 
     private final boolean isTerminal;
 
@@ -0,0 +1,328 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix;
+
+import com.netflix.hystrix.util.HystrixFrequencySketch;
+import rx.Observable;
+import rx.subjects.AsyncSubject;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache of successful responses shared by all requests, for commands with {@link HystrixCommandProperties#requestCacheGlobalEnabled()}.
+ * <p>
+ * It sits behind {@link HystrixRequestCache} and is keyed by the same {@link HystrixCommand#getCacheKey()}, with one instance per {@link HystrixCommandKey}.
+ * Entries expire after {@link HystrixCommandProperties#requestCacheGlobalTtlInMilliseconds()} and the number of entries is bounded by
+ * {@link HystrixCommandProperties#requestCacheGlobalMaxSize()}.
+ * <p>
+ * Eviction follows W-TinyLFU: new entries go to a small LRU window, and an entry leaving the window only replaces the least recently used entry of the main
+ * space if it has been requested more often, according to a {@link HystrixFrequencySketch}.  The main space is split into a probation and a protected
+ * segment so that entries hit more than once survive scans of one-off keys.
+ * <p>
+ * Concurrent misses on the same key are coalesced: the first one executes the command and the others wait for its response instead of executing too.
+ * <p>
+ * Lookups don't take a lock.  Recording a hit for the eviction policy is skipped when another thread is updating the policy.
+ *
+ * @ThreadSafe
+ */
+public class HystrixGlobalCache {
+    private static final ConcurrentHashMap<String, HystrixGlobalCache> caches = new ConcurrentHashMap<String, HystrixGlobalCache>();
+
+    private static final int WINDOW_PERCENTAGE = 1;
+    private static final int PROTECTED_PERCENTAGE = 80;
+
+    private final HystrixCommandProperties properties;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+    // eviction policy, guarded by policyLock
+    private final ReentrantLock policyLock = new ReentrantLock();
+    private final LinkedHashMap<String, Boolean> window = new LinkedHashMap<String, Boolean>();
+    private final LinkedHashMap<String, Boolean> probation = new LinkedHashMap<String, Boolean>();
+    private final LinkedHashMap<String, Boolean> protectedSegment = new LinkedHashMap<String, Boolean>();
+    private final HystrixFrequencySketch sketch;
+
+    private HystrixGlobalCache(HystrixCommandProperties properties) {
+        this.properties = properties;
+        this.sketch = new HystrixFrequencySketch(properties.requestCacheGlobalMaxSize().get());
+    }
+
+    /**
+     * Get the {@link HystrixGlobalCache} for a {@link HystrixCommandKey}, creating it with the given properties if it does not exist yet.
+     *
+     * @return {@link HystrixGlobalCache}
+     */
+    public static HystrixGlobalCache getInstance(HystrixCommandKey key, HystrixCommandProperties properties) {
+        HystrixGlobalCache c = caches.get(key.name());
+        if (c == null) {
+            HystrixGlobalCache newCache = new HystrixGlobalCache(properties);
+            HystrixGlobalCache existing = caches.putIfAbsent(key.name(), newCache);
+            c = existing == null ? newCache : existing;
+        }
+        return c;
+    }
+
+    /**
+     * Clears all global caches.
+     */
+    /* package */ static void reset() {
+        caches.clear();
+    }
+
+    /**
+     * Clear the cached response for a given cacheKey.
+     *
+     * @param cacheKey
+     *            key as defined by {@link HystrixCommand#getCacheKey()}
+     */
+    public void clear(String cacheKey) {
+        Entry e = entries.get(cacheKey);
+        if (e instanceof Value && entries.remove(cacheKey, e)) {
+            policyLock.lock();
+            try {
+                removeFromPolicy(cacheKey);
+            } finally {
+                policyLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * @return number of cached responses, not counting responses that are being loaded
+     */
+    public int size() {
+        policyLock.lock();
+        try {
+            return window.size() + probation.size() + protectedSegment.size();
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    /**
+     * Look up {@code cacheKey}, evicting its response if it has expired so that it no longer takes up room.
+     *
+     * @return a fresh {@link Value}, the {@link Load} in progress for {@code cacheKey}, or null if there is neither
+     */
+    /* package */ Entry get(String cacheKey) {
+        final Entry e = entries.get(cacheKey);
+        if (e instanceof Value) {
+            if (((Value) e).expiresAt <= System.currentTimeMillis()) {
+                if (entries.remove(cacheKey, e)) {
+                    policyLock.lock();
+                    try {
+                        removeFromPolicy(cacheKey);
+                    } finally {
+                        policyLock.unlock();
+                    }
+                }
+                return null;
+            }
+            recordHit(cacheKey);
+        }
+        return e;
+    }
+
+    /**
+     * Register a load of the response for {@code cacheKey}, which must then be completed with {@link #complete(Load, List)} or {@link #abandon(Load)}.
+     *
+     * @return the registered {@link Load}, or null if another command registered a load or stored a response first
+     */
+    /* package */ Load startLoad(String cacheKey) {
+        final Load load = new Load(cacheKey);
+        final Entry existing = entries.get(cacheKey);
+        if (existing == null) {
+            return entries.putIfAbsent(cacheKey, load) == null ? load : null;
+        }
+        if (existing instanceof Value && ((Value) existing).expiresAt <= System.currentTimeMillis() && entries.replace(cacheKey, existing, load)) {
+            policyLock.lock();
+            try {
+                removeFromPolicy(cacheKey);
+            } finally {
+                policyLock.unlock();
+            }
+            return load;
+        }
+        return null;
+    }
+
+    /**
+     * Store the response of a successful load and hand it to the commands waiting for it.
+     *
+     * @return number of responses evicted to make room for this one
+     */
+    /* package */ int complete(Load load, List<?> response) {
+        if (!load.finished.compareAndSet(false, true)) {
+            return 0;
+        }
+        int evicted = 0;
+        final Value value = new Value(response, System.currentTimeMillis() + properties.requestCacheGlobalTtlInMilliseconds().get());
+        if (entries.replace(load.cacheKey, load, value)) {
+            policyLock.lock();
+            try {
+                sketch.increment(load.cacheKey);
+                window.put(load.cacheKey, Boolean.TRUE);
+                evicted = evictIfNeeded();
+            } finally {
+                policyLock.unlock();
+            }
+        }
+        load.response.onNext(response);
+        load.response.onCompleted();
+        return evicted;
+    }
+
+    /**
+     * Give up a load without a response, so that the commands waiting for it execute on their own.
+     */
+    /* package */ void abandon(Load load) {
+        if (load.finished.compareAndSet(false, true)) {
+            entries.remove(load.cacheKey, load);
+            load.response.onNext(null);
+            load.response.onCompleted();
+        }
+    }
+
+    private void recordHit(String cacheKey) {
+        // the policy is only approximate so rather skip a hit than wait for the lock
+        if (policyLock.tryLock()) {
+            try {
+                sketch.increment(cacheKey);
+                if (window.containsKey(cacheKey)) {
+                    window.remove(cacheKey);
+                    window.put(cacheKey, Boolean.TRUE);
+                } else if (probation.remove(cacheKey) != null) {
+                    protectedSegment.put(cacheKey, Boolean.TRUE);
+                    final int protectedMax = getMainMax(getMaxSize()) * PROTECTED_PERCENTAGE / 100;
+                    if (protectedSegment.size() > protectedMax) {
+                        probation.put(removeEldest(protectedSegment), Boolean.TRUE);
+                    }
+                } else if (protectedSegment.remove(cacheKey) != null) {
+                    protectedSegment.put(cacheKey, Boolean.TRUE);
+                }
+            } finally {
+                policyLock.unlock();
+            }
+        }
+    }
+
+    private int evictIfNeeded() {
+        final int maxSize = getMaxSize();
+        final int windowMax = Math.max(1, maxSize * WINDOW_PERCENTAGE / 100);
+        final int mainMax = getMainMax(maxSize);
+        sketch.ensureCapacity(maxSize);
+
+        int evicted = 0;
+        while (window.size() > windowMax) {
+            final String candidate = removeEldest(window);
+            if (probation.size() + protectedSegment.size() < mainMax) {
+                probation.put(candidate, Boolean.TRUE);
+            } else if (probation.isEmpty() && protectedSegment.isEmpty()) {
+                evict(candidate);
+                evicted++;
+            } else {
+                final LinkedHashMap<String, Boolean> victims = probation.isEmpty() ? protectedSegment : probation;
+                final String victim = victims.keySet().iterator().next();
+                if (sketch.frequency(candidate) > sketch.frequency(victim)) {
+                    victims.remove(victim);
+                    evict(victim);
+                    probation.put(candidate, Boolean.TRUE);
+                } else {
+                    evict(candidate);
+                }
+                evicted++;
+            }
+        }
+        // the maximum size may have been lowered
+        while (probation.size() + protectedSegment.size() > mainMax) {
+            evict(removeEldest(probation.isEmpty() ? protectedSegment : probation));
+            evicted++;
+        }
+        return evicted;
+    }
+
+    private void evict(String cacheKey) {
+        final Entry e = entries.get(cacheKey);
+        if (e instanceof Value) {
+            entries.remove(cacheKey, e);
+        }
+    }
+
+    private void removeFromPolicy(String cacheKey) {
+        if (window.remove(cacheKey) == null && probation.remove(cacheKey) == null) {
+            protectedSegment.remove(cacheKey);
+        }
+    }
+
+    private int getMaxSize() {
+        return Math.max(1, properties.requestCacheGlobalMaxSize().get());
+    }
+
+    private static int getMainMax(int maxSize) {
+        return maxSize - Math.max(1, maxSize * WINDOW_PERCENTAGE / 100);
+    }
+
+    private static String removeEldest(LinkedHashMap<String, Boolean> segment) {
+        final Iterator<String> it = segment.keySet().iterator();
+        final String eldest = it.next();
+        it.remove();
+        return eldest;
+    }
+
+    /* package */ static abstract class Entry {
+    }
+
+    /**
+     * Cached response of a command.
+     */
+    /* package */ static final class Value extends Entry {
+        private final List<?> response;
+        private final long expiresAt;
+
+        private Value(List<?> response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+
+        /* package */ List<?> getResponse() {
+            return response;
+        }
+    }
+
+    /**
+     * Response being loaded by one command while others with the same cache key wait for it.
+     */
+    /* package */ static final class Load extends Entry {
+        private final String cacheKey;
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private final AsyncSubject<List<?>> response = AsyncSubject.create();
+
+        private Load(String cacheKey) {
+            this.cacheKey = cacheKey;
+        }
+
+        /**
+         * @return emits the response once loaded, or null if the load was abandoned
+         */
+        /* package */ Observable<List<?>> getResponse() {
+            return response;
+        }
+    }
+}
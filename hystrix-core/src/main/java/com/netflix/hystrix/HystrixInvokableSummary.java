@@ -0,0 +1,214 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable record of a completed command execution, kept in the {@link HystrixRequestLog} in place of the command itself
+ * when {@link HystrixCommandProperties#requestLogSummaryEnabled()} is set.
+ * <p>
+ * It keeps the keys, events, latency and cache key of the execution.  Metrics and properties are shared by all commands with the same key,
+ * so referencing them retains nothing extra.  Exceptions are not kept, so {@link #getFailedExecutionException()} always returns null.
+ *
+ * @param <R> response type of the command
+ */
+/* package */ final class HystrixInvokableSummary<R> implements HystrixInvokableInfo<R> {
+    private static final HystrixEventType[] ALL_EVENT_TYPES = HystrixEventType.values();
+
+    private final HystrixCommandGroupKey commandGroup;
+    private final HystrixCommandKey commandKey;
+    private final HystrixThreadPoolKey threadPoolKey;
+    private final String publicCacheKey;
+    private final HystrixCollapserKey originatingCollapserKey;
+    private final HystrixCommandMetrics metrics;
+    private final HystrixCommandProperties properties;
+    private final boolean circuitBreakerOpen;
+    private final boolean executedInThread;
+    private final boolean responseFromCache;
+    private final ExecutionResult.EventCounts eventCounts;
+    private final int executionTimeInMilliseconds;
+    private final long commandRunStartTimeInNanos;
+
+    /* package */ HystrixInvokableSummary(AbstractCommand<R> command) {
+        this.commandGroup = command.getCommandGroup();
+        this.commandKey = command.getCommandKey();
+        this.threadPoolKey = command.getThreadPoolKey();
+        this.publicCacheKey = command.getPublicCacheKey();
+        this.originatingCollapserKey = command.getOriginatingCollapserKey();
+        this.metrics = command.getMetrics();
+        this.properties = command.getProperties();
+        this.circuitBreakerOpen = command.isCircuitBreakerOpen();
+        this.executedInThread = command.isExecutedInThread();
+        this.responseFromCache = command.isResponseFromCache();
+        this.eventCounts = command.getEventCounts();
+        this.executionTimeInMilliseconds = command.getExecutionTimeInMilliseconds();
+        this.commandRunStartTimeInNanos = command.getCommandRunStartTimeInNanos();
+    }
+
+    @Override
+    public HystrixCommandGroupKey getCommandGroup() {
+        return commandGroup;
+    }
+
+    @Override
+    public HystrixCommandKey getCommandKey() {
+        return commandKey;
+    }
+
+    @Override
+    public HystrixThreadPoolKey getThreadPoolKey() {
+        return threadPoolKey;
+    }
+
+    @Override
+    public String getPublicCacheKey() {
+        return publicCacheKey;
+    }
+
+    @Override
+    public HystrixCollapserKey getOriginatingCollapserKey() {
+        return originatingCollapserKey;
+    }
+
+    @Override
+    public HystrixCommandMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public HystrixCommandProperties getProperties() {
+        return properties;
+    }
+
+    /**
+     * @return whether the circuit-breaker was open when the command completed
+     */
+    @Override
+    public boolean isCircuitBreakerOpen() {
+        return circuitBreakerOpen;
+    }
+
+    @Override
+    public boolean isExecutionComplete() {
+        return true;
+    }
+
+    @Override
+    public boolean isExecutedInThread() {
+        return executedInThread;
+    }
+
+    @Override
+    public boolean isSuccessfulExecution() {
+        return eventCounts.contains(HystrixEventType.SUCCESS);
+    }
+
+    @Override
+    public boolean isFailedExecution() {
+        return eventCounts.contains(HystrixEventType.FAILURE);
+    }
+
+    /**
+     * @return null, exceptions are not kept in a summary
+     */
+    @Override
+    public Throwable getFailedExecutionException() {
+        return null;
+    }
+
+    @Override
+    public boolean isResponseFromFallback() {
+        return eventCounts.contains(HystrixEventType.FALLBACK_SUCCESS);
+    }
+
+    @Override
+    public boolean isResponseTimedOut() {
+        return eventCounts.contains(HystrixEventType.TIMEOUT);
+    }
+
+    @Override
+    public boolean isResponseShortCircuited() {
+        return eventCounts.contains(HystrixEventType.SHORT_CIRCUITED);
+    }
+
+    @Override
+    public boolean isResponseFromCache() {
+        return responseFromCache;
+    }
+
+    @Override
+    public boolean isResponseRejected() {
+        return isResponseThreadPoolRejected() || isResponseSemaphoreRejected();
+    }
+
+    @Override
+    public boolean isResponseSemaphoreRejected() {
+        return eventCounts.contains(HystrixEventType.SEMAPHORE_REJECTED);
+    }
+
+    @Override
+    public boolean isResponseThreadPoolRejected() {
+        return eventCounts.contains(HystrixEventType.THREAD_POOL_REJECTED);
+    }
+
+    @Override
+    public List<HystrixEventType> getExecutionEvents() {
+        List<HystrixEventType> events = new ArrayList<HystrixEventType>();
+        for (HystrixEventType eventType : ALL_EVENT_TYPES) {
+            if (eventCounts.contains(eventType)) {
+                events.add(eventType);
+            }
+        }
+        return events;
+    }
+
+    @Override
+    public int getNumberEmissions() {
+        return eventCounts.getCount(HystrixEventType.EMIT);
+    }
+
+    @Override
+    public int getNumberFallbackEmissions() {
+        return eventCounts.getCount(HystrixEventType.FALLBACK_EMIT);
+    }
+
+    @Override
+    public int getNumberCollapsed() {
+        return eventCounts.getCount(HystrixEventType.COLLAPSED);
+    }
+
+    @Override
+    public int getExecutionTimeInMilliseconds() {
+        return executionTimeInMilliseconds;
+    }
+
+    @Override
+    public long getCommandRunStartTimeInNanos() {
+        return commandRunStartTimeInNanos;
+    }
+
+    @Override
+    public ExecutionResult.EventCounts getEventCounts() {
+        return eventCounts;
+    }
+
+    @Override
+    public String toString() {
+        return "HystrixInvokableSummary[" + commandKey.name() + getExecutionEvents() + "][" + executionTimeInMilliseconds + "ms]";
+    }
+}
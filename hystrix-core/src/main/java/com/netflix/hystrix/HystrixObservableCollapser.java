@@ -128,8 +128,6 @@ public abstract class HystrixObservableCollapser<K, BatchReturnType, ResponseTyp
         }
 
         HystrixCollapserProperties properties = HystrixPropertiesFactory.getCollapserProperties(collapserKey, propertiesBuilder);
-        this.collapserFactory = new RequestCollapserFactory<BatchReturnType, ResponseType, RequestArgumentType>(collapserKey, scope, timer, properties);
-        this.requestCache = HystrixRequestCache.getInstance(collapserKey, HystrixPlugins.getInstance().getConcurrencyStrategy());
 
         if (metrics == null) {
             this.metrics = HystrixCollapserMetrics.getInstance(collapserKey, properties);
@@ -137,6 +135,9 @@ public abstract class HystrixObservableCollapser<K, BatchReturnType, ResponseTyp
             this.metrics = metrics;
         }
 
+        this.collapserFactory = new RequestCollapserFactory<BatchReturnType, ResponseType, RequestArgumentType>(collapserKey, scope, timer, properties, this.metrics.getTimerDelayInMilliseconds());
+        this.requestCache = HystrixRequestCache.getInstance(collapserKey, HystrixPlugins.getInstance().getConcurrencyStrategy());
+
         final HystrixObservableCollapser<K, BatchReturnType, ResponseType, RequestArgumentType> self = this;
 
            /* strategy: HystrixMetricsPublisherCollapser */
@@ -162,7 +163,14 @@ public abstract class HystrixObservableCollapser<K, BatchReturnType, ResponseTyp
                 // mark the number of requests being collapsed together
                 command.markAsCollapsedCommand(this.getCollapserKey(), requests.size());
                 self.metrics.markBatch(requests.size());
-                return command.toObservable();
+                final int batchSize = requests.size();
+                final long startTime = System.currentTimeMillis();
+                return command.toObservable().doOnTerminate(new Action0() {
+                    @Override
+                    public void call() {
+                        self.metrics.markBatchCompleted(batchSize, System.currentTimeMillis() - startTime);
+                    }
+                });
             }
 
             @Override
@@ -300,6 +308,17 @@ public abstract class HystrixObservableCollapser<K, BatchReturnType, ResponseTyp
      */
     public abstract RequestArgumentType getRequestArgument();
 
+    /**
+     * Weight of this request, counted towards {@link HystrixCollapserProperties#maxWeightInBatch()} when early dispatch is enabled.
+     * <p>
+     * Override to dispatch batches by payload size or cost rather than by number of requests. Defaults to 1.
+     * 
+     * @return weight of the request argument
+     */
+    protected int getRequestWeight() {
+        return 1;
+    }
+
     /**
      * Factory method to create a new {@link HystrixObservableCommand}{@code <BatchReturnType>} command object each time a batch needs to be executed.
      * <p>
@@ -455,7 +474,7 @@ public abstract class HystrixObservableCollapser<K, BatchReturnType, ResponseTyp
                 }
 
                 RequestCollapser<BatchReturnType, ResponseType, RequestArgumentType> requestCollapser = collapserFactory.getRequestCollapser(collapserInstanceWrapper);
-                Observable<ResponseType> response = requestCollapser.submitRequest(getRequestArgument());
+                Observable<ResponseType> response = requestCollapser.submitRequest(getRequestArgument(), getRequestWeight());
                 metrics.markRequestBatched();
                 if (isRequestCacheEnabled) {
                     /*
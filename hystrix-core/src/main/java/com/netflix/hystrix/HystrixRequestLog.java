@@ -31,7 +31,6 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * Log of {@link HystrixCommand} executions and events during the current request.
@@ -63,14 +62,9 @@ public class HystrixRequestLog {
     });
 
     /**
-     * History of {@link HystrixCommand} executed in this request.
+     * History of {@link HystrixInvokableInfo} executed in this request, or their summaries once completed.
      */
-    private LinkedBlockingQueue<HystrixCommand<?>> executedCommands = new LinkedBlockingQueue<HystrixCommand<?>>(MAX_STORAGE);
-
-    /**
-     * History of {@link HystrixInvokableInfo} executed in this request.
-     */
-    private LinkedBlockingQueue<HystrixInvokableInfo<?>> allExecutedCommands = new LinkedBlockingQueue<HystrixInvokableInfo<?>>(MAX_STORAGE);
+    private final HystrixRequestLogSegment<HystrixInvokableInfo<?>> allExecutedCommands = new HystrixRequestLogSegment<HystrixInvokableInfo<?>>(MAX_STORAGE);
 
     // prevent public instantiation
     private HystrixRequestLog() {
@@ -99,16 +93,27 @@ public class HystrixRequestLog {
 
     /**
      * Retrieve {@link HystrixCommand} instances that were executed during this {@link HystrixRequestContext}.
+     * <p>
+     * Commands that have been replaced by their summary (see {@link HystrixCommandProperties#requestLogSummaryEnabled()}) are not included.
      * 
      * @return {@code Collection<HystrixCommand<?>>}
      */
     @Deprecated
     public Collection<HystrixCommand<?>> getExecutedCommands() {
+        List<HystrixCommand<?>> executedCommands = new ArrayList<HystrixCommand<?>>();
+        for (HystrixInvokableInfo<?> command : allExecutedCommands) {
+            // TODO remove this when deprecation completed
+            if (command instanceof HystrixCommand) {
+                executedCommands.add((HystrixCommand<?>) command);
+            }
+        }
         return Collections.unmodifiableCollection(executedCommands);
     }
 
     /**
      * Retrieve {@link HystrixCommand} instances that were executed during this {@link HystrixRequestContext}.
+     * <p>
+     * Completed commands with {@link HystrixCommandProperties#requestLogSummaryEnabled()} set are returned as an immutable summary of their execution.
      * 
      * @return {@code Collection<HystrixCommand<?>>}
      */
@@ -121,24 +126,35 @@ public class HystrixRequestLog {
      * 
      * @param command
      *            {@code HystrixCommand<?>}
+     * @return position of the command in the log, or -1 if it was ignored
      */
-    /* package */void addExecutedCommand(HystrixInvokableInfo<?> command) {
-        if (!allExecutedCommands.offer(command)) {
+    /* package */int addExecutedCommand(HystrixInvokableInfo<?> command) {
+        int index = allExecutedCommands.append(command);
+        if (index < 0) {
             // see RequestLog: Reduce Chance of Memory Leak https://github.com/Netflix/Hystrix/issues/53
             logger.warn("RequestLog ignoring command after reaching limit of " + MAX_STORAGE + ". See https://github.com/Netflix/Hystrix/issues/53 for more information.");
         }
+        return index;
+    }
 
-        // TODO remove this when deprecation completed
-        if (command instanceof HystrixCommand) {
-            @SuppressWarnings("rawtypes")
-            HystrixCommand<?> _c = (HystrixCommand) command;
-            if (!executedCommands.offer(_c)) {
-                // see RequestLog: Reduce Chance of Memory Leak https://github.com/Netflix/Hystrix/issues/53
-                logger.warn("RequestLog ignoring command after reaching limit of " + MAX_STORAGE + ". See https://github.com/Netflix/Hystrix/issues/53 for more information.");
-            }
+    /**
+     * Replace a completed command with a summary of its execution so the command itself is no longer referenced by the request log.
+     *
+     * @param index
+     *            position returned by {@link #addExecutedCommand(HystrixInvokableInfo)}
+     * @param command
+     *            completed command
+     */
+    /* package */void summarizeExecutedCommand(int index, AbstractCommand<?> command) {
+        if (allExecutedCommands.get(index) == command) {
+            allExecutedCommands.replace(index, command, summarize(command));
         }
     }
 
+    private static <R> HystrixInvokableSummary<R> summarize(AbstractCommand<R> command) {
+        return new HystrixInvokableSummary<R>(command);
+    }
+
     /**
      * Formats the log of executed commands into a string usable for logging purposes.
      * <p>
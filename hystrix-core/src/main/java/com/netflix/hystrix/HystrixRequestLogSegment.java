@@ -0,0 +1,162 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix;
+
+import java.util.AbstractCollection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, append-only log of the entries of a {@link HystrixRequestLog}.
+ * <p>
+ * Writers reserve the next slot with a single CAS and then write their entry into it, so appending takes no lock and allocates nothing
+ * beyond the occasional bucket.  Buckets double in size and are allocated on first use, so a request with a handful of commands stays small.
+ * An entry can later be replaced in place, which lets a completed command be swapped for its summary.
+ * <p>
+ * As a {@link java.util.Collection} this is a read-only, weakly consistent view in append order: it reflects entries appended while it is
+ * being iterated, and skips slots that have been reserved but not yet written.
+ *
+ * @param <E> entry type
+ * @ThreadSafe
+ */
+/* package */ class HystrixRequestLogSegment<E> extends AbstractCollection<E> {
+    private static final int FIRST_BUCKET_SIZE_SHIFT = 4;
+    private static final int FIRST_BUCKET_SIZE = 1 << FIRST_BUCKET_SIZE_SHIFT;
+
+    private final int capacity;
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final AtomicReferenceArray<AtomicReferenceArray<E>> buckets;
+
+    /* package */ HystrixRequestLogSegment(int capacity) {
+        this.capacity = capacity;
+        this.buckets = new AtomicReferenceArray<AtomicReferenceArray<E>>(bucketOf(Math.max(0, capacity - 1)) + 1);
+    }
+
+    /**
+     * @param entry entry to append
+     * @return index of the entry, or -1 if the log is full
+     */
+    /* package */ int append(E entry) {
+        while (true) {
+            final int r = reserved.get();
+            if (r >= capacity) {
+                return -1;
+            }
+            if (reserved.compareAndSet(r, r + 1)) {
+                slotsFor(r).set(offsetOf(r), entry);
+                return r;
+            }
+        }
+    }
+
+    /**
+     * Replace the entry at {@code index} if it is still {@code expected}.
+     *
+     * @return true if the entry was replaced
+     */
+    /* package */ boolean replace(int index, E expected, E entry) {
+        if (index < 0 || index >= Math.min(reserved.get(), capacity)) {
+            return false;
+        }
+        return slotsFor(index).compareAndSet(offsetOf(index), expected, entry);
+    }
+
+    /* package */ E get(int index) {
+        final AtomicReferenceArray<E> slots = buckets.get(bucketOf(index));
+        return slots == null ? null : slots.get(offsetOf(index));
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private final int end = Math.min(reserved.get(), capacity);
+            private int index = 0;
+            private E next = advance();
+
+            private E advance() {
+                while (index < end) {
+                    final E e = get(index++);
+                    if (e != null) {
+                        return e;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public E next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                final E e = next;
+                next = advance();
+                return e;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * @return number of written entries, counted on every call
+     */
+    @Override
+    public int size() {
+        final int end = Math.min(reserved.get(), capacity);
+        int size = 0;
+        for (int i = 0; i < end; i++) {
+            if (get(i) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return !iterator().hasNext();
+    }
+
+    private AtomicReferenceArray<E> slotsFor(int index) {
+        final int bucket = bucketOf(index);
+        AtomicReferenceArray<E> slots = buckets.get(bucket);
+        if (slots == null) {
+            buckets.compareAndSet(bucket, null, new AtomicReferenceArray<E>(FIRST_BUCKET_SIZE << bucket));
+            slots = buckets.get(bucket);
+        }
+        return slots;
+    }
+
+    private static int bucketOf(int index) {
+        // bucket b holds indexes [FIRST_BUCKET_SIZE * (2^b - 1), FIRST_BUCKET_SIZE * (2^(b+1) - 1))
+        return (31 - Integer.numberOfLeadingZeros(index + FIRST_BUCKET_SIZE)) - FIRST_BUCKET_SIZE_SHIFT;
+    }
+
+    private static int offsetOf(int index) {
+        final int position = index + FIRST_BUCKET_SIZE;
+        return position - Integer.highestOneBit(position);
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Last successful response of a command per {@link HystrixCommand#getCacheKey()}, for commands with {@link HystrixCommandProperties#fallbackStaleEnabled()}.
+ * <p>
+ * Responses are served in place of {@link HystrixCommand#getFallback()} when the command is short-circuited, times out or is rejected, as long as they are
+ * younger than {@link HystrixCommandProperties#fallbackStaleMaxAgeInMilliseconds()}.  There is one instance per {@link HystrixCommandKey}.
+ * <p>
+ * The number of cache keys is bounded by {@link HystrixCommandProperties#fallbackStaleMaxSize()}.  Once it is exceeded, the cache key stored first is dropped.
+ * Replacing the response of a cache key does not change its position, which keeps storing a response free of any lock.
+ *
+ * @ThreadSafe
+ */
+public class HystrixStaleResponseCache {
+    private static final ConcurrentHashMap<String, HystrixStaleResponseCache> caches = new ConcurrentHashMap<String, HystrixStaleResponseCache>();
+
+    private final HystrixCommandProperties properties;
+    private final ConcurrentHashMap<String, Response> responses = new ConcurrentHashMap<String, Response>();
+    // cache keys of responses in the order they were first stored, each key is in here exactly once while it is in responses
+    private final ConcurrentLinkedQueue<String> insertionOrder = new ConcurrentLinkedQueue<String>();
+
+    private HystrixStaleResponseCache(HystrixCommandProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Get the {@link HystrixStaleResponseCache} for a {@link HystrixCommandKey}, creating it with the given properties if it does not exist yet.
+     *
+     * @return {@link HystrixStaleResponseCache}
+     */
+    public static HystrixStaleResponseCache getInstance(HystrixCommandKey key, HystrixCommandProperties properties) {
+        HystrixStaleResponseCache c = caches.get(key.name());
+        if (c == null) {
+            HystrixStaleResponseCache newCache = new HystrixStaleResponseCache(properties);
+            HystrixStaleResponseCache existing = caches.putIfAbsent(key.name(), newCache);
+            c = existing == null ? newCache : existing;
+        }
+        return c;
+    }
+
+    /**
+     * Clears all stale response caches.
+     */
+    /* package */ static void reset() {
+        caches.clear();
+    }
+
+    /**
+     * @return number of cache keys with a response, including responses that are too old to be served
+     */
+    public int size() {
+        return responses.size();
+    }
+
+    /**
+     * @return the last successful response for {@code cacheKey}, or null if there is none or it is older than the maximum age
+     */
+    /* package */ List<?> get(String cacheKey) {
+        final Response r = responses.get(cacheKey);
+        if (r == null || System.currentTimeMillis() - r.storedAt > properties.fallbackStaleMaxAgeInMilliseconds().get()) {
+            return null;
+        }
+        return r.values;
+    }
+
+    /**
+     * Store the response of a successful execution.
+     */
+    /* package */ void put(String cacheKey, List<?> values) {
+        if (responses.put(cacheKey, new Response(values, System.currentTimeMillis())) == null) {
+            insertionOrder.offer(cacheKey);
+            final int maxSize = Math.max(1, properties.fallbackStaleMaxSize().get());
+            while (responses.size() > maxSize) {
+                final String eldest = insertionOrder.poll();
+                if (eldest == null) {
+                    break;
+                }
+                responses.remove(eldest);
+            }
+        }
+    }
+
+    private static final class Response {
+        private final List<?> values;
+        private final long storedAt;
+
+        private Response(List<?> values, long storedAt) {
+            this.values = values;
+            this.storedAt = storedAt;
+        }
+    }
+}
@@ -15,19 +15,27 @@
  */
 package com.netflix.hystrix;
 
+import com.netflix.hystrix.metric.HystrixAdaptiveConcurrencyLimit;
 import com.netflix.hystrix.strategy.HystrixPlugins;
 import com.netflix.hystrix.strategy.concurrency.HystrixConcurrencyStrategy;
-import com.netflix.hystrix.strategy.concurrency.HystrixContextScheduler;
+import com.netflix.hystrix.strategy.concurrency.HystrixThreadPoolScheduler;
 import com.netflix.hystrix.strategy.metrics.HystrixMetricsPublisherFactory;
 import com.netflix.hystrix.strategy.properties.HystrixPropertiesFactory;
+import com.netflix.hystrix.strategy.properties.HystrixProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rx.Scheduler;
 import rx.functions.Func0;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -86,6 +94,8 @@ public interface HystrixThreadPool {
      * @ExcludeFromJavadoc
      */
     /* package */static class Factory {
+        private static final Logger logger = LoggerFactory.getLogger(Factory.class);
+
         /*
          * Use the String from HystrixThreadPoolKey.name() instead of the HystrixThreadPoolKey instance as it's just an interface and we can't ensure the object
          * we receive implements hashcode/equals correctly and do not want the default hashcode/equals which would create a new threadpool for every object we get even if the name is the same
@@ -118,6 +128,51 @@ public interface HystrixThreadPool {
             return threadPools.get(key);
         }
 
+        /* package */final static ConcurrentHashMap<String, HystrixThreadPool> virtualThreadPools = new ConcurrentHashMap<String, HystrixThreadPool>();
+
+        /**
+         * Get the {@link HystrixThreadPool} used for {@link HystrixCommandProperties.ExecutionIsolationStrategy#VIRTUAL} executions of a given {@link HystrixThreadPoolKey}.
+         * <p>
+         * This is thread-safe and ensures only 1 such {@link HystrixThreadPool} per {@link HystrixThreadPoolKey}.  If the {@link HystrixConcurrencyStrategy}
+         * does not provide a virtual thread factory then the given thread-pool is returned and commands run on it as with THREAD isolation.
+         *
+         * @param threadPool thread-pool of the same key that metrics are reported to
+         * @return {@link HystrixThreadPool} instance
+         */
+        /* package */static HystrixThreadPool getVirtualInstance(HystrixThreadPoolKey threadPoolKey, HystrixThreadPool threadPool) {
+            String key = threadPoolKey.name();
+
+            HystrixThreadPool previouslyCached = virtualThreadPools.get(key);
+            if (previouslyCached != null) {
+                return previouslyCached;
+            }
+
+            synchronized (HystrixThreadPool.class) {
+                if (!virtualThreadPools.containsKey(key)) {
+                    ThreadFactory threadFactory = HystrixPlugins.getInstance().getConcurrencyStrategy().getVirtualThreadFactory(threadPoolKey);
+                    if (threadFactory == null) {
+                        logger.warn("Virtual threads are not available, commands with VIRTUAL isolation on thread-pool " + key + " will use its threads instead");
+                        virtualThreadPools.put(key, threadPool);
+                    } else {
+                        final HystrixProperty<Integer> coreSize = HystrixPropertiesFactory.getThreadPoolProperties(threadPoolKey, null).coreSize();
+                        final HystrixThreadPoolMetrics metrics = HystrixThreadPoolMetrics.getInstance(threadPoolKey);
+                        final HystrixAdaptiveConcurrencyLimit concurrencyLimit = metrics == null ? null : metrics.getAdaptiveConcurrencyLimit();
+                        HystrixProperty<Integer> maxConcurrentExecutions = coreSize;
+                        if (concurrencyLimit != null) {
+                            maxConcurrentExecutions = new HystrixProperty<Integer>() {
+                                @Override
+                                public Integer get() {
+                                    return Math.min(coreSize.get(), concurrencyLimit.get());
+                                }
+                            };
+                        }
+                        virtualThreadPools.put(key, new HystrixThreadPoolVirtual(threadPool, maxConcurrentExecutions, threadFactory));
+                    }
+                }
+            }
+            return virtualThreadPools.get(key);
+        }
+
         /**
          * Initiate the shutdown of all {@link HystrixThreadPool} instances.
          * <p>
@@ -126,10 +181,15 @@ public interface HystrixThreadPool {
          * </p>
          */
         /* package */static synchronized void shutdown() {
+            for (HystrixThreadPool pool : virtualThreadPools.values()) {
+                pool.getExecutor().shutdown();
+            }
+            virtualThreadPools.clear();
             for (HystrixThreadPool pool : threadPools.values()) {
                 pool.getExecutor().shutdown();
             }
             threadPools.clear();
+            AbstractCommand.CommandPrototype.reset();
         }
 
         /**
@@ -140,9 +200,21 @@ public interface HystrixThreadPool {
          * </p>
          */
         /* package */static synchronized void shutdown(long timeout, TimeUnit unit) {
+            for (HystrixThreadPool pool : virtualThreadPools.values()) {
+                pool.getExecutor().shutdown();
+            }
             for (HystrixThreadPool pool : threadPools.values()) {
                 pool.getExecutor().shutdown();
             }
+            for (HystrixThreadPool pool : virtualThreadPools.values()) {
+                try {
+                    while (! pool.getExecutor().awaitTermination(timeout, unit)) {
+                    }
+                } catch (InterruptedException e) {
+                    throw new RuntimeException("Interrupted while waiting for thread-pools to terminate. Pools may not be correctly shutdown or cleared.", e);
+                }
+            }
+            virtualThreadPools.clear();
             for (HystrixThreadPool pool : threadPools.values()) {
                 try {
                     while (! pool.getExecutor().awaitTermination(timeout, unit)) {
@@ -152,6 +224,7 @@ public interface HystrixThreadPool {
                 }
             }
             threadPools.clear();
+            AbstractCommand.CommandPrototype.reset();
         }
     }
 
@@ -203,7 +276,7 @@ public interface HystrixThreadPool {
         @Override
         public Scheduler getScheduler(Func0<Boolean> shouldInterruptThread) {
             touchConfig();
-            return new HystrixContextScheduler(HystrixPlugins.getInstance().getConcurrencyStrategy(), this, shouldInterruptThread);
+            return new HystrixThreadPoolScheduler(HystrixPlugins.getInstance().getConcurrencyStrategy(), this, shouldInterruptThread);
         }
 
         // allow us to change things via fast-properties by setting it each time
@@ -220,18 +293,37 @@ public interface HystrixThreadPool {
                 maxTooLow = true;
             }
 
+            int coreSize = dynamicCoreSize;
+            int maximumSize = dynamicMaximumSize;
+            final HystrixAdaptiveConcurrencyLimit concurrencyLimit = metrics.getAdaptiveConcurrencyLimit();
+            if (concurrencyLimit != null) {
+                // the adaptive limit can only lower the configured sizes
+                final int limit = concurrencyLimit.get();
+                coreSize = Math.min(coreSize, limit);
+                maximumSize = Math.min(maximumSize, limit);
+            }
+
             // In JDK 6, setCorePoolSize and setMaximumPoolSize will execute a lock operation. Avoid them if the pool size is not changed.
-            if (threadPool.getCorePoolSize() != dynamicCoreSize || (allowSizesToDiverge && threadPool.getMaximumPoolSize() != dynamicMaximumSize)) {
+            if (threadPool.getCorePoolSize() != coreSize || (allowSizesToDiverge && threadPool.getMaximumPoolSize() != maximumSize)) {
                 if (maxTooLow) {
                     logger.error("Hystrix ThreadPool configuration for : " + metrics.getThreadPoolKey().name() + " is trying to set coreSize = " +
                             dynamicCoreSize + " and maximumSize = " + configuredMaximumSize + ".  Maximum size will be set to " +
                             dynamicMaximumSize + ", the coreSize value, since it must be equal to or greater than the coreSize value");
                 }
-                threadPool.setCorePoolSize(dynamicCoreSize);
-                threadPool.setMaximumPoolSize(dynamicMaximumSize);
+                // keep core <= maximum at every step, whichever way the sizes move
+                if (maximumSize >= threadPool.getMaximumPoolSize()) {
+                    threadPool.setMaximumPoolSize(maximumSize);
+                    threadPool.setCorePoolSize(coreSize);
+                } else {
+                    threadPool.setCorePoolSize(coreSize);
+                    threadPool.setMaximumPoolSize(maximumSize);
+                }
             }
 
-            threadPool.setKeepAliveTime(properties.keepAliveTimeMinutes().get(), TimeUnit.MINUTES);
+            final long keepAliveTimeMinutes = properties.keepAliveTimeMinutes().get();
+            if (threadPool.getKeepAliveTime(TimeUnit.MINUTES) != keepAliveTimeMinutes) {
+                threadPool.setKeepAliveTime(keepAliveTimeMinutes, TimeUnit.MINUTES);
+            }
         }
 
         @Override
@@ -272,4 +364,169 @@ public interface HystrixThreadPool {
 
     }
 
+
+    /**
+     * {@link HystrixThreadPool} for {@link HystrixCommandProperties.ExecutionIsolationStrategy#VIRTUAL} isolation that starts a new thread from the given
+     * {@link ThreadFactory} for every execution instead of keeping a pool of them.
+     * <p>
+     * Concurrent executions are limited to the <code>coreSize</code> of the thread-pool, or less if its adaptive limit is enabled, and anything beyond
+     * that is rejected, as there is no queue.
+     * Thread events are marked on the given thread-pool so metrics are reported exactly as for THREAD isolation.
+     *
+     * @ExcludeFromJavadoc
+     * @ThreadSafe
+     */
+    /* package */static class HystrixThreadPoolVirtual implements HystrixThreadPool {
+        private final HystrixThreadPool threadPool;
+        private final ThreadPerTaskExecutor executor;
+
+        /* package */HystrixThreadPoolVirtual(HystrixThreadPool threadPool, HystrixProperty<Integer> maxConcurrentExecutions, ThreadFactory threadFactory) {
+            this.threadPool = threadPool;
+            this.executor = new ThreadPerTaskExecutor(threadFactory, new AbstractCommand.TryableSemaphoreActual(maxConcurrentExecutions));
+        }
+
+        @Override
+        public ExecutorService getExecutor() {
+            return executor;
+        }
+
+        @Override
+        public Scheduler getScheduler() {
+            //by default, interrupt underlying threads on timeout
+            return getScheduler(new Func0<Boolean>() {
+                @Override
+                public Boolean call() {
+                    return true;
+                }
+            });
+        }
+
+        @Override
+        public Scheduler getScheduler(Func0<Boolean> shouldInterruptThread) {
+            return new HystrixThreadPoolScheduler(HystrixPlugins.getInstance().getConcurrencyStrategy(), this, shouldInterruptThread);
+        }
+
+        @Override
+        public void markThreadExecution() {
+            threadPool.markThreadExecution();
+        }
+
+        @Override
+        public void markThreadCompletion() {
+            threadPool.markThreadCompletion();
+        }
+
+        @Override
+        public void markThreadRejection() {
+            threadPool.markThreadRejection();
+        }
+
+        /**
+         * There is no queue, executions beyond the concurrency limit are rejected by the executor.
+         */
+        @Override
+        public boolean isQueueSpaceAvailable() {
+            return true;
+        }
+    }
+
+    /**
+     * Executor that runs every task on a new thread while no more than the permitted number of tasks are running.
+     *
+     * @ExcludeFromJavadoc
+     * @ThreadSafe
+     */
+    /* package */static class ThreadPerTaskExecutor extends AbstractExecutorService {
+        private final ThreadFactory threadFactory;
+        private final AbstractCommand.TryableSemaphore permits;
+        private final Set<Thread> runningThreads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+        private final Object terminationLock = new Object();
+        private volatile boolean shutdown = false;
+
+        /* package */ThreadPerTaskExecutor(ThreadFactory threadFactory, AbstractCommand.TryableSemaphore permits) {
+            this.threadFactory = threadFactory;
+            this.permits = permits;
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            if (shutdown) {
+                throw new RejectedExecutionException("Rejected command because executor has been shut down.");
+            }
+            if (!permits.tryAcquire()) {
+                throw new RejectedExecutionException("Rejected command because the concurrency limit of the thread-pool has been reached.");
+            }
+            Thread thread = null;
+            try {
+                thread = threadFactory.newThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            command.run();
+                        } finally {
+                            runningThreads.remove(Thread.currentThread());
+                            permits.release();
+                            if (shutdown) {
+                                synchronized (terminationLock) {
+                                    terminationLock.notifyAll();
+                                }
+                            }
+                        }
+                    }
+                });
+                runningThreads.add(thread);
+                thread.start();
+            } catch (RuntimeException e) {
+                if (thread != null) {
+                    runningThreads.remove(thread);
+                }
+                permits.release();
+                throw new RejectedExecutionException("Rejected command because a thread could not be started.", e);
+            }
+        }
+
+        /* package */int getActiveCount() {
+            return permits.getNumberOfPermitsUsed();
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            for (Thread thread : runningThreads) {
+                thread.interrupt();
+            }
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown && permits.getNumberOfPermitsUsed() == 0;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            final long deadline = System.nanoTime() + unit.toNanos(timeout);
+            synchronized (terminationLock) {
+                while (!isTerminated()) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(terminationLock, remaining);
+                }
+                return true;
+            }
+        }
+    }
+
 }
@@ -15,13 +15,18 @@
  */
 package com.netflix.hystrix;
 
+import com.netflix.hystrix.metric.HystrixAdaptiveConcurrencyLimit;
 import com.netflix.hystrix.metric.HystrixCommandCompletion;
+import com.netflix.hystrix.metric.HystrixThreadPoolCompletionStream;
 import com.netflix.hystrix.metric.consumer.CumulativeThreadPoolEventCounterStream;
 import com.netflix.hystrix.metric.consumer.RollingThreadPoolMaxConcurrencyStream;
 import com.netflix.hystrix.metric.consumer.RollingThreadPoolEventCounterStream;
+import com.netflix.hystrix.strategy.properties.HystrixProperty;
 import com.netflix.hystrix.util.HystrixRollingNumberEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import rx.Subscription;
+import rx.functions.Action1;
 import rx.functions.Func0;
 import rx.functions.Func2;
 
@@ -140,6 +145,11 @@ public class HystrixThreadPoolMetrics extends HystrixMetrics {
      *
      */
     /* package */ static void reset() {
+        for (HystrixThreadPoolMetrics metricsInstance : metrics.values()) {
+            if (metricsInstance.concurrencyLimitSubscription != null) {
+                metricsInstance.concurrencyLimitSubscription.unsubscribe();
+            }
+        }
         metrics.clear();
     }
 
@@ -153,6 +163,9 @@ public class HystrixThreadPoolMetrics extends HystrixMetrics {
     private final CumulativeThreadPoolEventCounterStream cumulativeCounterStream;
     private final RollingThreadPoolMaxConcurrencyStream rollingThreadPoolMaxConcurrencyStream;
 
+    private final HystrixAdaptiveConcurrencyLimit concurrencyLimit;
+    private final Subscription concurrencyLimitSubscription;
+
     private HystrixThreadPoolMetrics(HystrixThreadPoolKey threadPoolKey, ThreadPoolExecutor threadPool, HystrixThreadPoolProperties properties) {
         super(null);
         this.threadPoolKey = threadPoolKey;
@@ -162,6 +175,24 @@ public class HystrixThreadPoolMetrics extends HystrixMetrics {
         rollingCounterStream = RollingThreadPoolEventCounterStream.getInstance(threadPoolKey, properties);
         cumulativeCounterStream = CumulativeThreadPoolEventCounterStream.getInstance(threadPoolKey, properties);
         rollingThreadPoolMaxConcurrencyStream = RollingThreadPoolMaxConcurrencyStream.getInstance(threadPoolKey, properties);
+
+        if (properties.adaptiveLimitEnabled().get()) {
+            concurrencyLimit = new HystrixAdaptiveConcurrencyLimit(new HystrixProperty<Integer>() {
+                @Override
+                public Integer get() {
+                    return HystrixThreadPoolMetrics.this.properties.actualMaximumSize();
+                }
+            });
+            concurrencyLimitSubscription = HystrixThreadPoolCompletionStream.getInstance(threadPoolKey).observe().subscribe(new Action1<HystrixCommandCompletion>() {
+                @Override
+                public void call(HystrixCommandCompletion completion) {
+                    concurrencyLimit.onCompletion(completion);
+                }
+            });
+        } else {
+            concurrencyLimit = null;
+            concurrencyLimitSubscription = null;
+        }
     }
 
     /**
@@ -254,6 +285,29 @@ public class HystrixThreadPoolMetrics extends HystrixMetrics {
         return threadPool.getTaskCount();
     }
 
+    /**
+     * Current number of threads the thread-pool may use.
+     * <p>
+     * This is {@link HystrixThreadPoolProperties#actualMaximumSize()} unless {@link HystrixThreadPoolProperties#adaptiveLimitEnabled()} is set,
+     * in which case it follows recent latency.
+     *
+     * @return int
+     */
+    public int getCurrentConcurrencyLimit() {
+        if (concurrencyLimit != null) {
+            return concurrencyLimit.get();
+        } else {
+            return properties.actualMaximumSize();
+        }
+    }
+
+    /**
+     * @return adaptive limit of the thread-pool size, or null if it is not enabled
+     */
+    /* package */ HystrixAdaptiveConcurrencyLimit getAdaptiveConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
     /**
      * Current size of {@link BlockingQueue} used by the thread-pool
      * 
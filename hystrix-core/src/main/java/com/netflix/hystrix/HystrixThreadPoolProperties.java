@@ -23,6 +23,7 @@ import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import com.netflix.hystrix.strategy.concurrency.HystrixConcurrencyStrategy;
+import com.netflix.hystrix.strategy.concurrency.HystrixLockFreeWorkQueue;
 import com.netflix.hystrix.strategy.properties.HystrixPropertiesStrategy;
 import com.netflix.hystrix.strategy.properties.HystrixProperty;
 import com.netflix.hystrix.util.HystrixRollingNumber;
@@ -54,6 +55,10 @@ public abstract class HystrixThreadPoolProperties {
     static boolean default_allow_maximum_size_to_diverge_from_core_size = false; //should the maximumSize config value get read and used in configuring the threadPool
                                                                                  //turning this on should be a conscious decision by the user, so we default it to false
 
+    static boolean default_adaptiveLimitEnabled = false; // whether the pool size adapts to latency, up to the configured sizes
+
+    static boolean default_lockFreeQueueEnabled = false; // whether a queue (maxQueueSize > 0) takes no lock to add or remove tasks
+
     static int default_queueSizeRejectionThreshold = 5; // number of items in queue
     static int default_threadPoolRollingNumberStatisticalWindow = 10000; // milliseconds for rolling number
     static int default_threadPoolRollingNumberStatisticalWindowBuckets = 10; // number of buckets in rolling number (10 1-second buckets)
@@ -64,6 +69,8 @@ public abstract class HystrixThreadPoolProperties {
     private final HystrixProperty<Integer> maxQueueSize;
     private final HystrixProperty<Integer> queueSizeRejectionThreshold;
     private final HystrixProperty<Boolean> allowMaximumSizeToDivergeFromCoreSize;
+    private final HystrixProperty<Boolean> adaptiveLimitEnabled;
+    private final HystrixProperty<Boolean> lockFreeQueueEnabled;
 
     private final HystrixProperty<Integer> threadPoolRollingNumberStatisticalWindowInMilliseconds;
     private final HystrixProperty<Integer> threadPoolRollingNumberStatisticalWindowBuckets;
@@ -85,8 +92,11 @@ public abstract class HystrixThreadPoolProperties {
         //it only gets applied if allowMaximumSizeToDivergeFromCoreSize is true
         this.maximumPoolSize = getProperty(propertyPrefix, key, "maximumSize", builder.getMaximumSize(), default_maximumSize);
 
+        this.adaptiveLimitEnabled = getProperty(propertyPrefix, key, "adaptiveLimit.enabled", builder.getAdaptiveLimitEnabled(), default_adaptiveLimitEnabled);
+
         this.keepAliveTime = getProperty(propertyPrefix, key, "keepAliveTimeMinutes", builder.getKeepAliveTimeMinutes(), default_keepAliveTimeMinutes);
         this.maxQueueSize = getProperty(propertyPrefix, key, "maxQueueSize", builder.getMaxQueueSize(), default_maxQueueSize);
+        this.lockFreeQueueEnabled = getProperty(propertyPrefix, key, "lockFreeQueue.enabled", builder.getLockFreeQueueEnabled(), default_lockFreeQueueEnabled);
         this.queueSizeRejectionThreshold = getProperty(propertyPrefix, key, "queueSizeRejectionThreshold", builder.getQueueSizeRejectionThreshold(), default_queueSizeRejectionThreshold);
         this.threadPoolRollingNumberStatisticalWindowInMilliseconds = getProperty(propertyPrefix, key, "metrics.rollingStats.timeInMilliseconds", builder.getMetricsRollingStatisticalWindowInMilliseconds(), default_threadPoolRollingNumberStatisticalWindow);
         this.threadPoolRollingNumberStatisticalWindowBuckets = getProperty(propertyPrefix, key, "metrics.rollingStats.numBuckets", builder.getMetricsRollingStatisticalWindowBuckets(), default_threadPoolRollingNumberStatisticalWindowBuckets);
@@ -186,6 +196,30 @@ public abstract class HystrixThreadPoolProperties {
         return allowMaximumSizeToDivergeFromCoreSize;
     }
 
+    /**
+     * Whether the thread-pool size should follow the latency of recent executions, shrinking when latency rises above its long-term average
+     * and growing back up to {@link #coreSize()} and {@link #actualMaximumSize()} when it recovers.
+     * <p>
+     * Only read when the metrics of a thread-pool are created.
+     *
+     * @return {@code HystrixProperty<Boolean>}
+     */
+    public HystrixProperty<Boolean> adaptiveLimitEnabled() {
+        return adaptiveLimitEnabled;
+    }
+
+    /**
+     * Whether the queue of a thread-pool with a {@link #maxQueueSize()} greater than 0 is a {@link HystrixLockFreeWorkQueue} instead of the
+     * {@link BlockingQueue} from {@link HystrixConcurrencyStrategy#getBlockingQueue(int)}, so that submitting and taking tasks don't contend on a lock.
+     * <p>
+     * Only read when the thread-pool is created.
+     *
+     * @return {@code HystrixProperty<Boolean>}
+     */
+    public HystrixProperty<Boolean> lockFreeQueueEnabled() {
+        return lockFreeQueueEnabled;
+    }
+
     /**
      * Duration of statistical rolling window in milliseconds. This is passed into {@link HystrixRollingNumber} inside each {@link HystrixThreadPoolMetrics} instance.
      * 
@@ -243,6 +277,8 @@ public abstract class HystrixThreadPoolProperties {
         private Integer maxQueueSize = null;
         private Integer queueSizeRejectionThreshold = null;
         private Boolean allowMaximumSizeToDivergeFromCoreSize = null;
+        private Boolean adaptiveLimitEnabled = null;
+        private Boolean lockFreeQueueEnabled = null;
         private Integer rollingStatisticalWindowInMilliseconds = null;
         private Integer rollingStatisticalWindowBuckets = null;
 
@@ -273,6 +309,14 @@ public abstract class HystrixThreadPoolProperties {
             return allowMaximumSizeToDivergeFromCoreSize;
         }
 
+        public Boolean getAdaptiveLimitEnabled() {
+            return adaptiveLimitEnabled;
+        }
+
+        public Boolean getLockFreeQueueEnabled() {
+            return lockFreeQueueEnabled;
+        }
+
         public Integer getMetricsRollingStatisticalWindowInMilliseconds() {
             return rollingStatisticalWindowInMilliseconds;
         }
@@ -311,6 +355,16 @@ public abstract class HystrixThreadPoolProperties {
             return this;
         }
 
+        public Setter withAdaptiveLimitEnabled(boolean value) {
+            this.adaptiveLimitEnabled = value;
+            return this;
+        }
+
+        public Setter withLockFreeQueueEnabled(boolean value) {
+            this.lockFreeQueueEnabled = value;
+            return this;
+        }
+
         public Setter withMetricsRollingStatisticalWindowInMilliseconds(int value) {
             this.rollingStatisticalWindowInMilliseconds = value;
             return this;
@@ -1,5 +1,6 @@
 package com.netflix.hystrix;
 
+import static com.netflix.hystrix.strategy.properties.HystrixPropertiesChainedProperty.forBoolean;
 import static com.netflix.hystrix.strategy.properties.HystrixPropertiesChainedProperty.forInteger;
 
 import com.netflix.hystrix.strategy.properties.HystrixPropertiesStrategy;
@@ -12,7 +13,15 @@ import com.netflix.hystrix.strategy.properties.HystrixProperty;
  */
 public abstract class HystrixTimerThreadPoolProperties {
 
+    /* defaults */
+    static boolean default_wheelEnabled = false;       // use the ScheduledThreadPoolExecutor for all timers unless asked otherwise
+    static int default_wheelTickInMilliseconds = 1;    // resolution of the timing wheel
+    static int default_wheelTicksPerWheel = 512;       // number of buckets in the timing wheel (rounded up to a power of 2)
+
     private final HystrixProperty<Integer> corePoolSize;
+    private final HystrixProperty<Boolean> wheelEnabled;
+    private final HystrixProperty<Integer> wheelTickInMilliseconds;
+    private final HystrixProperty<Integer> wheelTicksPerWheel;
 
     protected HystrixTimerThreadPoolProperties() {
         this(new Setter().withCoreSize(Runtime.getRuntime().availableProcessors()));
@@ -20,6 +29,9 @@ public abstract class HystrixTimerThreadPoolProperties {
 
     protected HystrixTimerThreadPoolProperties(Setter setter) {
         this.corePoolSize = getProperty("hystrix", "coreSize", setter.getCoreSize());
+        this.wheelEnabled = getProperty("hystrix", "wheel.enabled", setter.getWheelEnabled() != null ? setter.getWheelEnabled() : default_wheelEnabled);
+        this.wheelTickInMilliseconds = getProperty("hystrix", "wheel.tickInMilliseconds", setter.getWheelTickInMilliseconds() != null ? setter.getWheelTickInMilliseconds() : default_wheelTickInMilliseconds);
+        this.wheelTicksPerWheel = getProperty("hystrix", "wheel.ticksPerWheel", setter.getWheelTicksPerWheel() != null ? setter.getWheelTicksPerWheel() : default_wheelTicksPerWheel);
     }
 
     private static HystrixProperty<Integer> getProperty(String propertyPrefix, String instanceProperty, Integer defaultValue) {
@@ -29,10 +41,49 @@ public abstract class HystrixTimerThreadPoolProperties {
                 .build();
     }
 
+    private static HystrixProperty<Boolean> getProperty(String propertyPrefix, String instanceProperty, Boolean defaultValue) {
+
+        return forBoolean()
+                .add(propertyPrefix + ".timer.threadpool.default." + instanceProperty, defaultValue)
+                .build();
+    }
+
     public HystrixProperty<Integer> getCorePoolSize() {
         return corePoolSize;
     }
 
+    /**
+     * Whether timers are tracked by a hashed timing wheel instead of scheduling each of them on the {@link java.util.concurrent.ScheduledThreadPoolExecutor}.
+     * <p>
+     * The wheel gives O(1) schedule and cancel which matters when every command execution arms and clears a timeout.
+     * Expired timers are still run on the timer thread pool sized by {@link #getCorePoolSize()}.
+     * <p>
+     * This is read once when the timer is started (or restarted after {@link com.netflix.hystrix.util.HystrixTimer#reset()}).
+     *
+     * @return {@code HystrixProperty<Boolean>}
+     */
+    public HystrixProperty<Boolean> getWheelEnabled() {
+        return wheelEnabled;
+    }
+
+    /**
+     * Duration of a single tick of the timing wheel.  Timers fire at most one tick late.
+     *
+     * @return {@code HystrixProperty<Integer>}
+     */
+    public HystrixProperty<Integer> getWheelTickInMilliseconds() {
+        return wheelTickInMilliseconds;
+    }
+
+    /**
+     * Number of buckets in the timing wheel.  Timers further out than {@code ticksPerWheel * tickInMilliseconds} just go around the wheel more than once.
+     *
+     * @return {@code HystrixProperty<Integer>}
+     */
+    public HystrixProperty<Integer> getWheelTicksPerWheel() {
+        return wheelTicksPerWheel;
+    }
+
     /**
      * Factory method to retrieve the default Setter.
      */
@@ -56,6 +107,9 @@ public abstract class HystrixTimerThreadPoolProperties {
      */
     public static class Setter {
         private Integer coreSize = null;
+        private Boolean wheelEnabled = null;
+        private Integer wheelTickInMilliseconds = null;
+        private Integer wheelTicksPerWheel = null;
 
         private Setter() {
         }
@@ -64,9 +118,36 @@ public abstract class HystrixTimerThreadPoolProperties {
             return coreSize;
         }
 
+        public Boolean getWheelEnabled() {
+            return wheelEnabled;
+        }
+
+        public Integer getWheelTickInMilliseconds() {
+            return wheelTickInMilliseconds;
+        }
+
+        public Integer getWheelTicksPerWheel() {
+            return wheelTicksPerWheel;
+        }
+
         public Setter withCoreSize(int value) {
             this.coreSize = value;
             return this;
         }
+
+        public Setter withWheelEnabled(boolean value) {
+            this.wheelEnabled = value;
+            return this;
+        }
+
+        public Setter withWheelTickInMilliseconds(int value) {
+            this.wheelTickInMilliseconds = value;
+            return this;
+        }
+
+        public Setter withWheelTicksPerWheel(int value) {
+            this.wheelTicksPerWheel = value;
+            return this;
+        }
     }
 }
@@ -0,0 +1,266 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mutable status of a command execution, owned by a single command instance.
+ * <p>
+ * A command records its execution into this object in place, so the steps of an execution do not allocate.  An immutable
+ * {@link ExecutionResult} is only created when the command publishes its state through {@link #publish()} (before its fallback and
+ * when it terminates), or when {@link #snapshot()} is asked for a state that was not published.
+ * <p>
+ * The steps are recorded by one thread at a time, as the state of the command already serializes them (this is what made replacing
+ * a volatile {@link ExecutionResult} on every step safe).  So there is no locking: every field is volatile and a thread that picks up
+ * the command, or reads it, sees what the previous one recorded.
+ */
+final class MutableExecutionResult {
+    private volatile long events;
+    private volatile int numEmissions;
+    private volatile int numFallbackEmissions;
+    private volatile int numCollapsed;
+    private volatile Exception failedExecutionException;
+    private volatile Exception executionException;
+    private volatile long startTimestamp = -1L;
+    private volatile int executionLatency = -1; //time spent in run() method
+    private volatile int userThreadLatency = -1; //time elapsed between caller thread submitting request and response being visible to it
+    private volatile boolean executionOccurred;
+    private volatile boolean isExecutedInThread;
+    private volatile HystrixCollapserKey collapserKey;
+
+    private volatile int version; // incremented on every change
+    private volatile ExecutionResult published = ExecutionResult.EMPTY;
+    private volatile int publishedVersion; // written after published, so reading it first pairs it with a published result at least as new
+
+    /**
+     * @return immutable copy of the current state, the published one if nothing was recorded since it was published
+     */
+    public ExecutionResult snapshot() {
+        int currentVersion = version;
+        if (publishedVersion == currentVersion) {
+            return published;
+        }
+        return newSnapshot();
+    }
+
+    /**
+     * Create an immutable copy of the current state and keep it, so that {@link #snapshot()} returns it until the next change.
+     * <p>
+     * Only called by the thread recording into this instance.
+     *
+     * @return immutable copy of the current state
+     */
+    public ExecutionResult publish() {
+        int currentVersion = version;
+        ExecutionResult result = newSnapshot();
+        published = result;
+        publishedVersion = currentVersion;
+        return result;
+    }
+
+    private ExecutionResult newSnapshot() {
+        return new ExecutionResult(new ExecutionResult.EventCounts(events, numEmissions, numFallbackEmissions, numCollapsed),
+                startTimestamp, executionLatency, userThreadLatency, failedExecutionException, executionException,
+                executionOccurred, isExecutedInThread, collapserKey);
+    }
+
+    /**
+     * Replace the current state with the given one, for instance with the result of the command whose response is served from cache.
+     *
+     * @param executionResult state to copy
+     */
+    public void set(ExecutionResult executionResult) {
+        ExecutionResult.EventCounts eventCounts = executionResult.getEventCounts();
+        events = eventCounts.getEvents();
+        numEmissions = eventCounts.getCount(HystrixEventType.EMIT);
+        numFallbackEmissions = eventCounts.getCount(HystrixEventType.FALLBACK_EMIT);
+        numCollapsed = eventCounts.getCount(HystrixEventType.COLLAPSED);
+        failedExecutionException = executionResult.getException();
+        executionException = executionResult.getExecutionException();
+        startTimestamp = executionResult.getStartTimestamp();
+        executionLatency = executionResult.getExecutionLatency();
+        userThreadLatency = executionResult.getUserThreadLatency();
+        executionOccurred = executionResult.executionOccurred();
+        isExecutedInThread = executionResult.isExecutedInThread();
+        collapserKey = executionResult.getCollapserKey();
+        int currentVersion = version + 1;
+        version = currentVersion;
+        published = executionResult;
+        publishedVersion = currentVersion;
+    }
+
+    private void changed() {
+        version++;
+    }
+
+    public void setExecutionOccurred() {
+        if (!executionOccurred) {
+            executionOccurred = true;
+            changed();
+        }
+    }
+
+    public void setExecutionLatency(int executionLatency) {
+        if (this.executionLatency != executionLatency) {
+            this.executionLatency = executionLatency;
+            changed();
+        }
+    }
+
+    public void setException(Exception e) {
+        if (failedExecutionException != e) {
+            failedExecutionException = e;
+            changed();
+        }
+    }
+
+    public void setExecutionException(Exception executionException) {
+        if (this.executionException != executionException) {
+            this.executionException = executionException;
+            changed();
+        }
+    }
+
+    public void setInvocationStartTime(long startTimestamp) {
+        if (this.startTimestamp != startTimestamp) {
+            this.startTimestamp = startTimestamp;
+            changed();
+        }
+    }
+
+    public void setExecutedInThread() {
+        if (!isExecutedInThread) {
+            isExecutedInThread = true;
+            changed();
+        }
+    }
+
+    public void setNotExecutedInThread() {
+        if (isExecutedInThread) {
+            isExecutedInThread = false;
+            changed();
+        }
+    }
+
+    public void markCollapsed(HystrixCollapserKey collapserKey, int sizeOfBatch) {
+        addEvent(HystrixEventType.COLLAPSED, sizeOfBatch);
+        this.collapserKey = collapserKey;
+        changed();
+    }
+
+    public void markUserThreadCompletion(long userThreadLatency) {
+        if (startTimestamp > 0 && !isResponseRejected()) {
+            /* execution time (must occur before terminal state otherwise a race condition can occur if requested by client) */
+            this.userThreadLatency = (int) userThreadLatency;
+            changed();
+        }
+    }
+
+    /**
+     * Add the defined 'event' to the ones already recorded.
+     *
+     * @param eventType event to add
+     */
+    public void addEvent(HystrixEventType eventType) {
+        addEvent(eventType, 1);
+    }
+
+    public void addEvent(int executionLatency, HystrixEventType eventType) {
+        if (startTimestamp >= 0 && !isResponseRejected()) {
+            setExecutionLatency(executionLatency);
+        }
+        addEvent(eventType);
+    }
+
+    private void addEvent(HystrixEventType eventType, int count) {
+        switch (eventType) {
+            case EMIT:
+                numEmissions += count;
+                break;
+            case FALLBACK_EMIT:
+                numFallbackEmissions += count;
+                break;
+            case COLLAPSED:
+                numCollapsed += count;
+                break;
+            default:
+                if (contains(eventType)) {
+                    //nothing to count
+                    return;
+                }
+                break;
+        }
+        events |= ExecutionResult.bit(eventType);
+        changed();
+    }
+
+    public boolean contains(HystrixEventType eventType) {
+        return (events & ExecutionResult.bit(eventType)) != 0;
+    }
+
+    public long getStartTimestamp() {
+        return startTimestamp;
+    }
+
+    public int getExecutionLatency() {
+        return executionLatency;
+    }
+
+    public int getUserThreadLatency() {
+        return userThreadLatency;
+    }
+
+    public long getCommandRunStartTimeInNanos() {
+        return startTimestamp * 1000 * 1000;
+    }
+
+    public Exception getException() {
+        return failedExecutionException;
+    }
+
+    public Exception getExecutionException() {
+        return executionException;
+    }
+
+    public HystrixCollapserKey getCollapserKey() {
+        return collapserKey;
+    }
+
+    public boolean isResponseRejected() {
+        return contains(HystrixEventType.THREAD_POOL_REJECTED) || contains(HystrixEventType.SEMAPHORE_REJECTED);
+    }
+
+    public boolean containsTerminalEvent() {
+        return (events & ExecutionResult.TERMINAL_EVENTS) != 0;
+    }
+
+    public List<HystrixEventType> getOrderedList() {
+        List<HystrixEventType> eventList = new ArrayList<HystrixEventType>(Long.bitCount(events));
+        for (HystrixEventType eventType: ExecutionResult.ALL_EVENT_TYPES) {
+            if (contains(eventType)) {
+                eventList.add(eventType);
+            }
+        }
+        return eventList;
+    }
+
+    @Override
+    public String toString() {
+        return "Mutable" + snapshot();
+    }
+}
@@ -15,11 +15,12 @@
  */
 package com.netflix.hystrix.collapser;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,6 +34,9 @@ import com.netflix.hystrix.HystrixCollapserProperties;
 
 /**
  * A batch of requests collapsed together by a RequestCollapser instance. When full or time has expired it will execute and stop accepting further submissions.
+ * <p>
+ * Offers do not take a lock: each reserves a slot in a {@link RequestBatchBuffer}, which also rejects offers once the batch has started,
+ * and the argument is de-duplicated through a {@link ConcurrentMap}.
  * 
  * @param <BatchReturnType>
  * @param <ResponseType>
@@ -44,13 +48,13 @@ public class RequestBatch<BatchReturnType, ResponseType, RequestArgumentType> {
 
     private final HystrixCollapserBridge<BatchReturnType, ResponseType, RequestArgumentType> commandCollapser;
     private final int maxBatchSize;
-    private final AtomicBoolean batchStarted = new AtomicBoolean();
+    private final RequestBatchBuffer<CollapsedRequestSubject<ResponseType, RequestArgumentType>> requests =
+            new RequestBatchBuffer<CollapsedRequestSubject<ResponseType, RequestArgumentType>>();
 
     private final ConcurrentMap<RequestArgumentType, CollapsedRequest<ResponseType, RequestArgumentType>> argumentMap =
             new ConcurrentHashMap<RequestArgumentType, CollapsedRequest<ResponseType, RequestArgumentType>>();
     private final HystrixCollapserProperties properties;
-
-    private ReentrantReadWriteLock batchLock = new ReentrantReadWriteLock();
+    private final AtomicLong weight = new AtomicLong();
 
     public RequestBatch(HystrixCollapserProperties properties, HystrixCollapserBridge<BatchReturnType, ResponseType, RequestArgumentType> commandCollapser, int maxBatchSize) {
         this.properties = properties;
@@ -62,56 +66,62 @@ public class RequestBatch<BatchReturnType, ResponseType, RequestArgumentType> {
      * @return Observable if offer accepted, null if batch is full, already started or completed
      */
     public Observable<ResponseType> offer(RequestArgumentType arg) {
-        /* short-cut - if the batch is started we reject the offer */
-        if (batchStarted.get()) {
+        return offer(arg, 0);
+    }
+
+    /**
+     * @param arg request argument
+     * @param requestWeight weight added to {@link #getWeight()} if the argument is not already in the batch
+     * @return Observable if offer accepted, null if batch is full, already started or completed
+     */
+    public Observable<ResponseType> offer(RequestArgumentType arg, int requestWeight) {
+        /* reserving a slot fails if the batch is started or full, so this is the only check needed */
+        final int slot = requests.reserve(maxBatchSize);
+        if (slot < 0) {
             return null;
         }
 
-        /*
-         * The 'read' just means non-exclusive even though we are writing.
+        final CollapsedRequestSubject<ResponseType, RequestArgumentType> collapsedRequest;
+        final CollapsedRequestSubject<ResponseType, RequestArgumentType> existing;
+        try {
+            collapsedRequest = new CollapsedRequestSubject<ResponseType, RequestArgumentType>(arg, this);
+            // runs the hashCode/equals of the argument, which may throw
+            existing = (CollapsedRequestSubject<ResponseType, RequestArgumentType>) argumentMap.putIfAbsent(arg, collapsedRequest);
+        } catch (RuntimeException e) {
+            // the slot must be released or draining the batch would wait for it forever
+            requests.skip(slot);
+            throw e;
+        } catch (Error e) {
+            requests.skip(slot);
+            throw e;
+        }
+        /**
+         * If the argument already exists in the batch, then there are 2 options:
+         * A) If request caching is ON (the default): only keep 1 argument in the batch and let all responses
+         * be hooked up to that argument
+         * B) If request caching is OFF: return an error to all duplicate argument requests
+         *
+         * This maintains the invariant that each batch has no duplicate arguments.  This prevents the impossible
+         * logic (in a user-provided mapResponseToRequests for HystrixCollapser and the internals of HystrixObservableCollapser)
+         * of trying to figure out which argument of a set of duplicates should get attached to a response.
+         *
+         * See https://github.com/Netflix/Hystrix/pull/1176 for further discussion.
          */
-        if (batchLock.readLock().tryLock()) {
-            try {
-                /* double-check now that we have the lock - if the batch is started we reject the offer */
-                if (batchStarted.get()) {
-                    return null;
-                }
-
-                if (argumentMap.size() >= maxBatchSize) {
-                    return null;
-                } else {
-                    CollapsedRequestSubject<ResponseType, RequestArgumentType> collapsedRequest =
-                            new CollapsedRequestSubject<ResponseType, RequestArgumentType>(arg, this);
-                    final CollapsedRequestSubject<ResponseType, RequestArgumentType> existing = (CollapsedRequestSubject<ResponseType, RequestArgumentType>) argumentMap.putIfAbsent(arg, collapsedRequest);
-                    /**
-                     * If the argument already exists in the batch, then there are 2 options:
-                     * A) If request caching is ON (the default): only keep 1 argument in the batch and let all responses
-                     * be hooked up to that argument
-                     * B) If request caching is OFF: return an error to all duplicate argument requests
-                     *
-                     * This maintains the invariant that each batch has no duplicate arguments.  This prevents the impossible
-                     * logic (in a user-provided mapResponseToRequests for HystrixCollapser and the internals of HystrixObservableCollapser)
-                     * of trying to figure out which argument of a set of duplicates should get attached to a response.
-                     *
-                     * See https://github.com/Netflix/Hystrix/pull/1176 for further discussion.
-                     */
-                    if (existing != null) {
-                        boolean requestCachingEnabled = properties.requestCacheEnabled().get();
-                        if (requestCachingEnabled) {
-                            return existing.toObservable();
-                        } else {
-                            return Observable.error(new IllegalArgumentException("Duplicate argument in collapser batch : [" + arg + "]  This is not supported.  Please turn request-caching on for HystrixCollapser:" + commandCollapser.getCollapserKey().name() + " or prevent duplicates from making it into the batch!"));
-                        }
-                    } else {
-                        return collapsedRequest.toObservable();
-                    }
-
-                }
-            } finally {
-                batchLock.readLock().unlock();
+        if (existing != null) {
+            // the existing request holds a slot of its own, so release this one
+            requests.skip(slot);
+            boolean requestCachingEnabled = properties.requestCacheEnabled().get();
+            if (requestCachingEnabled) {
+                return existing.toObservable();
+            } else {
+                return Observable.error(new IllegalArgumentException("Duplicate argument in collapser batch : [" + arg + "]  This is not supported.  Please turn request-caching on for HystrixCollapser:" + commandCollapser.getCollapserKey().name() + " or prevent duplicates from making it into the batch!"));
             }
         } else {
-            return null;
+            requests.publish(slot, collapsedRequest);
+            if (requestWeight != 0) {
+                weight.addAndGet(requestWeight);
+            }
+            return collapsedRequest.toObservable();
         }
     }
 
@@ -122,23 +132,34 @@ public class RequestBatch<BatchReturnType, ResponseType, RequestArgumentType> {
      * @param arg argument to remove from batch
      */
     /* package-private */ void remove(RequestArgumentType arg) {
-        if (batchStarted.get()) {
+        if (requests.isSealed()) {
             //nothing we can do
             return;
         }
 
-        if (batchLock.readLock().tryLock()) {
-            try {
-                /* double-check now that we have the lock - if the batch is started, deleting is useless */
-                if (batchStarted.get()) {
-                    return;
-                }
+        // the request keeps its slot, but is left out of the batch when it executes as it is no longer mapped to its argument
+        argumentMap.remove(arg);
+    }
 
-                argumentMap.remove(arg);
-            } finally {
-                batchLock.readLock().unlock();
+    /**
+     * Wait for offers that reserved a slot before the batch started to publish their request, then collect the requests that were not removed.
+     * Only called by the thread that sealed {@link #requests}.
+     */
+    private List<CollapsedRequest<ResponseType, RequestArgumentType>> collectRequests() {
+        final List<CollapsedRequestSubject<ResponseType, RequestArgumentType>> published = requests.drain();
+        final List<CollapsedRequest<ResponseType, RequestArgumentType>> collected = new ArrayList<CollapsedRequest<ResponseType, RequestArgumentType>>(published.size());
+        for (CollapsedRequestSubject<ResponseType, RequestArgumentType> request : published) {
+            if (argumentMap.get(argumentKey(request)) == request) {
+                collected.add(request);
             }
         }
+        return collected;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RequestArgumentType argumentKey(CollapsedRequest<ResponseType, RequestArgumentType> request) {
+        final RequestArgumentType argument = request.getArgument();
+        return argument == null ? (RequestArgumentType) RequestCollapser.NULL_SENTINEL : argument;
     }
 
     /**
@@ -158,13 +179,17 @@ public class RequestBatch<BatchReturnType, ResponseType, RequestArgumentType> {
          * - check that we only execute once since there's multiple paths to do so (timer, waiting thread or max batch size hit)
          * - close the gate so 'offer' can no longer be invoked and we turn those threads away so they create a new batch
          */
-        if (batchStarted.compareAndSet(false, true)) {
-            /* wait for 'offer'/'remove' threads to finish before executing the batch so 'requests' is complete */
-            batchLock.writeLock().lock();
+        if (requests.seal()) {
+            /* wait for 'offer' threads that got in before the seal so 'batchRequests' is complete */
+            final List<CollapsedRequest<ResponseType, RequestArgumentType>> batchRequests = collectRequests();
+            if (batchRequests.isEmpty()) {
+                // every offer failed or was removed, so there is nothing to execute
+                return;
+            }
 
             try {
                 // shard batches
-                Collection<Collection<CollapsedRequest<ResponseType, RequestArgumentType>>> shards = commandCollapser.shardRequests(argumentMap.values());
+                Collection<Collection<CollapsedRequest<ResponseType, RequestArgumentType>>> shards = commandCollapser.shardRequests(batchRequests);
                 // for each shard execute its requests 
                 for (final Collection<CollapsedRequest<ResponseType, RequestArgumentType>> shardRequests : shards) {
                     try {
@@ -187,7 +212,7 @@ public class RequestBatch<BatchReturnType, ResponseType, RequestArgumentType> {
                                 }
                                 logger.debug("Exception mapping responses to requests.", e);
                                 // if a failure occurs we want to pass that exception to all of the Futures that we've returned
-                                for (CollapsedRequest<ResponseType, RequestArgumentType> request : argumentMap.values()) {
+                                for (CollapsedRequest<ResponseType, RequestArgumentType> request : batchRequests) {
                                     try {
                                         ((CollapsedRequestSubject<ResponseType, RequestArgumentType>) request).setExceptionIfResponseNotReceived(ee);
                                     } catch (IllegalStateException e2) {
@@ -235,55 +260,80 @@ public class RequestBatch<BatchReturnType, ResponseType, RequestArgumentType> {
             } catch (Exception e) {
                 logger.error("Exception while sharding requests.", e);
                 // same error handling as we do around the shards, but this is a wider net in case the shardRequest method fails
-                for (CollapsedRequest<ResponseType, RequestArgumentType> request : argumentMap.values()) {
+                for (CollapsedRequest<ResponseType, RequestArgumentType> request : batchRequests) {
                     try {
                         request.setException(e);
                     } catch (IllegalStateException e2) {
                         logger.debug("Failed trying to setException on CollapsedRequest", e2);
                     }
                 }
-            } finally {
-                batchLock.writeLock().unlock();
             }
         }
     }
 
     public void shutdown() {
-        // take the 'batchStarted' state so offers and execution will not be triggered elsewhere
-        if (batchStarted.compareAndSet(false, true)) {
-            // get the write lock so offers are synced with this (we don't really need to unlock as this is a one-shot deal to shutdown)
-            batchLock.writeLock().lock();
-            try {
-                // if we win the 'start' and once we have the lock we can now shut it down otherwise another thread will finish executing this batch
-                if (argumentMap.size() > 0) {
-                    logger.warn("Requests still exist in queue but will not be executed due to RequestCollapser shutdown: " + argumentMap.size(), new IllegalStateException());
-                    /*
-                     * In the event that there is a concurrency bug or thread scheduling prevents the timer from ticking we need to handle this so the Future.get() calls do not block.
-                     * 
-                     * I haven't been able to reproduce this use case on-demand but when stressing a machine saw this occur briefly right after the JVM paused (logs stopped scrolling).
-                     * 
-                     * This safety-net just prevents the CollapsedRequestFutureImpl.get() from waiting on the CountDownLatch until its max timeout.
-                     */
-                    for (CollapsedRequest<ResponseType, RequestArgumentType> request : argumentMap.values()) {
-                        try {
-                            ((CollapsedRequestSubject<ResponseType, RequestArgumentType>) request).setExceptionIfResponseNotReceived(new IllegalStateException("Requests not executed before shutdown."));
-                        } catch (Exception e) {
-                            logger.debug("Failed to setException on CollapsedRequestFutureImpl instances.", e);
-                        }
-                        /**
-                         * https://github.com/Netflix/Hystrix/issues/78 Include more info when collapsed requests remain in queue
-                         */
-                        logger.warn("Request still in queue but not be executed due to RequestCollapser shutdown. Argument => " + request.getArgument() + "   Request Object => " + request, new IllegalStateException());
+        // seal the batch so offers and execution will not be triggered elsewhere
+        if (requests.seal()) {
+            // if we win the seal we can now shut it down otherwise another thread will finish executing this batch
+            final List<CollapsedRequest<ResponseType, RequestArgumentType>> batchRequests = collectRequests();
+            if (batchRequests.isEmpty()) {
+                // every offer failed or was removed, so there is nothing to execute
+                return;
+            }
+            if (batchRequests.size() > 0) {
+                logger.warn("Requests still exist in queue but will not be executed due to RequestCollapser shutdown: " + batchRequests.size(), new IllegalStateException());
+                /*
+                 * In the event that there is a concurrency bug or thread scheduling prevents the timer from ticking we need to handle this so the Future.get() calls do not block.
+                 * 
+                 * I haven't been able to reproduce this use case on-demand but when stressing a machine saw this occur briefly right after the JVM paused (logs stopped scrolling).
+                 * 
+                 * This safety-net just prevents the CollapsedRequestFutureImpl.get() from waiting on the CountDownLatch until its max timeout.
+                 */
+                for (CollapsedRequest<ResponseType, RequestArgumentType> request : batchRequests) {
+                    try {
+                        ((CollapsedRequestSubject<ResponseType, RequestArgumentType>) request).setExceptionIfResponseNotReceived(new IllegalStateException("Requests not executed before shutdown."));
+                    } catch (Exception e) {
+                        logger.debug("Failed to setException on CollapsedRequestFutureImpl instances.", e);
                     }
-
+                    /**
+                     * https://github.com/Netflix/Hystrix/issues/78 Include more info when collapsed requests remain in queue
+                     */
+                    logger.warn("Request still in queue but not be executed due to RequestCollapser shutdown. Argument => " + request.getArgument() + "   Request Object => " + request, new IllegalStateException());
                 }
-            } finally {
-                batchLock.writeLock().unlock();
+
             }
         }
     }
 
+    /**
+     * @return true if every slot of the batch has been taken, so no further offer can be accepted
+     */
+    public boolean isFull() {
+        return requests.getReservedCount() >= maxBatchSize;
+    }
+
+    /**
+     * @return total weight of the distinct requests offered with a weight
+     */
+    public long getWeight() {
+        return weight.get();
+    }
+
+    /**
+     * @return number of distinct requests in the batch, which counts the argument map and so is not constant-time
+     */
     public int getSize() {
         return argumentMap.size();
     }
+
+    /**
+     * Constant-time check for the collapser timer, which runs it on every tick.
+     * <p>
+     * Reads the reserved slots of the batch, so a batch whose requests were all removed is not empty; it executes nothing when started.
+     *
+     * @return true if nothing was ever offered to the batch
+     */
+    public boolean isEmpty() {
+        return requests.getReservedCount() == 0;
+    }
 }
@@ -0,0 +1,143 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.collapser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Multi-producer, single-consumer buffer of the requests in a {@link RequestBatch}.
+ * <p>
+ * Producers {@link #reserve(int)} a slot with a single CAS on a state word that holds both the number of reserved slots and a sealed flag,
+ * then {@link #publish(int, Object)} their element (or {@link #skip(int)} the slot) into it.  The consumer {@link #seal()}s the buffer, after
+ * which no more slots can be reserved, and {@link #drain()}s it, waiting only for producers that reserved a slot before the seal but have not
+ * written it yet.  No locks are taken on either side.
+ * <p>
+ * Slots live in buckets that double in size, allocated on first use, so an unbounded batch does not allocate up front.
+ *
+ * @param <E> element type
+ */
+/* package */ class RequestBatchBuffer<E> {
+    private static final int SEALED = 1 << 31;
+    private static final int FIRST_BUCKET_SIZE_SHIFT = 4;
+    private static final int FIRST_BUCKET_SIZE = 1 << FIRST_BUCKET_SIZE_SHIFT;
+    private static final int NUM_BUCKETS = 32 - FIRST_BUCKET_SIZE_SHIFT;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - FIRST_BUCKET_SIZE;
+    private static final Object SKIPPED = new Object();
+
+    private final AtomicInteger state = new AtomicInteger();
+    private final AtomicReferenceArray<AtomicReferenceArray<Object>> buckets = new AtomicReferenceArray<AtomicReferenceArray<Object>>(NUM_BUCKETS);
+
+    /**
+     * @param capacity maximum number of slots
+     * @return index of the reserved slot, or -1 if the buffer is sealed or full
+     */
+    /* package */ int reserve(int capacity) {
+        while (true) {
+            final int s = state.get();
+            if ((s & SEALED) != 0 || s >= capacity || s >= MAX_CAPACITY) {
+                return -1;
+            }
+            if (state.compareAndSet(s, s + 1)) {
+                return s;
+            }
+        }
+    }
+
+    /* package */ void publish(int index, E element) {
+        slotsFor(index).set(offsetOf(index), element);
+    }
+
+    /**
+     * Release a reserved slot without an element so the consumer does not wait for it.
+     */
+    /* package */ void skip(int index) {
+        slotsFor(index).set(offsetOf(index), SKIPPED);
+    }
+
+    /**
+     * @return true if this call sealed the buffer, false if it was already sealed
+     */
+    /* package */ boolean seal() {
+        while (true) {
+            final int s = state.get();
+            if ((s & SEALED) != 0) {
+                return false;
+            }
+            if (state.compareAndSet(s, s | SEALED)) {
+                return true;
+            }
+        }
+    }
+
+    /* package */ boolean isSealed() {
+        return (state.get() & SEALED) != 0;
+    }
+
+    /**
+     * @return number of reserved slots, including skipped ones
+     */
+    /* package */ int getReservedCount() {
+        return state.get() & ~SEALED;
+    }
+
+    /**
+     * Collect the published elements in slot order.  Must only be called after {@link #seal()}, by the thread that sealed the buffer.
+     *
+     * @return published elements
+     */
+    @SuppressWarnings("unchecked")
+    /* package */ List<E> drain() {
+        final int reserved = getReservedCount();
+        final List<E> elements = new ArrayList<E>(reserved);
+        for (int i = 0; i < reserved; i++) {
+            final AtomicReferenceArray<Object> slots = slotsFor(i);
+            final int offset = offsetOf(i);
+            Object element = slots.get(offset);
+            while (element == null) {
+                // a producer has reserved the slot but not yet written it, which it does without blocking
+                Thread.yield();
+                element = slots.get(offset);
+            }
+            if (element != SKIPPED) {
+                elements.add((E) element);
+            }
+        }
+        return elements;
+    }
+
+    private AtomicReferenceArray<Object> slotsFor(int index) {
+        final int bucket = bucketOf(index);
+        AtomicReferenceArray<Object> slots = buckets.get(bucket);
+        if (slots == null) {
+            buckets.compareAndSet(bucket, null, new AtomicReferenceArray<Object>(FIRST_BUCKET_SIZE << bucket));
+            slots = buckets.get(bucket);
+        }
+        return slots;
+    }
+
+    private static int bucketOf(int index) {
+        // bucket b holds indexes [FIRST_BUCKET_SIZE * (2^b - 1), FIRST_BUCKET_SIZE * (2^(b+1) - 1))
+        return (31 - Integer.numberOfLeadingZeros(index + FIRST_BUCKET_SIZE)) - FIRST_BUCKET_SIZE_SHIFT;
+    }
+
+    private static int offsetOf(int index) {
+        final int position = index + FIRST_BUCKET_SIZE;
+        return position - Integer.highestOneBit(position);
+    }
+}
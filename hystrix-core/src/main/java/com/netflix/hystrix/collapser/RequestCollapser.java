@@ -28,6 +28,7 @@ import rx.Observable;
 import com.netflix.hystrix.HystrixCollapserProperties;
 import com.netflix.hystrix.strategy.concurrency.HystrixConcurrencyStrategy;
 import com.netflix.hystrix.strategy.concurrency.HystrixContextCallable;
+import com.netflix.hystrix.strategy.properties.HystrixProperty;
 import com.netflix.hystrix.util.HystrixTimer.TimerListener;
 
 /**
@@ -50,6 +51,7 @@ public class RequestCollapser<BatchReturnType, ResponseType, RequestArgumentType
     private final AtomicBoolean timerListenerRegistered = new AtomicBoolean();
     private final CollapserTimer timer;
     private final HystrixCollapserProperties properties;
+    private final HystrixProperty<Integer> timerDelayInMilliseconds;
     private final HystrixConcurrencyStrategy concurrencyStrategy;
 
     /**
@@ -59,9 +61,21 @@ public class RequestCollapser<BatchReturnType, ResponseType, RequestArgumentType
      * @param concurrencyStrategy strategy for managing the {@link Callable}s generated by {@link RequestCollapser}
      */
     RequestCollapser(HystrixCollapserBridge<BatchReturnType, ResponseType, RequestArgumentType> commandCollapser, HystrixCollapserProperties properties, CollapserTimer timer, HystrixConcurrencyStrategy concurrencyStrategy) {
+        this(commandCollapser, properties, properties.timerDelayInMilliseconds(), timer, concurrencyStrategy);
+    }
+
+    /**
+     * @param commandCollapser collapser which will create the batched requests and demultiplex the results
+     * @param properties collapser properties that define how collapsing occurs
+     * @param timerDelayInMilliseconds delay between batch executions, read on every tick of the timer
+     * @param timer {@link CollapserTimer} which performs the collapsing
+     * @param concurrencyStrategy strategy for managing the {@link Callable}s generated by {@link RequestCollapser}
+     */
+    RequestCollapser(HystrixCollapserBridge<BatchReturnType, ResponseType, RequestArgumentType> commandCollapser, HystrixCollapserProperties properties, HystrixProperty<Integer> timerDelayInMilliseconds, CollapserTimer timer, HystrixConcurrencyStrategy concurrencyStrategy) {
         this.commandCollapser = commandCollapser; // the command with implementation of abstract methods we need 
         this.concurrencyStrategy = concurrencyStrategy;
         this.properties = properties;
+        this.timerDelayInMilliseconds = timerDelayInMilliseconds;
         this.timer = timer;
         batch.set(new RequestBatch<BatchReturnType, ResponseType, RequestArgumentType>(properties, commandCollapser, properties.maxRequestsInBatch().get()));
     }
@@ -75,6 +89,22 @@ public class RequestCollapser<BatchReturnType, ResponseType, RequestArgumentType
      *             if submitting after shutdown
      */
     public Observable<ResponseType> submitRequest(final RequestArgumentType arg) {
+        return submitRequest(arg, 1);
+    }
+
+    /**
+     * Submit a request to a batch. If the batch maxSize is hit trigger the batch immediately.
+     * <p>
+     * If {@link HystrixCollapserProperties#earlyDispatchEnabled()} is set, the batch is also triggered on this thread as soon as this request
+     * fills it up or brings its total weight to {@link HystrixCollapserProperties#maxWeightInBatch()}.
+     *
+     * @param arg argument to a {@link RequestCollapser}
+     * @param weight weight of the request, counted towards {@link HystrixCollapserProperties#maxWeightInBatch()}
+     * @return Observable<ResponseType>
+     * @throws IllegalStateException
+     *             if submitting after shutdown
+     */
+    public Observable<ResponseType> submitRequest(final RequestArgumentType arg, final int weight) {
         /*
          * We only want the timer ticking if there are actually things to do so we register it the first time something is added.
          */
@@ -90,14 +120,19 @@ public class RequestCollapser<BatchReturnType, ResponseType, RequestArgumentType
                 return Observable.error(new IllegalStateException("Submitting requests after collapser is shutdown"));
             }
 
+            final boolean earlyDispatch = properties.earlyDispatchEnabled().get();
             final Observable<ResponseType> response;
             if (arg != null) {
-                response = b.offer(arg);
+                response = b.offer(arg, earlyDispatch ? weight : 0);
             } else {
-                response = b.offer( (RequestArgumentType) NULL_SENTINEL);
+                response = b.offer( (RequestArgumentType) NULL_SENTINEL, earlyDispatch ? weight : 0);
             }
             // it will always get an Observable unless we hit the max batch size
             if (response != null) {
+                if (earlyDispatch && (b.isFull() || b.getWeight() >= properties.maxWeightInBatch().get())) {
+                    // don't leave a full batch waiting for the timer
+                    createNewBatchAndExecutePreviousIfNeeded(b);
+                }
                 return response;
             } else {
                 // this batch can't accept requests so create a new one and set it if another thread doesn't beat us
@@ -133,11 +168,23 @@ public class RequestCollapser<BatchReturnType, ResponseType, RequestArgumentType
 
     /**
      * Executed on each Timer interval execute the current batch if it has requests in it.
+     * <p>
+     * With {@link HystrixCollapserProperties#adaptiveTimerDelayEnabled()} the timer ticks at the shortest allowed delay, and the batch is only executed
+     * once the ticks since the last execution add up to the current delay.
      */
     private class CollapsedTask implements TimerListener {
         final Callable<Void> callableWithContextOfParent;
+        final int intervalInMilliseconds;
+        // only touched from the timer thread
+        int elapsedInMilliseconds = 0;
 
         CollapsedTask() {
+            if (properties.adaptiveTimerDelayEnabled().get()) {
+                intervalInMilliseconds = Math.max(1, properties.adaptiveTimerDelayMinInMilliseconds().get());
+            } else {
+                intervalInMilliseconds = timerDelayInMilliseconds.get();
+            }
+
             // this gets executed from the context of a HystrixCommand parent thread (such as a Tomcat thread)
             // so we create the callable now where we can capture the thread context
             callableWithContextOfParent = new HystrixContextCallable<Void>(concurrencyStrategy, new Callable<Void>() {
@@ -151,9 +198,15 @@ public class RequestCollapser<BatchReturnType, ResponseType, RequestArgumentType
                         RequestBatch<BatchReturnType, ResponseType, RequestArgumentType> currentBatch = batch.get();
                         // 1) it can be null if it got shutdown
                         // 2) we don't execute this batch if it has no requests and let it wait until next tick to be executed
-                        if (currentBatch != null && currentBatch.getSize() > 0) {
-                            // do execution within context of wrapped Callable
-                            createNewBatchAndExecutePreviousIfNeeded(currentBatch);
+                        if (currentBatch != null && !currentBatch.isEmpty()) {
+                            elapsedInMilliseconds += intervalInMilliseconds;
+                            if (elapsedInMilliseconds >= timerDelayInMilliseconds.get()) {
+                                elapsedInMilliseconds = 0;
+                                // do execution within context of wrapped Callable
+                                createNewBatchAndExecutePreviousIfNeeded(currentBatch);
+                            }
+                        } else {
+                            elapsedInMilliseconds = 0;
                         }
                     } catch (Throwable t) {
                         logger.error("Error occurred trying to execute the batch.", t);
@@ -178,7 +231,7 @@ public class RequestCollapser<BatchReturnType, ResponseType, RequestArgumentType
 
         @Override
         public int getIntervalTimeInMilliseconds() {
-            return properties.timerDelayInMilliseconds().get();
+            return intervalInMilliseconds;
         }
 
     }
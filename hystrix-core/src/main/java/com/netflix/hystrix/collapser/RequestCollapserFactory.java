@@ -27,6 +27,7 @@ import com.netflix.hystrix.strategy.concurrency.HystrixConcurrencyStrategy;
 import com.netflix.hystrix.strategy.concurrency.HystrixRequestVariableHolder;
 import com.netflix.hystrix.strategy.concurrency.HystrixRequestVariableLifecycle;
 import com.netflix.hystrix.strategy.properties.HystrixPropertiesFactory;
+import com.netflix.hystrix.strategy.properties.HystrixProperty;
 import com.netflix.hystrix.util.HystrixTimer;
 
 /**
@@ -43,6 +44,7 @@ public class RequestCollapserFactory<BatchReturnType, ResponseType, RequestArgum
     private final CollapserTimer timer;
     private final HystrixCollapserKey collapserKey;
     private final HystrixCollapserProperties properties;
+    private final HystrixProperty<Integer> timerDelayInMilliseconds;
     private final HystrixConcurrencyStrategy concurrencyStrategy;
     private final Scope scope;
 
@@ -60,12 +62,20 @@ public class RequestCollapserFactory<BatchReturnType, ResponseType, RequestArgum
     }
 
     public RequestCollapserFactory(HystrixCollapserKey collapserKey, Scope scope, CollapserTimer timer, HystrixCollapserProperties properties) {
+        this(collapserKey, scope, timer, properties, properties.timerDelayInMilliseconds());
+    }
+
+    /**
+     * @param timerDelayInMilliseconds delay between batch executions, which may differ from {@link HystrixCollapserProperties#timerDelayInMilliseconds()} when it adapts to load
+     */
+    public RequestCollapserFactory(HystrixCollapserKey collapserKey, Scope scope, CollapserTimer timer, HystrixCollapserProperties properties, HystrixProperty<Integer> timerDelayInMilliseconds) {
          /* strategy: ConcurrencyStrategy */
         this.concurrencyStrategy = HystrixPlugins.getInstance().getConcurrencyStrategy();
         this.timer = timer;
         this.scope = scope;
         this.collapserKey = collapserKey;
         this.properties = properties;
+        this.timerDelayInMilliseconds = timerDelayInMilliseconds;
 
     }
 
@@ -105,7 +115,7 @@ public class RequestCollapserFactory<BatchReturnType, ResponseType, RequestArgum
             return (RequestCollapser<BatchReturnType, ResponseType, RequestArgumentType>) collapser;
         }
         // create new collapser using 'this' first instance as the one that will get cached for future executions ('this' is stateless so we can do that)
-        RequestCollapser<BatchReturnType, ResponseType, RequestArgumentType> newCollapser = new RequestCollapser<BatchReturnType, ResponseType, RequestArgumentType>(commandCollapser, properties, timer, concurrencyStrategy);
+        RequestCollapser<BatchReturnType, ResponseType, RequestArgumentType> newCollapser = new RequestCollapser<BatchReturnType, ResponseType, RequestArgumentType>(commandCollapser, properties, timerDelayInMilliseconds, timer, concurrencyStrategy);
         RequestCollapser<?, ?, ?> existing = globalScopedCollapsers.putIfAbsent(collapserKey.name(), newCollapser);
         if (existing == null) {
             // we won
@@ -143,7 +153,7 @@ public class RequestCollapserFactory<BatchReturnType, ResponseType, RequestArgum
         if (requestVariable == null) {
             // create new collapser using 'this' first instance as the one that will get cached for future executions ('this' is stateless so we can do that)
             @SuppressWarnings({ "rawtypes" })
-            HystrixRequestVariableHolder newCollapser = new RequestCollapserRequestVariable(commandCollapser, properties, timer, concurrencyStrategy);
+            HystrixRequestVariableHolder newCollapser = new RequestCollapserRequestVariable(commandCollapser, properties, timerDelayInMilliseconds, timer, concurrencyStrategy);
             HystrixRequestVariableHolder<RequestCollapser<?, ?, ?>> existing = requestScopedCollapsers.putIfAbsent(commandCollapser.getCollapserKey().name(), newCollapser);
             if (existing == null) {
                 // this thread won, so return the one we just created
@@ -198,12 +208,12 @@ public class RequestCollapserFactory<BatchReturnType, ResponseType, RequestArgum
          * Thus, do NOT put any instance variables in this class that are not static for all threads.
          */
 
-        private RequestCollapserRequestVariable(final HystrixCollapserBridge<BatchReturnType, ResponseType, RequestArgumentType> commandCollapser, final HystrixCollapserProperties properties, final CollapserTimer timer, final HystrixConcurrencyStrategy concurrencyStrategy) {
+        private RequestCollapserRequestVariable(final HystrixCollapserBridge<BatchReturnType, ResponseType, RequestArgumentType> commandCollapser, final HystrixCollapserProperties properties, final HystrixProperty<Integer> timerDelayInMilliseconds, final CollapserTimer timer, final HystrixConcurrencyStrategy concurrencyStrategy) {
             super(new HystrixRequestVariableLifecycle<RequestCollapser<BatchReturnType, ResponseType, RequestArgumentType>>() {
                 @Override
                 public RequestCollapser<BatchReturnType, ResponseType, RequestArgumentType> initialValue() {
                     // this gets calls once per request per HystrixCollapser instance
-                    return new RequestCollapser<BatchReturnType, ResponseType, RequestArgumentType>(commandCollapser, properties, timer, concurrencyStrategy);
+                    return new RequestCollapser<BatchReturnType, ResponseType, RequestArgumentType>(commandCollapser, properties, timerDelayInMilliseconds, timer, concurrencyStrategy);
                 }
 
                 @Override
@@ -0,0 +1,99 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.metric;
+
+import com.netflix.hystrix.HystrixCollapserProperties;
+import com.netflix.hystrix.strategy.properties.HystrixProperty;
+
+/**
+ * Collapser timer delay that follows the size and latency of executed batches.
+ * <p>
+ * Every request after the first in a batch was collapsed into it, so the number of those requests per millisecond of delay estimates how quickly
+ * requests arrive.  The delay is then set to the time needed to collect {@link HystrixCollapserProperties#adaptiveTimerDelayTargetBatchSize()} requests.
+ * If that is longer than {@link HystrixCollapserProperties#adaptiveTimerDelayMaxInMilliseconds()}, traffic is too light for collapsing to pay for the wait
+ * and the shortest delay is used.  The delay plus the smoothed batch latency is kept within
+ * {@link HystrixCollapserProperties#adaptiveTimerDelayLatencyBudgetInMilliseconds()}.
+ * <p>
+ * The delay always stays between the configured bounds, which are read on every {@link #get()}.
+ *
+ * @ThreadSafe
+ */
+public class HystrixAdaptiveCollapserWindow implements HystrixProperty<Integer> {
+    private static final double SMOOTHING = 0.2;
+
+    private final HystrixCollapserProperties properties;
+
+    private double arrivalRate = -1;
+    private double batchLatency = -1;
+    private volatile int delay;
+
+    public HystrixAdaptiveCollapserWindow(HystrixCollapserProperties properties) {
+        this.properties = properties;
+        this.delay = properties.timerDelayInMilliseconds().get();
+    }
+
+    /**
+     * @return current delay between batch executions in milliseconds, within the configured bounds
+     */
+    @Override
+    public Integer get() {
+        final int min = getMin();
+        return Math.max(min, Math.min(getMax(min), delay));
+    }
+
+    /**
+     * Update the delay from an executed batch.
+     *
+     * @param batchSize number of requests in the batch
+     * @param latencyInMilliseconds time from the start of the batch command until it terminated
+     */
+    public synchronized void onBatchCompleted(int batchSize, long latencyInMilliseconds) {
+        final int min = getMin();
+        final int max = getMax(min);
+        final int current = Math.max(min, Math.min(max, delay));
+
+        final double rate = (double) Math.max(0, batchSize - 1) / current;
+        arrivalRate = arrivalRate < 0 ? rate : arrivalRate + (rate - arrivalRate) * SMOOTHING;
+        batchLatency = batchLatency < 0 ? latencyInMilliseconds : batchLatency + (latencyInMilliseconds - batchLatency) * SMOOTHING;
+
+        final int target = Math.max(2, properties.adaptiveTimerDelayTargetBatchSize().get());
+        double desired = arrivalRate > 0 ? (target - 1) / arrivalRate : Double.MAX_VALUE;
+        if (desired > max) {
+            // the target can't be reached within the bounds, so waiting would only add latency
+            desired = min;
+        }
+
+        final int budget = properties.adaptiveTimerDelayLatencyBudgetInMilliseconds().get();
+        if (budget != Integer.MAX_VALUE) {
+            desired = Math.min(desired, budget - batchLatency);
+        }
+
+        delay = (int) Math.max(min, Math.min(max, Math.round(desired)));
+    }
+
+    private int getMin() {
+        return Math.max(1, properties.adaptiveTimerDelayMinInMilliseconds().get());
+    }
+
+    private int getMax(int min) {
+        return Math.max(min, properties.adaptiveTimerDelayMaxInMilliseconds().get());
+    }
+
+    @Override
+    public String toString() {
+        return "HystrixAdaptiveCollapserWindow[" + get() + "ms]";
+    }
+}
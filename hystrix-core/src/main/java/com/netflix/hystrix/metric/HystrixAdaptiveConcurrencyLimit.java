@@ -0,0 +1,145 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.metric;
+
+import com.netflix.hystrix.ExecutionResult;
+import com.netflix.hystrix.HystrixEventType;
+import com.netflix.hystrix.strategy.properties.HystrixProperty;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows the latency of completed executions using a gradient algorithm.
+ * <p>
+ * Each latency sample is compared with a long-term average of the latency.  While the sample stays within a tolerance of that average the
+ * limit grows by roughly its square root, and as the sample rises above it the limit is scaled down by the ratio of the two, but never by more than half.
+ * Timeouts and failures back the limit off by a fixed ratio.  Rejections do not, as they are mostly caused by the limit itself.  Changes are smoothed so
+ * that a single outlier moves the limit only a little.
+ * <p>
+ * Samples are folded in by one thread at a time without blocking: a latency sample that arrives while another one is being folded in is skipped,
+ * a drop is kept and applied by the next thread that gets in.
+ * <p>
+ * The limit always stays between 1 and the given maximum, which is read on every {@link #get()} so that a change to the configured maximum applies immediately.
+ * As a {@link HystrixProperty} it can be used anywhere a configured number of permits is expected.
+ *
+ * @ThreadSafe
+ */
+public class HystrixAdaptiveConcurrencyLimit implements HystrixProperty<Integer> {
+    private static final int MIN_LIMIT = 1;
+    private static final double SMOOTHING = 0.2;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final int LONG_RTT_WINDOW = 600;
+
+    private final HystrixProperty<Integer> maxLimit;
+    private final AtomicBoolean updating = new AtomicBoolean(false);
+    private final AtomicInteger pendingDrops = new AtomicInteger(0);
+
+    // only accessed by the thread that set 'updating'
+    private double estimatedLimit;
+    private double longRtt = 0;
+    private int longRttSamples = 0;
+    private volatile int limit;
+
+    public HystrixAdaptiveConcurrencyLimit(HystrixProperty<Integer> maxLimit) {
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = Math.max(MIN_LIMIT, maxLimit.get());
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * @return current limit, never above the configured maximum
+     */
+    @Override
+    public Integer get() {
+        return Math.min(limit, maxLimit.get());
+    }
+
+    /**
+     * Update the limit from a completed command.  Completions that never executed (short-circuits, cache hits, rejections) are ignored.
+     *
+     * @param completion completed command
+     */
+    public void onCompletion(HystrixCommandCompletion completion) {
+        ExecutionResult.EventCounts eventCounts = completion.getEventCounts();
+        if (eventCounts.contains(HystrixEventType.THREAD_POOL_REJECTED) ||
+                eventCounts.contains(HystrixEventType.SEMAPHORE_REJECTED)) {
+            // rejected by this limit (or the queue behind it), shrinking the limit on them would only cause more
+            return;
+        }
+        if (eventCounts.contains(HystrixEventType.TIMEOUT) ||
+                eventCounts.contains(HystrixEventType.FAILURE)) {
+            onSample(-1, true);
+        } else if (completion.didCommandExecute() && completion.getExecutionLatency() >= 0) {
+            onSample(completion.getExecutionLatency(), false);
+        }
+    }
+
+    /**
+     * Update the limit from one execution.
+     *
+     * @param latencyInMilliseconds latency of the execution, ignored if dropped
+     * @param dropped whether the execution timed out or failed
+     */
+    public void onSample(long latencyInMilliseconds, boolean dropped) {
+        if (dropped) {
+            pendingDrops.incrementAndGet();
+        }
+        if (!updating.compareAndSet(false, true)) {
+            // another thread is updating the limit: its drops will be picked up by the next update, its latency is only a sample
+            return;
+        }
+        try {
+            int drops = pendingDrops.getAndSet(0);
+            for (int i = 0; i < drops; i++) {
+                update(estimatedLimit * BACKOFF_RATIO);
+            }
+            if (!dropped) {
+                update(nextLimit(latencyInMilliseconds));
+            }
+            limit = (int) estimatedLimit;
+        } finally {
+            updating.set(false);
+        }
+    }
+
+    private double nextLimit(long latencyInMilliseconds) {
+        final double rtt = Math.max(1, latencyInMilliseconds);
+        if (longRttSamples < LONG_RTT_WINDOW) {
+            longRttSamples++;
+        }
+        longRtt += (rtt - longRtt) / longRttSamples;
+        if (longRtt > 2 * rtt) {
+            // latency has dropped well below the long-term average, let the average catch up faster
+            longRtt = Math.max(rtt, longRtt * 0.95);
+        }
+        final double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, RTT_TOLERANCE * longRtt / rtt));
+        return estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+    }
+
+    private void update(double newLimit) {
+        final int max = Math.max(MIN_LIMIT, maxLimit.get());
+        final double smoothed = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(MIN_LIMIT, Math.min(max, smoothed));
+    }
+
+    @Override
+    public String toString() {
+        return "HystrixAdaptiveConcurrencyLimit[" + get() + " / " + maxLimit.get() + "]";
+    }
+}
@@ -16,6 +16,7 @@
 package com.netflix.hystrix.metric;
 
 import com.netflix.hystrix.HystrixCollapserKey;
+import com.netflix.hystrix.HystrixEventType;
 import rx.Observable;
 import rx.subjects.PublishSubject;
 import rx.subjects.SerializedSubject;
@@ -27,10 +28,14 @@ import java.util.concurrent.ConcurrentMap;
 /**
  * Per-Collapser stream of {@link HystrixCollapserEvent}s.  This gets written to by {@link HystrixThreadEventStream}s.
  * Events are emitted synchronously in the same thread that performs the batch-command execution.
+ * <p>
+ * Every write also updates the striped {@link #getEventCounters()}.  The {@link HystrixCollapserEvent} itself is only
+ * emitted if something observes this stream.
  */
 public class HystrixCollapserEventStream implements HystrixEventStream<HystrixCollapserEvent> {
     private final HystrixCollapserKey collapserKey;
 
+    private final HystrixStripedEventCounters eventCounters = new HystrixStripedEventCounters(HystrixEventType.Collapser.values().length);
     private final Subject<HystrixCollapserEvent, HystrixCollapserEvent> writeOnlyStream;
     private final Observable<HystrixCollapserEvent> readOnlyStream;
 
@@ -66,7 +71,19 @@ public class HystrixCollapserEventStream implements HystrixEventStream<HystrixCo
     }
 
     public void write(HystrixCollapserEvent event) {
-        writeOnlyStream.onNext(event);
+        eventCounters.add(event.getEventType().ordinal(), event.getCount());
+        if (writeOnlyStream.hasObservers()) {
+            writeOnlyStream.onNext(event);
+        }
+    }
+
+    /**
+     * Counts of each {@link HystrixEventType.Collapser} written to this stream, indexed by ordinal.
+     *
+     * @return striped event counters
+     */
+    public HystrixStripedEventCounters getEventCounters() {
+        return eventCounters;
     }
 
     public Observable<HystrixCollapserEvent> observe() {
@@ -0,0 +1,63 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.metric;
+
+import com.netflix.hystrix.HystrixCommandKey;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Chunk of {@link HystrixCommandCompletion}s of a single command, in the order they completed.
+ * <p>
+ * When {@link HystrixThreadEventStream} batches completions, it writes one of these per command to
+ * {@link HystrixCommandCompletionStream#writeBatch(HystrixCommandCompletionBatch)} on every flush, so that consumers of
+ * {@link HystrixCommandCompletionStream#batches()} handle one emission per batch instead of one per completion.
+ * Unbatched writes reach those consumers as batches of one.
+ */
+public class HystrixCommandCompletionBatch implements HystrixEvent {
+    private final HystrixCommandKey commandKey;
+    private final List<HystrixCommandCompletion> completions;
+
+    HystrixCommandCompletionBatch(HystrixCommandKey commandKey, List<HystrixCommandCompletion> completions) {
+        this.commandKey = commandKey;
+        this.completions = Collections.unmodifiableList(completions);
+    }
+
+    static HystrixCommandCompletionBatch of(HystrixCommandCompletion completion) {
+        return new HystrixCommandCompletionBatch(completion.getCommandKey(), Collections.singletonList(completion));
+    }
+
+    public HystrixCommandKey getCommandKey() {
+        return commandKey;
+    }
+
+    /**
+     * @return completions in this batch, in the order they completed
+     */
+    public List<HystrixCommandCompletion> getCompletions() {
+        return completions;
+    }
+
+    public int size() {
+        return completions.size();
+    }
+
+    @Override
+    public String toString() {
+        return "HystrixCommandCompletionBatch(" + commandKey.name() + ")" + completions;
+    }
+}
@@ -15,24 +15,42 @@
  */
 package com.netflix.hystrix.metric;
 
+import com.netflix.hystrix.ExecutionResult;
 import com.netflix.hystrix.HystrixCommandKey;
+import com.netflix.hystrix.HystrixEventType;
 import rx.Observable;
 import rx.subjects.PublishSubject;
 import rx.subjects.SerializedSubject;
 import rx.subjects.Subject;
 
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 /**
  * Per-Command stream of {@link HystrixCommandCompletion}s.  This gets written to by {@link HystrixThreadEventStream}s.
  * Events are emitted synchronously in the same thread that performs the command execution.
+ * <p>
+ * Every write also updates the striped {@link #getEventCounters()}, which is what the bucketed counter streams read.
+ * The {@link HystrixCommandCompletion} itself is only emitted if something observes this stream, so with no
+ * latency or request-level consumers attached a write touches no Rx machinery at all.  Once the latency percentiles of
+ * the command have been read, its latency distribution streams observe this stream and every write is one emission.
+ * <p>
+ * When {@link HystrixThreadEventStream} batches completions, they arrive through {@link #writeBatch(HystrixCommandCompletionBatch)}
+ * on the thread that flushes them.  Batch-aware consumers (the latency distribution streams) read {@link #batches()}, where a
+ * flush is one emission however many completions it carries.  {@link #observe()} still emits every completion.
  */
 public class HystrixCommandCompletionStream implements HystrixEventStream<HystrixCommandCompletion> {
     private final HystrixCommandKey commandKey;
 
+    private static final HystrixEventType[] ALL_EVENT_TYPES = HystrixEventType.values();
+
+    private final HystrixStripedEventCounters eventCounters = new HystrixStripedEventCounters(ALL_EVENT_TYPES.length);
     private final Subject<HystrixCommandCompletion, HystrixCommandCompletion> writeOnlySubject;
     private final Observable<HystrixCommandCompletion> readOnlyStream;
+    private final Subject<HystrixCommandCompletionBatch, HystrixCommandCompletionBatch> batchWriteOnlySubject;
+    private final Observable<HystrixCommandCompletionBatch> batchReadOnlyStream;
+    private final HystrixEventStream<HystrixCommandCompletionBatch> batchStream;
 
     private static final ConcurrentMap<String, HystrixCommandCompletionStream> streams = new ConcurrentHashMap<String, HystrixCommandCompletionStream>();
 
@@ -59,6 +77,14 @@ public class HystrixCommandCompletionStream implements HystrixEventStream<Hystri
 
         this.writeOnlySubject = new SerializedSubject<HystrixCommandCompletion, HystrixCommandCompletion>(PublishSubject.<HystrixCommandCompletion>create());
         this.readOnlyStream = writeOnlySubject.share();
+        this.batchWriteOnlySubject = new SerializedSubject<HystrixCommandCompletionBatch, HystrixCommandCompletionBatch>(PublishSubject.<HystrixCommandCompletionBatch>create());
+        this.batchReadOnlyStream = batchWriteOnlySubject.share();
+        this.batchStream = new HystrixEventStream<HystrixCommandCompletionBatch>() {
+            @Override
+            public Observable<HystrixCommandCompletionBatch> observe() {
+                return batchReadOnlyStream;
+            }
+        };
     }
 
     public static void reset() {
@@ -66,7 +92,58 @@ public class HystrixCommandCompletionStream implements HystrixEventStream<Hystri
     }
 
     public void write(HystrixCommandCompletion event) {
-        writeOnlySubject.onNext(event);
+        count(event);
+        if (writeOnlySubject.hasObservers()) {
+            writeOnlySubject.onNext(event);
+        }
+        if (batchWriteOnlySubject.hasObservers()) {
+            batchWriteOnlySubject.onNext(HystrixCommandCompletionBatch.of(event));
+        }
+    }
+
+    /**
+     * Write the completions that a {@link HystrixThreadEventStream} buffered for this command since its last flush.
+     *
+     * @param batch completions of this command
+     */
+    public void writeBatch(HystrixCommandCompletionBatch batch) {
+        List<HystrixCommandCompletion> completions = batch.getCompletions();
+        for (int i = 0; i < completions.size(); i++) {
+            count(completions.get(i));
+        }
+        if (batchWriteOnlySubject.hasObservers()) {
+            batchWriteOnlySubject.onNext(batch);
+        }
+        if (writeOnlySubject.hasObservers()) {
+            for (int i = 0; i < completions.size(); i++) {
+                writeOnlySubject.onNext(completions.get(i));
+            }
+        }
+    }
+
+    private void count(HystrixCommandCompletion event) {
+        ExecutionResult.EventCounts eventCounts = event.getEventCounts();
+        for (HystrixEventType eventType: ALL_EVENT_TYPES) {
+            switch (eventType) {
+                case EXCEPTION_THROWN: break; //this is just a sum of other anyway - don't do the work here
+                default:
+                    int count = eventCounts.getCount(eventType);
+                    if (count > 0) {
+                        eventCounters.add(eventType.ordinal(), count);
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Counts of each {@link HystrixEventType} written to this stream, indexed by ordinal.  {@link HystrixEventType#EXCEPTION_THROWN}
+     * is not counted here as it is derived from the other event types.
+     *
+     * @return striped event counters
+     */
+    public HystrixStripedEventCounters getEventCounters() {
+        return eventCounters;
     }
 
 
@@ -75,6 +152,14 @@ public class HystrixCommandCompletionStream implements HystrixEventStream<Hystri
         return readOnlyStream;
     }
 
+    /**
+     * @return stream of the completions written to this stream, one {@link HystrixCommandCompletionBatch} per flush of a batching
+     * {@link HystrixThreadEventStream} and one per unbatched write
+     */
+    public HystrixEventStream<HystrixCommandCompletionBatch> batches() {
+        return batchStream;
+    }
+
     @Override
     public String toString() {
         return "HystrixCommandCompletionStream(" + commandKey.name() + ")";
@@ -69,6 +69,13 @@ public class HystrixCommandStartStream implements HystrixEventStream<HystrixComm
         writeOnlySubject.onNext(event);
     }
 
+    /**
+     * @return whether anything observes this stream, so that writers can skip creating events nobody would see
+     */
+    public boolean hasObservers() {
+        return writeOnlySubject.hasObservers();
+    }
+
     @Override
     public Observable<HystrixCommandExecutionStarted> observe() {
         return readOnlyStream;
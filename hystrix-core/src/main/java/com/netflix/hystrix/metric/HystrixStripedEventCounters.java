@@ -0,0 +1,99 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.metric;
+
+import com.netflix.hystrix.util.LongAdder;
+
+/**
+ * Monotonically increasing counters, one {@link LongAdder} per event type (indexed by the event type's ordinal).
+ * <p>
+ * Writers on different threads update different cells of the {@link LongAdder}s, so the write path has no shared lock
+ * and, under contention, no shared cache line.  Readers never reset the counters.  Instead each reader takes a
+ * {@link Sampler} which remembers the totals it last saw and returns the delta on every sample.  This lets any number
+ * of consumers (with different bucket sizes) read the same counters.
+ */
+public class HystrixStripedEventCounters {
+    private final LongAdder[] counters;
+
+    public HystrixStripedEventCounters(int numEventTypes) {
+        this.counters = new LongAdder[numEventTypes];
+        for (int i = 0; i < numEventTypes; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    public void add(int eventTypeOrdinal, long count) {
+        counters[eventTypeOrdinal].add(count);
+    }
+
+    public void increment(int eventTypeOrdinal) {
+        counters[eventTypeOrdinal].increment();
+    }
+
+    /**
+     * @return total count of the given event type since these counters were created
+     */
+    public long get(int eventTypeOrdinal) {
+        return counters[eventTypeOrdinal].sum();
+    }
+
+    public int getNumEventTypes() {
+        return counters.length;
+    }
+
+    /**
+     * Create a reader whose first sample contains only the events written after this call.
+     *
+     * @return new {@link Sampler}
+     */
+    public Sampler sampler() {
+        return new Sampler();
+    }
+
+    /**
+     * Reads the counts since the previous sample.  A single {@link Sampler} must only be used by one thread at a time.
+     * <p>
+     * The counters are read one event type after another, so an event written concurrently may be attributed to
+     * the next sample for some event types.  Nothing is lost or counted twice.
+     */
+    public class Sampler {
+        private final long[] previous;
+
+        private Sampler() {
+            this.previous = new long[counters.length];
+            for (int i = 0; i < counters.length; i++) {
+                previous[i] = counters[i].sum();
+            }
+        }
+
+        /**
+         * @param into array to write the per-event-type counts since the previous sample into
+         * @return the passed-in array
+         */
+        public long[] sampleDelta(long[] into) {
+            for (int i = 0; i < counters.length; i++) {
+                long current = counters[i].sum();
+                into[i] = current - previous[i];
+                previous[i] = current;
+            }
+            return into;
+        }
+
+        public long[] sampleDelta() {
+            return sampleDelta(new long[counters.length]);
+        }
+    }
+}
@@ -22,10 +22,18 @@ import com.netflix.hystrix.HystrixCommandProperties;
 import com.netflix.hystrix.HystrixEventType;
 import com.netflix.hystrix.HystrixThreadPool;
 import com.netflix.hystrix.HystrixThreadPoolKey;
-import rx.functions.Action1;
-import rx.observers.Subscribers;
-import rx.subjects.PublishSubject;
-import rx.subjects.Subject;
+import com.netflix.hystrix.strategy.HystrixPlugins;
+import com.netflix.hystrix.strategy.properties.HystrixDynamicProperty;
+import com.netflix.hystrix.util.HystrixTimer;
+import com.netflix.hystrix.util.HystrixTimer.TimerListener;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Per-thread event stream.  No synchronization required when writing to it since it's single-threaded.
@@ -51,110 +59,242 @@ import rx.subjects.Subject;
  * thread in the SEMAPHORE-isolated case, and the Hystrix thread in the THREAD-isolated case. I determined this to
  * be more efficient CPU-wise than immediately hopping off-thread and doing all the metric calculations in the
  * RxComputationThreadPool.
+ * <p>
+ * Events are written straight through to those streams rather than relayed by a per-thread Rx subject, since they are
+ * delivered on the same thread either way.  Each of those streams only allocates an Rx emission for an event when
+ * something observes it.  Start and collapser events are usually not observed, but the latency distribution streams
+ * (and adaptive concurrency limits, when enabled) observe {@link HystrixCommandCompletionStream}, so every completion
+ * is one emission there.
+ * <p>
+ * With <code>hystrix.threadEventStream.batch.enabled=true</code> completions are instead buffered per thread and flushed as one
+ * {@link HystrixCommandCompletionBatch} per command, so the latency distribution streams handle one emission per batch.  A
+ * buffer is flushed when it is full, when a completion is written more than
+ * <code>hystrix.threadEventStream.batch.flushIntervalInMilliseconds</code> after the first one it holds, and on a
+ * {@link HystrixTimer} tick of that interval, which is what drains the buffers of threads that stopped executing commands.
+ * Counts and distributions therefore lag by up to that interval, and observers run on whichever thread flushes.  The
+ * writing thread and the timer hand the buffer over with an atomic swap, so writes take no lock.  Start and collapser events
+ * are not batched.
  */
 public class HystrixThreadEventStream {
     private final long threadId;
     private final String threadName;
 
-    private final Subject<HystrixCommandExecutionStarted, HystrixCommandExecutionStarted> writeOnlyCommandStartSubject;
-    private final Subject<HystrixCommandCompletion, HystrixCommandCompletion> writeOnlyCommandCompletionSubject;
-    private final Subject<HystrixCollapserEvent, HystrixCollapserEvent> writeOnlyCollapserSubject;
+    private final WeakReference<Thread> thread;
 
-    private static final ThreadLocal<HystrixThreadEventStream> threadLocalStreams = new ThreadLocal<HystrixThreadEventStream>() {
-        @Override
-        protected HystrixThreadEventStream initialValue() {
-            return new HystrixThreadEventStream(Thread.currentThread());
-        }
-    };
+    private boolean shutdown = false; // only touched by the owning thread, like the rest of this stream
 
-    private static final Action1<HystrixCommandExecutionStarted> writeCommandStartsToShardedStreams = new Action1<HystrixCommandExecutionStarted>() {
-        @Override
-        public void call(HystrixCommandExecutionStarted event) {
-            HystrixCommandStartStream commandStartStream = HystrixCommandStartStream.getInstance(event.getCommandKey());
-            commandStartStream.write(event);
+    private static final int BATCH_CAPACITY = 32;
 
-            if (event.isExecutedInThread()) {
-                HystrixThreadPoolStartStream threadPoolStartStream = HystrixThreadPoolStartStream.getInstance(event.getThreadPoolKey());
-                threadPoolStartStream.write(event);
-            }
-        }
-    };
+    private static final HystrixDynamicProperty<Boolean> batchEnabled =
+            HystrixPlugins.getInstance().getDynamicProperties().getBoolean("hystrix.threadEventStream.batch.enabled", false);
+    private static final HystrixDynamicProperty<Integer> batchFlushIntervalInMilliseconds =
+            HystrixPlugins.getInstance().getDynamicProperties().getInteger("hystrix.threadEventStream.batch.flushIntervalInMilliseconds", 100);
 
-    private static final Action1<HystrixCommandCompletion> writeCommandCompletionsToShardedStreams = new Action1<HystrixCommandCompletion>() {
-        @Override
-        public void call(HystrixCommandCompletion commandCompletion) {
-            HystrixCommandCompletionStream commandStream = HystrixCommandCompletionStream.getInstance(commandCompletion.getCommandKey());
-            commandStream.write(commandCompletion);
+    /* streams that have buffered completions, drained on every tick of the batch flusher */
+    private static final ConcurrentLinkedQueue<HystrixThreadEventStream> batchingStreams = new ConcurrentLinkedQueue<HystrixThreadEventStream>();
+    private static volatile long lastBatchFlush = 0L;
+    private static volatile int batchFlushInterval = -1; // interval of the running flusher
+    private static Reference<TimerListener> batchFlusher; // guarded by HystrixThreadEventStream.class
 
-            if (commandCompletion.isExecutedInThread() || commandCompletion.isResponseThreadPoolRejected()) {
-                HystrixThreadPoolCompletionStream threadPoolStream = HystrixThreadPoolCompletionStream.getInstance(commandCompletion.getThreadPoolKey());
-                threadPoolStream.write(commandCompletion);
-            }
-        }
-    };
+    /* taken by whichever thread writes into or flushes it, so that the owning thread and the flusher never touch it at once */
+    private final AtomicReference<CompletionBuffer> pendingCompletions = new AtomicReference<CompletionBuffer>();
+    private boolean registeredForBatchFlush = false; // only touched by the owning thread
 
-    private static final Action1<HystrixCollapserEvent> writeCollapserExecutionsToShardedStreams = new Action1<HystrixCollapserEvent>() {
+    private static final ThreadLocal<HystrixThreadEventStream> threadLocalStreams = new ThreadLocal<HystrixThreadEventStream>() {
         @Override
-        public void call(HystrixCollapserEvent collapserEvent) {
-            HystrixCollapserEventStream collapserStream = HystrixCollapserEventStream.getInstance(collapserEvent.getCollapserKey());
-            collapserStream.write(collapserEvent);
+        protected HystrixThreadEventStream initialValue() {
+            return new HystrixThreadEventStream(Thread.currentThread());
         }
     };
 
     /* package */ HystrixThreadEventStream(Thread thread) {
         this.threadId = thread.getId();
         this.threadName = thread.getName();
-        writeOnlyCommandStartSubject = PublishSubject.create();
-        writeOnlyCommandCompletionSubject = PublishSubject.create();
-        writeOnlyCollapserSubject = PublishSubject.create();
-
-        writeOnlyCommandStartSubject
-                .onBackpressureBuffer()
-                .doOnNext(writeCommandStartsToShardedStreams)
-                .unsafeSubscribe(Subscribers.empty());
-
-        writeOnlyCommandCompletionSubject
-                .onBackpressureBuffer()
-                .doOnNext(writeCommandCompletionsToShardedStreams)
-                .unsafeSubscribe(Subscribers.empty());
-
-        writeOnlyCollapserSubject
-                .onBackpressureBuffer()
-                .doOnNext(writeCollapserExecutionsToShardedStreams)
-                .unsafeSubscribe(Subscribers.empty());
+        this.thread = new WeakReference<Thread>(thread);
     }
 
     public static HystrixThreadEventStream getInstance() {
         return threadLocalStreams.get();
     }
 
+    /**
+     * Stop writing events from this stream.  Events written afterwards are dropped.
+     */
     public void shutdown() {
-        writeOnlyCommandStartSubject.onCompleted();
-        writeOnlyCommandCompletionSubject.onCompleted();
-        writeOnlyCollapserSubject.onCompleted();
+        flushPendingCompletions();
+        shutdown = true;
     }
 
     public void commandExecutionStarted(HystrixCommandKey commandKey, HystrixThreadPoolKey threadPoolKey,
                                         HystrixCommandProperties.ExecutionIsolationStrategy isolationStrategy, int currentConcurrency) {
-        HystrixCommandExecutionStarted event = new HystrixCommandExecutionStarted(commandKey, threadPoolKey, isolationStrategy, currentConcurrency);
-        writeOnlyCommandStartSubject.onNext(event);
+        if (shutdown) {
+            return;
+        }
+        HystrixCommandStartStream commandStartStream = HystrixCommandStartStream.getInstance(commandKey);
+        HystrixThreadPoolStartStream threadPoolStartStream = isolationStrategy == HystrixCommandProperties.ExecutionIsolationStrategy.THREAD
+                || isolationStrategy == HystrixCommandProperties.ExecutionIsolationStrategy.VIRTUAL ? HystrixThreadPoolStartStream.getInstance(threadPoolKey) : null;
+        // start events only feed observers, so don't create one if nobody would see it
+        if (commandStartStream.hasObservers() || (threadPoolStartStream != null && threadPoolStartStream.hasObservers())) {
+            HystrixCommandExecutionStarted event = new HystrixCommandExecutionStarted(commandKey, threadPoolKey, isolationStrategy, currentConcurrency);
+            commandStartStream.write(event);
+            if (threadPoolStartStream != null) {
+                threadPoolStartStream.write(event);
+            }
+        }
     }
 
     public void executionDone(ExecutionResult executionResult, HystrixCommandKey commandKey, HystrixThreadPoolKey threadPoolKey) {
+        if (shutdown) {
+            return;
+        }
         HystrixCommandCompletion event = HystrixCommandCompletion.from(executionResult, commandKey, threadPoolKey);
-        writeOnlyCommandCompletionSubject.onNext(event);
+        if (batchEnabled.get()) {
+            bufferCompletion(event);
+            return;
+        }
+        if (pendingCompletions.get() != null) {
+            // batching was switched off, so write out what is left in order
+            flushPendingCompletions();
+        }
+        HystrixCommandCompletionStream.getInstance(commandKey).write(event);
+
+        if (event.isExecutedInThread() || event.isResponseThreadPoolRejected()) {
+            HystrixThreadPoolCompletionStream.getInstance(threadPoolKey).write(event);
+        }
+    }
+
+    private void bufferCompletion(HystrixCommandCompletion event) {
+        long now = System.currentTimeMillis();
+        int flushInterval = batchFlushIntervalInMilliseconds.get();
+        CompletionBuffer buffer = pendingCompletions.getAndSet(null);
+        if (buffer == null) {
+            // first write, or the flusher holds the buffer right now
+            buffer = new CompletionBuffer();
+        }
+        if (buffer.size == 0) {
+            buffer.firstWriteTime = now;
+        }
+        buffer.completions[buffer.size++] = event;
+        if (buffer.size == BATCH_CAPACITY || now - buffer.firstWriteTime >= flushInterval) {
+            buffer.flush();
+        }
+        pendingCompletions.set(buffer);
+
+        if (!registeredForBatchFlush) {
+            registeredForBatchFlush = true;
+            batchingStreams.add(this);
+        }
+        if (flushInterval != batchFlushInterval || now - lastBatchFlush > 2L * flushInterval) {
+            startBatchFlusher(now, flushInterval);
+        }
+    }
+
+    /**
+     * Write out the completions this stream buffered.  May be called from any thread.
+     */
+    /* package */ void flushPendingCompletions() {
+        CompletionBuffer buffer = pendingCompletions.getAndSet(null);
+        if (buffer != null) {
+            buffer.flush();
+            // if the owning thread wrote meanwhile it started a new buffer, and this (now empty) one is dropped
+            pendingCompletions.compareAndSet(null, buffer);
+        }
+    }
+
+    /* package */ static void flushAllPendingCompletions() {
+        lastBatchFlush = System.currentTimeMillis();
+        Iterator<HystrixThreadEventStream> iterator = batchingStreams.iterator();
+        while (iterator.hasNext()) {
+            HystrixThreadEventStream stream = iterator.next();
+            stream.flushPendingCompletions();
+            if (stream.thread.get() == null || !stream.thread.get().isAlive()) {
+                iterator.remove();
+                // in case the thread wrote between the flush and its death
+                stream.flushPendingCompletions();
+            }
+        }
+    }
+
+    /*
+     * Started by the first buffered write, and again by a later one if the flush interval changed or the ticks stopped
+     * (for instance when HystrixTimer was reset).
+     */
+    private static synchronized void startBatchFlusher(long now, final int interval) {
+        if (interval == batchFlushInterval && now - lastBatchFlush <= 2L * interval) {
+            // another thread started it
+            return;
+        }
+        if (batchFlusher != null) {
+            batchFlusher.clear();
+        }
+        batchFlushInterval = interval;
+        lastBatchFlush = now;
+        batchFlusher = HystrixTimer.getInstance().addTimerListener(new TimerListener() {
+            @Override
+            public void tick() {
+                flushAllPendingCompletions();
+            }
+
+            @Override
+            public int getIntervalTimeInMilliseconds() {
+                return interval;
+            }
+        });
+    }
+
+    /**
+     * Completions written by one thread since the last flush.
+     */
+    private static final class CompletionBuffer {
+        private final HystrixCommandCompletion[] completions = new HystrixCommandCompletion[BATCH_CAPACITY];
+        private int size = 0;
+        private long firstWriteTime;
+
+        /*
+         * Writes one batch per command, in the order of their first completion, and the completions that involve a
+         * thread-pool to its stream.
+         */
+        private void flush() {
+            for (int i = 0; i < size; i++) {
+                HystrixCommandCompletion first = completions[i];
+                if (first == null) {
+                    continue; // already part of an earlier batch
+                }
+                String commandName = first.getCommandKey().name();
+                List<HystrixCommandCompletion> batch = new ArrayList<HystrixCommandCompletion>(size - i);
+                for (int j = i; j < size; j++) {
+                    HystrixCommandCompletion completion = completions[j];
+                    if (completion != null && completion.getCommandKey().name().equals(commandName)) {
+                        batch.add(completion);
+                        completions[j] = null;
+                        if (completion.isExecutedInThread() || completion.isResponseThreadPoolRejected()) {
+                            HystrixThreadPoolCompletionStream.getInstance(completion.getThreadPoolKey()).write(completion);
+                        }
+                    }
+                }
+                HystrixCommandCompletionStream.getInstance(first.getCommandKey()).writeBatch(new HystrixCommandCompletionBatch(first.getCommandKey(), batch));
+            }
+            size = 0;
+        }
     }
 
     public void collapserResponseFromCache(HystrixCollapserKey collapserKey) {
+        if (shutdown) {
+            return;
+        }
         HystrixCollapserEvent collapserEvent = HystrixCollapserEvent.from(collapserKey, HystrixEventType.Collapser.RESPONSE_FROM_CACHE, 1);
-        writeOnlyCollapserSubject.onNext(collapserEvent);
+        HystrixCollapserEventStream.getInstance(collapserKey).write(collapserEvent);
     }
 
     public void collapserBatchExecuted(HystrixCollapserKey collapserKey, int batchSize) {
+        if (shutdown) {
+            return;
+        }
         HystrixCollapserEvent batchExecution = HystrixCollapserEvent.from(collapserKey, HystrixEventType.Collapser.BATCH_EXECUTED, 1);
         HystrixCollapserEvent batchAdditions = HystrixCollapserEvent.from(collapserKey, HystrixEventType.Collapser.ADDED_TO_BATCH, batchSize);
-        writeOnlyCollapserSubject.onNext(batchExecution);
-        writeOnlyCollapserSubject.onNext(batchAdditions);
+        HystrixCollapserEventStream collapserStream = HystrixCollapserEventStream.getInstance(collapserKey);
+        collapserStream.write(batchExecution);
+        collapserStream.write(batchAdditions);
     }
 
     @Override
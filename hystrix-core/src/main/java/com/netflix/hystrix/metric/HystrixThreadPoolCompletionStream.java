@@ -15,6 +15,8 @@
  */
 package com.netflix.hystrix.metric;
 
+import com.netflix.hystrix.ExecutionResult;
+import com.netflix.hystrix.HystrixEventType;
 import com.netflix.hystrix.HystrixThreadPoolKey;
 import rx.Observable;
 import rx.subjects.PublishSubject;
@@ -27,11 +29,17 @@ import java.util.concurrent.ConcurrentMap;
 /**
  * Per-ThreadPool stream of {@link HystrixCommandCompletion}s.  This gets written to by {@link HystrixThreadEventStream}s.
  * Events are emitted synchronously in the same thread that performs the command execution.
+ * <p>
+ * Every write also updates the striped {@link #getEventCounters()}.  The {@link HystrixCommandCompletion} itself is only
+ * emitted if something observes this stream.
  */
 public class HystrixThreadPoolCompletionStream implements HystrixEventStream<HystrixCommandCompletion> {
 
     private final HystrixThreadPoolKey threadPoolKey;
 
+    private static final HystrixEventType[] ALL_COMMAND_EVENT_TYPES = HystrixEventType.values();
+
+    private final HystrixStripedEventCounters eventCounters = new HystrixStripedEventCounters(HystrixEventType.ThreadPool.values().length);
     private final Subject<HystrixCommandCompletion, HystrixCommandCompletion> writeOnlySubject;
     private final Observable<HystrixCommandCompletion> readOnlyStream;
 
@@ -67,7 +75,28 @@ public class HystrixThreadPoolCompletionStream implements HystrixEventStream<Hys
     }
 
     public void write(HystrixCommandCompletion event) {
-        writeOnlySubject.onNext(event);
+        ExecutionResult.EventCounts eventCounts = event.getEventCounts();
+        for (HystrixEventType eventType: ALL_COMMAND_EVENT_TYPES) {
+            HystrixEventType.ThreadPool threadPoolEventType = HystrixEventType.ThreadPool.from(eventType);
+            if (threadPoolEventType != null) {
+                int count = eventCounts.getCount(eventType);
+                if (count > 0) {
+                    eventCounters.add(threadPoolEventType.ordinal(), count);
+                }
+            }
+        }
+        if (writeOnlySubject.hasObservers()) {
+            writeOnlySubject.onNext(event);
+        }
+    }
+
+    /**
+     * Counts of each {@link HystrixEventType.ThreadPool} written to this stream, indexed by ordinal.
+     *
+     * @return striped event counters
+     */
+    public HystrixStripedEventCounters getEventCounters() {
+        return eventCounters;
     }
 
     @Override
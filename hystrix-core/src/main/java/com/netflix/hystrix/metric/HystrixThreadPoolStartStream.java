@@ -70,6 +70,13 @@ public class HystrixThreadPoolStartStream implements HystrixEventStream<HystrixC
         writeOnlySubject.onNext(event);
     }
 
+    /**
+     * @return whether anything observes this stream, so that writers can skip creating events nobody would see
+     */
+    public boolean hasObservers() {
+        return writeOnlySubject.hasObservers();
+    }
+
     @Override
     public Observable<HystrixCommandExecutionStarted> observe() {
         return readOnlyStream;
@@ -17,6 +17,7 @@ package com.netflix.hystrix.metric.consumer;
 
 import com.netflix.hystrix.metric.HystrixEvent;
 import com.netflix.hystrix.metric.HystrixEventStream;
+import com.netflix.hystrix.metric.HystrixStripedEventCounters;
 import rx.Observable;
 import rx.Subscription;
 import rx.functions.Func0;
@@ -41,24 +42,19 @@ public abstract class BucketedCounterStream<Event extends HystrixEvent, Bucket,
     protected final Observable<Bucket> bucketedStream;
     protected final AtomicReference<Subscription> subscription = new AtomicReference<Subscription>(null);
 
-    private final Func1<Observable<Event>, Observable<Bucket>> reduceBucketToSummary;
-
     private final BehaviorSubject<Output> counterSubject = BehaviorSubject.create(getEmptyOutputValue());
 
     protected BucketedCounterStream(final HystrixEventStream<Event> inputEventStream, final int numBuckets, final int bucketSizeInMs,
                                     final Func2<Bucket, Event, Bucket> appendRawEventToBucket) {
         this.numBuckets = numBuckets;
-        this.reduceBucketToSummary = new Func1<Observable<Event>, Observable<Bucket>>() {
+        final Func1<Observable<Event>, Observable<Bucket>> reduceBucketToSummary = new Func1<Observable<Event>, Observable<Bucket>>() {
             @Override
             public Observable<Bucket> call(Observable<Event> eventBucket) {
                 return eventBucket.reduce(getEmptyBucketSummary(), appendRawEventToBucket);
             }
         };
 
-        final List<Bucket> emptyEventCountsToStart = new ArrayList<Bucket>();
-        for (int i = 0; i < numBuckets; i++) {
-            emptyEventCountsToStart.add(getEmptyBucketSummary());
-        }
+        final List<Bucket> emptyEventCountsToStart = getEmptyBucketsToStart(numBuckets);
 
         this.bucketedStream = Observable.defer(new Func0<Observable<Bucket>>() {
             @Override
@@ -72,6 +68,58 @@ public abstract class BucketedCounterStream<Event extends HystrixEvent, Bucket,
         });
     }
 
+    /**
+     * Build the buckets by sampling striped counters that the writers update directly, instead of by windowing a stream of raw events.
+     * <p>
+     * The write path then costs one {@link com.netflix.hystrix.util.LongAdder} update per event type and emits nothing through Rx.
+     * At each bucket boundary the counts written since the previous boundary are read and converted into a bucket.
+     *
+     * @param eventCounters counters written to by the event producer
+     * @param numBuckets number of buckets
+     * @param bucketSizeInMs size of a bucket
+     * @param convertCountsToBucket turns the per-event-type counts of one bucket interval into a bucket
+     */
+    protected BucketedCounterStream(final HystrixStripedEventCounters eventCounters, final int numBuckets, final int bucketSizeInMs,
+                                    final Func1<long[], Bucket> convertCountsToBucket) {
+        this.numBuckets = numBuckets;
+
+        final List<Bucket> emptyEventCountsToStart = getEmptyBucketsToStart(numBuckets);
+
+        this.bucketedStream = Observable.defer(new Func0<Observable<Bucket>>() {
+            @Override
+            public Observable<Bucket> call() {
+                //only count what gets written after subscription, same as windowing a hot stream
+                final HystrixStripedEventCounters.Sampler sampler = eventCounters.sampler();
+                return Observable.interval(bucketSizeInMs, TimeUnit.MILLISECONDS)
+                        .map(new Func1<Long, Bucket>() {
+                            @Override
+                            public Bucket call(Long bucketIndex) {
+                                return convertCountsToBucket.call(sampler.sampleDelta());
+                            }
+                        })
+                        .startWith(emptyEventCountsToStart);           //start it with empty arrays to make consumer logic as generic as possible (windows are always full)
+            }
+        });
+    }
+
+    /**
+     * Use as <code>convertCountsToBucket</code> when the bucket is simply the array of event counts
+     */
+    protected static final Func1<long[], long[]> countsAsBucket = new Func1<long[], long[]>() {
+        @Override
+        public long[] call(long[] counts) {
+            return counts;
+        }
+    };
+
+    private List<Bucket> getEmptyBucketsToStart(int numBuckets) {
+        final List<Bucket> emptyEventCountsToStart = new ArrayList<Bucket>();
+        for (int i = 0; i < numBuckets; i++) {
+            emptyEventCountsToStart.add(getEmptyBucketSummary());
+        }
+        return emptyEventCountsToStart;
+    }
+
     abstract Bucket getEmptyBucketSummary();
 
     abstract Output getEmptyOutputValue();
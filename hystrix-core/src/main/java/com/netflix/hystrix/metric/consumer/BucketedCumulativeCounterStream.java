@@ -17,8 +17,10 @@ package com.netflix.hystrix.metric.consumer;
 
 import com.netflix.hystrix.metric.HystrixEvent;
 import com.netflix.hystrix.metric.HystrixEventStream;
+import com.netflix.hystrix.metric.HystrixStripedEventCounters;
 import rx.Observable;
 import rx.functions.Action0;
+import rx.functions.Func1;
 import rx.functions.Func2;
 
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -31,15 +33,25 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * @param <Output> type of data emitted to stream subscribers (often is the same as A but does not have to be)
  */
 public abstract class BucketedCumulativeCounterStream<Event extends HystrixEvent, Bucket, Output> extends BucketedCounterStream<Event, Bucket, Output> {
-    private Observable<Output> sourceStream;
+    private final Observable<Output> sourceStream;
     private final AtomicBoolean isSourceCurrentlySubscribed = new AtomicBoolean(false);
 
     protected BucketedCumulativeCounterStream(HystrixEventStream<Event> stream, int numBuckets, int bucketSizeInMs,
                                               Func2<Bucket, Event, Bucket> reduceCommandCompletion,
                                               Func2<Output, Bucket, Output> reduceBucket) {
         super(stream, numBuckets, bucketSizeInMs, reduceCommandCompletion);
+        this.sourceStream = accumulateBuckets(numBuckets, reduceBucket);
+    }
+
+    protected BucketedCumulativeCounterStream(HystrixStripedEventCounters eventCounters, int numBuckets, int bucketSizeInMs,
+                                              Func1<long[], Bucket> convertCountsToBucket,
+                                              Func2<Output, Bucket, Output> reduceBucket) {
+        super(eventCounters, numBuckets, bucketSizeInMs, convertCountsToBucket);
+        this.sourceStream = accumulateBuckets(numBuckets, reduceBucket);
+    }
 
-        this.sourceStream = bucketedStream
+    private Observable<Output> accumulateBuckets(int numBuckets, Func2<Output, Bucket, Output> reduceBucket) {
+        return bucketedStream
                 .scan(getEmptyOutputValue(), reduceBucket)
                 .skip(numBuckets)
                 .doOnSubscribe(new Action0() {
@@ -17,11 +17,14 @@ package com.netflix.hystrix.metric.consumer;
 
 import com.netflix.hystrix.metric.HystrixEvent;
 import com.netflix.hystrix.metric.HystrixEventStream;
+import com.netflix.hystrix.metric.HystrixStripedEventCounters;
 import rx.Observable;
 import rx.functions.Action0;
+import rx.functions.Func0;
 import rx.functions.Func1;
 import rx.functions.Func2;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -32,22 +35,61 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * @param <Output> type of data emitted to stream subscribers (often is the same as A but does not have to be)
  */
 public abstract class BucketedRollingCounterStream<Event extends HystrixEvent, Bucket, Output> extends BucketedCounterStream<Event, Bucket, Output> {
-    private Observable<Output> sourceStream;
+    private final Observable<Output> sourceStream;
     private final AtomicBoolean isSourceCurrentlySubscribed = new AtomicBoolean(false);
 
     protected BucketedRollingCounterStream(HystrixEventStream<Event> stream, final int numBuckets, int bucketSizeInMs,
                                            final Func2<Bucket, Event, Bucket> appendRawEventToBucket,
                                            final Func2<Output, Bucket, Output> reduceBucket) {
         super(stream, numBuckets, bucketSizeInMs, appendRawEventToBucket);
+        this.sourceStream = reduceWindowsOfBuckets(numBuckets, reduceBucket);
+    }
+
+    /**
+     * Keep the buckets in a {@link RollingEventCountsRing} with a running sum instead of re-reducing a window of
+     * buckets every time a bucket is emitted.  Each bucket roll then costs O(event types) and builds no Observable.
+     *
+     * @param eventCounters counters written to by the event producer
+     * @param numBuckets number of buckets in the rolling window
+     * @param bucketSizeInMs size of a bucket
+     * @param convertCountsToBucket turns the counts of one bucket interval into a bucket, for consumers of {@link #bucketedStream}
+     * @param reduceBucket reduces the per-event-type sum over the rolling window into the empty output value, as if it were a single bucket
+     */
+    protected BucketedRollingCounterStream(final HystrixStripedEventCounters eventCounters, final int numBuckets, final int bucketSizeInMs,
+                                           final Func1<long[], Bucket> convertCountsToBucket,
+                                           final Func2<Output, long[], Output> reduceBucket) {
+        super(eventCounters, numBuckets, bucketSizeInMs, convertCountsToBucket);
+        this.sourceStream = shareSource(Observable.defer(new Func0<Observable<Output>>() {
+            @Override
+            public Observable<Output> call() {
+                //only count what gets written after subscription, same as windowing a hot stream
+                final RollingEventCountsRing ring = new RollingEventCountsRing(eventCounters, numBuckets);
+                return Observable.interval(bucketSizeInMs, TimeUnit.MILLISECONDS)
+                        .map(new Func1<Long, Output>() {
+                            @Override
+                            public Output call(Long bucketIndex) {
+                                return reduceBucket.call(getEmptyOutputValue(), ring.roll());
+                            }
+                        })
+                        .startWith(getEmptyOutputValue());     //the window starts out full of empty buckets
+            }
+        }));
+    }
+
+    private Observable<Output> reduceWindowsOfBuckets(final int numBuckets, final Func2<Output, Bucket, Output> reduceBucket) {
         Func1<Observable<Bucket>, Observable<Output>> reduceWindowToSummary = new Func1<Observable<Bucket>, Observable<Output>>() {
             @Override
             public Observable<Output> call(Observable<Bucket> window) {
                 return window.scan(getEmptyOutputValue(), reduceBucket).skip(numBuckets);
             }
         };
-        this.sourceStream = bucketedStream      //stream broken up into buckets
+        return shareSource(bucketedStream       //stream broken up into buckets
                 .window(numBuckets, 1)          //emit overlapping windows of buckets
-                .flatMap(reduceWindowToSummary) //convert a window of bucket-summaries into a single summary
+                .flatMap(reduceWindowToSummary)); //convert a window of bucket-summaries into a single summary
+    }
+
+    private Observable<Output> shareSource(Observable<Output> outputStream) {
+        return outputStream
                 .doOnSubscribe(new Action0() {
                     @Override
                     public void call() {
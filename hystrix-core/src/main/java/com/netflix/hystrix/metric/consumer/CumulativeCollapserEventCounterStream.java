@@ -62,7 +62,7 @@ public class CumulativeCollapserEventCounterStream extends BucketedCumulativeCou
             synchronized (CumulativeCollapserEventCounterStream.class) {
                 CumulativeCollapserEventCounterStream existingStream = streams.get(collapserKey.name());
                 if (existingStream == null) {
-                    CumulativeCollapserEventCounterStream newStream = new CumulativeCollapserEventCounterStream(collapserKey, numBuckets, bucketSizeInMs, HystrixCollapserMetrics.appendEventToBucket, HystrixCollapserMetrics.bucketAggregator);
+                    CumulativeCollapserEventCounterStream newStream = new CumulativeCollapserEventCounterStream(collapserKey, numBuckets, bucketSizeInMs, HystrixCollapserMetrics.bucketAggregator);
                     streams.putIfAbsent(collapserKey.name(), newStream);
                     return newStream;
                 } else {
@@ -77,9 +77,8 @@ public class CumulativeCollapserEventCounterStream extends BucketedCumulativeCou
     }
 
     private CumulativeCollapserEventCounterStream(HystrixCollapserKey collapserKey, int numCounterBuckets, int counterBucketSizeInMs,
-                                                Func2<long[], HystrixCollapserEvent, long[]> appendEventToBucket,
                                                 Func2<long[], long[], long[]> reduceBucket) {
-        super(HystrixCollapserEventStream.getInstance(collapserKey), numCounterBuckets, counterBucketSizeInMs, appendEventToBucket, reduceBucket);
+        super(HystrixCollapserEventStream.getInstance(collapserKey).getEventCounters(), numCounterBuckets, counterBucketSizeInMs, countsAsBucket, reduceBucket);
     }
 
     @Override
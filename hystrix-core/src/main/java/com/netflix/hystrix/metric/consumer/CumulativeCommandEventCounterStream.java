@@ -62,8 +62,7 @@ public class CumulativeCommandEventCounterStream extends BucketedCumulativeCount
             synchronized (CumulativeCommandEventCounterStream.class) {
                 CumulativeCommandEventCounterStream existingStream = streams.get(commandKey.name());
                 if (existingStream == null) {
-                    CumulativeCommandEventCounterStream newStream = new CumulativeCommandEventCounterStream(commandKey, numBuckets, bucketSizeInMs,
-                            HystrixCommandMetrics.appendEventToBucket, HystrixCommandMetrics.bucketAggregator);
+                    CumulativeCommandEventCounterStream newStream = new CumulativeCommandEventCounterStream(commandKey, numBuckets, bucketSizeInMs, HystrixCommandMetrics.bucketAggregator);
                     streams.putIfAbsent(commandKey.name(), newStream);
                     return newStream;
                 } else {
@@ -78,9 +77,8 @@ public class CumulativeCommandEventCounterStream extends BucketedCumulativeCount
     }
 
     private CumulativeCommandEventCounterStream(HystrixCommandKey commandKey, int numCounterBuckets, int counterBucketSizeInMs,
-                                                Func2<long[], HystrixCommandCompletion, long[]> reduceCommandCompletion,
                                                 Func2<long[], long[], long[]> reduceBucket) {
-        super(HystrixCommandCompletionStream.getInstance(commandKey), numCounterBuckets, counterBucketSizeInMs, reduceCommandCompletion, reduceBucket);
+        super(HystrixCommandCompletionStream.getInstance(commandKey).getEventCounters(), numCounterBuckets, counterBucketSizeInMs, countsAsBucket, reduceBucket);
     }
 
     @Override
@@ -62,8 +62,7 @@ public class CumulativeThreadPoolEventCounterStream extends BucketedCumulativeCo
                 CumulativeThreadPoolEventCounterStream existingStream = streams.get(threadPoolKey.name());
                 if (existingStream == null) {
                     CumulativeThreadPoolEventCounterStream newStream =
-                            new CumulativeThreadPoolEventCounterStream(threadPoolKey, numBuckets, bucketSizeInMs,
-                                    HystrixThreadPoolMetrics.appendEventToBucket, HystrixThreadPoolMetrics.counterAggregator);
+                            new CumulativeThreadPoolEventCounterStream(threadPoolKey, numBuckets, bucketSizeInMs, HystrixThreadPoolMetrics.counterAggregator);
                     streams.putIfAbsent(threadPoolKey.name(), newStream);
                     return newStream;
                 } else {
@@ -79,9 +78,8 @@ public class CumulativeThreadPoolEventCounterStream extends BucketedCumulativeCo
 
 
     private CumulativeThreadPoolEventCounterStream(HystrixThreadPoolKey threadPoolKey, int numCounterBuckets, int counterBucketSizeInMs,
-                                                   Func2<long[], HystrixCommandCompletion, long[]> reduceCommandCompletion,
                                                    Func2<long[], long[], long[]> reduceBucket) {
-        super(HystrixThreadPoolCompletionStream.getInstance(threadPoolKey), numCounterBuckets, counterBucketSizeInMs, reduceCommandCompletion, reduceBucket);
+        super(HystrixThreadPoolCompletionStream.getInstance(threadPoolKey).getEventCounters(), numCounterBuckets, counterBucketSizeInMs, countsAsBucket, reduceBucket);
     }
 
     @Override
@@ -71,8 +71,7 @@ public class HealthCountsStream extends BucketedRollingCounterStream<HystrixComm
             synchronized (HealthCountsStream.class) {
                 HealthCountsStream existingStream = streams.get(commandKey.name());
                 if (existingStream == null) {
-                    HealthCountsStream newStream = new HealthCountsStream(commandKey, numBuckets, bucketSizeInMs,
-                            HystrixCommandMetrics.appendEventToBucket);
+                    HealthCountsStream newStream = new HealthCountsStream(commandKey, numBuckets, bucketSizeInMs);
 
                     streams.putIfAbsent(commandKey.name(), newStream);
                     healthStream = newStream;
@@ -93,9 +92,8 @@ public class HealthCountsStream extends BucketedRollingCounterStream<HystrixComm
         streams.remove(key.name());
     }
 
-    private HealthCountsStream(final HystrixCommandKey commandKey, final int numBuckets, final int bucketSizeInMs,
-                               Func2<long[], HystrixCommandCompletion, long[]> reduceCommandCompletion) {
-        super(HystrixCommandCompletionStream.getInstance(commandKey), numBuckets, bucketSizeInMs, reduceCommandCompletion, healthCheckAccumulator);
+    private HealthCountsStream(final HystrixCommandKey commandKey, final int numBuckets, final int bucketSizeInMs) {
+        super(HystrixCommandCompletionStream.getInstance(commandKey).getEventCounters(), numBuckets, bucketSizeInMs, countsAsBucket, healthCheckAccumulator);
     }
 
     @Override
@@ -60,7 +60,7 @@ public class RollingCollapserEventCounterStream extends BucketedRollingCounterSt
             synchronized (RollingCollapserEventCounterStream.class) {
                 RollingCollapserEventCounterStream existingStream = streams.get(collapserKey.name());
                 if (existingStream == null) {
-                    RollingCollapserEventCounterStream newStream = new RollingCollapserEventCounterStream(collapserKey, numBuckets, bucketSizeInMs, HystrixCollapserMetrics.appendEventToBucket, HystrixCollapserMetrics.bucketAggregator);
+                    RollingCollapserEventCounterStream newStream = new RollingCollapserEventCounterStream(collapserKey, numBuckets, bucketSizeInMs, HystrixCollapserMetrics.bucketAggregator);
                     streams.putIfAbsent(collapserKey.name(), newStream);
                     return newStream;
                 } else {
@@ -75,9 +75,8 @@ public class RollingCollapserEventCounterStream extends BucketedRollingCounterSt
     }
 
     private RollingCollapserEventCounterStream(HystrixCollapserKey collapserKey, int numCounterBuckets, int counterBucketSizeInMs,
-                                             Func2<long[], HystrixCollapserEvent, long[]> appendEventToBucket,
                                              Func2<long[], long[], long[]> reduceBucket) {
-        super(HystrixCollapserEventStream.getInstance(collapserKey), numCounterBuckets, counterBucketSizeInMs, appendEventToBucket, reduceBucket);
+        super(HystrixCollapserEventStream.getInstance(collapserKey).getEventCounters(), numCounterBuckets, counterBucketSizeInMs, countsAsBucket, reduceBucket);
     }
 
     @Override
@@ -60,8 +60,7 @@ public class RollingCommandEventCounterStream extends BucketedRollingCounterStre
             synchronized (RollingCommandEventCounterStream.class) {
                 RollingCommandEventCounterStream existingStream = streams.get(commandKey.name());
                 if (existingStream == null) {
-                    RollingCommandEventCounterStream newStream = new RollingCommandEventCounterStream(commandKey, numBuckets, bucketSizeInMs,
-                            HystrixCommandMetrics.appendEventToBucket, HystrixCommandMetrics.bucketAggregator);
+                    RollingCommandEventCounterStream newStream = new RollingCommandEventCounterStream(commandKey, numBuckets, bucketSizeInMs, HystrixCommandMetrics.bucketAggregator);
                     streams.putIfAbsent(commandKey.name(), newStream);
                     return newStream;
                 } else {
@@ -76,9 +75,8 @@ public class RollingCommandEventCounterStream extends BucketedRollingCounterStre
     }
 
     private RollingCommandEventCounterStream(HystrixCommandKey commandKey, int numCounterBuckets, int counterBucketSizeInMs,
-                                             Func2<long[], HystrixCommandCompletion, long[]> reduceCommandCompletion,
                                              Func2<long[], long[], long[]> reduceBucket) {
-        super(HystrixCommandCompletionStream.getInstance(commandKey), numCounterBuckets, counterBucketSizeInMs, reduceCommandCompletion, reduceBucket);
+        super(HystrixCommandCompletionStream.getInstance(commandKey).getEventCounters(), numCounterBuckets, counterBucketSizeInMs, countsAsBucket, reduceBucket);
     }
 
     @Override
@@ -19,11 +19,13 @@ package com.netflix.hystrix.metric.consumer;
 import com.netflix.hystrix.HystrixCommandKey;
 import com.netflix.hystrix.HystrixCommandProperties;
 import com.netflix.hystrix.metric.HystrixCommandCompletion;
+import com.netflix.hystrix.metric.HystrixCommandCompletionBatch;
 import com.netflix.hystrix.metric.HystrixCommandCompletionStream;
 import com.netflix.hystrix.metric.HystrixCommandEvent;
 import org.HdrHistogram.Histogram;
 import rx.functions.Func2;
 
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -46,14 +48,18 @@ import java.util.concurrent.ConcurrentMap;
  * ** Execution time is the time spent executing the user-provided execution method.
  * ** Total time is the time spent from the perspecitve of the consumer, and includes all Hystrix bookkeeping.
  */
-public class RollingCommandLatencyDistributionStream extends RollingDistributionStream<HystrixCommandCompletion> {
+public class RollingCommandLatencyDistributionStream extends RollingDistributionStream<HystrixCommandCompletionBatch> {
     private static final ConcurrentMap<String, RollingCommandLatencyDistributionStream> streams = new ConcurrentHashMap<String, RollingCommandLatencyDistributionStream>();
 
-    private static final Func2<Histogram, HystrixCommandCompletion, Histogram> addValuesToBucket = new Func2<Histogram, HystrixCommandCompletion, Histogram>() {
+    private static final Func2<Histogram, HystrixCommandCompletionBatch, Histogram> addValuesToBucket = new Func2<Histogram, HystrixCommandCompletionBatch, Histogram>() {
         @Override
-        public Histogram call(Histogram initialDistribution, HystrixCommandCompletion event) {
-            if (event.didCommandExecute() && event.getExecutionLatency() > -1) {
-                initialDistribution.recordValue(event.getExecutionLatency());
+        public Histogram call(Histogram initialDistribution, HystrixCommandCompletionBatch batch) {
+            List<HystrixCommandCompletion> completions = batch.getCompletions();
+            for (int i = 0; i < completions.size(); i++) {
+                HystrixCommandCompletion event = completions.get(i);
+                if (event.didCommandExecute() && event.getExecutionLatency() > -1) {
+                    initialDistribution.recordValue(event.getExecutionLatency());
+                }
             }
             return initialDistribution;
         }
@@ -63,11 +69,16 @@ public class RollingCommandLatencyDistributionStream extends RollingDistribution
         final int percentileMetricWindow = properties.metricsRollingPercentileWindowInMilliseconds().get();
         final int numPercentileBuckets = properties.metricsRollingPercentileWindowBuckets().get();
         final int percentileBucketSizeInMs = percentileMetricWindow / numPercentileBuckets;
+        final boolean incremental = properties.metricsRollingPercentileIncrementalEnabled().get();
 
-        return getInstance(commandKey, numPercentileBuckets, percentileBucketSizeInMs);
+        return getInstance(commandKey, numPercentileBuckets, percentileBucketSizeInMs, incremental);
     }
 
     public static RollingCommandLatencyDistributionStream getInstance(HystrixCommandKey commandKey, int numBuckets, int bucketSizeInMs) {
+        return getInstance(commandKey, numBuckets, bucketSizeInMs, false);
+    }
+
+    public static RollingCommandLatencyDistributionStream getInstance(HystrixCommandKey commandKey, int numBuckets, int bucketSizeInMs, boolean incremental) {
         RollingCommandLatencyDistributionStream initialStream = streams.get(commandKey.name());
         if (initialStream != null) {
             return initialStream;
@@ -75,7 +86,7 @@ public class RollingCommandLatencyDistributionStream extends RollingDistribution
             synchronized (RollingCommandLatencyDistributionStream.class) {
                 RollingCommandLatencyDistributionStream existingStream = streams.get(commandKey.name());
                 if (existingStream == null) {
-                    RollingCommandLatencyDistributionStream newStream = new RollingCommandLatencyDistributionStream(commandKey, numBuckets, bucketSizeInMs);
+                    RollingCommandLatencyDistributionStream newStream = new RollingCommandLatencyDistributionStream(commandKey, numBuckets, bucketSizeInMs, incremental);
                     streams.putIfAbsent(commandKey.name(), newStream);
                     return newStream;
                 } else {
@@ -89,7 +100,7 @@ public class RollingCommandLatencyDistributionStream extends RollingDistribution
         streams.clear();
     }
 
-    private RollingCommandLatencyDistributionStream(HystrixCommandKey commandKey, int numPercentileBuckets, int percentileBucketSizeInMs) {
-        super(HystrixCommandCompletionStream.getInstance(commandKey), numPercentileBuckets, percentileBucketSizeInMs, addValuesToBucket);
+    private RollingCommandLatencyDistributionStream(HystrixCommandKey commandKey, int numPercentileBuckets, int percentileBucketSizeInMs, boolean incremental) {
+        super(HystrixCommandCompletionStream.getInstance(commandKey).batches(), numPercentileBuckets, percentileBucketSizeInMs, addValuesToBucket, incremental);
     }
 }
@@ -21,11 +21,13 @@ import com.netflix.hystrix.HystrixCollapserProperties;
 import com.netflix.hystrix.HystrixCommandKey;
 import com.netflix.hystrix.HystrixCommandProperties;
 import com.netflix.hystrix.metric.HystrixCommandCompletion;
+import com.netflix.hystrix.metric.HystrixCommandCompletionBatch;
 import com.netflix.hystrix.metric.HystrixCommandCompletionStream;
 import com.netflix.hystrix.metric.HystrixCommandEvent;
 import org.HdrHistogram.Histogram;
 import rx.functions.Func2;
 
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -48,14 +50,18 @@ import java.util.concurrent.ConcurrentMap;
  * ** Execution time is the time spent executing the user-provided execution method.
  * ** Total time is the time spent from the perspecitve of the consumer, and includes all Hystrix bookkeeping.
  */
-public class RollingCommandUserLatencyDistributionStream extends RollingDistributionStream<HystrixCommandCompletion> {
+public class RollingCommandUserLatencyDistributionStream extends RollingDistributionStream<HystrixCommandCompletionBatch> {
     private static final ConcurrentMap<String, RollingCommandUserLatencyDistributionStream> streams = new ConcurrentHashMap<String, RollingCommandUserLatencyDistributionStream>();
 
-    private static final Func2<Histogram, HystrixCommandCompletion, Histogram> addValuesToBucket = new Func2<Histogram, HystrixCommandCompletion, Histogram>() {
+    private static final Func2<Histogram, HystrixCommandCompletionBatch, Histogram> addValuesToBucket = new Func2<Histogram, HystrixCommandCompletionBatch, Histogram>() {
         @Override
-        public Histogram call(Histogram initialDistribution, HystrixCommandCompletion event) {
-            if (event.didCommandExecute() && event.getTotalLatency() > -1) {
-                initialDistribution.recordValue(event.getTotalLatency());
+        public Histogram call(Histogram initialDistribution, HystrixCommandCompletionBatch batch) {
+            List<HystrixCommandCompletion> completions = batch.getCompletions();
+            for (int i = 0; i < completions.size(); i++) {
+                HystrixCommandCompletion event = completions.get(i);
+                if (event.didCommandExecute() && event.getTotalLatency() > -1) {
+                    initialDistribution.recordValue(event.getTotalLatency());
+                }
             }
             return initialDistribution;
         }
@@ -65,11 +71,16 @@ public class RollingCommandUserLatencyDistributionStream extends RollingDistribu
         final int percentileMetricWindow = properties.metricsRollingPercentileWindowInMilliseconds().get();
         final int numPercentileBuckets = properties.metricsRollingPercentileWindowBuckets().get();
         final int percentileBucketSizeInMs = percentileMetricWindow / numPercentileBuckets;
+        final boolean incremental = properties.metricsRollingPercentileIncrementalEnabled().get();
 
-        return getInstance(commandKey, numPercentileBuckets, percentileBucketSizeInMs);
+        return getInstance(commandKey, numPercentileBuckets, percentileBucketSizeInMs, incremental);
     }
 
     public static RollingCommandUserLatencyDistributionStream getInstance(HystrixCommandKey commandKey, int numBuckets, int bucketSizeInMs) {
+        return getInstance(commandKey, numBuckets, bucketSizeInMs, false);
+    }
+
+    public static RollingCommandUserLatencyDistributionStream getInstance(HystrixCommandKey commandKey, int numBuckets, int bucketSizeInMs, boolean incremental) {
         RollingCommandUserLatencyDistributionStream initialStream = streams.get(commandKey.name());
         if (initialStream != null) {
             return initialStream;
@@ -77,7 +88,7 @@ public class RollingCommandUserLatencyDistributionStream extends RollingDistribu
             synchronized (RollingCommandUserLatencyDistributionStream.class) {
                 RollingCommandUserLatencyDistributionStream existingStream = streams.get(commandKey.name());
                 if (existingStream == null) {
-                    RollingCommandUserLatencyDistributionStream newStream = new RollingCommandUserLatencyDistributionStream(commandKey, numBuckets, bucketSizeInMs);
+                    RollingCommandUserLatencyDistributionStream newStream = new RollingCommandUserLatencyDistributionStream(commandKey, numBuckets, bucketSizeInMs, incremental);
                     streams.putIfAbsent(commandKey.name(), newStream);
                     return newStream;
                 } else {
@@ -91,7 +102,7 @@ public class RollingCommandUserLatencyDistributionStream extends RollingDistribu
         streams.clear();
     }
 
-    private RollingCommandUserLatencyDistributionStream(HystrixCommandKey commandKey, int numPercentileBuckets, int percentileBucketSizeInMs) {
-        super(HystrixCommandCompletionStream.getInstance(commandKey), numPercentileBuckets, percentileBucketSizeInMs, addValuesToBucket);
+    private RollingCommandUserLatencyDistributionStream(HystrixCommandKey commandKey, int numPercentileBuckets, int percentileBucketSizeInMs, boolean incremental) {
+        super(HystrixCommandCompletionStream.getInstance(commandKey).batches(), numPercentileBuckets, percentileBucketSizeInMs, addValuesToBucket, incremental);
     }
 }
@@ -22,6 +22,7 @@ import com.netflix.hystrix.metric.HystrixEventStream;
 import org.HdrHistogram.Histogram;
 import rx.Observable;
 import rx.Subscription;
+import rx.functions.Action1;
 import rx.functions.Func0;
 import rx.functions.Func1;
 import rx.functions.Func2;
@@ -81,6 +82,25 @@ public class RollingDistributionStream<Event extends HystrixEvent> {
 
     protected RollingDistributionStream(final HystrixEventStream<Event> stream, final int numBuckets, final int bucketSizeInMs,
                                         final Func2<Histogram, Event, Histogram> addValuesToBucket) {
+        this(stream, numBuckets, bucketSizeInMs, addValuesToBucket, false);
+    }
+
+    /**
+     * @param incremental if true, keep the window in a {@link RollingHistogramRing} that adds the newest bucket to and
+     *                    subtracts the evicted bucket from a single pre-allocated aggregate, instead of merging every
+     *                    bucket in the window into a new {@link Histogram} each time a bucket is emitted
+     */
+    protected RollingDistributionStream(final HystrixEventStream<Event> stream, final int numBuckets, final int bucketSizeInMs,
+                                        final Func2<Histogram, Event, Histogram> addValuesToBucket, final boolean incremental) {
+        if (incremental) {
+            rollingDistributionStream = incrementalDistributions(stream, numBuckets, bucketSizeInMs, addValuesToBucket);
+        } else {
+            rollingDistributionStream = windowedDistributions(stream, numBuckets, bucketSizeInMs, addValuesToBucket);
+        }
+    }
+
+    private static <Event extends HystrixEvent> Observable<CachedValuesHistogram> windowedDistributions(final HystrixEventStream<Event> stream, final int numBuckets, final int bucketSizeInMs,
+                                                                                                       final Func2<Histogram, Event, Histogram> addValuesToBucket) {
         final List<Histogram> emptyDistributionsToStart = new ArrayList<Histogram>();
         for (int i = 0; i < numBuckets; i++) {
             emptyDistributionsToStart.add(CachedValuesHistogram.getNewHistogram());
@@ -93,7 +113,7 @@ public class RollingDistributionStream<Event extends HystrixEvent> {
             }
         };
 
-        rollingDistributionStream = stream
+        return stream
                 .observe()
                 .window(bucketSizeInMs, TimeUnit.MILLISECONDS) //stream of unaggregated buckets
                 .flatMap(reduceBucketToSingleDistribution)     //stream of aggregated Histograms
@@ -105,6 +125,38 @@ public class RollingDistributionStream<Event extends HystrixEvent> {
                 .onBackpressureDrop();
     }
 
+    private static <Event extends HystrixEvent> Observable<CachedValuesHistogram> incrementalDistributions(final HystrixEventStream<Event> stream, final int numBuckets, final int bucketSizeInMs,
+                                                                                                          final Func2<Histogram, Event, Histogram> addValuesToBucket) {
+        return Observable.defer(new Func0<Observable<CachedValuesHistogram>>() {
+            @Override
+            public Observable<CachedValuesHistogram> call() {
+                final RollingHistogramRing ring = new RollingHistogramRing(numBuckets);
+                final Observable<CachedValuesHistogram> recordEvents = stream
+                        .observe()
+                        .doOnNext(new Action1<Event>() {
+                            @Override
+                            public void call(Event event) {
+                                ring.record(addValuesToBucket, event);
+                            }
+                        })
+                        .ignoreElements()                          //values only go into the current bucket of the ring
+                        .cast(CachedValuesHistogram.class);
+                final Observable<CachedValuesHistogram> rollBuckets = Observable
+                        .interval(bucketSizeInMs, TimeUnit.MILLISECONDS)
+                        .map(new Func1<Long, CachedValuesHistogram>() {
+                            @Override
+                            public CachedValuesHistogram call(Long bucketIndex) {
+                                return ring.roll();
+                            }
+                        });
+                return Observable.merge(rollBuckets, recordEvents)
+                        .startWith(CachedValuesHistogram.backedBy(CachedValuesHistogram.getNewHistogram())); //the window starts out full of empty buckets
+            }
+        })
+                .share()
+                .onBackpressureDrop();
+    }
+
     public Observable<CachedValuesHistogram> observe() {
         return rollingDistributionStream;
     }
@@ -0,0 +1,70 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.metric.consumer;
+
+import com.netflix.hystrix.metric.HystrixStripedEventCounters;
+
+/**
+ * Ring of per-bucket event counts with a running sum over the whole ring.
+ * <p>
+ * Each {@link #roll()} samples the counts written since the previous roll into the oldest bucket, after taking that
+ * bucket's counts out of the running sum, so rolling the window costs O(event types) no matter how many buckets there are.
+ * <p>
+ * Not thread-safe: {@link #roll()} must only be called by one thread at a time.
+ */
+/* package */ class RollingEventCountsRing {
+    private final HystrixStripedEventCounters.Sampler sampler;
+    private final long[][] buckets;
+    private final long[] sum;
+    private int oldest = 0;
+
+    /* package */ RollingEventCountsRing(HystrixStripedEventCounters eventCounters, int numBuckets) {
+        this.sampler = eventCounters.sampler();
+        this.buckets = new long[numBuckets][eventCounters.getNumEventTypes()];
+        this.sum = new long[eventCounters.getNumEventTypes()];
+    }
+
+    /**
+     * Replace the oldest bucket with the counts written since the previous roll.
+     *
+     * @return the sum over all buckets, which is updated in place by the next roll so it must not be retained or modified
+     */
+    /* package */ long[] roll() {
+        final long[] bucket = buckets[oldest];
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] -= bucket[i];
+        }
+        sampler.sampleDelta(bucket);
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] += bucket[i];
+        }
+        oldest = (oldest + 1) % buckets.length;
+        return sum;
+    }
+
+    /**
+     * @return copy of the sum over all buckets
+     */
+    /* package */ long[] getSum() {
+        final long[] copy = new long[sum.length];
+        System.arraycopy(sum, 0, copy, 0, sum.length);
+        return copy;
+    }
+
+    /* package */ int getNumBuckets() {
+        return buckets.length;
+    }
+}
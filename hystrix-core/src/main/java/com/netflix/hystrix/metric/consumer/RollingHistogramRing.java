@@ -0,0 +1,101 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.metric.consumer;
+
+import com.netflix.hystrix.metric.CachedValuesHistogram;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.WriterReaderPhaser;
+import rx.functions.Func2;
+
+/**
+ * Ring of per-bucket {@link Histogram}s with a single aggregate {@link Histogram} over the whole ring.
+ * <p>
+ * Each {@link #roll()} adds the bucket that just filled up to the aggregate and subtracts the bucket that falls out of
+ * the window, then resets the evicted histogram and reuses it for the next bucket.  All histograms are allocated up front,
+ * so no histogram is created or merged from scratch as the window rolls.
+ * <p>
+ * Values may be recorded from any thread without locking: the current bucket is a {@link ConcurrentHistogram}, and a
+ * {@link WriterReaderPhaser} lets {@link #roll()} wait for the recordings in flight before it reads the bucket it swapped out,
+ * like an HdrHistogram {@link org.HdrHistogram.Recorder}.  {@link #roll()} must only be called by one thread at a time.
+ */
+/* package */ class RollingHistogramRing {
+    private final Histogram[] buckets;
+    private final Histogram aggregate = CachedValuesHistogram.getNewHistogram();
+    private int oldest = 0;
+    private CachedValuesHistogram latest = CachedValuesHistogram.backedBy(aggregate);
+
+    private final WriterReaderPhaser recordingPhaser = new WriterReaderPhaser();
+    private volatile Histogram currentBucket;
+
+    /* package */ RollingHistogramRing(int numBuckets) {
+        this.buckets = new Histogram[numBuckets];
+        for (int i = 0; i < numBuckets; i++) {
+            buckets[i] = newBucket();
+        }
+        this.currentBucket = newBucket();
+    }
+
+    private Histogram newBucket() {
+        return new ConcurrentHistogram(aggregate.getNumberOfSignificantValueDigits());
+    }
+
+    /* package */ <Event> void record(Func2<Histogram, Event, Histogram> addValuesToBucket, Event event) {
+        final long criticalValue = recordingPhaser.writerCriticalSectionEnter();
+        try {
+            addValuesToBucket.call(currentBucket, event);
+        } finally {
+            recordingPhaser.writerCriticalSectionExit(criticalValue);
+        }
+    }
+
+    /**
+     * Move the bucket currently being recorded into the window and evict the oldest one.
+     *
+     * @return percentiles of the aggregate over the window, the same instance as the previous roll if the window did not change
+     */
+    /* package */ CachedValuesHistogram roll() {
+        final Histogram evicted = buckets[oldest];
+        final long evictedCount = evicted.getTotalCount();
+        if (evictedCount > 0) {
+            aggregate.subtract(evicted);
+            evicted.reset();
+        }
+
+        final Histogram filled;
+        recordingPhaser.readerLock();
+        try {
+            filled = currentBucket;
+            currentBucket = evicted;
+            // wait until no value is being recorded into the filled bucket anymore
+            recordingPhaser.flipPhase();
+        } finally {
+            recordingPhaser.readerUnlock();
+        }
+
+        final long filledCount = filled.getTotalCount();
+        if (filledCount > 0) {
+            aggregate.add(filled);
+        }
+        buckets[oldest] = filled;
+        oldest = (oldest + 1) % buckets.length;
+
+        if (evictedCount > 0 || filledCount > 0) {
+            latest = CachedValuesHistogram.backedBy(aggregate);
+        }
+        return latest;
+    }
+}
@@ -98,7 +98,8 @@ public abstract class HystrixConcurrencyStrategy {
         final int dynamicCoreSize = threadPoolProperties.coreSize().get();
         final int keepAliveTime = threadPoolProperties.keepAliveTimeMinutes().get();
         final int maxQueueSize = threadPoolProperties.maxQueueSize().get();
-        final BlockingQueue<Runnable> workQueue = getBlockingQueue(maxQueueSize);
+        final BlockingQueue<Runnable> workQueue = maxQueueSize > 0 && threadPoolProperties.lockFreeQueueEnabled().get() ?
+                new HystrixLockFreeWorkQueue(maxQueueSize) : getBlockingQueue(maxQueueSize);
 
         if (allowMaximumSizeToDivergeFromCoreSize) {
             final int dynamicMaximumSize = threadPoolProperties.maximumSize().get();
@@ -133,6 +134,23 @@ public abstract class HystrixConcurrencyStrategy {
         }
     }
 
+    /**
+     * Factory method to provide the {@link ThreadFactory} used to start a thread per execution for commands isolated with
+     * {@link com.netflix.hystrix.HystrixCommandProperties.ExecutionIsolationStrategy#VIRTUAL}.
+     * <p>
+     * <b>Default Implementation</b>
+     * <p>
+     * Virtual threads named "hystrix-{threadPoolKey}-{n}", or null when the runtime does not support virtual threads,
+     * in which case those commands run on the {@link ThreadPoolExecutor} from {@link #getThreadPool} instead.
+     *
+     * @param threadPoolKey
+     *            {@link HystrixThreadPoolKey} whose concurrency limit applies to the threads created by this factory.
+     * @return instance of {@link ThreadFactory} or null if VIRTUAL isolation should fall back to the thread-pool
+     */
+    public ThreadFactory getVirtualThreadFactory(final HystrixThreadPoolKey threadPoolKey) {
+        return PlatformSpecific.getVirtualThreadFactory("hystrix-" + threadPoolKey.name() + "-");
+    }
+
     /**
      * Factory method to provide instance of {@code BlockingQueue<Runnable>} used for each {@link ThreadPoolExecutor} as constructed in {@link #getThreadPool}.
      * <p>
@@ -168,8 +168,8 @@ public class HystrixContextScheduler extends Scheduler {
             subscription.add(sa);
             sa.addParent(subscription);
 
-            ThreadPoolExecutor executor = (ThreadPoolExecutor) threadPool.getExecutor();
-            FutureTask<?> f = (FutureTask<?>) executor.submit(sa);
+            ExecutorService executor = threadPool.getExecutor();
+            Future<?> f = executor.submit(sa);
             sa.add(new FutureCompleterWithConfigurableInterrupt(f, shouldInterruptThread, executor));
 
             return sa;
@@ -185,11 +185,11 @@ public class HystrixContextScheduler extends Scheduler {
      * Very similar to rx.internal.schedulers.ScheduledAction.FutureCompleter, but with configurable interrupt behavior
      */
     private static class FutureCompleterWithConfigurableInterrupt implements Subscription {
-        private final FutureTask<?> f;
+        private final Future<?> f;
         private final Func0<Boolean> shouldInterruptThread;
-        private final ThreadPoolExecutor executor;
+        private final ExecutorService executor;
 
-        private FutureCompleterWithConfigurableInterrupt(FutureTask<?> f, Func0<Boolean> shouldInterruptThread, ThreadPoolExecutor executor) {
+        private FutureCompleterWithConfigurableInterrupt(Future<?> f, Func0<Boolean> shouldInterruptThread, ExecutorService executor) {
             this.f = f;
             this.shouldInterruptThread = shouldInterruptThread;
             this.executor = executor;
@@ -197,7 +197,10 @@ public class HystrixContextScheduler extends Scheduler {
 
         @Override
         public void unsubscribe() {
-            executor.remove(f);
+            if (executor instanceof ThreadPoolExecutor && f instanceof Runnable) {
+                // executors that start a thread per task have no queue to remove from
+                ((ThreadPoolExecutor) executor).remove((Runnable) f);
+            }
             if (shouldInterruptThread.call()) {
                 f.cancel(true);
             } else {
@@ -0,0 +1,332 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.strategy.concurrency;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded work queue for a {@link ThreadPoolExecutor} that takes no lock to add or remove a task, for thread-pools with
+ * {@link com.netflix.hystrix.HystrixThreadPoolProperties#lockFreeQueueEnabled()}.
+ * <p>
+ * Tasks are kept in a ring of slots, each with a sequence number that tells producers and consumers whether it is free for the current lap,
+ * so that adding and removing a task are each a single CAS on the tail or head counter.  Idle worker threads park until a producer wakes one up.
+ * <p>
+ * {@link #remove(Object)} replaces a queued task with a tombstone, which no longer counts towards {@link #size()} and is skipped by the worker
+ * thread that reaches it.  Until then it still takes up its slot, so the ring has room for at least twice the capacity, and {@link #remove(Object)}
+ * leaves the task queued once the slots beyond the capacity all hold tombstones.  That way as many tasks as the capacity can always be queued.
+ * A task that is left queued runs as usual, so a caller that must not run it has to cancel it as well, as a {@link java.util.concurrent.FutureTask} is.
+ *
+ * @ThreadSafe
+ */
+public class HystrixLockFreeWorkQueue extends AbstractQueue<Runnable> implements BlockingQueue<Runnable> {
+
+    // left in the slot of a removed task
+    private static final Runnable TOMBSTONE = new Runnable() {
+        @Override
+        public void run() {
+        }
+    };
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<Runnable> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    // tombstones between head and tail
+    private final AtomicInteger removed = new AtomicInteger();
+    // tombstones between head and tail plus removals in progress, at most maxTombstones
+    private final AtomicInteger tombstones = new AtomicInteger();
+    private final int maxTombstones;
+    // worker threads parked in take() or poll(timeout)
+    private final ConcurrentLinkedQueue<Thread> waiters = new ConcurrentLinkedQueue<Thread>();
+
+    /**
+     * @param capacity maximum number of queued tasks
+     */
+    public HystrixLockFreeWorkQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than 0");
+        }
+        this.capacity = capacity;
+        // room for a tombstone next to every queued task
+        final int length = capacity == 1 ? 2 : Integer.highestOneBit(capacity - 1) << 2;
+        this.mask = length - 1;
+        this.maxTombstones = length - capacity;
+        this.slots = new AtomicReferenceArray<Runnable>(length);
+        this.sequences = new AtomicLongArray(length);
+        for (int i = 0; i < length; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    @Override
+    public boolean offer(Runnable r) {
+        if (r == null) {
+            throw new NullPointerException();
+        }
+        while (true) {
+            final long pos = tail.get();
+            final int index = (int) pos & mask;
+            final long dif = sequences.get(index) - pos;
+            if (dif == 0) {
+                if (pos - head.get() - removed.get() >= capacity) {
+                    return false;
+                }
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots.set(index, r);
+                    sequences.set(index, pos + 1);
+                    signalWaiter();
+                    return true;
+                }
+            } else if (dif < 0) {
+                // the consumer of the previous lap has not freed the slot yet
+                return false;
+            }
+            // another producer took this position, try the next one
+        }
+    }
+
+    @Override
+    public Runnable poll() {
+        while (true) {
+            final long pos = head.get();
+            final int index = (int) pos & mask;
+            final long dif = sequences.get(index) - (pos + 1);
+            if (dif == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    // atomically, so that a concurrent remove(Object) either tombstones the task before it is taken or not at all
+                    final Runnable r = slots.getAndSet(index, null);
+                    sequences.set(index, pos + mask + 1);
+                    if (r == TOMBSTONE) {
+                        removed.decrementAndGet();
+                        tombstones.decrementAndGet();
+                        continue;
+                    }
+                    return r;
+                }
+            } else if (dif < 0) {
+                return null;
+            }
+            // another consumer took this position, try the next one
+        }
+    }
+
+    @Override
+    public Runnable peek() {
+        final Iterator<Runnable> it = iterator();
+        return it.hasNext() ? it.next() : null;
+    }
+
+    @Override
+    public Runnable take() throws InterruptedException {
+        return awaitTask(false, 0L);
+    }
+
+    @Override
+    public Runnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return awaitTask(true, unit.toNanos(timeout));
+    }
+
+    private Runnable awaitTask(boolean timed, long nanos) throws InterruptedException {
+        final long deadline = timed ? System.nanoTime() + nanos : 0L;
+        final Thread current = Thread.currentThread();
+        Runnable r;
+        while ((r = poll()) == null) {
+            final long remaining = timed ? deadline - System.nanoTime() : 0L;
+            if (timed && remaining <= 0) {
+                return null;
+            }
+            // register before checking again, so that either a producer sees this thread or its task is seen here
+            waiters.offer(current);
+            r = poll();
+            if (r != null) {
+                waiters.remove(current);
+                break;
+            }
+            if (timed) {
+                LockSupport.parkNanos(this, remaining);
+            } else {
+                LockSupport.park(this);
+            }
+            waiters.remove(current);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        // a producer may have woken this thread for another task, so pass the signal on
+        if (!isEmpty()) {
+            signalWaiter();
+        }
+        return r;
+    }
+
+    private void signalWaiter() {
+        final Thread waiter = waiters.poll();
+        if (waiter != null) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    @Override
+    public void put(Runnable r) throws InterruptedException {
+        while (!offer(r)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            Thread.yield();
+        }
+    }
+
+    @Override
+    public boolean offer(Runnable r, long timeout, TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!offer(r)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (deadline - System.nanoTime() <= 0) {
+                return false;
+            }
+            Thread.yield();
+        }
+        return true;
+    }
+
+    /**
+     * Replace a queued task with a tombstone, see the class documentation.
+     *
+     * @return true if the task was queued and will not be taken by a worker thread, false if it was not queued or the ring has no room
+     *         for another tombstone
+     */
+    @Override
+    public boolean remove(Object o) {
+        if (o == null || !reserveTombstone()) {
+            return false;
+        }
+        final long end = tail.get();
+        for (long pos = head.get(); pos < end; pos++) {
+            final int index = (int) pos & mask;
+            if (slots.get(index) == o && slots.compareAndSet(index, (Runnable) o, TOMBSTONE)) {
+                removed.incrementAndGet();
+                return true;
+            }
+        }
+        tombstones.decrementAndGet();
+        return false;
+    }
+
+    // bounds the tombstones so that they never take a slot a task may need
+    private boolean reserveTombstone() {
+        while (true) {
+            final int t = tombstones.get();
+            if (t >= maxTombstones) {
+                return false;
+            }
+            if (tombstones.compareAndSet(t, t + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        // read head first so that the difference can't be negative for a stable queue
+        final long h = head.get();
+        final long t = tail.get();
+        return (int) Math.max(0, Math.min(capacity, t - h - removed.get()));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super Runnable> c, int maxElements) {
+        int n = 0;
+        Runnable r;
+        while (n < maxElements && (r = poll()) != null) {
+            c.add(r);
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * @return weakly consistent iterator over the queued tasks, which does not support {@link Iterator#remove()}
+     */
+    @Override
+    public Iterator<Runnable> iterator() {
+        return new Iterator<Runnable>() {
+            private final long end = tail.get();
+            private long pos = head.get();
+            private Runnable next = advance();
+
+            private Runnable advance() {
+                while (pos < end) {
+                    final Runnable r = slots.get((int) pos++ & mask);
+                    if (r != null && r != TOMBSTONE) {
+                        return r;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Runnable next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                final Runnable r = next;
+                next = advance();
+                return r;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
@@ -16,7 +16,6 @@
 package com.netflix.hystrix.strategy.concurrency;
 
 import java.io.Closeable;
-import java.util.concurrent.ConcurrentHashMap;
 
 import com.netflix.hystrix.HystrixCollapser;
 import com.netflix.hystrix.HystrixCommand;
@@ -70,7 +69,7 @@ public class HystrixRequestContext implements Closeable {
      * child threads as these threads will not be known by the parent when cleanupAfterRequest() is called.
      * 
      * However, the only thing held by those child threads until they are re-used and re-initialized is an empty
-     * HystrixRequestContext object with the ConcurrentHashMap within it nulled out since once it is nullified
+     * HystrixRequestContext object with the HystrixRequestVariableSlots within it nulled out since once it is nullified
      * from the parent thread it is shared across all child threads.
      */
     private static ThreadLocal<HystrixRequestContext> requestVariables = new ThreadLocal<HystrixRequestContext>();
@@ -112,11 +111,11 @@ public class HystrixRequestContext implements Closeable {
     }
 
     /*
-     * This ConcurrentHashMap should not be made publicly accessible. It is the state of RequestVariables for a given RequestContext.
+     * This should not be made publicly accessible. It is the state of RequestVariables for a given RequestContext.
      * 
      * Only HystrixRequestVariable has a reason to be accessing this field.
      */
-    /* package */ConcurrentHashMap<HystrixRequestVariableDefault<?>, HystrixRequestVariableDefault.LazyInitializer<?>> state = new ConcurrentHashMap<HystrixRequestVariableDefault<?>, HystrixRequestVariableDefault.LazyInitializer<?>>();
+    /* package */HystrixRequestVariableSlots state = new HystrixRequestVariableSlots();
 
     // instantiation should occur via static factory methods.
     private HystrixRequestContext() {
@@ -130,7 +129,7 @@ public class HystrixRequestContext implements Closeable {
      */
     public void shutdown() {
         if (state != null) {
-            for (HystrixRequestVariableDefault<?> v : state.keySet()) {
+            for (HystrixRequestVariableDefault<?> v : state.getVariables()) {
                 // for each RequestVariable we call 'remove' which performs the shutdown logic
                 try {
                     HystrixRequestVariableDefault.remove(this, v);
@@ -15,8 +15,6 @@
  */
 package com.netflix.hystrix.strategy.concurrency;
 
-import java.util.concurrent.ConcurrentHashMap;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -57,11 +55,15 @@ import org.slf4j.LoggerFactory;
 public class HystrixRequestVariableDefault<T> implements HystrixRequestVariable<T> {
     static final Logger logger = LoggerFactory.getLogger(HystrixRequestVariableDefault.class);
 
+    // index of the value of this variable in each HystrixRequestContext
+    /* package */ final int slot;
+
     /**
      * Creates a new HystrixRequestVariable that will exist across all threads
      * within a {@link HystrixRequestContext}
      */
     public HystrixRequestVariableDefault() {
+        this.slot = HystrixRequestVariableSlots.nextSlot();
     }
 
     /**
@@ -72,19 +74,21 @@ public class HystrixRequestVariableDefault<T> implements HystrixRequestVariable<
      */
     @SuppressWarnings("unchecked")
     public T get() {
-        if (HystrixRequestContext.getContextForCurrentThread() == null) {
+        final HystrixRequestContext context = HystrixRequestContext.getContextForCurrentThread();
+        // the context may be shut down by another thread at any time, so read its state only once
+        final HystrixRequestVariableSlots variableSlots = context == null ? null : context.state;
+        if (variableSlots == null) {
             throw new IllegalStateException(HystrixRequestContext.class.getSimpleName() + ".initializeContext() must be called at the beginning of each request before RequestVariable functionality can be used.");
         }
-        ConcurrentHashMap<HystrixRequestVariableDefault<?>, LazyInitializer<?>> variableMap = HystrixRequestContext.getContextForCurrentThread().state;
 
-        // short-circuit the synchronized path below if we already have the value in the ConcurrentHashMap
-        LazyInitializer<?> v = variableMap.get(this);
+        // short-circuit the putIfAbsent path below if we already have the value in our slot
+        LazyInitializer<?> v = variableSlots.get(this);
         if (v != null) {
             return (T) v.get();
         }
 
         /*
-         * Optimistically create a LazyInitializer to put into the ConcurrentHashMap.
+         * Optimistically create a LazyInitializer to put into our slot.
          * 
          * The LazyInitializer will not invoke initialValue() unless the get() method is invoked
          * so we can optimistically instantiate LazyInitializer and then discard for garbage collection
@@ -94,7 +98,7 @@ public class HystrixRequestVariableDefault<T> implements HystrixRequestVariable<
          * the initialValue() method once-and-only-once.
          */
         LazyInitializer<T> l = new LazyInitializer<T>(this);
-        LazyInitializer<?> existing = variableMap.putIfAbsent(this, l);
+        LazyInitializer<?> existing = variableSlots.putIfAbsent(this, l);
         if (existing == null) {
             /*
              * We won the thread-race so can use 'l' that we just created.
@@ -150,8 +154,12 @@ public class HystrixRequestVariableDefault<T> implements HystrixRequestVariable<
 
     @SuppressWarnings("unchecked")
     /* package */static <T> void remove(HystrixRequestContext context, HystrixRequestVariableDefault<T> v) {
+        final HystrixRequestVariableSlots variableSlots = context.state;
+        if (variableSlots == null) {
+            return;
+        }
         // remove first so no other threads get it
-        LazyInitializer<?> o = context.state.remove(v);
+        LazyInitializer<?> o = variableSlots.remove(v);
         if (o != null) {
             // this thread removed it so let's execute shutdown
             v.shutdown((T) o.get());
@@ -180,22 +188,21 @@ public class HystrixRequestVariableDefault<T> implements HystrixRequestVariable<
      * to be executed once-and-only-once.
      * <p>
      * This class can be instantiated and garbage collected without calling initialValue() as long as the get() method is not invoked and can thus be used with compareAndSet in
-     * ConcurrentHashMap.putIfAbsent and allow "losers" in a thread-race to be discarded.
+     * {@link HystrixRequestVariableSlots#putIfAbsent} and allow "losers" in a thread-race to be discarded.
      * 
      * @param <T>
      */
     /* package */static final class LazyInitializer<T> {
-        // @GuardedBy("synchronization on get() or construction")
+        // @GuardedBy("synchronization on get() or construction"), published by the volatile write of 'initialized'
         private T value;
 
         /*
          * Boolean to ensure only-once initialValue() execution instead of using
          * a null check in case initialValue() returns null
          */
-        // @GuardedBy("synchronization on get() or construction")
-        private boolean initialized = false;
+        private volatile boolean initialized = false;
 
-        private final HystrixRequestVariableDefault<T> rv;
+        /* package */ final HystrixRequestVariableDefault<T> rv;
 
         private LazyInitializer(HystrixRequestVariableDefault<T> rv) {
             this.rv = rv;
@@ -207,12 +214,17 @@ public class HystrixRequestVariableDefault<T> implements HystrixRequestVariable<
             this.initialized = true;
         }
 
-        public synchronized T get() {
-            if (!initialized) {
-                value = rv.initialValue();
-                initialized = true;
+        public T get() {
+            if (initialized) {
+                return value;
+            }
+            synchronized (this) {
+                if (!initialized) {
+                    value = rv.initialValue();
+                    initialized = true;
+                }
+                return value;
             }
-            return value;
         }
     }
 }
@@ -0,0 +1,174 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.strategy.concurrency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import com.netflix.hystrix.strategy.concurrency.HystrixRequestVariableDefault.LazyInitializer;
+
+/**
+ * Values of the {@link HystrixRequestVariableDefault}s of one {@link HystrixRequestContext}, indexed by the slot each variable is given when it is created.
+ * <p>
+ * Slots are grouped in pages that are only allocated once a variable in them is used, so a context that touches a few variables stays small.
+ * Reading a value is an array index and a volatile load.  Variables beyond {@link #MAX_SLOTS} (only reached by code that keeps creating new variables)
+ * are kept in a {@link ConcurrentHashMap} instead, so that no context has to grow with them.
+ *
+ * @ThreadSafe
+ */
+/* package */ final class HystrixRequestVariableSlots {
+    private static final int PAGE_SHIFT = 4;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int NUM_PAGES = 64;
+    /* package */ static final int MAX_SLOTS = NUM_PAGES * PAGE_SIZE;
+
+    private static final AtomicInteger nextSlot = new AtomicInteger();
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<HystrixRequestVariableSlots, AtomicReferenceArray> PAGES_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(HystrixRequestVariableSlots.class, AtomicReferenceArray.class, "pages");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<HystrixRequestVariableSlots, ConcurrentHashMap> OVERFLOW_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(HystrixRequestVariableSlots.class, ConcurrentHashMap.class, "overflow");
+
+    private volatile AtomicReferenceArray<AtomicReferenceArray<LazyInitializer<?>>> pages;
+    private volatile ConcurrentHashMap<HystrixRequestVariableDefault<?>, LazyInitializer<?>> overflow;
+
+    /**
+     * @return slot for a newly created variable
+     */
+    /* package */ static int nextSlot() {
+        return nextSlot.getAndIncrement();
+    }
+
+    /* package */ LazyInitializer<?> get(HystrixRequestVariableDefault<?> v) {
+        final int slot = v.slot;
+        if (slot >= MAX_SLOTS) {
+            final ConcurrentHashMap<HystrixRequestVariableDefault<?>, LazyInitializer<?>> o = overflow;
+            return o == null ? null : o.get(v);
+        }
+        final AtomicReferenceArray<AtomicReferenceArray<LazyInitializer<?>>> p = pages;
+        if (p == null) {
+            return null;
+        }
+        final AtomicReferenceArray<LazyInitializer<?>> page = p.get(slot >>> PAGE_SHIFT);
+        return page == null ? null : page.get(slot & (PAGE_SIZE - 1));
+    }
+
+    /**
+     * @return the existing value, or null if {@code l} was stored
+     */
+    /* package */ LazyInitializer<?> putIfAbsent(HystrixRequestVariableDefault<?> v, LazyInitializer<?> l) {
+        final int slot = v.slot;
+        if (slot >= MAX_SLOTS) {
+            return getOverflow().putIfAbsent(v, l);
+        }
+        final AtomicReferenceArray<LazyInitializer<?>> page = getPage(slot);
+        final int offset = slot & (PAGE_SIZE - 1);
+        while (true) {
+            if (page.compareAndSet(offset, null, l)) {
+                return null;
+            }
+            final LazyInitializer<?> existing = page.get(offset);
+            if (existing != null) {
+                return existing;
+            }
+            // removed in the meantime, try again
+        }
+    }
+
+    /* package */ void put(HystrixRequestVariableDefault<?> v, LazyInitializer<?> l) {
+        final int slot = v.slot;
+        if (slot >= MAX_SLOTS) {
+            getOverflow().put(v, l);
+        } else {
+            getPage(slot).set(slot & (PAGE_SIZE - 1), l);
+        }
+    }
+
+    /**
+     * @return the removed value, or null if there was none
+     */
+    /* package */ LazyInitializer<?> remove(HystrixRequestVariableDefault<?> v) {
+        final int slot = v.slot;
+        if (slot >= MAX_SLOTS) {
+            final ConcurrentHashMap<HystrixRequestVariableDefault<?>, LazyInitializer<?>> o = overflow;
+            return o == null ? null : o.remove(v);
+        }
+        final AtomicReferenceArray<AtomicReferenceArray<LazyInitializer<?>>> p = pages;
+        if (p == null) {
+            return null;
+        }
+        final AtomicReferenceArray<LazyInitializer<?>> page = p.get(slot >>> PAGE_SHIFT);
+        return page == null ? null : page.getAndSet(slot & (PAGE_SIZE - 1), null);
+    }
+
+    /**
+     * @return variables that currently have a value
+     */
+    /* package */ List<HystrixRequestVariableDefault<?>> getVariables() {
+        final List<HystrixRequestVariableDefault<?>> variables = new ArrayList<HystrixRequestVariableDefault<?>>();
+        final AtomicReferenceArray<AtomicReferenceArray<LazyInitializer<?>>> p = pages;
+        if (p != null) {
+            for (int i = 0; i < NUM_PAGES; i++) {
+                final AtomicReferenceArray<LazyInitializer<?>> page = p.get(i);
+                if (page != null) {
+                    for (int j = 0; j < PAGE_SIZE; j++) {
+                        final LazyInitializer<?> l = page.get(j);
+                        if (l != null) {
+                            variables.add(l.rv);
+                        }
+                    }
+                }
+            }
+        }
+        final ConcurrentHashMap<HystrixRequestVariableDefault<?>, LazyInitializer<?>> o = overflow;
+        if (o != null) {
+            variables.addAll(o.keySet());
+        }
+        return variables;
+    }
+
+    @SuppressWarnings("unchecked")
+    private AtomicReferenceArray<LazyInitializer<?>> getPage(int slot) {
+        AtomicReferenceArray<AtomicReferenceArray<LazyInitializer<?>>> p = pages;
+        if (p == null) {
+            PAGES_UPDATER.compareAndSet(this, null, new AtomicReferenceArray<AtomicReferenceArray<LazyInitializer<?>>>(NUM_PAGES));
+            p = pages;
+        }
+        final int pageIndex = slot >>> PAGE_SHIFT;
+        AtomicReferenceArray<LazyInitializer<?>> page = p.get(pageIndex);
+        if (page == null) {
+            p.compareAndSet(pageIndex, null, new AtomicReferenceArray<LazyInitializer<?>>(PAGE_SIZE));
+            page = p.get(pageIndex);
+        }
+        return page;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ConcurrentHashMap<HystrixRequestVariableDefault<?>, LazyInitializer<?>> getOverflow() {
+        ConcurrentHashMap<HystrixRequestVariableDefault<?>, LazyInitializer<?>> o = overflow;
+        if (o == null) {
+            OVERFLOW_UPDATER.compareAndSet(this, null, new ConcurrentHashMap<HystrixRequestVariableDefault<?>, LazyInitializer<?>>());
+            o = overflow;
+        }
+        return o;
+    }
+}
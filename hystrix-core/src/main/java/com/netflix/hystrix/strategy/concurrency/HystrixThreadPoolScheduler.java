@@ -0,0 +1,241 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.strategy.concurrency;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import rx.Scheduler;
+import rx.Subscription;
+import rx.exceptions.OnErrorNotImplementedException;
+import rx.functions.Action0;
+import rx.functions.Func0;
+import rx.plugins.RxJavaHooks;
+import rx.subscriptions.CompositeSubscription;
+import rx.subscriptions.Subscriptions;
+
+import com.netflix.hystrix.HystrixThreadPool;
+
+/**
+ * {@link Scheduler} for thread-isolated executions that runs actions directly on the executor of a {@link HystrixThreadPool}.
+ * <p>
+ * It does what {@link HystrixContextScheduler} does for a {@link HystrixThreadPool}, but each scheduled action is a single task object that
+ * captures the {@link HystrixRequestContext}, is wrapped once with {@link HystrixConcurrencyStrategy#wrapCallable(Callable)}, is handed to
+ * {@link Executor#execute(Runnable)} without a {@link java.util.concurrent.Future}, and is itself the {@link Subscription} used to cancel it.
+ * <p>
+ * As with {@link HystrixContextScheduler}, unsubscribing removes a task that has not started from the queue, and interrupts a running one
+ * if <code>shouldInterruptThread</code> returns true.
+ *
+ * @ExcludeFromJavadoc
+ */
+public class HystrixThreadPoolScheduler extends Scheduler {
+
+    private final HystrixConcurrencyStrategy concurrencyStrategy;
+    private final HystrixThreadPool threadPool;
+    private final Func0<Boolean> shouldInterruptThread;
+
+    public HystrixThreadPoolScheduler(HystrixConcurrencyStrategy concurrencyStrategy, HystrixThreadPool threadPool, Func0<Boolean> shouldInterruptThread) {
+        this.concurrencyStrategy = concurrencyStrategy;
+        this.threadPool = threadPool;
+        this.shouldInterruptThread = shouldInterruptThread;
+    }
+
+    @Override
+    public Worker createWorker() {
+        return new ThreadPoolWorker(this);
+    }
+
+    /**
+     * Each command invocation schedules a single action, which is kept in a field.  Any further action (such as a request for more
+     * items from another thread) is tracked in a {@link CompositeSubscription} created on demand.
+     */
+    private static class ThreadPoolWorker extends Worker {
+        private static final AtomicReferenceFieldUpdater<ThreadPoolWorker, ThreadPoolTask> FIRST_UPDATER =
+                AtomicReferenceFieldUpdater.newUpdater(ThreadPoolWorker.class, ThreadPoolTask.class, "first");
+
+        private final HystrixThreadPoolScheduler scheduler;
+        private volatile ThreadPoolTask first;
+        private CompositeSubscription others; // guarded by this
+        private volatile boolean unsubscribed;
+
+        private ThreadPoolWorker(HystrixThreadPoolScheduler scheduler) {
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public void unsubscribe() {
+            if (unsubscribed) {
+                return;
+            }
+            unsubscribed = true;
+            final ThreadPoolTask t = first;
+            if (t != null) {
+                t.unsubscribe();
+            }
+            final CompositeSubscription o;
+            synchronized (this) {
+                o = others;
+            }
+            if (o != null) {
+                o.unsubscribe();
+            }
+        }
+
+        @Override
+        public boolean isUnsubscribed() {
+            return unsubscribed;
+        }
+
+        @Override
+        public Subscription schedule(Action0 action) {
+            if (unsubscribed) {
+                // don't schedule, we are unsubscribed
+                return Subscriptions.unsubscribed();
+            }
+            if (!scheduler.threadPool.isQueueSpaceAvailable()) {
+                throw new RejectedExecutionException("Rejected command because thread-pool queueSize is at rejection threshold.");
+            }
+
+            final Executor executor = scheduler.threadPool.getExecutor();
+            final ThreadPoolTask task = new ThreadPoolTask(scheduler, action, executor);
+            if (!FIRST_UPDATER.compareAndSet(this, null, task)) {
+                synchronized (this) {
+                    if (others == null) {
+                        others = new CompositeSubscription();
+                    }
+                }
+                others.add(task);
+            }
+            if (unsubscribed) {
+                // unsubscribed while registering the task, which may have been missed
+                task.unsubscribe();
+                return task;
+            }
+
+            executor.execute(task);
+            return task;
+        }
+
+        @Override
+        public Subscription schedule(Action0 action, long delayTime, TimeUnit unit) {
+            throw new IllegalStateException("Hystrix does not support delayed scheduling");
+        }
+    }
+
+    private static final int NEW = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+    private static final int CANCELLED = 3;
+    private static final int INTERRUPTING = 4;
+    private static final int INTERRUPTED = 5;
+
+    /**
+     * A scheduled action together with the request context to run it in, its cancellation state and the thread running it.
+     */
+    private static final class ThreadPoolTask extends AtomicInteger implements Runnable, Callable<Void>, Subscription {
+        private final Func0<Boolean> shouldInterruptThread;
+        private final Action0 action;
+        private final Executor executor;
+        private final HystrixRequestContext parentThreadState;
+        private final Callable<Void> wrapped;
+        private volatile Thread runner;
+
+        private ThreadPoolTask(HystrixThreadPoolScheduler scheduler, Action0 action, Executor executor) {
+            this.shouldInterruptThread = scheduler.shouldInterruptThread;
+            this.action = action;
+            this.executor = executor;
+            this.parentThreadState = HystrixRequestContext.getContextForCurrentThread();
+            this.wrapped = scheduler.concurrencyStrategy.wrapCallable(this);
+        }
+
+        @Override
+        public void run() {
+            if (!compareAndSet(NEW, RUNNING)) {
+                // cancelled before it started
+                return;
+            }
+            runner = Thread.currentThread();
+            try {
+                wrapped.call();
+            } catch (OnErrorNotImplementedException e) {
+                signalError(new IllegalStateException("Exception thrown on Scheduler.Worker thread. Add `onError` handling.", e));
+            } catch (Throwable e) {
+                signalError(new IllegalStateException("Fatal Exception thrown on Scheduler.Worker thread.", e));
+            } finally {
+                runner = null;
+                if (!compareAndSet(RUNNING, DONE)) {
+                    // an interrupt is being delivered, wait for it so that it can't hit the next task of this thread
+                    while (get() == INTERRUPTING) {
+                        Thread.yield();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Runs the action with the request context of the thread that scheduled it.
+         */
+        @Override
+        public Void call() {
+            final HystrixRequestContext existingState = HystrixRequestContext.getContextForCurrentThread();
+            if (existingState == parentThreadState) {
+                action.call();
+                return null;
+            }
+            try {
+                // set the state of this thread to that of its parent
+                HystrixRequestContext.setContextOnCurrentThread(parentThreadState);
+                action.call();
+                return null;
+            } finally {
+                // restore this thread back to its original state
+                HystrixRequestContext.setContextOnCurrentThread(existingState);
+            }
+        }
+
+        @Override
+        public void unsubscribe() {
+            if (compareAndSet(NEW, CANCELLED)) {
+                if (executor instanceof ThreadPoolExecutor) {
+                    // executors that start a thread per task have no queue to remove from
+                    ((ThreadPoolExecutor) executor).remove(this);
+                }
+            } else if (get() == RUNNING && shouldInterruptThread.call() && compareAndSet(RUNNING, INTERRUPTING)) {
+                final Thread t = runner;
+                if (t != null && t != Thread.currentThread()) {
+                    t.interrupt();
+                }
+                set(INTERRUPTED);
+            }
+        }
+
+        @Override
+        public boolean isUnsubscribed() {
+            return get() != NEW && get() != RUNNING;
+        }
+
+        private void signalError(Throwable ie) {
+            RxJavaHooks.onError(ie);
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, ie);
+        }
+    }
+}
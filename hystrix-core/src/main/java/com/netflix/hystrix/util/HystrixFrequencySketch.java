@@ -0,0 +1,125 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.util;
+
+/**
+ * Approximate, aging count of how often each element was seen, used to decide which of two elements is more worth keeping in a bounded cache.
+ * <p>
+ * This is a count-min sketch of 4-bit counters, 16 to a <code>long</code>.  Each element maps to one counter in each of 4 rows and its frequency
+ * is the smallest of them, so collisions can only overestimate it.  Counters saturate at 15.  Once the number of increments reaches 10 times the
+ * expected number of elements, all counters are halved so that the sketch follows changes in popularity.
+ * <p>
+ * Not thread-safe, callers must guard access to an instance.
+ */
+public class HystrixFrequencySketch {
+    private static final int[] SEEDS = { 0x97cb3127, 0xc3a5c85c, 0xb492b66f, 0x9ae16a3b };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final long ONE_MASK = 0x1111111111111111L;
+    private static final int MAX_COUNT = 15;
+
+    private long[] table;
+    private int tableMask;
+    private int sampleSize;
+    private int size;
+
+    /**
+     * @param maximumSize expected number of distinct elements
+     */
+    public HystrixFrequencySketch(int maximumSize) {
+        ensureCapacity(maximumSize);
+    }
+
+    /**
+     * Resize the sketch for a new expected number of elements, which discards all counts if it grows.
+     *
+     * @param maximumSize expected number of distinct elements
+     */
+    public void ensureCapacity(int maximumSize) {
+        final int maximum = Math.max(1, Math.min(maximumSize, 1 << 30));
+        if (table != null && table.length >= maximum) {
+            return;
+        }
+        table = new long[maximum <= 16 ? 16 : Integer.highestOneBit(maximum - 1) << 1];
+        tableMask = table.length - 1;
+        sampleSize = 10 * maximum;
+        if (sampleSize <= 0) {
+            sampleSize = Integer.MAX_VALUE;
+        }
+        size = 0;
+    }
+
+    /**
+     * @return estimated number of times {@code e} was seen, at most 15
+     */
+    public int frequency(Object e) {
+        final int hash = spread(e.hashCode());
+        final int start = (hash & 3) << 2;
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < 4; i++) {
+            final int index = indexOf(hash, i);
+            final int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Count one occurrence of {@code e}.
+     */
+    public void increment(Object e) {
+        final int hash = spread(e.hashCode());
+        final int start = (hash & 3) << 2;
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            added |= incrementAt(indexOf(hash, i), start + i);
+        }
+        if (added && ++size == sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(int i, int j) {
+        final int offset = j << 2;
+        final long mask = 0xfL << offset;
+        if ((table[i] & mask) != mask) {
+            table[i] += 1L << offset;
+            return true;
+        }
+        return false;
+    }
+
+    /* package */ void reset() {
+        int odd = 0;
+        for (int i = 0; i < table.length; i++) {
+            odd += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        // halving rounds odd counters down, each of the 4 rows lost a quarter of them
+        size = (size >>> 1) - (odd >>> 2);
+    }
+
+    private int indexOf(int item, int i) {
+        long hash = (item + (long) SEEDS[i]) * SEEDS[i];
+        hash += hash >>> 32;
+        return ((int) hash) & tableMask;
+    }
+
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+}
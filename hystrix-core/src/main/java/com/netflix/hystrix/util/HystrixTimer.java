@@ -17,6 +17,7 @@ package com.netflix.hystrix.util;
 
 import com.netflix.hystrix.HystrixCollapser;
 import com.netflix.hystrix.HystrixCommand;
+import com.netflix.hystrix.HystrixTimerThreadPoolProperties;
 import com.netflix.hystrix.strategy.HystrixPlugins;
 import com.netflix.hystrix.strategy.properties.HystrixPropertiesStrategy;
 import org.slf4j.Logger;
@@ -59,6 +60,9 @@ public class HystrixTimer {
      */
     public static void reset() {
         ScheduledExecutor ex = INSTANCE.executor.getAndSet(null);
+        if (ex != null && ex.getTimerWheel() != null) {
+            ex.getTimerWheel().shutdown();
+        }
         if (ex != null && ex.getThreadPool() != null) {
             ex.getThreadPool().shutdownNow();
         }
@@ -103,10 +107,50 @@ public class HystrixTimer {
             }
         };
 
+        HystrixTimerWheel wheel = executor.get().getTimerWheel();
+        if (wheel != null) {
+            return new WheelTimerReference(listener, wheel, r, listener.getIntervalTimeInMilliseconds(), true);
+        }
+
         ScheduledFuture<?> f = executor.get().getThreadPool().scheduleAtFixedRate(r, listener.getIntervalTimeInMilliseconds(), listener.getIntervalTimeInMilliseconds(), TimeUnit.MILLISECONDS);
         return new TimerReference(listener, f);
     }
 
+    /**
+     * Add a {@link TimerListener} that will be executed once after <code>getIntervalTimeInMilliseconds()</code> unless removed
+     * by clearing the returned {@link Reference} first.
+     * <p>
+     * This is what {@link HystrixCommand} uses for execution timeouts since it only ever needs the first tick.  When the timing wheel
+     * is enabled via {@link com.netflix.hystrix.HystrixTimerThreadPoolProperties#getWheelEnabled()} both adding and clearing are O(1).
+     *
+     * @param listener
+     *            TimerListener implementation that will be triggered once after its <code>getIntervalTimeInMilliseconds()</code> delay.
+     * @return reference to the TimerListener that allows cancellation via the <code>clear()</code> method
+     */
+    public Reference<TimerListener> addOneShotTimerListener(final TimerListener listener) {
+        startThreadIfNeeded();
+
+        Runnable r = new Runnable() {
+
+            @Override
+            public void run() {
+                try {
+                    listener.tick();
+                } catch (Exception e) {
+                    logger.error("Failed while ticking TimerListener", e);
+                }
+            }
+        };
+
+        HystrixTimerWheel wheel = executor.get().getTimerWheel();
+        if (wheel != null) {
+            return new WheelTimerReference(listener, wheel, r, listener.getIntervalTimeInMilliseconds(), false);
+        }
+
+        ScheduledFuture<?> f = executor.get().getThreadPool().schedule(r, listener.getIntervalTimeInMilliseconds(), TimeUnit.MILLISECONDS);
+        return new TimerReference(listener, f);
+    }
+
     private static class TimerReference extends SoftReference<TimerListener> {
 
         private final ScheduledFuture<?> f;
@@ -125,6 +169,57 @@ public class HystrixTimer {
 
     }
 
+    /**
+     * Reference to a listener scheduled on the {@link HystrixTimerWheel}.
+     * <p>
+     * The wheel only knows one-shot timeouts so a repeating listener is re-armed from the previous deadline each time it fires.
+     */
+    private static class WheelTimerReference extends SoftReference<TimerListener> implements Runnable {
+
+        private final HystrixTimerWheel wheel;
+        private final Runnable task;
+        private final long intervalInNanos;
+        private long deadline;
+        private volatile HystrixTimerWheel.Timeout timeout;
+        private volatile boolean cleared = false;
+
+        WheelTimerReference(TimerListener referent, HystrixTimerWheel wheel, Runnable task, int intervalInMilliseconds, boolean repeating) {
+            super(referent);
+            this.wheel = wheel;
+            this.task = task;
+            this.intervalInNanos = TimeUnit.MILLISECONDS.toNanos(intervalInMilliseconds);
+            this.deadline = wheel.deadlineAfter(intervalInMilliseconds);
+            // the handle is set before the timeout is submitted, otherwise a repeating listener re-armed by a first tick
+            // that runs before the constructor returns would be overwritten with the expired handle, and never be cancelled
+            this.timeout = wheel.newTimeout(repeating ? this : task, deadline);
+            wheel.submit(timeout);
+        }
+
+        @Override
+        public void run() {
+            // only used by repeating listeners; re-armed from the previous deadline (fixed-rate) after the tick so ticks never overlap
+            if (!cleared) {
+                task.run();
+                deadline += intervalInNanos;
+                final HystrixTimerWheel.Timeout next = wheel.newTimeout(this, deadline);
+                timeout = next;
+                wheel.submit(next);
+                if (cleared) {
+                    next.cancel();
+                }
+            }
+        }
+
+        @Override
+        public void clear() {
+            super.clear();
+            cleared = true;
+            // stop this Timeout from any further executions
+            timeout.cancel();
+        }
+
+    }
+
     /**
      * Since we allow resetting the timer (shutting down the thread) we need to lazily re-start it if it starts being used again.
      * <p>
@@ -142,6 +237,7 @@ public class HystrixTimer {
 
     /* package */ static class ScheduledExecutor {
         /* package */ volatile ScheduledThreadPoolExecutor executor;
+        /* package */ volatile HystrixTimerWheel timerWheel;
         private volatile boolean initialized;
 
         /**
@@ -150,7 +246,8 @@ public class HystrixTimer {
         public void initialize() {
 
             HystrixPropertiesStrategy propertiesStrategy = HystrixPlugins.getInstance().getPropertiesStrategy();
-            int coreSize = propertiesStrategy.getTimerThreadPoolProperties().getCorePoolSize().get();
+            HystrixTimerThreadPoolProperties properties = propertiesStrategy.getTimerThreadPoolProperties();
+            int coreSize = properties.getCorePoolSize().get();
 
             ThreadFactory threadFactory = null;
             if (!PlatformSpecific.isAppEngineStandardEnvironment()) {
@@ -170,6 +267,10 @@ public class HystrixTimer {
             }
 
             executor = new ScheduledThreadPoolExecutor(coreSize, threadFactory);
+            if (properties.getWheelEnabled().get()) {
+                // the wheel only tracks the timers, expired ones are run on the executor threads
+                timerWheel = new HystrixTimerWheel(properties.getWheelTickInMilliseconds().get(), properties.getWheelTicksPerWheel().get(), threadFactory, executor);
+            }
             initialized = true;
         }
 
@@ -177,6 +278,13 @@ public class HystrixTimer {
             return executor;
         }
 
+        /**
+         * @return the timing wheel or null if timers are scheduled directly on {@link #getThreadPool()}
+         */
+        public HystrixTimerWheel getTimerWheel() {
+            return timerWheel;
+        }
+
         public boolean isInitialized() {
             return initialized;
         }
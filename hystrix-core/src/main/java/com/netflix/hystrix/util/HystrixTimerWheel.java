@@ -0,0 +1,359 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Hashed timing wheel used by {@link HystrixTimer} to track one-shot timers.
+ * <p>
+ * Scheduling and cancelling a {@link Timeout} are O(1) and never take a lock: new and cancelled timeouts are handed to
+ * the single wheel thread through lock-free queues and the wheel thread is the only one that ever touches the buckets.
+ * This suits the Hystrix workload where almost every timeout (one per command execution) is cancelled long before it expires.
+ * <p>
+ * The wheel thread does not run the expired tasks itself, it hands them to the supplied {@link Executor} so that a slow
+ * task (such as a fallback executed on timeout) can not delay the expiration of other timers.
+ * <p>
+ * Based on the design in "Hashed and Hierarchical Timing Wheels" by George Varghese and Tony Lauck.
+ */
+public class HystrixTimerWheel {
+
+    private static final Logger logger = LoggerFactory.getLogger(HystrixTimerWheel.class);
+
+    /**
+     * Upper bound on the number of newly scheduled timeouts moved into the wheel per tick so a burst of scheduling can not starve expiration.
+     */
+    private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+    private final long tickDurationInNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Executor dispatcher;
+
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<Timeout>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<Timeout>();
+
+    private final long startTime;
+    private final Thread workerThread;
+    private volatile boolean shutdown = false;
+
+    /* only accessed from the wheel thread */
+    private long tick = 0;
+
+    /**
+     * @param tickDurationInMilliseconds
+     *            resolution of the wheel; timeouts fire at most one tick late
+     * @param ticksPerWheel
+     *            number of buckets in the wheel, rounded up to a power of 2
+     * @param threadFactory
+     *            used to create the single wheel thread
+     * @param dispatcher
+     *            runs the tasks of expired timeouts
+     */
+    public HystrixTimerWheel(int tickDurationInMilliseconds, int ticksPerWheel, ThreadFactory threadFactory, Executor dispatcher) {
+        if (tickDurationInMilliseconds <= 0) {
+            throw new IllegalArgumentException("tickDurationInMilliseconds must be greater than 0: " + tickDurationInMilliseconds);
+        }
+        if (ticksPerWheel <= 0 || ticksPerWheel > (1 << 30)) {
+            throw new IllegalArgumentException("ticksPerWheel must be between 1 and 2^30: " + ticksPerWheel);
+        }
+        this.tickDurationInNanos = TimeUnit.MILLISECONDS.toNanos(tickDurationInMilliseconds);
+        int normalizedTicksPerWheel = 1;
+        while (normalizedTicksPerWheel < ticksPerWheel) {
+            normalizedTicksPerWheel <<= 1;
+        }
+        this.wheel = new Bucket[normalizedTicksPerWheel];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheel.length - 1;
+        this.dispatcher = dispatcher;
+        this.startTime = System.nanoTime();
+        this.workerThread = threadFactory.newThread(new Worker());
+        this.workerThread.start();
+    }
+
+    /**
+     * Schedule a task to be run once after the given delay.
+     *
+     * @param task
+     *            task to be handed to the dispatcher when the delay expires
+     * @param delayInMilliseconds
+     *            delay until the task should run
+     * @return {@link Timeout} that can be used to cancel the task
+     */
+    public Timeout schedule(Runnable task, long delayInMilliseconds) {
+        return scheduleAt(task, deadlineAfter(delayInMilliseconds));
+    }
+
+    /* package */ long deadlineAfter(long delayInMilliseconds) {
+        return System.nanoTime() - startTime + TimeUnit.MILLISECONDS.toNanos(delayInMilliseconds);
+    }
+
+    /* package */ Timeout scheduleAt(Runnable task, long deadlineInNanos) {
+        Timeout timeout = newTimeout(task, deadlineInNanos);
+        submit(timeout);
+        return timeout;
+    }
+
+    /**
+     * Create a {@link Timeout} without scheduling it, so that the caller can publish the handle before the task can run.
+     * It is scheduled by {@link #submit(Timeout)}.
+     */
+    /* package */ Timeout newTimeout(Runnable task, long deadlineInNanos) {
+        return new Timeout(this, task, deadlineInNanos);
+    }
+
+    /* package */ void submit(Timeout timeout) {
+        if (shutdown) {
+            // nothing will ever expire it, so the caller sees it as cancelled
+            timeout.cancel();
+            return;
+        }
+        pendingTimeouts.add(timeout);
+    }
+
+    /**
+     * Stop the wheel thread.  Timeouts that have not yet expired will never be run.
+     */
+    public void shutdown() {
+        shutdown = true;
+        workerThread.interrupt();
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * @return the number of buckets in the wheel after rounding up to a power of 2
+     */
+    public int getTicksPerWheel() {
+        return wheel.length;
+    }
+
+    private void transferPendingTimeoutsToBuckets() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout timeout = pendingTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state() == Timeout.ST_CANCELLED) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickDurationInNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            // a deadline in the past is put into the current bucket so it fires on this tick
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void removeCancelledTimeouts() {
+        for (;;) {
+            Timeout timeout = cancelledTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            Bucket bucket = timeout.bucket;
+            if (bucket != null) {
+                bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * Sleep until the start of the next tick.
+     *
+     * @return the current time relative to {@link #startTime} or -1 if shut down while waiting
+     */
+    private long waitForNextTick() {
+        long deadline = tickDurationInNanos * (tick + 1);
+        for (;;) {
+            final long currentTime = System.nanoTime() - startTime;
+            long sleepTimeInMilliseconds = (deadline - currentTime + 999999) / 1000000;
+            if (sleepTimeInMilliseconds <= 0) {
+                return currentTime;
+            }
+            try {
+                Thread.sleep(sleepTimeInMilliseconds);
+            } catch (InterruptedException e) {
+                if (shutdown) {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    private class Worker implements Runnable {
+
+        @Override
+        public void run() {
+            while (!shutdown) {
+                final long currentTime = waitForNextTick();
+                if (currentTime > 0) {
+                    removeCancelledTimeouts();
+                    transferPendingTimeoutsToBuckets();
+                    wheel[(int) (tick & mask)].expireTimeouts(currentTime);
+                    tick++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Doubly-linked list of timeouts hashed to the same slot of the wheel.  Only touched by the wheel thread.
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expireTimeouts(long currentTime) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    if (timeout.deadline <= currentTime) {
+                        remove(timeout);
+                        timeout.expire();
+                    } else {
+                        // can only happen if the timeout was placed in the wrong slot, leave it for the next round
+                        timeout.remainingRounds = 0;
+                    }
+                } else if (timeout.state() == Timeout.ST_CANCELLED) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            Timeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                if (timeout == tail) {
+                    head = tail = null;
+                } else {
+                    head = next;
+                }
+            } else if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+
+    /**
+     * Handle to a task scheduled on the {@link HystrixTimerWheel}.
+     */
+    public static final class Timeout {
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE_UPDATER = AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final HystrixTimerWheel timer;
+        private final Runnable task;
+        private final long deadline;
+
+        private volatile int state = ST_INIT;
+
+        /* the following are only accessed from the wheel thread */
+        long remainingRounds;
+        Timeout next;
+        Timeout prev;
+        Bucket bucket;
+
+        private Timeout(HystrixTimerWheel timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancel the task if it has not already run.  The wheel thread unlinks it on its next tick.
+         *
+         * @return true if this call cancelled the task
+         */
+        public boolean cancel() {
+            if (!STATE_UPDATER.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            timer.cancelledTimeouts.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state == ST_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == ST_EXPIRED;
+        }
+
+        private int state() {
+            return state;
+        }
+
+        private void expire() {
+            if (!STATE_UPDATER.compareAndSet(this, ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            try {
+                timer.dispatcher.execute(task);
+            } catch (RejectedExecutionException e) {
+                if (!timer.shutdown) {
+                    logger.error("Failed to dispatch expired timeout", e);
+                }
+            } catch (Throwable t) {
+                logger.error("Failed to dispatch expired timeout", t);
+            }
+        }
+    }
+}
@@ -73,6 +73,31 @@ public class PlatformSpecific {
         }
     }
 
+    /**
+     * Look up a factory of virtual threads named {@code namePrefix} followed by a counter, without linking against
+     * {@code Thread.ofVirtual()} so this still loads on runtimes that predate virtual threads.
+     *
+     * @param namePrefix prefix of the thread names
+     * @return factory of virtual threads or null if the runtime does not support them
+     */
+    public static ThreadFactory getVirtualThreadFactory(String namePrefix) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 1L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (IllegalAccessException e) {
+            return null;
+        } catch (InvocationTargetException e) {
+            // virtual threads are a preview feature that has not been enabled
+            return null;
+        }
+    }
+
     public static ThreadFactory getAppEngineThreadFactory() {
         try {
             return (ThreadFactory) Class.forName("com.google.appengine.api.ThreadManager")
@@ -0,0 +1,112 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ExecutionResultTest {
+
+    @Test
+    public void testEventCountsForEveryEventType() {
+        for (HystrixEventType eventType: HystrixEventType.values()) {
+            ExecutionResult.EventCounts eventCounts = new ExecutionResult.EventCounts().plus(eventType);
+            assertTrue(eventCounts.contains(eventType));
+            for (HystrixEventType other: HystrixEventType.values()) {
+                if (other != eventType && other != HystrixEventType.EXCEPTION_THROWN) {
+                    assertFalse(eventType + " / " + other, eventCounts.contains(other));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCountedEvents() {
+        ExecutionResult.EventCounts eventCounts = new ExecutionResult.EventCounts()
+                .plus(HystrixEventType.EMIT)
+                .plus(HystrixEventType.EMIT)
+                .plus(HystrixEventType.FALLBACK_EMIT)
+                .plus(HystrixEventType.COLLAPSED, 5)
+                .plus(HystrixEventType.FAILURE);
+        assertEquals(0, eventCounts.getCount(HystrixEventType.EXCEPTION_THROWN));
+        eventCounts = eventCounts.plus(HystrixEventType.FALLBACK_FAILURE);
+        assertEquals(2, eventCounts.getCount(HystrixEventType.EMIT));
+        assertEquals(1, eventCounts.getCount(HystrixEventType.FALLBACK_EMIT));
+        assertEquals(5, eventCounts.getCount(HystrixEventType.COLLAPSED));
+        assertEquals(1, eventCounts.getCount(HystrixEventType.FAILURE));
+        assertEquals(1, eventCounts.getCount(HystrixEventType.EXCEPTION_THROWN));
+        assertEquals(0, eventCounts.getCount(HystrixEventType.SUCCESS));
+    }
+
+    @Test
+    public void testEventCountsFromBitSet() {
+        BitSet bitSet = new BitSet(HystrixEventType.values().length);
+        bitSet.set(HystrixEventType.SUCCESS.ordinal());
+        bitSet.set(HystrixEventType.RESPONSE_FROM_CACHE.ordinal());
+        ExecutionResult.EventCounts fromBitSet = new ExecutionResult.EventCounts(bitSet, 0, 0, 0);
+        assertEquals(new ExecutionResult.EventCounts(HystrixEventType.SUCCESS, HystrixEventType.RESPONSE_FROM_CACHE), fromBitSet);
+
+        BitSet terminal = new BitSet();
+        terminal.set(HystrixEventType.SUCCESS.ordinal());
+        assertTrue(fromBitSet.containsAnyOf(terminal));
+    }
+
+    @Test
+    public void testAddingPresentEventDoesNotCopy() {
+        ExecutionResult result = ExecutionResult.from(HystrixEventType.SUCCESS);
+        assertSame(result, result.addEvent(HystrixEventType.SUCCESS));
+        assertNotSame(result, result.addEvent(HystrixEventType.EMIT));
+    }
+
+    @Test
+    public void testSettersWithoutChangeDoNotCopy() {
+        Exception e = new RuntimeException("x");
+        ExecutionResult result = ExecutionResult.from()
+                .setInvocationStartTime(100L)
+                .setExecutionOccurred()
+                .setExecutedInThread()
+                .setException(e)
+                .setExecutionException(e)
+                .setExecutionLatency(7);
+        assertSame(result, result.setInvocationStartTime(100L));
+        assertSame(result, result.setExecutionOccurred());
+        assertSame(result, result.setExecutedInThread());
+        assertSame(result, result.setException(e));
+        assertSame(result, result.setExecutionException(e));
+        assertSame(result, result.setExecutionLatency(7));
+
+        ExecutionResult notInThread = result.setNotExecutedInThread();
+        assertFalse(notInThread.isExecutedInThread());
+        assertTrue(result.isExecutedInThread());
+        assertSame(notInThread, notInThread.setNotExecutedInThread());
+    }
+
+    @Test
+    public void testOrderedList() {
+        ExecutionResult result = ExecutionResult.from(HystrixEventType.RESPONSE_FROM_CACHE, HystrixEventType.FAILURE, HystrixEventType.FALLBACK_SUCCESS);
+        assertEquals(Arrays.asList(HystrixEventType.FAILURE, HystrixEventType.FALLBACK_SUCCESS, HystrixEventType.RESPONSE_FROM_CACHE), result.getOrderedList());
+        assertTrue(result.containsTerminalEvent());
+        assertFalse(ExecutionResult.from(HystrixEventType.EMIT).containsTerminalEvent());
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.netflix.hystrix;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -29,6 +30,7 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import com.netflix.hystrix.HystrixCircuitBreaker.HystrixCircuitBreakerImpl;
+import com.netflix.hystrix.HystrixCircuitBreaker.SlidingWindowCircuitBreaker;
 import com.netflix.hystrix.strategy.HystrixPlugins;
 import com.netflix.hystrix.strategy.executionhook.HystrixCommandExecutionHook;
 import rx.Observable;
@@ -616,6 +618,163 @@ public class HystrixCircuitBreakerTest {
         }
     }
 
+    @Test
+    public void testSlidingWindowTripsOnFailureCrossingThreshold() {
+        SlidingWindowCircuitBreaker cb = new SlidingWindowCircuitBreaker(HystrixCommandPropertiesTest.asMock(
+                HystrixCommandPropertiesTest.getUnitTestPropertiesSetter().withCircuitBreakerRequestVolumeThreshold(5)), 10);
+
+        cb.markSuccess();
+        cb.markSuccess();
+        cb.markSuccess();
+        cb.markSuccess();
+        cb.markFailure();
+        cb.markFailure();
+        // 2 of 6 = 33% is below the 40% threshold
+        assertFalse(cb.isOpen());
+
+        cb.markFailure();
+        // 3 of 7 = 42% trips the circuit right away, no health snapshot involved
+        assertTrue(cb.isOpen());
+        assertFalse(cb.allowRequest());
+        assertFalse(cb.attemptExecution());
+    }
+
+    @Test
+    public void testSlidingWindowForgetsOldestOutcomes() {
+        SlidingWindowCircuitBreaker cb = new SlidingWindowCircuitBreaker(HystrixCommandPropertiesTest.asMock(
+                HystrixCommandPropertiesTest.getUnitTestPropertiesSetter().withCircuitBreakerRequestVolumeThreshold(20)), 4);
+
+        // below the volume threshold, which is capped at the size of the window
+        cb.markFailure();
+        cb.markSuccess();
+        cb.markSuccess();
+        assertFalse(cb.isOpen());
+
+        // the first failure is pushed out of the window, leaving 1 of 4
+        cb.markSuccess();
+        cb.markSuccess();
+        cb.markFailure();
+        assertFalse(cb.isOpen());
+
+        cb.markFailure();
+        assertTrue(cb.isOpen());
+    }
+
+    @Test
+    public void testSlidingWindowStartsOverWhenCircuitCloses() throws InterruptedException {
+        int sleepWindow = 50;
+        SlidingWindowCircuitBreaker cb = new SlidingWindowCircuitBreaker(HystrixCommandPropertiesTest.asMock(
+                HystrixCommandPropertiesTest.getUnitTestPropertiesSetter()
+                        .withCircuitBreakerRequestVolumeThreshold(2)
+                        .withCircuitBreakerSleepWindowInMilliseconds(sleepWindow)), 10);
+
+        cb.markFailure();
+        cb.markFailure();
+        assertTrue(cb.isOpen());
+
+        Thread.sleep(sleepWindow + 50);
+        // a failed single test re-opens the circuit
+        assertTrue(cb.attemptExecution());
+        assertFalse(cb.attemptExecution());
+        cb.markNonSuccess();
+        cb.markFailure();
+        assertTrue(cb.isOpen());
+        assertFalse(cb.attemptExecution());
+
+        Thread.sleep(sleepWindow + 50);
+        assertTrue(cb.attemptExecution());
+        cb.markSuccess();
+        assertFalse(cb.isOpen());
+
+        // the failures from before the circuit opened are gone
+        cb.markFailure();
+        assertFalse(cb.isOpen());
+        cb.markFailure();
+        assertTrue(cb.isOpen());
+    }
+
+    @Test
+    public void testSlidingWindowOutcomeCounts() {
+        SlidingWindowCircuitBreaker.OutcomeRing ring = new SlidingWindowCircuitBreaker.OutcomeRing(3);
+        ring.add(SlidingWindowCircuitBreaker.OutcomeRing.FAILURE);
+        ring.add(SlidingWindowCircuitBreaker.OutcomeRing.FAILURE);
+        ring.add(SlidingWindowCircuitBreaker.OutcomeRing.SUCCESS);
+        assertEquals(3, SlidingWindowCircuitBreaker.OutcomeRing.total(ring.counts()));
+        assertEquals(2, SlidingWindowCircuitBreaker.OutcomeRing.failures(ring.counts()));
+
+        ring.add(SlidingWindowCircuitBreaker.OutcomeRing.SUCCESS);
+        ring.add(SlidingWindowCircuitBreaker.OutcomeRing.SUCCESS);
+        assertEquals(3, SlidingWindowCircuitBreaker.OutcomeRing.total(ring.counts()));
+        assertEquals(0, SlidingWindowCircuitBreaker.OutcomeRing.failures(ring.counts()));
+    }
+
+    @Test
+    public void testCommandWithSlidingWindowTripsOnFirstFailure() {
+        String key = "cmd-K";
+        HystrixCommand<Boolean> cmd1 = new Command(key, true, false, 1, 200, 1, 10);
+        HystrixCommand<Boolean> cmd2 = new Command(key, false, false, 1, 200, 1, 10);
+        assertTrue(cmd1.circuitBreaker instanceof SlidingWindowCircuitBreaker);
+
+        assertFalse(cmd1.execute());
+        assertTrue(cmd1.circuitBreaker.isOpen());
+
+        assertFalse(cmd2.execute());
+        assertTrue(cmd2.isResponseShortCircuited());
+    }
+
+    @Test
+    public void testSlidingWindowIgnoresNonSuccessMarks() {
+        SlidingWindowCircuitBreaker cb = new SlidingWindowCircuitBreaker(HystrixCommandPropertiesTest.asMock(
+                HystrixCommandPropertiesTest.getUnitTestPropertiesSetter().withCircuitBreakerRequestVolumeThreshold(3)), 10);
+
+        // bad requests and cancellations are only marked as non-success, they are not part of the volume
+        cb.markNonSuccess();
+        cb.markNonSuccess();
+        cb.markNonSuccess();
+        cb.markFailure();
+        assertFalse(cb.isOpen());
+    }
+
+    @Test
+    public void testCommandWithSlidingWindowDoesNotTripOnBadRequests() {
+        String key = "cmd-L";
+        HystrixCircuitBreaker cb = null;
+        for (int i = 0; i < 5; i++) {
+            HystrixCommand<Boolean> cmd = new Command(key, false, true, 1, 200, 1, 10);
+            cb = cmd.circuitBreaker;
+            try {
+                cmd.execute();
+                fail("we expect a bad request");
+            } catch (HystrixBadRequestException e) {
+                // expected
+            }
+        }
+        assertFalse(cb.isOpen());
+
+        HystrixCommand<Boolean> cmd = new Command(key, false, false, 1, 200, 1, 10);
+        assertTrue(cmd.execute());
+        assertFalse(cmd.isResponseShortCircuited());
+    }
+
+    @Test
+    public void testCommandWithSlidingWindowDoesNotTripOnCancellations() throws InterruptedException {
+        String key = "cmd-M";
+        HystrixCircuitBreaker cb = null;
+        for (int i = 0; i < 5; i++) {
+            HystrixCommand<Boolean> cmd = new Command(key, false, false, 100, 200, 1, 10);
+            cb = cmd.circuitBreaker;
+            Subscription s = cmd.toObservable().subscribe();
+            Thread.sleep(10);
+            s.unsubscribe();
+        }
+        Thread.sleep(150);
+        assertFalse(cb.isOpen());
+
+        HystrixCommand<Boolean> cmd = new Command(key, false, false, 1, 200, 1, 10);
+        assertTrue(cmd.execute());
+        assertFalse(cmd.isResponseShortCircuited());
+    }
+
     /**
      * Utility method for creating {@link HystrixCommandMetrics} for unit tests.
      */
@@ -726,17 +885,22 @@ public class HystrixCircuitBreakerTest {
         private final boolean shouldFailWithBadRequest;
         private final long latencyToAdd;
 
-        public Command(String commandKey, boolean shouldFail, boolean shouldFailWithBadRequest, long latencyToAdd, int sleepWindow, int requestVolumeThreshold) {
+        public Command(String commandKey, boolean shouldFail, boolean shouldFailWithBadRequest, long latencyToAdd, int sleepWindow, int requestVolumeThreshold, int slidingWindowSize) {
             super(Setter.withGroupKey(HystrixCommandGroupKey.Factory.asKey("Command")).andCommandKey(HystrixCommandKey.Factory.asKey(commandKey)).
                     andCommandPropertiesDefaults(HystrixCommandPropertiesTest.getUnitTestPropertiesSetter().
                             withExecutionTimeoutInMilliseconds(500).
                             withCircuitBreakerRequestVolumeThreshold(requestVolumeThreshold).
-                            withCircuitBreakerSleepWindowInMilliseconds(sleepWindow)));
+                            withCircuitBreakerSleepWindowInMilliseconds(sleepWindow).
+                            withCircuitBreakerSlidingWindowSize(slidingWindowSize)));
             this.shouldFail = shouldFail;
             this.shouldFailWithBadRequest = shouldFailWithBadRequest;
             this.latencyToAdd = latencyToAdd;
         }
 
+        public Command(String commandKey, boolean shouldFail, boolean shouldFailWithBadRequest, long latencyToAdd, int sleepWindow, int requestVolumeThreshold) {
+            this(commandKey, shouldFail, shouldFailWithBadRequest, latencyToAdd, sleepWindow, requestVolumeThreshold, 0);
+        }
+
         public Command(String commandKey, boolean shouldFail, long latencyToAdd) {
             this(commandKey, shouldFail, false, latencyToAdd, 200, 1);
         }
@@ -147,6 +147,78 @@ public class HystrixCollapserTest {
         assertEquals(1, cmdIterator.next().getNumberCollapsed());
     }
 
+    @Test
+    public void testEarlyDispatchWhenBatchIsFull() throws Exception {
+        TestCollapserTimer timer = new TestCollapserTimer();
+        HystrixCollapserProperties.Setter properties = HystrixCollapserProperties.Setter().withMaxRequestsInBatch(2).withTimerDelayInMilliseconds(10).withEarlyDispatchEnabled(true);
+        Future<String> response1 = new TestRequestCollapser(HystrixCollapser.Scope.REQUEST, timer, "1", properties, null).queue();
+        Future<String> response2 = new TestRequestCollapser(HystrixCollapser.Scope.REQUEST, timer, "2", properties, null).queue();
+
+        // the full batch executes without the timer ticking
+        assertEquals("1", response1.get(1000, TimeUnit.MILLISECONDS));
+        assertEquals("2", response2.get(1000, TimeUnit.MILLISECONDS));
+
+        Future<String> response3 = new TestRequestCollapser(HystrixCollapser.Scope.REQUEST, timer, "3", properties, null).queue();
+        timer.incrementTime(10); // the partial batch still waits for the timer
+        assertEquals("3", response3.get(1000, TimeUnit.MILLISECONDS));
+
+        assertEquals(2, HystrixRequestLog.getCurrentRequest().getAllExecutedCommands().size());
+        Iterator<HystrixInvokableInfo<?>> cmdIterator = HystrixRequestLog.getCurrentRequest().getAllExecutedCommands().iterator();
+        assertEquals(2, cmdIterator.next().getNumberCollapsed());
+        assertEquals(1, cmdIterator.next().getNumberCollapsed());
+    }
+
+    @Test
+    public void testEarlyDispatchByWeight() throws Exception {
+        TestCollapserTimer timer = new TestCollapserTimer();
+        HystrixCollapserProperties.Setter properties = HystrixCollapserProperties.Setter().withTimerDelayInMilliseconds(10).withEarlyDispatchEnabled(true).withMaxWeightInBatch(10);
+        Future<String> response1 = new TestWeightedRequestCollapser(timer, "1", 4, properties).queue();
+        Future<String> response2 = new TestWeightedRequestCollapser(timer, "2", 4, properties).queue();
+        assertFalse(response1.isDone());
+        Future<String> response3 = new TestWeightedRequestCollapser(timer, "3", 4, properties).queue();
+
+        // a weight of 12 reaches the threshold of 10, so the batch executes without the timer ticking
+        assertEquals("1", response1.get(1000, TimeUnit.MILLISECONDS));
+        assertEquals("2", response2.get(1000, TimeUnit.MILLISECONDS));
+        assertEquals("3", response3.get(1000, TimeUnit.MILLISECONDS));
+
+        assertEquals(1, HystrixRequestLog.getCurrentRequest().getAllExecutedCommands().size());
+        assertEquals(3, HystrixRequestLog.getCurrentRequest().getAllExecutedCommands().iterator().next().getNumberCollapsed());
+    }
+
+    @Test
+    public void testAdaptiveTimerDelay() throws Exception {
+        TestCollapserTimer timer = new TestCollapserTimer();
+        HystrixCollapserKey key = collapserKeyFromString(timer);
+        HystrixCollapserProperties.Setter properties = HystrixCollapserProperties.Setter()
+                .withTimerDelayInMilliseconds(30)
+                .withAdaptiveTimerDelayEnabled(true)
+                .withAdaptiveTimerDelayMinInMilliseconds(10)
+                .withAdaptiveTimerDelayMaxInMilliseconds(100);
+        HystrixCollapserMetrics metrics = new HystrixCollapserMetrics(key, new HystrixPropertiesCollapserDefault(key, properties));
+        assertEquals(30, metrics.getCurrentTimerDelayInMilliseconds());
+
+        Future<String> response1 = new TestRequestCollapser(HystrixCollapser.Scope.REQUEST, timer, "1", properties, metrics, null).queue();
+        // the timer ticks at the minimum delay, but the batch waits for the current delay
+        timer.incrementTime(10);
+        timer.incrementTime(10);
+        assertFalse(response1.isDone());
+        timer.incrementTime(10);
+        assertEquals("1", response1.get(1000, TimeUnit.MILLISECONDS));
+
+        // nothing was collapsed, so waiting is not worth it and the delay narrows to the minimum
+        long deadline = System.currentTimeMillis() + 1000;
+        while (metrics.getCurrentTimerDelayInMilliseconds() != 10 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(10, metrics.getCurrentTimerDelayInMilliseconds());
+
+        Future<String> response2 = new TestRequestCollapser(HystrixCollapser.Scope.REQUEST, timer, "2", properties, metrics, null).queue();
+        timer.incrementTime(10);
+        assertEquals("2", response2.get(1000, TimeUnit.MILLISECONDS));
+        assertEquals(2, HystrixRequestLog.getCurrentRequest().getAllExecutedCommands().size());
+    }
+
     @Test
     public void testRequestsOverTime() throws Exception {
         TestCollapserTimer timer = new TestCollapserTimer();
@@ -1877,9 +1949,17 @@ public class HystrixCollapserTest {
         }
 
         public TestRequestCollapser(Scope scope, TestCollapserTimer timer, String value, int defaultMaxRequestsInBatch, int defaultTimerDelayInMilliseconds, ConcurrentLinkedQueue<HystrixCommand<List<String>>> executionLog) {
+            this(scope, timer, value, HystrixCollapserProperties.Setter().withMaxRequestsInBatch(defaultMaxRequestsInBatch).withTimerDelayInMilliseconds(defaultTimerDelayInMilliseconds), executionLog);
+        }
+
+        public TestRequestCollapser(Scope scope, TestCollapserTimer timer, String value, HystrixCollapserProperties.Setter properties, ConcurrentLinkedQueue<HystrixCommand<List<String>>> executionLog) {
+            this(scope, timer, value, properties, createMetrics(), executionLog);
+        }
+
+        public TestRequestCollapser(Scope scope, TestCollapserTimer timer, String value, HystrixCollapserProperties.Setter properties, HystrixCollapserMetrics metrics, ConcurrentLinkedQueue<HystrixCommand<List<String>>> executionLog) {
             // use a CollapserKey based on the CollapserTimer object reference so it's unique for each timer as we don't want caching
             // of properties to occur and we're using the default HystrixProperty which typically does caching
-            super(collapserKeyFromString(timer), scope, timer, HystrixCollapserProperties.Setter().withMaxRequestsInBatch(defaultMaxRequestsInBatch).withTimerDelayInMilliseconds(defaultTimerDelayInMilliseconds), createMetrics());
+            super(collapserKeyFromString(timer), scope, timer, properties, metrics);
             this.value = value;
             this.commandsExecuted = executionLog;
         }
@@ -1959,6 +2039,22 @@ public class HystrixCollapserTest {
     /**
      * Throw an exception when creating a command.
      */
+    private static class TestWeightedRequestCollapser extends TestRequestCollapser {
+
+        private final int weight;
+
+        public TestWeightedRequestCollapser(TestCollapserTimer timer, String value, int weight, HystrixCollapserProperties.Setter properties) {
+            super(Scope.REQUEST, timer, value, properties, null);
+            this.weight = weight;
+        }
+
+        @Override
+        protected int getRequestWeight() {
+            return weight;
+        }
+
+    }
+
     private static class TestRequestCollapserWithFaultyCreateCommand extends TestRequestCollapser {
 
         public TestRequestCollapserWithFaultyCreateCommand(TestCollapserTimer timer, String value) {
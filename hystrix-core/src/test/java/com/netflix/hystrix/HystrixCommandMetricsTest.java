@@ -20,6 +20,8 @@ import static org.junit.Assert.fail;
 
 import com.hystrix.junit.HystrixRequestContextRule;
 import com.netflix.hystrix.exception.HystrixBadRequestException;
+import com.netflix.hystrix.metric.HystrixCommandCompletion;
+import com.netflix.hystrix.metric.HystrixCommandCompletionStream;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -190,6 +192,32 @@ public class HystrixCommandMetricsTest {
         assertEquals(0, metrics.getCurrentConcurrentExecutionCount());
     }
 
+    @Test
+    public void testAdaptiveConcurrencyLimit() {
+        HystrixCommandKey key = HystrixCommandKey.Factory.asKey("cmd-metrics-D");
+        HystrixCommandProperties properties = HystrixCommandPropertiesTest.asMock(HystrixCommandPropertiesTest.getUnitTestPropertiesSetter()
+                .withExecutionIsolationSemaphoreMaxConcurrentRequests(10)
+                .withExecutionIsolationSemaphoreAdaptiveLimitEnabled(true));
+        HystrixCommandMetrics metrics = HystrixCommandMetrics.getInstance(key, HystrixCommandGroupKey.Factory.asKey("Command"), properties);
+        assertEquals(10, metrics.getCurrentConcurrencyLimit());
+
+        HystrixCommandCompletionStream.getInstance(key).write(
+                HystrixCommandCompletion.from(ExecutionResult.from(HystrixEventType.TIMEOUT), key, HystrixThreadPoolKey.Factory.asKey("Command")));
+        assertEquals(9, metrics.getCurrentConcurrencyLimit());
+    }
+
+    @Test
+    public void testStaticConcurrencyLimit() {
+        HystrixCommandKey key = HystrixCommandKey.Factory.asKey("cmd-metrics-E");
+        HystrixCommandProperties properties = HystrixCommandPropertiesTest.asMock(HystrixCommandPropertiesTest.getUnitTestPropertiesSetter()
+                .withExecutionIsolationSemaphoreMaxConcurrentRequests(10));
+        HystrixCommandMetrics metrics = HystrixCommandMetrics.getInstance(key, HystrixCommandGroupKey.Factory.asKey("Command"), properties);
+
+        HystrixCommandCompletionStream.getInstance(key).write(
+                HystrixCommandCompletion.from(ExecutionResult.from(HystrixEventType.TIMEOUT), key, HystrixThreadPoolKey.Factory.asKey("Command")));
+        assertEquals(10, metrics.getCurrentConcurrencyLimit());
+    }
+
     private class Command extends HystrixCommand<Boolean> {
 
         private final boolean shouldFail;
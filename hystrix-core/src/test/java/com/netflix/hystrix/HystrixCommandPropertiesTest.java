@@ -17,12 +17,17 @@ package com.netflix.hystrix;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import org.junit.After;
 import org.junit.Test;
 
 import com.netflix.config.ConfigurationManager;
 import com.netflix.hystrix.HystrixCommandProperties.ExecutionIsolationStrategy;
 import com.netflix.hystrix.HystrixCommandProperties.Setter;
+import com.netflix.hystrix.strategy.properties.HystrixDynamicProperties;
+import com.netflix.hystrix.strategy.properties.HystrixDynamicPropertiesSystemProperties;
+import com.netflix.hystrix.strategy.properties.HystrixDynamicProperty;
 import com.netflix.hystrix.strategy.properties.HystrixProperty;
 
 public class HystrixCommandPropertiesTest {
@@ -43,17 +48,27 @@ public class HystrixCommandPropertiesTest {
                 .withMetricsRollingStatisticalWindowBuckets(5) // buckets
                 .withCircuitBreakerRequestVolumeThreshold(0) // in testing we will not have a threshold unless we're specifically testing that feature
                 .withCircuitBreakerSleepWindowInMilliseconds(5000000) // milliseconds after tripping circuit before allowing retry (by default set VERY long as we want it to effectively never allow a singleTest for most unit tests)
+                .withCircuitBreakerSlidingWindowSize(0)
                 .withCircuitBreakerEnabled(true)
                 .withRequestLogEnabled(true)
+                .withRequestLogSummaryEnabled(false)
                 .withExecutionIsolationSemaphoreMaxConcurrentRequests(20)
+                .withExecutionIsolationSemaphoreAdaptiveLimitEnabled(false)
                 .withFallbackIsolationSemaphoreMaxConcurrentRequests(10)
                 .withFallbackEnabled(true)
+                .withFallbackStaleEnabled(false)
+                .withFallbackStaleMaxSize(1000)
+                .withFallbackStaleMaxAgeInMilliseconds(300000)
                 .withCircuitBreakerForceClosed(false)
                 .withMetricsRollingPercentileEnabled(true)
                 .withRequestCacheEnabled(true)
+                .withRequestCacheGlobalEnabled(false)
+                .withRequestCacheGlobalMaxSize(1000)
+                .withRequestCacheGlobalTtlInMilliseconds(60000)
                 .withMetricsRollingPercentileWindowInMilliseconds(60000)
                 .withMetricsRollingPercentileWindowBuckets(12)
                 .withMetricsRollingPercentileBucketSize(1000)
+                .withMetricsRollingPercentileIncrementalEnabled(false)
                 .withMetricsHealthSnapshotIntervalInMilliseconds(100);
     }
 
@@ -97,11 +112,21 @@ public class HystrixCommandPropertiesTest {
                 return HystrixProperty.Factory.asProperty(builder.getCircuitBreakerSleepWindowInMilliseconds());
             }
 
+            @Override
+            public HystrixProperty<Integer> circuitBreakerSlidingWindowSize() {
+                return HystrixProperty.Factory.asProperty(builder.getCircuitBreakerSlidingWindowSize());
+            }
+
             @Override
             public HystrixProperty<Integer> executionIsolationSemaphoreMaxConcurrentRequests() {
                 return HystrixProperty.Factory.asProperty(builder.getExecutionIsolationSemaphoreMaxConcurrentRequests());
             }
 
+            @Override
+            public HystrixProperty<Boolean> executionIsolationSemaphoreAdaptiveLimitEnabled() {
+                return HystrixProperty.Factory.asProperty(builder.getExecutionIsolationSemaphoreAdaptiveLimitEnabled());
+            }
+
             @Override
             public HystrixProperty<ExecutionIsolationStrategy> executionIsolationStrategy() {
                 return HystrixProperty.Factory.asProperty(builder.getExecutionIsolationStrategy());
@@ -142,6 +167,21 @@ public class HystrixCommandPropertiesTest {
                 return HystrixProperty.Factory.asProperty(builder.getFallbackEnabled());
             }
 
+            @Override
+            public HystrixProperty<Boolean> fallbackStaleEnabled() {
+                return HystrixProperty.Factory.asProperty(builder.getFallbackStaleEnabled());
+            }
+
+            @Override
+            public HystrixProperty<Integer> fallbackStaleMaxSize() {
+                return HystrixProperty.Factory.asProperty(builder.getFallbackStaleMaxSize());
+            }
+
+            @Override
+            public HystrixProperty<Integer> fallbackStaleMaxAgeInMilliseconds() {
+                return HystrixProperty.Factory.asProperty(builder.getFallbackStaleMaxAgeInMilliseconds());
+            }
+
             @Override
             public HystrixProperty<Integer> metricsHealthSnapshotIntervalInMilliseconds() {
                 return HystrixProperty.Factory.asProperty(builder.getMetricsHealthSnapshotIntervalInMilliseconds());
@@ -157,6 +197,11 @@ public class HystrixCommandPropertiesTest {
                 return HystrixProperty.Factory.asProperty(builder.getMetricsRollingPercentileEnabled());
             }
 
+            @Override
+            public HystrixProperty<Boolean> metricsRollingPercentileIncrementalEnabled() {
+                return HystrixProperty.Factory.asProperty(builder.getMetricsRollingPercentileIncrementalEnabled());
+            }
+
             @Override
             public HystrixProperty<Integer> metricsRollingPercentileWindow() {
                 return HystrixProperty.Factory.asProperty(builder.getMetricsRollingPercentileWindowInMilliseconds());
@@ -182,11 +227,31 @@ public class HystrixCommandPropertiesTest {
                 return HystrixProperty.Factory.asProperty(builder.getRequestCacheEnabled());
             }
 
+            @Override
+            public HystrixProperty<Boolean> requestCacheGlobalEnabled() {
+                return HystrixProperty.Factory.asProperty(builder.getRequestCacheGlobalEnabled());
+            }
+
+            @Override
+            public HystrixProperty<Integer> requestCacheGlobalMaxSize() {
+                return HystrixProperty.Factory.asProperty(builder.getRequestCacheGlobalMaxSize());
+            }
+
+            @Override
+            public HystrixProperty<Integer> requestCacheGlobalTtlInMilliseconds() {
+                return HystrixProperty.Factory.asProperty(builder.getRequestCacheGlobalTtlInMilliseconds());
+            }
+
             @Override
             public HystrixProperty<Boolean> requestLogEnabled() {
                 return HystrixProperty.Factory.asProperty(builder.getRequestLogEnabled());
             }
 
+            @Override
+            public HystrixProperty<Boolean> requestLogSummaryEnabled() {
+                return HystrixProperty.Factory.asProperty(builder.getRequestLogSummaryEnabled());
+            }
+
         };
     }
 
@@ -356,4 +421,76 @@ public class HystrixCommandPropertiesTest {
         ConfigurationManager.getConfigInstance().clearProperty("unitTestPrefix.command.TEST.threadPoolKeyOverride");
     }
 
+    @Test
+    public void testSnapshotFollowsDynamicChanges() throws Exception {
+        HystrixCommandProperties properties = new TestPropertiesCommand(TestKey.TEST, new HystrixCommandProperties.Setter(), "unitTestPrefix");
+        HystrixCommandProperties.Snapshot snapshot = properties.snapshot();
+        assertEquals(HystrixCommandProperties.default_circuitBreakerForceClosed, snapshot.circuitBreakerForceClosed());
+        assertEquals(ExecutionIsolationStrategy.THREAD, snapshot.executionIsolationStrategy());
+
+        // a change at the end of the chain
+        ConfigurationManager.getConfigInstance().setProperty("unitTestPrefix.command.default.circuitBreaker.forceClosed", true);
+        assertEquals(true, properties.snapshot().circuitBreakerForceClosed());
+
+        // a change at the start of the chain
+        ConfigurationManager.getConfigInstance().setProperty("unitTestPrefix.command.TEST.circuitBreaker.forceClosed", false);
+        assertEquals(false, properties.snapshot().circuitBreakerForceClosed());
+        ConfigurationManager.getConfigInstance().setProperty("unitTestPrefix.command.TEST.execution.isolation.strategy", "SEMAPHORE");
+        assertEquals(ExecutionIsolationStrategy.SEMAPHORE, properties.snapshot().executionIsolationStrategy());
+
+        // the snapshot taken before is never changed
+        assertEquals(ExecutionIsolationStrategy.THREAD, snapshot.executionIsolationStrategy());
+
+        // cleanup 
+        ConfigurationManager.getConfigInstance().clearProperty("unitTestPrefix.command.default.circuitBreaker.forceClosed");
+        ConfigurationManager.getConfigInstance().clearProperty("unitTestPrefix.command.TEST.circuitBreaker.forceClosed");
+        ConfigurationManager.getConfigInstance().clearProperty("unitTestPrefix.command.TEST.execution.isolation.strategy");
+    }
+
+    @Test
+    public void testSnapshotOfPlainPropertiesReadsThrough() {
+        final AtomicBoolean forceOpen = new AtomicBoolean(false);
+        HystrixCommandProperties properties = new TestPropertiesCommand(TestKey.TEST, new HystrixCommandProperties.Setter(), "unitTestPrefix") {
+
+            @Override
+            public HystrixProperty<Boolean> circuitBreakerForceOpen() {
+                return new HystrixProperty<Boolean>() {
+
+                    @Override
+                    public Boolean get() {
+                        return forceOpen.get();
+                    }
+
+                };
+            }
+
+        };
+        assertEquals(false, properties.snapshot().circuitBreakerForceOpen());
+        forceOpen.set(true);
+        assertEquals(true, properties.snapshot().circuitBreakerForceOpen());
+    }
+
+    @Test
+    public void testSnapshotSeesSystemPropertyChanges() {
+        // the System properties implementation never fires callbacks, so a cached snapshot would keep the value it was built with
+        HystrixDynamicProperties systemProperties = HystrixDynamicPropertiesSystemProperties.getInstance();
+        final HystrixDynamicProperty<Integer> timeout = systemProperties.getInteger("unitTestPrefix.command.TEST.execution.isolation.thread.timeoutInMilliseconds", 1000);
+        HystrixCommandProperties properties = new TestPropertiesCommand(TestKey.TEST, new HystrixCommandProperties.Setter(), "unitTestPrefix") {
+
+            @Override
+            public HystrixProperty<Integer> executionTimeoutInMilliseconds() {
+                return timeout;
+            }
+
+        };
+        HystrixCommandProperties.Snapshot snapshot = properties.initSnapshot(systemProperties);
+        assertEquals(1000, snapshot.executionTimeoutInMilliseconds());
+        try {
+            System.setProperty("unitTestPrefix.command.TEST.execution.isolation.thread.timeoutInMilliseconds", "2000");
+            assertEquals(2000, snapshot.executionTimeoutInMilliseconds());
+        } finally {
+            System.clearProperty("unitTestPrefix.command.TEST.execution.isolation.thread.timeoutInMilliseconds");
+        }
+    }
+
 }
@@ -705,6 +705,34 @@ public class HystrixCommandTest extends CommonHystrixCommandTests<TestHystrixCom
         assertSaneHystrixRequestLog(1);
     }
 
+    /**
+     * Test a successful command execution with VIRTUAL isolation, which runs on a thread of its own (virtual if the runtime supports it).
+     */
+    @Test
+    public void testVirtualIsolatedExecutionSuccess() {
+        TestHystrixCommand<Integer> command = getCommand(ExecutionIsolationStrategy.VIRTUAL, AbstractTestHystrixCommand.ExecutionResult.SUCCESS);
+        assertEquals(FlexibleTestHystrixCommand.EXECUTE_VALUE, command.execute());
+        assertTrue(command.isExecutedInThread());
+        assertTrue(command.isSuccessfulExecution());
+        assertCommandExecutionEvents(command, HystrixEventType.SUCCESS);
+        assertEquals(0, command.getBuilder().metrics.getCurrentConcurrentExecutionCount());
+        assertSaneHystrixRequestLog(1);
+    }
+
+    /**
+     * Test a command execution timeout with VIRTUAL isolation where the command implemented getFallback.
+     */
+    @Test
+    public void testVirtualIsolatedExecutionTimeoutWithFallback() {
+        TestHystrixCommand<Integer> command = getLatentCommand(ExecutionIsolationStrategy.VIRTUAL, AbstractTestHystrixCommand.ExecutionResult.SUCCESS, 200, AbstractTestHystrixCommand.FallbackResult.SUCCESS, 50);
+        assertEquals(FlexibleTestHystrixCommand.FALLBACK_VALUE, command.execute());
+        assertTrue(command.isResponseTimedOut());
+        assertTrue(command.isResponseFromFallback());
+        assertCommandExecutionEvents(command, HystrixEventType.TIMEOUT, HystrixEventType.FALLBACK_SUCCESS);
+        assertEquals(0, command.getBuilder().metrics.getCurrentConcurrentExecutionCount());
+        assertSaneHystrixRequestLog(1);
+    }
+
     /**
      * Test a command execution timeout where the command implemented getFallback.
      */
@@ -5777,6 +5805,38 @@ public class HystrixCommandTest extends CommonHystrixCommandTests<TestHystrixCom
         }
     }
 
+    @Test
+    public void testInstancesShareResolvedWiringOfTheirCommandKey() {
+        PrototypeCommand first = new PrototypeCommand();
+        PrototypeCommand second = new PrototypeCommand();
+        assertSame(first.properties, second.properties);
+        assertSame(first.metrics, second.metrics);
+        assertSame(first.circuitBreaker, second.circuitBreaker);
+        assertSame(first.executionHook, second.executionHook);
+        assertEquals("PrototypeGroup", second.threadPoolKey.name());
+
+        // a dynamic change to the wiring applies to instances constructed after it
+        ConfigurationManager.getConfigInstance().setProperty("hystrix.command.PrototypeCommand.threadPoolKeyOverride", "PrototypeOverride");
+        PrototypeCommand third = new PrototypeCommand();
+        assertEquals("PrototypeOverride", third.threadPoolKey.name());
+        assertNotSame(first.threadPool, third.threadPool);
+        assertSame(first.metrics, third.metrics);
+        assertEquals(true, third.execute());
+    }
+
+    private static class PrototypeCommand extends HystrixCommand<Boolean> {
+
+        public PrototypeCommand() {
+            super(Setter.withGroupKey(HystrixCommandGroupKey.Factory.asKey("PrototypeGroup"))
+                    .andCommandKey(HystrixCommandKey.Factory.asKey("PrototypeCommand")));
+        }
+
+        @Override
+        protected Boolean run() throws Exception {
+            return true;
+        }
+    }
+
     private static class CommandWithDisabledTimeout extends TestHystrixCommand<Boolean> {
         private final int latency;
 
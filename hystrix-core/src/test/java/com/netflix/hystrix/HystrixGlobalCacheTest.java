@@ -0,0 +1,265 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix;
+
+import com.netflix.hystrix.strategy.concurrency.HystrixRequestContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HystrixGlobalCacheTest {
+
+    private static final AtomicInteger uniqueId = new AtomicInteger();
+
+    private HystrixRequestContext context;
+
+    @Before
+    public void init() {
+        Hystrix.reset();
+        context = HystrixRequestContext.initializeContext();
+    }
+
+    @After
+    public void cleanup() {
+        context.shutdown();
+    }
+
+    /**
+     * Start a new request, without resetting Hystrix as that would clear the global caches.
+     */
+    private void newRequest() {
+        context.shutdown();
+        context = HystrixRequestContext.initializeContext();
+    }
+
+    private static HystrixCommandProperties.Setter globalCache() {
+        return HystrixCommandProperties.Setter()
+                .withRequestCacheGlobalEnabled(true)
+                .withExecutionTimeoutInMilliseconds(2000);
+    }
+
+    @Test
+    public void testHitInAnotherRequest() {
+        HystrixCommandKey key = HystrixCommandKey.Factory.asKey("GlobalCacheHit" + uniqueId.incrementAndGet());
+        AtomicInteger executions = new AtomicInteger();
+
+        GlobalCacheCommand first = new GlobalCacheCommand(key, "A", executions, globalCache());
+        assertEquals("A", first.execute());
+        assertTrue(first.getEventCounts().contains(HystrixEventType.GLOBAL_CACHE_MISS));
+        assertTrue(first.isSuccessfulExecution());
+
+        newRequest();
+        GlobalCacheCommand second = new GlobalCacheCommand(key, "A", executions, globalCache());
+        assertEquals("A", second.execute());
+        assertEquals(1, executions.get());
+        assertEquals(1, second.getExecutionEvents().size());
+        assertTrue(second.getEventCounts().contains(HystrixEventType.GLOBAL_CACHE_HIT));
+        assertFalse(second.isResponseFromCache());
+        assertTrue(second.isExecutionComplete());
+
+        new GlobalCacheCommand(key, "B", executions, globalCache()).execute();
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void testFallbackIsNotCached() {
+        HystrixCommandKey key = HystrixCommandKey.Factory.asKey("GlobalCacheFallback" + uniqueId.incrementAndGet());
+        AtomicInteger executions = new AtomicInteger();
+
+        assertEquals("fallback", new GlobalCacheCommand(key, "A", executions, globalCache(), true).execute());
+        newRequest();
+        GlobalCacheCommand second = new GlobalCacheCommand(key, "A", executions, globalCache(), true);
+        assertEquals("fallback", second.execute());
+        assertEquals(2, executions.get());
+        assertTrue(second.getEventCounts().contains(HystrixEventType.GLOBAL_CACHE_MISS));
+    }
+
+    @Test
+    public void testExpiresAfterTtl() throws InterruptedException {
+        HystrixCommandKey key = HystrixCommandKey.Factory.asKey("GlobalCacheTtl" + uniqueId.incrementAndGet());
+        AtomicInteger executions = new AtomicInteger();
+        HystrixCommandProperties.Setter properties = globalCache().withRequestCacheGlobalTtlInMilliseconds(50);
+
+        new GlobalCacheCommand(key, "A", executions, properties).execute();
+        newRequest();
+        new GlobalCacheCommand(key, "A", executions, properties).execute();
+        assertEquals(1, executions.get());
+
+        Thread.sleep(100);
+        newRequest();
+        GlobalCacheCommand expired = new GlobalCacheCommand(key, "A", executions, properties);
+        assertEquals("A", expired.execute());
+        assertEquals(2, executions.get());
+        assertTrue(expired.getEventCounts().contains(HystrixEventType.GLOBAL_CACHE_MISS));
+    }
+
+    @Test
+    public void testExpiredResponseIsEvictedOnRead() throws InterruptedException {
+        HystrixCommandKey key = HystrixCommandKey.Factory.asKey("GlobalCacheTtlEvict" + uniqueId.incrementAndGet());
+        HystrixCommandProperties.Setter properties = globalCache().withRequestCacheGlobalTtlInMilliseconds(50);
+
+        new GlobalCacheCommand(key, "A", new AtomicInteger(), properties).execute();
+        HystrixGlobalCache cache = HystrixGlobalCache.getInstance(key, null);
+        assertEquals(1, cache.size());
+
+        Thread.sleep(100);
+        assertNull(cache.get("A"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test(timeout = 5000)
+    public void testWaitForLoadIsBoundedByExecutionTimeout() {
+        HystrixCommandKey key = HystrixCommandKey.Factory.asKey("GlobalCacheWaitTimeout" + uniqueId.incrementAndGet());
+        AtomicInteger executions = new AtomicInteger();
+        HystrixCommandProperties.Setter properties = globalCache().withExecutionTimeoutInMilliseconds(100);
+
+        // create the cache, then register a load for "A" that never completes
+        new GlobalCacheCommand(key, "B", executions, properties).execute();
+        assertNotNull(HystrixGlobalCache.getInstance(key, null).startLoad("A"));
+
+        newRequest();
+        GlobalCacheCommand waiting = new GlobalCacheCommand(key, "A", executions, properties);
+        assertEquals("A", waiting.execute());
+        assertEquals(2, executions.get());
+        assertTrue(waiting.getEventCounts().contains(HystrixEventType.GLOBAL_CACHE_MISS));
+        assertTrue(waiting.isSuccessfulExecution());
+    }
+
+    @Test
+    public void testConcurrentMissesExecuteOnce() throws Exception {
+        HystrixCommandKey key = HystrixCommandKey.Factory.asKey("GlobalCacheCoalesce" + uniqueId.incrementAndGet());
+        AtomicInteger executions = new AtomicInteger();
+        // no request caching, only the global cache can dedupe
+        HystrixCommandProperties.Setter properties = globalCache().withRequestCacheEnabled(false);
+
+        List<GlobalCacheCommand> commands = new ArrayList<GlobalCacheCommand>();
+        List<Future<String>> responses = new ArrayList<Future<String>>();
+        for (int i = 0; i < 5; i++) {
+            GlobalCacheCommand command = new GlobalCacheCommand(key, "A", executions, properties, false, 200);
+            commands.add(command);
+            responses.add(command.queue());
+        }
+        for (Future<String> response : responses) {
+            assertEquals("A", response.get());
+        }
+
+        assertEquals(1, executions.get());
+        int hits = 0;
+        for (GlobalCacheCommand command : commands) {
+            if (command.getEventCounts().contains(HystrixEventType.GLOBAL_CACHE_HIT)) {
+                hits++;
+            }
+        }
+        assertEquals(4, hits);
+    }
+
+    @Test
+    public void testFrequentlyUsedResponseSurvivesScan() {
+        HystrixCommandKey key = HystrixCommandKey.Factory.asKey("GlobalCacheEviction" + uniqueId.incrementAndGet());
+        AtomicInteger hotExecutions = new AtomicInteger();
+        AtomicInteger coldExecutions = new AtomicInteger();
+        HystrixCommandProperties.Setter properties = globalCache().withRequestCacheGlobalMaxSize(10);
+
+        for (int i = 0; i < 5; i++) {
+            newRequest();
+            new GlobalCacheCommand(key, "hot", hotExecutions, properties).execute();
+        }
+
+        boolean evicted = false;
+        for (int i = 0; i < 30; i++) {
+            GlobalCacheCommand cold = new GlobalCacheCommand(key, "cold" + i, coldExecutions, properties);
+            cold.execute();
+            evicted |= cold.getEventCounts().contains(HystrixEventType.GLOBAL_CACHE_EVICTION);
+        }
+        assertTrue(evicted);
+        assertEquals(30, coldExecutions.get());
+        assertTrue(HystrixGlobalCache.getInstance(key, null).size() <= 10);
+
+        newRequest();
+        new GlobalCacheCommand(key, "hot", hotExecutions, properties).execute();
+        assertEquals(1, hotExecutions.get());
+    }
+
+    @Test
+    public void testClear() {
+        HystrixCommandKey key = HystrixCommandKey.Factory.asKey("GlobalCacheClear" + uniqueId.incrementAndGet());
+        AtomicInteger executions = new AtomicInteger();
+
+        new GlobalCacheCommand(key, "A", executions, globalCache()).execute();
+        HystrixGlobalCache.getInstance(key, null).clear("A");
+        newRequest();
+        new GlobalCacheCommand(key, "A", executions, globalCache()).execute();
+        assertEquals(2, executions.get());
+    }
+
+    private static class GlobalCacheCommand extends HystrixCommand<String> {
+        private final String value;
+        private final AtomicInteger executions;
+        private final boolean fail;
+        private final int latency;
+
+        GlobalCacheCommand(HystrixCommandKey key, String value, AtomicInteger executions, HystrixCommandProperties.Setter properties) {
+            this(key, value, executions, properties, false);
+        }
+
+        GlobalCacheCommand(HystrixCommandKey key, String value, AtomicInteger executions, HystrixCommandProperties.Setter properties, boolean fail) {
+            this(key, value, executions, properties, fail, 0);
+        }
+
+        GlobalCacheCommand(HystrixCommandKey key, String value, AtomicInteger executions, HystrixCommandProperties.Setter properties, boolean fail, int latency) {
+            super(Setter.withGroupKey(HystrixCommandGroupKey.Factory.asKey("GlobalCacheTest"))
+                    .andCommandKey(key)
+                    .andCommandPropertiesDefaults(properties));
+            this.value = value;
+            this.executions = executions;
+            this.fail = fail;
+            this.latency = latency;
+        }
+
+        @Override
+        protected String run() throws Exception {
+            executions.incrementAndGet();
+            if (latency > 0) {
+                Thread.sleep(latency);
+            }
+            if (fail) {
+                throw new RuntimeException("failed");
+            }
+            return value;
+        }
+
+        @Override
+        protected String getFallback() {
+            return "fallback";
+        }
+
+        @Override
+        protected String getCacheKey() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HystrixRequestLogSegmentTest {
+
+    @Test
+    public void testAppendInOrderAcrossBuckets() {
+        HystrixRequestLogSegment<Integer> segment = new HystrixRequestLogSegment<Integer>(100);
+        assertTrue(segment.isEmpty());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, segment.append(i));
+        }
+        assertEquals(100, segment.size());
+        int expected = 0;
+        for (Integer i : segment) {
+            assertEquals(expected++, i.intValue());
+        }
+        assertEquals(100, expected);
+    }
+
+    @Test
+    public void testIgnoresAppendsBeyondCapacity() {
+        HystrixRequestLogSegment<Integer> segment = new HystrixRequestLogSegment<Integer>(20);
+        for (int i = 0; i < 20; i++) {
+            segment.append(i);
+        }
+        assertEquals(-1, segment.append(20));
+        assertEquals(20, segment.size());
+    }
+
+    @Test
+    public void testReplaceOnlyExpectedEntry() {
+        HystrixRequestLogSegment<String> segment = new HystrixRequestLogSegment<String>(10);
+        int a = segment.append("a");
+        segment.append("b");
+        assertFalse(segment.replace(a, "b", "x"));
+        assertTrue(segment.replace(a, "a", "summary"));
+        assertFalse(segment.replace(5, null, "x"));
+        Iterator<String> it = segment.iterator();
+        assertEquals("summary", it.next());
+        assertEquals("b", it.next());
+        assertFalse(it.hasNext());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnlyView() {
+        HystrixRequestLogSegment<String> segment = new HystrixRequestLogSegment<String>(10);
+        segment.append("a");
+        segment.clear();
+    }
+
+    @Test
+    public void testConcurrentAppends() throws InterruptedException {
+        final HystrixRequestLogSegment<Integer> segment = new HystrixRequestLogSegment<Integer>(1000);
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 8; t++) {
+            final int offset = t * 200;
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < 200; i++) {
+                        segment.append(offset + i);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Set<Integer> seen = new HashSet<Integer>(segment);
+        assertEquals(1000, segment.size());
+        assertEquals(1000, seen.size());
+    }
+}
@@ -17,6 +17,10 @@ package com.netflix.hystrix;
 
 import com.hystrix.junit.HystrixRequestContextRule;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -161,6 +165,63 @@ public class HystrixRequestLogTest {
         assertEquals(HystrixRequestLog.MAX_STORAGE, HystrixRequestLog.getCurrentRequest().getAllExecutedCommands().size());
     }
 
+    @Test
+    public void testSummaryReplacesCompletedCommand() {
+        SummarizedCommand command = new SummarizedCommand("A");
+        assertEquals("A", command.execute());
+        // 1 success from cache
+        new SummarizedCommand("A").execute();
+
+        HystrixRequestLog requestLog = HystrixRequestLog.getCurrentRequest();
+        Collection<HystrixInvokableInfo<?>> executed = requestLog.getAllExecutedCommands();
+        assertEquals(2, executed.size());
+        HystrixInvokableInfo<?> first = executed.iterator().next();
+        assertTrue(first instanceof HystrixInvokableSummary);
+        assertNotSame(command, first);
+        assertEquals(command.getCommandKey(), first.getCommandKey());
+        assertEquals("A", first.getPublicCacheKey());
+        assertEquals(command.getExecutionEvents(), first.getExecutionEvents());
+        assertEquals(command.getExecutionTimeInMilliseconds(), first.getExecutionTimeInMilliseconds());
+        assertTrue(first.isSuccessfulExecution());
+        assertTrue(first.isExecutionComplete());
+        assertTrue(requestLog.getExecutedCommands().isEmpty());
+
+        String log = requestLog.getExecutedCommandsAsString();
+        // strip the actual count so we can compare reliably
+        log = log.replaceAll(DIGITS_REGEX, "[");
+        assertEquals("Summarized[SUCCESS][ms], Summarized[SUCCESS, RESPONSE_FROM_CACHE][ms]", log);
+    }
+
+    @Test
+    public void testCommandIsLoggedUntilCompleted() {
+        new TestCommand("A", false, true).execute();
+        HystrixInvokableInfo<?> logged = HystrixRequestLog.getCurrentRequest().getAllExecutedCommands().iterator().next();
+        assertTrue(logged instanceof TestCommand);
+        assertEquals(1, HystrixRequestLog.getCurrentRequest().getExecutedCommands().size());
+    }
+
+    private static class SummarizedCommand extends HystrixCommand<String> {
+
+        private final String value;
+
+        public SummarizedCommand(String value) {
+            super(Setter.withGroupKey(HystrixCommandGroupKey.Factory.asKey("RequestLogTestCommand"))
+                    .andCommandKey(HystrixCommandKey.Factory.asKey("Summarized"))
+                    .andCommandPropertiesDefaults(new HystrixCommandProperties.Setter().withRequestLogSummaryEnabled(true)));
+            this.value = value;
+        }
+
+        @Override
+        protected String run() {
+            return value;
+        }
+
+        @Override
+        protected String getCacheKey() {
+            return value;
+        }
+    }
+
     private static class TestCommand extends HystrixCommand<String> {
 
         private final String value;
@@ -0,0 +1,220 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix;
+
+import com.netflix.config.ConfigurationManager;
+import com.netflix.hystrix.exception.HystrixRuntimeException;
+import com.netflix.hystrix.strategy.concurrency.HystrixRequestContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HystrixStaleResponseCacheTest {
+
+    private static final AtomicInteger uniqueId = new AtomicInteger();
+
+    private HystrixRequestContext context;
+
+    @Before
+    public void init() {
+        Hystrix.reset();
+        context = HystrixRequestContext.initializeContext();
+    }
+
+    @After
+    public void cleanup() {
+        context.shutdown();
+        ConfigurationManager.getConfigInstance().clear();
+    }
+
+    /**
+     * Start a new request, without resetting Hystrix as that would clear the stale responses.
+     */
+    private void newRequest() {
+        context.shutdown();
+        context = HystrixRequestContext.initializeContext();
+    }
+
+    private static void forceOpen(HystrixCommandKey key) {
+        ConfigurationManager.getConfigInstance().setProperty("hystrix.command." + key.name() + ".circuitBreaker.forceOpen", true);
+    }
+
+    private static HystrixCommandProperties.Setter staleFallback() {
+        return HystrixCommandProperties.Setter()
+                .withFallbackStaleEnabled(true)
+                .withExecutionTimeoutInMilliseconds(200);
+    }
+
+    @Test
+    public void testShortCircuitServesStaleResponse() {
+        HystrixCommandKey key = HystrixCommandKey.Factory.asKey("StaleShortCircuit" + uniqueId.incrementAndGet());
+        AtomicInteger fallbacks = new AtomicInteger();
+
+        assertEquals("A:1", new StaleCommand(key, "A", "1", 0, fallbacks, staleFallback()).execute());
+
+        forceOpen(key);
+        newRequest();
+        StaleCommand shortCircuited = new StaleCommand(key, "A", "2", 0, fallbacks, staleFallback());
+        assertEquals("A:1", shortCircuited.execute());
+        assertEquals(0, fallbacks.get());
+        assertTrue(shortCircuited.isResponseShortCircuited());
+        assertTrue(shortCircuited.isResponseFromFallback());
+        assertTrue(shortCircuited.getEventCounts().contains(HystrixEventType.FALLBACK_STALE));
+        assertTrue(shortCircuited.getEventCounts().contains(HystrixEventType.FALLBACK_SUCCESS));
+
+        // nothing stored for another cache key, so the fallback is used
+        assertEquals("fallback", new StaleCommand(key, "B", "1", 0, fallbacks, staleFallback()).execute());
+        assertEquals(1, fallbacks.get());
+    }
+
+    @Test
+    public void testNoStaleResponseWhenFallbackDisabled() {
+        HystrixCommandKey key = HystrixCommandKey.Factory.asKey("StaleFallbackDisabled" + uniqueId.incrementAndGet());
+        AtomicInteger fallbacks = new AtomicInteger();
+
+        new StaleCommand(key, "A", "1", 0, fallbacks, staleFallback()).execute();
+
+        forceOpen(key);
+        ConfigurationManager.getConfigInstance().setProperty("hystrix.command." + key.name() + ".fallback.enabled", false);
+        newRequest();
+        StaleCommand shortCircuited = new StaleCommand(key, "A", "2", 0, fallbacks, staleFallback());
+        try {
+            shortCircuited.execute();
+            fail("a stale response is a fallback, so it must not be served with fallbacks disabled");
+        } catch (HystrixRuntimeException e) {
+            // expected
+        }
+        assertFalse(shortCircuited.getEventCounts().contains(HystrixEventType.FALLBACK_STALE));
+        assertEquals(0, fallbacks.get());
+    }
+
+    @Test
+    public void testTimeoutServesStaleResponse() {
+        HystrixCommandKey key = HystrixCommandKey.Factory.asKey("StaleTimeout" + uniqueId.incrementAndGet());
+        AtomicInteger fallbacks = new AtomicInteger();
+
+        new StaleCommand(key, "A", "1", 0, fallbacks, staleFallback()).execute();
+
+        newRequest();
+        StaleCommand timedOut = new StaleCommand(key, "A", "2", 500, fallbacks, staleFallback());
+        assertEquals("A:1", timedOut.execute());
+        assertTrue(timedOut.isResponseTimedOut());
+        assertTrue(timedOut.getEventCounts().contains(HystrixEventType.FALLBACK_STALE));
+        assertEquals(0, fallbacks.get());
+    }
+
+    @Test
+    public void testFailureUsesFallback() {
+        HystrixCommandKey key = HystrixCommandKey.Factory.asKey("StaleFailure" + uniqueId.incrementAndGet());
+        AtomicInteger fallbacks = new AtomicInteger();
+
+        new StaleCommand(key, "A", "1", 0, fallbacks, staleFallback()).execute();
+
+        newRequest();
+        StaleCommand failed = new StaleCommand(key, "A", null, 0, fallbacks, staleFallback());
+        assertEquals("fallback", failed.execute());
+        assertFalse(failed.getEventCounts().contains(HystrixEventType.FALLBACK_STALE));
+        assertEquals(1, fallbacks.get());
+    }
+
+    @Test
+    public void testStaleResponseExpires() throws InterruptedException {
+        HystrixCommandKey key = HystrixCommandKey.Factory.asKey("StaleMaxAge" + uniqueId.incrementAndGet());
+        AtomicInteger fallbacks = new AtomicInteger();
+        HystrixCommandProperties.Setter properties = staleFallback().withFallbackStaleMaxAgeInMilliseconds(50);
+
+        new StaleCommand(key, "A", "1", 0, fallbacks, properties).execute();
+        Thread.sleep(100);
+
+        forceOpen(key);
+        newRequest();
+        StaleCommand shortCircuited = new StaleCommand(key, "A", "2", 0, fallbacks, properties);
+        assertEquals("fallback", shortCircuited.execute());
+        assertFalse(shortCircuited.getEventCounts().contains(HystrixEventType.FALLBACK_STALE));
+        assertEquals(1, fallbacks.get());
+    }
+
+    @Test
+    public void testMaxSizeDropsOldestCacheKey() {
+        HystrixCommandKey key = HystrixCommandKey.Factory.asKey("StaleMaxSize" + uniqueId.incrementAndGet());
+        AtomicInteger fallbacks = new AtomicInteger();
+        HystrixCommandProperties.Setter properties = staleFallback().withFallbackStaleMaxSize(2);
+
+        new StaleCommand(key, "A", "1", 0, fallbacks, properties).execute();
+        new StaleCommand(key, "B", "1", 0, fallbacks, properties).execute();
+        // replacing a response keeps its position
+        newRequest();
+        new StaleCommand(key, "A", "2", 0, fallbacks, properties).execute();
+        new StaleCommand(key, "C", "1", 0, fallbacks, properties).execute();
+        assertEquals(2, HystrixStaleResponseCache.getInstance(key, null).size());
+
+        forceOpen(key);
+        newRequest();
+        assertEquals("fallback", new StaleCommand(key, "A", "3", 0, fallbacks, properties).execute());
+        assertEquals("B:1", new StaleCommand(key, "B", "3", 0, fallbacks, properties).execute());
+        assertEquals("C:1", new StaleCommand(key, "C", "3", 0, fallbacks, properties).execute());
+        assertEquals(1, fallbacks.get());
+    }
+
+    private static class StaleCommand extends HystrixCommand<String> {
+        private final String cacheKey;
+        private final String version;
+        private final int latency;
+        private final AtomicInteger fallbacks;
+
+        /**
+         * @param version suffix of the response, or null to fail
+         */
+        StaleCommand(HystrixCommandKey key, String cacheKey, String version, int latency, AtomicInteger fallbacks, HystrixCommandProperties.Setter properties) {
+            super(Setter.withGroupKey(HystrixCommandGroupKey.Factory.asKey("StaleResponseCacheTest"))
+                    .andCommandKey(key)
+                    .andCommandPropertiesDefaults(properties));
+            this.cacheKey = cacheKey;
+            this.version = version;
+            this.latency = latency;
+            this.fallbacks = fallbacks;
+        }
+
+        @Override
+        protected String run() throws Exception {
+            if (latency > 0) {
+                Thread.sleep(latency);
+            }
+            if (version == null) {
+                throw new RuntimeException("failed");
+            }
+            return cacheKey + ":" + version;
+        }
+
+        @Override
+        protected String getFallback() {
+            fallbacks.incrementAndGet();
+            return "fallback";
+        }
+
+        @Override
+        protected String getCacheKey() {
+            return cacheKey;
+        }
+    }
+}
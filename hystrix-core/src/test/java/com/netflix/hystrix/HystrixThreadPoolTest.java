@@ -17,8 +17,10 @@ package com.netflix.hystrix;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.hamcrest.core.Is.is;
 
 import com.netflix.hystrix.HystrixThreadPool.Factory;
@@ -27,6 +29,7 @@ import com.netflix.hystrix.strategy.concurrency.*;
 import com.netflix.hystrix.strategy.metrics.HystrixMetricsPublisher;
 import com.netflix.hystrix.strategy.metrics.HystrixMetricsPublisherFactory;
 import com.netflix.hystrix.strategy.metrics.HystrixMetricsPublisherThreadPool;
+import com.netflix.hystrix.util.PlatformSpecific;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -168,4 +171,108 @@ public class HystrixThreadPoolTest {
         }
     }
 
+
+    @Test
+    public void testVirtualInstanceFallsBackWithoutVirtualThreads() {
+        HystrixThreadPoolKey key = HystrixThreadPoolKey.Factory.asKey("virtualThreadPoolFactoryTest");
+        HystrixThreadPool pool = Factory.getInstance(key, HystrixThreadPoolPropertiesTest.getUnitTestPropertiesBuilder());
+        HystrixThreadPool virtualPool = Factory.getVirtualInstance(key, pool);
+        if (PlatformSpecific.getVirtualThreadFactory("test-") == null) {
+            assertSame(pool, virtualPool);
+        } else {
+            assertTrue(virtualPool instanceof HystrixThreadPool.HystrixThreadPoolVirtual);
+        }
+        assertSame(virtualPool, Factory.getVirtualInstance(key, pool));
+
+        Factory.shutdown();
+        assertEquals(0, Factory.virtualThreadPools.size());
+        assertTrue(virtualPool.getExecutor().isShutdown());
+    }
+
+    @Test(timeout = 2500)
+    public void testVirtualThreadPoolLimitsConcurrencyToCoreSize() throws InterruptedException {
+        HystrixThreadPool pool = Factory.getInstance(HystrixThreadPoolKey.Factory.asKey("threadPoolFactoryTest"),
+                HystrixThreadPoolPropertiesTest.getUnitTestPropertiesBuilder());
+        HystrixThreadPoolProperties properties = HystrixThreadPoolPropertiesTest.asMock(
+                HystrixThreadPoolPropertiesTest.getUnitTestPropertiesBuilder().withCoreSize(2));
+        HystrixThreadPool.HystrixThreadPoolVirtual virtualPool = new HystrixThreadPool.HystrixThreadPoolVirtual(pool, properties.coreSize(), Executors.defaultThreadFactory());
+        ExecutorService executor = virtualPool.getExecutor();
+
+        final CountDownLatch started = new CountDownLatch(2);
+        final CountDownLatch release = new CountDownLatch(1);
+        Runnable blocking = new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    // exit
+                }
+            }
+        };
+        executor.execute(blocking);
+        executor.execute(blocking);
+        started.await();
+        try {
+            executor.execute(blocking);
+            fail("expected rejection once coreSize executions are running");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        try {
+            executor.execute(blocking);
+            fail("expected rejection after shutdown");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+    }
+
+    @Test(timeout = 2500)
+    public void testUnsubscribeVirtualThreadPool() throws InterruptedException {
+        HystrixThreadPool pool = Factory.getInstance(HystrixThreadPoolKey.Factory.asKey("threadPoolFactoryTest"),
+                HystrixThreadPoolPropertiesTest.getUnitTestPropertiesBuilder());
+        HystrixThreadPool virtualPool = new HystrixThreadPool.HystrixThreadPoolVirtual(pool,
+                HystrixThreadPoolPropertiesTest.asMock(HystrixThreadPoolPropertiesTest.getUnitTestPropertiesBuilder()).coreSize(), Executors.defaultThreadFactory());
+
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch end = new CountDownLatch(1);
+
+        Scheduler.Worker w = virtualPool.getScheduler().createWorker();
+
+        try {
+            w.schedule(new Action0() {
+                @Override
+                public void call() {
+                    start.countDown();
+                    try {
+                        try {
+                            Thread.sleep(5000);
+                        } catch (InterruptedException ex) {
+                            interrupted.set(true);
+                        }
+                    } finally {
+                        end.countDown();
+                    }
+                }
+            });
+
+            start.await();
+
+            w.unsubscribe();
+
+            end.await();
+
+            assertTrue(interrupted.get());
+        } finally {
+            w.unsubscribe();
+            virtualPool.getExecutor().shutdown();
+        }
+    }
+
 }
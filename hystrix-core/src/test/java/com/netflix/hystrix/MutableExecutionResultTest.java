@@ -0,0 +1,123 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MutableExecutionResultTest {
+
+    @Test
+    public void testSnapshotMatchesImmutableTransitions() {
+        Exception e = new RuntimeException("failed");
+        MutableExecutionResult mutable = new MutableExecutionResult();
+        mutable.setInvocationStartTime(100L);
+        mutable.setExecutionOccurred();
+        mutable.setExecutedInThread();
+        mutable.addEvent(HystrixEventType.EMIT);
+        mutable.addEvent(HystrixEventType.EMIT);
+        mutable.setException(e);
+        mutable.addEvent(20, HystrixEventType.FAILURE);
+        mutable.addEvent(HystrixEventType.FALLBACK_EMIT);
+        mutable.addEvent(30, HystrixEventType.FALLBACK_SUCCESS);
+        mutable.markCollapsed(HystrixCollapserKey.Factory.asKey("MutableCollapser"), 3);
+        mutable.markUserThreadCompletion(40L);
+
+        ExecutionResult expected = ExecutionResult.from()
+                .setInvocationStartTime(100L)
+                .setExecutionOccurred()
+                .setExecutedInThread()
+                .addEvent(HystrixEventType.EMIT)
+                .addEvent(HystrixEventType.EMIT)
+                .setException(e)
+                .addEvent(20, HystrixEventType.FAILURE)
+                .addEvent(HystrixEventType.FALLBACK_EMIT)
+                .addEvent(30, HystrixEventType.FALLBACK_SUCCESS)
+                .markCollapsed(HystrixCollapserKey.Factory.asKey("MutableCollapser"), 3)
+                .markUserThreadCompletion(40L);
+
+        assertEquals(expected.toString(), mutable.snapshot().toString());
+        assertEquals(expected.getEventCounts(), mutable.snapshot().getEventCounts());
+        assertEquals(expected.getOrderedList(), mutable.getOrderedList());
+        assertTrue(mutable.containsTerminalEvent());
+    }
+
+    @Test
+    public void testPublishedSnapshotIsReusedUntilChanged() {
+        MutableExecutionResult mutable = new MutableExecutionResult();
+        assertSame(ExecutionResult.EMPTY, mutable.snapshot());
+
+        mutable.addEvent(HystrixEventType.SUCCESS);
+        // not published, so every snapshot is a new copy
+        assertNotSame(mutable.snapshot(), mutable.snapshot());
+        ExecutionResult first = mutable.publish();
+        assertSame(first, mutable.snapshot());
+
+        // already present and not counted, so nothing changes
+        mutable.addEvent(HystrixEventType.SUCCESS);
+        mutable.setNotExecutedInThread();
+        assertSame(first, mutable.snapshot());
+
+        mutable.addEvent(HystrixEventType.EMIT);
+        ExecutionResult second = mutable.snapshot();
+        assertNotSame(first, second);
+        assertFalse(first.getEventCounts().contains(HystrixEventType.EMIT));
+        assertEquals(1, second.getEventCounts().getCount(HystrixEventType.EMIT));
+    }
+
+    @Test
+    public void testRejectedExecutionKeepsLatencies() {
+        MutableExecutionResult mutable = new MutableExecutionResult();
+        mutable.setInvocationStartTime(100L);
+        mutable.addEvent(HystrixEventType.THREAD_POOL_REJECTED);
+        mutable.addEvent(10, HystrixEventType.FALLBACK_SUCCESS);
+        mutable.markUserThreadCompletion(20L);
+
+        assertEquals(-1, mutable.getExecutionLatency());
+        assertEquals(-1, mutable.getUserThreadLatency());
+        assertTrue(mutable.isResponseRejected());
+    }
+
+    @Test
+    public void testSetCopiesExecutionResult() {
+        ExecutionResult original = ExecutionResult.from(HystrixEventType.EMIT, HystrixEventType.EMIT, HystrixEventType.SUCCESS)
+                .setInvocationStartTime(100L)
+                .setExecutionLatency(5)
+                .setExecutedInThread();
+        MutableExecutionResult mutable = new MutableExecutionResult();
+        mutable.set(original);
+        assertSame(original, mutable.snapshot());
+
+        mutable.addEvent(HystrixEventType.CANCELLED);
+        mutable.setExecutionLatency(-1);
+        ExecutionResult copy = mutable.snapshot();
+        assertEquals(Arrays.asList(HystrixEventType.EMIT, HystrixEventType.SUCCESS, HystrixEventType.CANCELLED), copy.getOrderedList());
+        assertEquals(2, copy.getEventCounts().getCount(HystrixEventType.EMIT));
+        assertEquals(100L, copy.getStartTimestamp());
+        assertEquals(-1, copy.getExecutionLatency());
+        assertTrue(copy.isExecutedInThread());
+        // the original is shared with other commands and must not change
+        assertFalse(original.getEventCounts().contains(HystrixEventType.CANCELLED));
+        assertEquals(5, original.getExecutionLatency());
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.collapser;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RequestBatchBufferTest {
+
+    @Test
+    public void testDrainReturnsPublishedElementsInSlotOrder() {
+        RequestBatchBuffer<String> buffer = new RequestBatchBuffer<String>();
+        int first = buffer.reserve(10);
+        int second = buffer.reserve(10);
+        buffer.publish(second, "b");
+        buffer.publish(first, "a");
+        assertTrue(buffer.seal());
+        assertEquals(Arrays.asList("a", "b"), buffer.drain());
+    }
+
+    @Test
+    public void testSkippedSlotsAreNotDrained() {
+        RequestBatchBuffer<String> buffer = new RequestBatchBuffer<String>();
+        buffer.publish(buffer.reserve(10), "a");
+        buffer.skip(buffer.reserve(10));
+        buffer.publish(buffer.reserve(10), "c");
+        assertEquals(3, buffer.getReservedCount());
+        buffer.seal();
+        assertEquals(Arrays.asList("a", "c"), buffer.drain());
+    }
+
+    @Test
+    public void testSealStopsReservations() {
+        RequestBatchBuffer<String> buffer = new RequestBatchBuffer<String>();
+        buffer.publish(buffer.reserve(10), "a");
+        assertFalse(buffer.isSealed());
+        assertTrue(buffer.seal());
+        assertTrue(buffer.isSealed());
+        assertFalse(buffer.seal());
+        assertEquals(-1, buffer.reserve(10));
+        assertEquals(1, buffer.getReservedCount());
+    }
+
+    @Test
+    public void testReserveStopsAtCapacity() {
+        RequestBatchBuffer<String> buffer = new RequestBatchBuffer<String>();
+        assertEquals(0, buffer.reserve(2));
+        assertEquals(1, buffer.reserve(2));
+        assertEquals(-1, buffer.reserve(2));
+        assertEquals(2, buffer.getReservedCount());
+    }
+
+    @Test
+    public void testElementsAcrossBuckets() {
+        RequestBatchBuffer<Integer> buffer = new RequestBatchBuffer<Integer>();
+        List<Integer> expected = new ArrayList<Integer>();
+        for (int i = 0; i < 100; i++) {
+            buffer.publish(buffer.reserve(Integer.MAX_VALUE), i);
+            expected.add(i);
+        }
+        buffer.seal();
+        assertEquals(expected, buffer.drain());
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        final int numThreads = 8;
+        final int perThread = 10000;
+        final RequestBatchBuffer<Integer> buffer = new RequestBatchBuffer<Integer>();
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(numThreads);
+        for (int t = 0; t < numThreads; t++) {
+            final int offset = t * perThread;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int i = 0; i < perThread; i++) {
+                            int slot = buffer.reserve(Integer.MAX_VALUE);
+                            if (i % 2 == 0) {
+                                buffer.publish(slot, offset + i);
+                            } else {
+                                buffer.skip(slot);
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+
+        buffer.seal();
+        List<Integer> drained = buffer.drain();
+        assertEquals(numThreads * perThread, buffer.getReservedCount());
+        assertEquals(numThreads * perThread / 2, drained.size());
+        Set<Integer> distinct = new HashSet<Integer>(drained);
+        assertEquals(drained.size(), distinct.size());
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.collapser;
+
+import com.netflix.hystrix.HystrixCollapser.CollapsedRequest;
+import com.netflix.hystrix.HystrixCollapserKey;
+import com.netflix.hystrix.HystrixCollapserProperties;
+import com.netflix.hystrix.strategy.properties.HystrixPropertiesCollapserDefault;
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Func1;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RequestBatchTest {
+
+    private static final HystrixCollapserKey KEY = HystrixCollapserKey.Factory.asKey("RequestBatchTest");
+
+    @Test(timeout = 5000)
+    public void testFailingArgumentDoesNotBlockBatch() {
+        RequestBatch<Object, String, Object> batch = new RequestBatch<Object, String, Object>(
+                new HystrixPropertiesCollapserDefault(KEY, HystrixCollapserProperties.Setter()), new EchoCollapser(), 10);
+
+        try {
+            batch.offer(new Object() {
+                @Override
+                public int hashCode() {
+                    throw new IllegalStateException("broken hashCode");
+                }
+            }, 1);
+            fail("we expect the exception from hashCode");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        Observable<String> response = batch.offer("a", 1);
+
+        // the slot reserved by the failed offer must not keep the batch from draining
+        batch.executeBatchIfNotAlreadyStarted();
+        assertEquals("a", response.toBlocking().single());
+    }
+
+    @Test
+    public void testIsEmptyUntilFirstOffer() {
+        RequestBatch<Object, String, Object> batch = new RequestBatch<Object, String, Object>(
+                new HystrixPropertiesCollapserDefault(KEY, HystrixCollapserProperties.Setter()), new EchoCollapser(), 10);
+        assertTrue(batch.isEmpty());
+
+        batch.offer("a", 1);
+        assertFalse(batch.isEmpty());
+        assertEquals(1, batch.getSize());
+    }
+
+    @Test
+    public void testBatchWithAllRequestsRemovedDoesNotExecute() {
+        EchoCollapser collapser = new EchoCollapser();
+        RequestBatch<Object, String, Object> batch = new RequestBatch<Object, String, Object>(
+                new HystrixPropertiesCollapserDefault(KEY, HystrixCollapserProperties.Setter()), collapser, 10);
+
+        batch.offer("a", 1);
+        batch.remove("a");
+        // the removed request keeps its slot
+        assertFalse(batch.isEmpty());
+
+        batch.executeBatchIfNotAlreadyStarted();
+        assertEquals(0, collapser.commandsCreated);
+    }
+
+    private static class EchoCollapser implements HystrixCollapserBridge<Object, String, Object> {
+        int commandsCreated = 0;
+
+        @Override
+        public Collection<Collection<CollapsedRequest<String, Object>>> shardRequests(Collection<CollapsedRequest<String, Object>> requests) {
+            return Collections.singletonList(requests);
+        }
+
+        @Override
+        public Observable<Object> createObservableCommand(Collection<CollapsedRequest<String, Object>> requests) {
+            commandsCreated++;
+            return Observable.<Object>just("batch");
+        }
+
+        @Override
+        public Observable<Void> mapResponseToRequests(Observable<Object> batchResponse, final Collection<CollapsedRequest<String, Object>> requests) {
+            return batchResponse.map(new Func1<Object, Void>() {
+                @Override
+                public Void call(Object o) {
+                    for (CollapsedRequest<String, Object> request : requests) {
+                        request.setResponse(String.valueOf(request.getArgument()));
+                    }
+                    return null;
+                }
+            }).ignoreElements();
+        }
+
+        @Override
+        public HystrixCollapserKey getCollapserKey() {
+            return KEY;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.metric;
+
+import com.netflix.hystrix.HystrixCollapserKey;
+import com.netflix.hystrix.HystrixCollapserProperties;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HystrixAdaptiveCollapserWindowTest {
+
+    private static HystrixCollapserProperties.Setter defaults() {
+        return HystrixCollapserProperties.Setter()
+                .withTimerDelayInMilliseconds(10)
+                .withAdaptiveTimerDelayMinInMilliseconds(1)
+                .withAdaptiveTimerDelayMaxInMilliseconds(100)
+                .withAdaptiveTimerDelayTargetBatchSize(10);
+    }
+
+    private static HystrixCollapserProperties properties(HystrixCollapserProperties.Setter setter) {
+        return new HystrixCollapserProperties(HystrixCollapserKey.Factory.asKey("AdaptiveWindow"), setter) {};
+    }
+
+    /**
+     * Feed batches as if requests arrived at a steady rate: one request starts the batch and the rest arrive during the delay.
+     */
+    private static void steadyTraffic(HystrixAdaptiveCollapserWindow window, double requestsPerMillisecond, long latency, int batches) {
+        for (int i = 0; i < batches; i++) {
+            window.onBatchCompleted(1 + (int) Math.round(requestsPerMillisecond * window.get()), latency);
+        }
+    }
+
+    @Test
+    public void testStartsAtConfiguredDelay() {
+        HystrixAdaptiveCollapserWindow window = new HystrixAdaptiveCollapserWindow(properties(defaults()));
+        assertEquals(10, window.get().intValue());
+    }
+
+    @Test
+    public void testLightTrafficNarrowsToMinimum() {
+        HystrixAdaptiveCollapserWindow window = new HystrixAdaptiveCollapserWindow(properties(defaults()));
+        steadyTraffic(window, 0.02, 5, 50);
+        assertEquals(1, window.get().intValue());
+    }
+
+    @Test
+    public void testModerateTrafficConvergesOnTargetBatchSize() {
+        HystrixAdaptiveCollapserWindow window = new HystrixAdaptiveCollapserWindow(properties(defaults()));
+        steadyTraffic(window, 0.5, 5, 100);
+        // 9 requests arrive in 18ms, which makes batches of 10
+        int delay = window.get();
+        assertTrue("delay : " + delay, delay >= 16 && delay <= 20);
+    }
+
+    @Test
+    public void testHeavyTrafficNarrowsWindow() {
+        HystrixAdaptiveCollapserWindow window = new HystrixAdaptiveCollapserWindow(properties(defaults()));
+        steadyTraffic(window, 10, 5, 100);
+        assertEquals(1, window.get().intValue());
+    }
+
+    @Test
+    public void testLatencyBudgetCapsDelay() {
+        HystrixAdaptiveCollapserWindow window = new HystrixAdaptiveCollapserWindow(properties(defaults().withAdaptiveTimerDelayLatencyBudgetInMilliseconds(30)));
+        steadyTraffic(window, 0.5, 25, 100);
+        assertEquals(5, window.get().intValue());
+    }
+
+    @Test
+    public void testBoundsApplyToInitialDelay() {
+        HystrixAdaptiveCollapserWindow window = new HystrixAdaptiveCollapserWindow(properties(defaults().withAdaptiveTimerDelayMinInMilliseconds(20)));
+        assertEquals(20, window.get().intValue());
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.metric;
+
+import com.netflix.hystrix.ExecutionResult;
+import com.netflix.hystrix.HystrixCommandKey;
+import com.netflix.hystrix.HystrixEventType;
+import com.netflix.hystrix.HystrixThreadPoolKey;
+import com.netflix.hystrix.strategy.properties.HystrixProperty;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HystrixAdaptiveConcurrencyLimitTest {
+
+    private static HystrixProperty<Integer> max(final AtomicInteger value) {
+        return new HystrixProperty<Integer>() {
+            @Override
+            public Integer get() {
+                return value.get();
+            }
+        };
+    }
+
+    @Test
+    public void testStartsAtMaximum() {
+        HystrixAdaptiveConcurrencyLimit limit = new HystrixAdaptiveConcurrencyLimit(max(new AtomicInteger(20)));
+        assertEquals(20, limit.get().intValue());
+    }
+
+    @Test
+    public void testSteadyLatencyKeepsMaximum() {
+        HystrixAdaptiveConcurrencyLimit limit = new HystrixAdaptiveConcurrencyLimit(max(new AtomicInteger(20)));
+        for (int i = 0; i < 1000; i++) {
+            limit.onSample(10, false);
+        }
+        assertEquals(20, limit.get().intValue());
+    }
+
+    @Test
+    public void testRisingLatencyShrinksLimitAndRecoveryGrowsIt() {
+        HystrixAdaptiveConcurrencyLimit limit = new HystrixAdaptiveConcurrencyLimit(max(new AtomicInteger(100)));
+        for (int i = 0; i < 500; i++) {
+            limit.onSample(10, false);
+        }
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(100, false);
+        }
+        int shrunk = limit.get();
+        assertTrue("limit : " + shrunk, shrunk < 50);
+
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(10, false);
+        }
+        assertEquals(100, limit.get().intValue());
+    }
+
+    @Test
+    public void testDropsBackOffButNeverBelowOne() {
+        HystrixAdaptiveConcurrencyLimit limit = new HystrixAdaptiveConcurrencyLimit(max(new AtomicInteger(10)));
+        limit.onSample(-1, true);
+        assertEquals(9, limit.get().intValue());
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(-1, true);
+        }
+        assertEquals(1, limit.get().intValue());
+    }
+
+    @Test
+    public void testMaximumChangeAppliesImmediately() {
+        AtomicInteger maximum = new AtomicInteger(50);
+        HystrixAdaptiveConcurrencyLimit limit = new HystrixAdaptiveConcurrencyLimit(max(maximum));
+        maximum.set(5);
+        assertEquals(5, limit.get().intValue());
+
+        maximum.set(30);
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(10, false);
+        }
+        assertEquals(30, limit.get().intValue());
+    }
+
+    @Test
+    public void testRejectionsDoNotBackOff() {
+        HystrixAdaptiveConcurrencyLimit limit = new HystrixAdaptiveConcurrencyLimit(max(new AtomicInteger(10)));
+        for (int i = 0; i < 100; i++) {
+            limit.onCompletion(completion(HystrixEventType.THREAD_POOL_REJECTED, HystrixEventType.FALLBACK_SUCCESS));
+            limit.onCompletion(completion(HystrixEventType.SEMAPHORE_REJECTED, HystrixEventType.FALLBACK_SUCCESS));
+        }
+        assertEquals(10, limit.get().intValue());
+    }
+
+    @Test
+    public void testTimeoutsAndFailuresBackOff() {
+        HystrixAdaptiveConcurrencyLimit limit = new HystrixAdaptiveConcurrencyLimit(max(new AtomicInteger(10)));
+        limit.onCompletion(completion(HystrixEventType.TIMEOUT, HystrixEventType.FALLBACK_SUCCESS));
+        assertEquals(9, limit.get().intValue());
+        for (int i = 0; i < 100; i++) {
+            limit.onCompletion(completion(HystrixEventType.FAILURE, HystrixEventType.FALLBACK_SUCCESS));
+        }
+        assertEquals(1, limit.get().intValue());
+    }
+
+    private static HystrixCommandCompletion completion(HystrixEventType... eventTypes) {
+        return HystrixCommandCompletion.from(ExecutionResult.from(eventTypes),
+                HystrixCommandKey.Factory.asKey("AdaptiveLimit"), HystrixThreadPoolKey.Factory.asKey("AdaptiveLimit"));
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.metric;
+
+import com.netflix.hystrix.ExecutionResult;
+import com.netflix.hystrix.HystrixCommandKey;
+import com.netflix.hystrix.HystrixEventType;
+import com.netflix.hystrix.HystrixThreadPoolKey;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class HystrixStripedEventCountersTest {
+
+    @Test
+    public void testSamplerOnlySeesEventsAfterCreation() {
+        HystrixStripedEventCounters counters = new HystrixStripedEventCounters(3);
+        counters.add(0, 5);
+        counters.increment(1);
+
+        HystrixStripedEventCounters.Sampler sampler = counters.sampler();
+        assertArrayEquals(new long[]{0, 0, 0}, sampler.sampleDelta());
+
+        counters.add(0, 2);
+        counters.increment(2);
+        counters.increment(2);
+        assertArrayEquals(new long[]{2, 0, 2}, sampler.sampleDelta());
+        assertArrayEquals(new long[]{0, 0, 0}, sampler.sampleDelta());
+
+        assertEquals(7, counters.get(0));
+        assertEquals(1, counters.get(1));
+        assertEquals(2, counters.get(2));
+    }
+
+    @Test
+    public void testIndependentSamplers() {
+        HystrixStripedEventCounters counters = new HystrixStripedEventCounters(2);
+        HystrixStripedEventCounters.Sampler s1 = counters.sampler();
+        counters.increment(0);
+        HystrixStripedEventCounters.Sampler s2 = counters.sampler();
+        counters.increment(1);
+
+        assertArrayEquals(new long[]{1, 1}, s1.sampleDelta());
+        assertArrayEquals(new long[]{0, 1}, s2.sampleDelta());
+    }
+
+    @Test
+    public void testConcurrentWritersLoseNothing() throws InterruptedException {
+        final HystrixStripedEventCounters counters = new HystrixStripedEventCounters(1);
+        HystrixStripedEventCounters.Sampler sampler = counters.sampler();
+        final int NUM_THREADS = 8;
+        final int NUM_WRITES = 100000;
+        final CountDownLatch latch = new CountDownLatch(NUM_THREADS);
+        long sampled = 0;
+        for (int i = 0; i < NUM_THREADS; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < NUM_WRITES; j++) {
+                        counters.increment(0);
+                    }
+                    latch.countDown();
+                }
+            }).start();
+        }
+        while (!latch.await(1, TimeUnit.MILLISECONDS)) {
+            sampled += sampler.sampleDelta()[0];
+        }
+        sampled += sampler.sampleDelta()[0];
+        assertEquals(NUM_THREADS * NUM_WRITES, sampled);
+    }
+
+    @Test
+    public void testCommandCompletionStreamCountsWithoutObservers() {
+        HystrixCommandKey commandKey = HystrixCommandKey.Factory.asKey("CMD-StripedCounters");
+        HystrixThreadPoolKey threadPoolKey = HystrixThreadPoolKey.Factory.asKey("TP-StripedCounters");
+        HystrixCommandCompletionStream commandStream = new HystrixCommandCompletionStream(commandKey);
+        HystrixThreadPoolCompletionStream threadPoolStream = new HystrixThreadPoolCompletionStream(threadPoolKey);
+
+        ExecutionResult result = ExecutionResult.from(HystrixEventType.FAILURE, HystrixEventType.FALLBACK_SUCCESS).setExecutedInThread();
+        HystrixCommandCompletion completion = HystrixCommandCompletion.from(result, commandKey, threadPoolKey);
+        commandStream.write(completion);
+        commandStream.write(completion);
+        threadPoolStream.write(completion);
+
+        HystrixStripedEventCounters commandCounters = commandStream.getEventCounters();
+        assertEquals(2, commandCounters.get(HystrixEventType.FAILURE.ordinal()));
+        assertEquals(2, commandCounters.get(HystrixEventType.FALLBACK_SUCCESS.ordinal()));
+        assertEquals(0, commandCounters.get(HystrixEventType.SUCCESS.ordinal()));
+        //derived from the others when buckets get reduced
+        assertEquals(0, commandCounters.get(HystrixEventType.EXCEPTION_THROWN.ordinal()));
+
+        HystrixStripedEventCounters threadPoolCounters = threadPoolStream.getEventCounters();
+        assertEquals(1, threadPoolCounters.get(HystrixEventType.ThreadPool.EXECUTED.ordinal()));
+        assertEquals(0, threadPoolCounters.get(HystrixEventType.ThreadPool.REJECTED.ordinal()));
+    }
+}
@@ -17,13 +17,17 @@ package com.netflix.hystrix.metric;
 
 import com.netflix.hystrix.ExecutionResult;
 import com.netflix.hystrix.HystrixCommandKey;
+import com.netflix.hystrix.HystrixCommandProperties;
 import com.netflix.hystrix.HystrixEventType;
 import com.netflix.hystrix.HystrixThreadPoolKey;
+import com.netflix.config.ConfigurationManager;
 import org.junit.Test;
 import rx.Subscriber;
+import rx.Subscription;
 import rx.functions.Action1;
 
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -342,4 +346,87 @@ public class HystrixThreadEventStreamTest {
         assertTrue(commandLatch.await(1000, TimeUnit.MILLISECONDS));
         assertFalse(threadPoolLatch.await(1000, TimeUnit.MILLISECONDS));
     }
+
+    @Test
+    public void testExecutionStartedOnlyWrittenWhenObserved() throws Exception {
+        HystrixCommandKey startKey = HystrixCommandKey.Factory.asKey("CMD-ThreadStream-Start");
+        HystrixCommandStartStream startStream = HystrixCommandStartStream.getInstance(startKey);
+        assertFalse(startStream.hasObservers());
+
+        CountDownLatch startLatch = new CountDownLatch(1);
+        Subscriber<HystrixCommandExecutionStarted> startSubscriber = getLatchedSubscriber(startLatch);
+        startStream.observe().take(1).subscribe(startSubscriber);
+        assertTrue(startStream.hasObservers());
+
+        writeToStream.commandExecutionStarted(startKey, threadPoolKey, HystrixCommandProperties.ExecutionIsolationStrategy.SEMAPHORE, 1);
+
+        assertTrue(startLatch.await(1000, TimeUnit.MILLISECONDS));
+        assertFalse(startStream.hasObservers());
+    }
+
+    @Test
+    public void testNoEventsAfterShutdown() throws Exception {
+        CountDownLatch commandLatch = new CountDownLatch(1);
+
+        Subscriber<HystrixCommandCompletion> commandSubscriber = getLatchedSubscriber(commandLatch);
+        readCommandStream.observe().take(1).subscribe(commandSubscriber);
+
+        HystrixThreadEventStream stream = new HystrixThreadEventStream(Thread.currentThread());
+        stream.shutdown();
+        stream.executionDone(ExecutionResult.from(HystrixEventType.SUCCESS), commandKey, threadPoolKey);
+
+        assertFalse(commandLatch.await(100, TimeUnit.MILLISECONDS));
+        commandSubscriber.unsubscribe();
+    }
+
+    @Test
+    public void testBatchedCompletionsAreWrittenAsOneBatchWhenBufferIsFull() throws Exception {
+        HystrixCommandKey batchKey = HystrixCommandKey.Factory.asKey("CMD-ThreadStream-Batch");
+        final List<HystrixCommandCompletionBatch> batches = new CopyOnWriteArrayList<HystrixCommandCompletionBatch>();
+        Subscription subscription = HystrixCommandCompletionStream.getInstance(batchKey).batches().observe()
+                .subscribe(new Action1<HystrixCommandCompletionBatch>() {
+                    @Override
+                    public void call(HystrixCommandCompletionBatch batch) {
+                        batches.add(batch);
+                    }
+                });
+
+        ConfigurationManager.getConfigInstance().setProperty("hystrix.threadEventStream.batch.enabled", true);
+        // keep the timer out of the way so that only a full buffer flushes
+        ConfigurationManager.getConfigInstance().setProperty("hystrix.threadEventStream.batch.flushIntervalInMilliseconds", 60000);
+        try {
+            HystrixThreadEventStream stream = new HystrixThreadEventStream(Thread.currentThread());
+            for (int i = 0; i < 31; i++) {
+                stream.executionDone(ExecutionResult.from(HystrixEventType.SUCCESS), batchKey, threadPoolKey);
+            }
+            assertTrue(batches.isEmpty());
+
+            stream.executionDone(ExecutionResult.from(HystrixEventType.SUCCESS), batchKey, threadPoolKey);
+            assertEquals(1, batches.size());
+            assertEquals(32, batches.get(0).size());
+        } finally {
+            ConfigurationManager.getConfigInstance().clearProperty("hystrix.threadEventStream.batch.enabled");
+            ConfigurationManager.getConfigInstance().clearProperty("hystrix.threadEventStream.batch.flushIntervalInMilliseconds");
+            subscription.unsubscribe();
+        }
+    }
+
+    @Test
+    public void testBatchedCompletionsOfIdleThreadAreFlushedByTimer() throws Exception {
+        HystrixCommandKey batchKey = HystrixCommandKey.Factory.asKey("CMD-ThreadStream-BatchIdle");
+        CountDownLatch commandLatch = new CountDownLatch(1);
+        Subscriber<HystrixCommandCompletion> commandSubscriber = getLatchedSubscriber(commandLatch);
+        HystrixCommandCompletionStream.getInstance(batchKey).observe().take(1).subscribe(commandSubscriber);
+
+        ConfigurationManager.getConfigInstance().setProperty("hystrix.threadEventStream.batch.enabled", true);
+        try {
+            HystrixThreadEventStream stream = new HystrixThreadEventStream(Thread.currentThread());
+            stream.executionDone(ExecutionResult.from(HystrixEventType.SUCCESS), batchKey, threadPoolKey);
+
+            // nothing else is written on this thread, so only the flush timer can deliver the completion
+            assertTrue(commandLatch.await(1000, TimeUnit.MILLISECONDS));
+        } finally {
+            ConfigurationManager.getConfigInstance().clearProperty("hystrix.threadEventStream.batch.enabled");
+        }
+    }
 }
@@ -0,0 +1,67 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.metric.consumer;
+
+import com.netflix.hystrix.metric.HystrixStripedEventCounters;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class RollingEventCountsRingTest {
+
+    @Test
+    public void testCountsBeforeCreationAreIgnored() {
+        HystrixStripedEventCounters counters = new HystrixStripedEventCounters(2);
+        counters.add(0, 5);
+        RollingEventCountsRing ring = new RollingEventCountsRing(counters, 3);
+        assertArrayEquals(new long[] {0, 0}, ring.roll());
+    }
+
+    @Test
+    public void testSumOverWindow() {
+        HystrixStripedEventCounters counters = new HystrixStripedEventCounters(2);
+        RollingEventCountsRing ring = new RollingEventCountsRing(counters, 3);
+
+        counters.add(0, 1);
+        assertArrayEquals(new long[] {1, 0}, ring.roll());
+        counters.add(0, 2);
+        counters.add(1, 10);
+        assertArrayEquals(new long[] {3, 10}, ring.roll());
+        counters.add(0, 4);
+        assertArrayEquals(new long[] {7, 10}, ring.roll());
+
+        //first bucket falls out of the window
+        assertArrayEquals(new long[] {6, 10}, ring.roll());
+        //second bucket falls out of the window
+        assertArrayEquals(new long[] {4, 0}, ring.roll());
+        assertArrayEquals(new long[] {0, 0}, ring.roll());
+    }
+
+    @Test
+    public void testGetSumIsACopy() {
+        HystrixStripedEventCounters counters = new HystrixStripedEventCounters(1);
+        RollingEventCountsRing ring = new RollingEventCountsRing(counters, 2);
+
+        counters.increment(0);
+        ring.roll();
+        long[] first = ring.getSum();
+        counters.increment(0);
+        ring.roll();
+        assertEquals(1L, first[0]);
+        assertEquals(2L, ring.getSum()[0]);
+    }
+}
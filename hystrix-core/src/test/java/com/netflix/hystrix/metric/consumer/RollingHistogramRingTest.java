@@ -0,0 +1,128 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.metric.consumer;
+
+import com.netflix.hystrix.metric.CachedValuesHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.Test;
+import rx.functions.Func2;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class RollingHistogramRingTest {
+
+    private static final Func2<Histogram, Integer, Histogram> recordValue = new Func2<Histogram, Integer, Histogram>() {
+        @Override
+        public Histogram call(Histogram histogram, Integer value) {
+            histogram.recordValue(value);
+            return histogram;
+        }
+    };
+
+    @Test
+    public void testEmptyRing() {
+        RollingHistogramRing ring = new RollingHistogramRing(3);
+        CachedValuesHistogram distribution = ring.roll();
+        assertEquals(0, distribution.getTotalCount());
+        assertEquals(0, distribution.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testValuesAreOnlyVisibleAfterRoll() {
+        RollingHistogramRing ring = new RollingHistogramRing(3);
+        ring.record(recordValue, 10);
+        ring.record(recordValue, 20);
+        CachedValuesHistogram distribution = ring.roll();
+        assertEquals(2, distribution.getTotalCount());
+        assertEquals(10, distribution.getValueAtPercentile(0));
+        assertEquals(20, distribution.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testBucketsAgeOut() {
+        RollingHistogramRing ring = new RollingHistogramRing(3);
+        ring.record(recordValue, 100);
+        assertEquals(1, ring.roll().getTotalCount());
+        ring.record(recordValue, 5);
+        ring.record(recordValue, 6);
+        assertEquals(3, ring.roll().getTotalCount());
+        assertEquals(100, ring.roll().getValueAtPercentile(100));
+
+        //first bucket falls out of the window
+        CachedValuesHistogram distribution = ring.roll();
+        assertEquals(2, distribution.getTotalCount());
+        assertEquals(6, distribution.getValueAtPercentile(100));
+
+        //second bucket falls out of the window
+        assertEquals(0, ring.roll().getTotalCount());
+
+        //evicted histograms are reused for new buckets
+        ring.record(recordValue, 42);
+        distribution = ring.roll();
+        assertEquals(1, distribution.getTotalCount());
+        assertEquals(42, distribution.getMean());
+    }
+
+    @Test
+    public void testUnchangedWindowReusesPercentiles() {
+        RollingHistogramRing ring = new RollingHistogramRing(2);
+        CachedValuesHistogram empty = ring.roll();
+        assertSame(empty, ring.roll());
+
+        ring.record(recordValue, 7);
+        CachedValuesHistogram distribution = ring.roll();
+        assertNotSame(empty, distribution);
+        assertSame(distribution, ring.roll());
+
+        //the bucket with the value falls out of the window
+        assertEquals(0, ring.roll().getTotalCount());
+    }
+
+    @Test(timeout = 10000)
+    public void testConcurrentRecordingIsNotLost() throws InterruptedException {
+        final int numThreads = 4;
+        final int valuesPerThread = 20000;
+        final RollingHistogramRing ring = new RollingHistogramRing(64);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < numThreads; i++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < valuesPerThread; j++) {
+                        ring.record(recordValue, j % 100);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        //fewer rolls than buckets, so nothing is evicted
+        for (int i = 0; i < 50; i++) {
+            ring.roll();
+            Thread.yield();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(numThreads * valuesPerThread, ring.roll().getTotalCount());
+    }
+}
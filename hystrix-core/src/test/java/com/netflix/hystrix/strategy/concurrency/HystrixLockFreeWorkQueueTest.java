@@ -0,0 +1,290 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.strategy.concurrency;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import com.netflix.hystrix.HystrixThreadPoolKey;
+import com.netflix.hystrix.HystrixThreadPoolProperties;
+import com.netflix.hystrix.strategy.HystrixPlugins;
+
+public class HystrixLockFreeWorkQueueTest {
+
+    private static Runnable task(final AtomicInteger counter) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                counter.incrementAndGet();
+            }
+        };
+    }
+
+    @Test
+    public void testOrderAndCapacity() {
+        HystrixLockFreeWorkQueue queue = new HystrixLockFreeWorkQueue(3);
+        List<Runnable> tasks = new ArrayList<Runnable>();
+        for (int i = 0; i < 3; i++) {
+            Runnable r = task(new AtomicInteger());
+            tasks.add(r);
+            assertTrue(queue.offer(r));
+        }
+        // the ring has 8 slots but only 3 tasks fit
+        assertFalse(queue.offer(task(new AtomicInteger())));
+        assertEquals(3, queue.size());
+        assertEquals(0, queue.remainingCapacity());
+        assertSame(tasks.get(0), queue.peek());
+
+        for (int lap = 0; lap < 3; lap++) {
+            for (int i = 0; i < 3; i++) {
+                Runnable r = queue.poll();
+                assertSame(tasks.get(i), r);
+                assertTrue(queue.offer(r));
+            }
+        }
+        assertEquals(3, queue.drainTo(new ArrayList<Runnable>()));
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testRemovedTasksFreeTheirPlace() {
+        HystrixLockFreeWorkQueue queue = new HystrixLockFreeWorkQueue(3);
+        Runnable first = task(new AtomicInteger());
+        Runnable second = task(new AtomicInteger());
+        Runnable third = task(new AtomicInteger());
+        assertTrue(queue.offer(first));
+        assertTrue(queue.offer(second));
+        assertTrue(queue.offer(third));
+
+        assertTrue(queue.remove(second));
+        assertFalse(queue.remove(second));
+        assertEquals(2, queue.size());
+        assertEquals(1, queue.remainingCapacity());
+
+        // the removed task no longer counts against the capacity
+        Runnable fourth = task(new AtomicInteger());
+        assertTrue(queue.offer(fourth));
+        assertFalse(queue.offer(task(new AtomicInteger())));
+
+        assertTrue(queue.remove(first));
+        assertSame(third, queue.peek());
+        assertSame(third, queue.poll());
+        assertSame(fourth, queue.poll());
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testRemovalsNeverBlockOffersBelowCapacity() {
+        // 8 slots, so room for 5 tombstones next to 3 tasks
+        HystrixLockFreeWorkQueue queue = new HystrixLockFreeWorkQueue(3);
+        Runnable first = task(new AtomicInteger());
+        assertTrue(queue.offer(first));
+
+        // no worker takes the first task, so the tombstones stay in the ring
+        for (int i = 0; i < 5; i++) {
+            Runnable r = task(new AtomicInteger());
+            assertTrue(queue.offer(r));
+            assertTrue(queue.remove(r));
+        }
+        Runnable kept = task(new AtomicInteger());
+        assertTrue(queue.offer(kept));
+        assertFalse(queue.remove(kept));
+        assertEquals(2, queue.size());
+
+        // the capacity is still available, and no more than that
+        Runnable last = task(new AtomicInteger());
+        assertTrue(queue.offer(last));
+        assertFalse(queue.offer(task(new AtomicInteger())));
+        assertEquals(3, queue.size());
+
+        assertSame(first, queue.poll());
+        assertSame(kept, queue.poll());
+        // the tombstones were skipped, so removing is possible again
+        assertTrue(queue.remove(last));
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test(timeout = 2000)
+    public void testTakeWaitsForOffer() throws InterruptedException {
+        final HystrixLockFreeWorkQueue queue = new HystrixLockFreeWorkQueue(1);
+        final AtomicReference<Runnable> taken = new AtomicReference<Runnable>();
+        final CountDownLatch done = new CountDownLatch(1);
+        Thread consumer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    taken.set(queue.take());
+                } catch (InterruptedException e) {
+                    // fail below
+                }
+                done.countDown();
+            }
+        });
+        consumer.start();
+        Thread.sleep(50);
+
+        Runnable r = task(new AtomicInteger());
+        assertTrue(queue.offer(r));
+        done.await();
+        assertSame(r, taken.get());
+
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test(timeout = 2000)
+    public void testTakeIsInterruptible() throws InterruptedException {
+        final HystrixLockFreeWorkQueue queue = new HystrixLockFreeWorkQueue(1);
+        final AtomicReference<Throwable> thrown = new AtomicReference<Throwable>();
+        Thread consumer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    queue.take();
+                } catch (Throwable t) {
+                    thrown.set(t);
+                }
+            }
+        });
+        consumer.start();
+        Thread.sleep(50);
+        consumer.interrupt();
+        consumer.join();
+        assertTrue(thrown.get() instanceof InterruptedException);
+    }
+
+    @Test(timeout = 10000)
+    public void testConcurrentProducersAndConsumers() throws InterruptedException {
+        final HystrixLockFreeWorkQueue queue = new HystrixLockFreeWorkQueue(16);
+        final AtomicInteger executed = new AtomicInteger();
+        final int producers = 4;
+        final int tasksPerProducer = 20000;
+        final int consumers = 4;
+        final Runnable poison = task(new AtomicInteger());
+
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < consumers; i++) {
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        Runnable r;
+                        while ((r = queue.take()) != poison) {
+                            r.run();
+                        }
+                    } catch (InterruptedException e) {
+                        // stop
+                    }
+                }
+            }));
+        }
+        final List<Thread> producerThreads = new ArrayList<Thread>();
+        for (int i = 0; i < producers; i++) {
+            producerThreads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int j = 0; j < tasksPerProducer; j++) {
+                            queue.put(task(executed));
+                        }
+                    } catch (InterruptedException e) {
+                        // stop
+                    }
+                }
+            }));
+        }
+        threads.addAll(producerThreads);
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : producerThreads) {
+            t.join();
+        }
+        for (int i = 0; i < consumers; i++) {
+            queue.put(poison);
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(producers * tasksPerProducer, executed.get());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test(timeout = 5000)
+    public void testThreadPoolWithLockFreeQueue() throws InterruptedException {
+        HystrixThreadPoolProperties properties = new TestThreadPoolProperties(HystrixThreadPoolProperties.Setter()
+                .withCoreSize(1)
+                .withMaxQueueSize(2)
+                .withLockFreeQueueEnabled(true));
+        ThreadPoolExecutor executor = HystrixPlugins.getInstance().getConcurrencyStrategy()
+                .getThreadPool(HystrixThreadPoolKey.Factory.asKey("LockFreeQueue"), properties);
+        try {
+            assertTrue(executor.getQueue() instanceof HystrixLockFreeWorkQueue);
+
+            final CountDownLatch block = new CountDownLatch(1);
+            final AtomicInteger executed = new AtomicInteger();
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        block.await();
+                    } catch (InterruptedException e) {
+                        // done
+                    }
+                }
+            });
+            executor.execute(task(executed));
+            executor.execute(task(executed));
+            assertEquals(2, executor.getQueue().size());
+            try {
+                executor.execute(task(executed));
+                throw new AssertionError("expected the task to be rejected");
+            } catch (RejectedExecutionException e) {
+                // queue is full
+            }
+
+            block.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+            assertEquals(2, executed.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class TestThreadPoolProperties extends HystrixThreadPoolProperties {
+        private TestThreadPoolProperties(HystrixThreadPoolProperties.Setter setter) {
+            super(HystrixThreadPoolKey.Factory.asKey("LockFreeQueue"), setter);
+        }
+    }
+}
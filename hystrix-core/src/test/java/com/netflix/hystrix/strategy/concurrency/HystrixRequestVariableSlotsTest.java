@@ -0,0 +1,151 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.strategy.concurrency;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HystrixRequestVariableSlotsTest {
+
+    private HystrixRequestContext context;
+
+    @Before
+    public void init() {
+        context = HystrixRequestContext.initializeContext();
+    }
+
+    @After
+    public void cleanup() {
+        if (context != null) {
+            context.shutdown();
+        }
+    }
+
+    private static class CountingVariable extends HystrixRequestVariableDefault<String> {
+        final AtomicInteger initialized = new AtomicInteger();
+        final List<String> shutdown = new ArrayList<String>();
+        final String name;
+
+        CountingVariable(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String initialValue() {
+            return name + "-" + initialized.incrementAndGet();
+        }
+
+        @Override
+        public void shutdown(String value) {
+            shutdown.add(value);
+        }
+    }
+
+    @Test
+    public void testValuesAreScopedToContext() {
+        CountingVariable v = new CountingVariable("a");
+        assertEquals("a-1", v.get());
+        assertEquals("a-1", v.get());
+
+        HystrixRequestContext other = HystrixRequestContext.initializeContext();
+        assertEquals("a-2", v.get());
+        other.shutdown();
+
+        HystrixRequestContext.setContextOnCurrentThread(context);
+        assertEquals("a-1", v.get());
+    }
+
+    @Test
+    public void testSetAndRemove() {
+        CountingVariable v = new CountingVariable("b");
+        v.set("explicit");
+        assertEquals("explicit", v.get());
+        assertEquals(0, v.initialized.get());
+
+        v.remove();
+        assertEquals(1, v.shutdown.size());
+        assertEquals("explicit", v.shutdown.get(0));
+        assertEquals("b-1", v.get());
+    }
+
+    @Test
+    public void testShutdownReachesEveryVariable() {
+        List<CountingVariable> variables = new ArrayList<CountingVariable>();
+        // enough to span several pages and spill past the slots into the overflow map
+        for (int i = 0; i < HystrixRequestVariableSlots.MAX_SLOTS + 10; i++) {
+            variables.add(new CountingVariable("v" + i));
+        }
+        for (CountingVariable v : variables) {
+            v.get();
+        }
+        assertTrue(variables.get(variables.size() - 1).slot >= HystrixRequestVariableSlots.MAX_SLOTS);
+        assertEquals(variables.size(), context.state.getVariables().size());
+
+        context.shutdown();
+        context = null;
+        for (CountingVariable v : variables) {
+            assertEquals(1, v.shutdown.size());
+        }
+        assertNull(HystrixRequestContext.getContextForCurrentThread());
+    }
+
+    @Test
+    public void testConcurrentGetInitializesOnce() throws InterruptedException {
+        final CountingVariable v = new CountingVariable("c");
+        final HystrixRequestContext parent = context;
+        final int numThreads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(numThreads);
+        final List<String> values = new ArrayList<String>();
+        for (int i = 0; i < numThreads; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    HystrixRequestContext.setContextOnCurrentThread(parent);
+                    try {
+                        start.await();
+                        String value = v.get();
+                        synchronized (values) {
+                            values.add(value);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+
+        assertEquals(1, v.initialized.get());
+        assertEquals(numThreads, values.size());
+        for (String value : values) {
+            assertEquals("c-1", value);
+        }
+    }
+}
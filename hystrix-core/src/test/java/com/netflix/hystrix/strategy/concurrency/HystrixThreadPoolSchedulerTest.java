@@ -0,0 +1,206 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.strategy.concurrency;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import rx.Scheduler;
+import rx.Subscription;
+import rx.functions.Action0;
+import rx.functions.Func0;
+
+import com.netflix.hystrix.Hystrix;
+import com.netflix.hystrix.HystrixThreadPool;
+import com.netflix.hystrix.HystrixThreadPoolKey;
+import com.netflix.hystrix.HystrixThreadPoolProperties;
+import com.netflix.hystrix.strategy.HystrixPlugins;
+
+public class HystrixThreadPoolSchedulerTest {
+
+    private static final AtomicInteger uniqueId = new AtomicInteger();
+
+    private HystrixThreadPool.HystrixThreadPoolDefault threadPool;
+
+    @Before
+    public void init() {
+        threadPool = new HystrixThreadPool.HystrixThreadPoolDefault(HystrixThreadPoolKey.Factory.asKey("ThreadPoolScheduler" + uniqueId.incrementAndGet()),
+                HystrixThreadPoolProperties.Setter().withCoreSize(1).withMaxQueueSize(5));
+    }
+
+    @After
+    public void cleanup() {
+        threadPool.getExecutor().shutdownNow();
+        Hystrix.reset();
+    }
+
+    private static Func0<Boolean> interrupt(final boolean interrupt) {
+        return new Func0<Boolean>() {
+            @Override
+            public Boolean call() {
+                return interrupt;
+            }
+        };
+    }
+
+    @Test(timeout = 2500)
+    public void testRequestContextIsPropagatedAndRestored() throws InterruptedException {
+        final AtomicReference<HystrixRequestContext> contextInAction = new AtomicReference<HystrixRequestContext>();
+        final AtomicReference<HystrixRequestContext> contextAfterAction = new AtomicReference<HystrixRequestContext>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        HystrixThreadPoolScheduler scheduler = new HystrixThreadPoolScheduler(HystrixPlugins.getInstance().getConcurrencyStrategy(), threadPool, interrupt(true));
+
+        HystrixRequestContext context = HystrixRequestContext.initializeContext();
+        try {
+            scheduler.createWorker().schedule(new Action0() {
+                @Override
+                public void call() {
+                    contextInAction.set(HystrixRequestContext.getContextForCurrentThread());
+                }
+            });
+            HystrixRequestContext.setContextOnCurrentThread(null);
+            // runs after the first action on the single pool thread
+            scheduler.createWorker().schedule(new Action0() {
+                @Override
+                public void call() {
+                    contextAfterAction.set(HystrixRequestContext.getContextForCurrentThread());
+                    latch.countDown();
+                }
+            });
+
+            latch.await();
+            assertSame(context, contextInAction.get());
+            assertNull(contextAfterAction.get());
+        } finally {
+            context.shutdown();
+        }
+    }
+
+    @Test(timeout = 2500)
+    public void testWrapCallableIsApplied() throws InterruptedException {
+        final AtomicInteger wrapped = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        HystrixConcurrencyStrategy concurrencyStrategy = new HystrixConcurrencyStrategy() {
+            @Override
+            public <T> Callable<T> wrapCallable(final Callable<T> callable) {
+                return new Callable<T>() {
+                    @Override
+                    public T call() throws Exception {
+                        wrapped.incrementAndGet();
+                        return callable.call();
+                    }
+                };
+            }
+        };
+
+        new HystrixThreadPoolScheduler(concurrencyStrategy, threadPool, interrupt(true)).createWorker().schedule(new Action0() {
+            @Override
+            public void call() {
+                latch.countDown();
+            }
+        });
+
+        latch.await();
+        assertEquals(1, wrapped.get());
+    }
+
+    @Test(timeout = 2500)
+    public void testUnsubscribeInterrupts() throws InterruptedException {
+        assertTrue(runAndUnsubscribe(true));
+    }
+
+    @Test(timeout = 2500)
+    public void testUnsubscribeWithoutInterrupt() throws InterruptedException {
+        assertFalse(runAndUnsubscribe(false));
+    }
+
+    private boolean runAndUnsubscribe(boolean interrupt) throws InterruptedException {
+        final AtomicBoolean interrupted = new AtomicBoolean();
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch end = new CountDownLatch(1);
+
+        Scheduler.Worker w = new HystrixThreadPoolScheduler(HystrixPlugins.getInstance().getConcurrencyStrategy(), threadPool, interrupt(interrupt)).createWorker();
+        w.schedule(new Action0() {
+            @Override
+            public void call() {
+                start.countDown();
+                try {
+                    try {
+                        Thread.sleep(500);
+                    } catch (InterruptedException ex) {
+                        interrupted.set(true);
+                    }
+                } finally {
+                    end.countDown();
+                }
+            }
+        });
+
+        start.await();
+        w.unsubscribe();
+        end.await();
+        return interrupted.get();
+    }
+
+    @Test(timeout = 2500)
+    public void testUnsubscribeRemovesQueuedTask() throws InterruptedException {
+        final CountDownLatch block = new CountDownLatch(1);
+        final AtomicBoolean queuedRan = new AtomicBoolean();
+        HystrixThreadPoolScheduler scheduler = new HystrixThreadPoolScheduler(HystrixPlugins.getInstance().getConcurrencyStrategy(), threadPool, interrupt(true));
+
+        scheduler.createWorker().schedule(new Action0() {
+            @Override
+            public void call() {
+                try {
+                    block.await();
+                } catch (InterruptedException e) {
+                    // done
+                }
+            }
+        });
+        Scheduler.Worker w = scheduler.createWorker();
+        Subscription s = w.schedule(new Action0() {
+            @Override
+            public void call() {
+                queuedRan.set(true);
+            }
+        });
+        assertEquals(1, threadPool.getExecutor().getQueue().size());
+
+        w.unsubscribe();
+        assertTrue(s.isUnsubscribed());
+        assertEquals(0, threadPool.getExecutor().getQueue().size());
+
+        block.countDown();
+        threadPool.getExecutor().shutdown();
+        threadPool.getExecutor().awaitTermination(1, TimeUnit.SECONDS);
+        assertFalse(queuedRan.get());
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HystrixFrequencySketchTest {
+
+    @Test
+    public void testCountsIncrements() {
+        HystrixFrequencySketch sketch = new HystrixFrequencySketch(100);
+        assertEquals(0, sketch.frequency("a"));
+        for (int i = 0; i < 5; i++) {
+            sketch.increment("a");
+        }
+        sketch.increment("b");
+        assertEquals(5, sketch.frequency("a"));
+        assertEquals(1, sketch.frequency("b"));
+    }
+
+    @Test
+    public void testSaturatesAtFifteen() {
+        HystrixFrequencySketch sketch = new HystrixFrequencySketch(100);
+        for (int i = 0; i < 100; i++) {
+            sketch.increment("a");
+        }
+        assertEquals(15, sketch.frequency("a"));
+    }
+
+    @Test
+    public void testResetHalvesCounts() {
+        HystrixFrequencySketch sketch = new HystrixFrequencySketch(100);
+        for (int i = 0; i < 10; i++) {
+            sketch.increment("a");
+        }
+        sketch.reset();
+        assertEquals(5, sketch.frequency("a"));
+    }
+
+    @Test
+    public void testAgesAfterSampleSize() {
+        HystrixFrequencySketch sketch = new HystrixFrequencySketch(16);
+        for (int i = 0; i < 8; i++) {
+            sketch.increment("hot");
+        }
+        // 10 increments per expected element trigger aging
+        for (int i = 0; i < 160; i++) {
+            sketch.increment(Integer.valueOf(i));
+        }
+        assertTrue(sketch.frequency("hot") < 8);
+    }
+}
@@ -41,6 +41,7 @@ public class HystrixTimerTest {
 
     @After
     public void tearDown() {
+        HystrixTimer.reset();
         HystrixPlugins.reset();
     }
 
@@ -207,6 +208,110 @@ public class HystrixTimerTest {
 
     }
 
+    @Test
+    public void testOneShotListenerTicksOnce() throws InterruptedException {
+        HystrixTimer timer = HystrixTimer.getInstance();
+        TestListener l1 = new TestListener(20, "A");
+        timer.addOneShotTimerListener(l1);
+
+        Thread.sleep(300);
+
+        assertEquals(1, l1.tickCount.get());
+    }
+
+    @Test
+    public void testOneShotListenerClearedBeforeTick() throws InterruptedException {
+        HystrixTimer timer = HystrixTimer.getInstance();
+        TestListener l1 = new TestListener(100, "A");
+        Reference<TimerListener> ref = timer.addOneShotTimerListener(l1);
+        ref.clear();
+
+        Thread.sleep(300);
+
+        assertEquals(0, l1.tickCount.get());
+    }
+
+    @Test
+    public void testWheelConfiguredWithBuilder() throws InterruptedException {
+        registerWheelProperties();
+
+        HystrixTimer hystrixTimer = HystrixTimer.getInstance();
+        hystrixTimer.startThreadIfNeeded();
+
+        HystrixTimerWheel wheel = hystrixTimer.executor.get().getTimerWheel();
+        assertNotNull(wheel);
+        assertEquals(64, wheel.getTicksPerWheel());
+        assertEquals(2, hystrixTimer.executor.get().getThreadPool().getCorePoolSize());
+
+        HystrixTimer.reset();
+        assertTrue(wheel.isShutdown());
+    }
+
+    @Test
+    public void testWheelRepeatingListenerAndRemoveListener() throws InterruptedException {
+        registerWheelProperties();
+
+        HystrixTimer timer = HystrixTimer.getInstance();
+        TestListener l1 = new TestListener(50, "A");
+        timer.addTimerListener(l1);
+
+        TestListener l2 = new TestListener(10, "B");
+        Reference<TimerListener> l2ref = timer.addTimerListener(l2);
+
+        Thread.sleep(500);
+
+        // same bounds as the executor-backed timer
+        assertTrue("l1 ticks: " + l1.tickCount.get(), l1.tickCount.get() > 7);
+        assertTrue("l1 ticks: " + l1.tickCount.get(), l1.tickCount.get() < 12);
+        assertTrue("l2 ticks: " + l2.tickCount.get(), l2.tickCount.get() > 30);
+        assertTrue("l2 ticks: " + l2.tickCount.get(), l2.tickCount.get() < 55);
+
+        l2ref.clear();
+        l1.tickCount.set(0);
+        l2.tickCount.set(0);
+
+        Thread.sleep(500);
+
+        assertTrue(l1.tickCount.get() > 7);
+        assertEquals(0, l2.tickCount.get());
+    }
+
+    @Test
+    public void testWheelOneShotListener() throws InterruptedException {
+        registerWheelProperties();
+
+        HystrixTimer timer = HystrixTimer.getInstance();
+        TestListener l1 = new TestListener(20, "A");
+        timer.addOneShotTimerListener(l1);
+        TestListener l2 = new TestListener(20, "B");
+        Reference<TimerListener> l2ref = timer.addOneShotTimerListener(l2);
+        l2ref.clear();
+
+        Thread.sleep(300);
+
+        assertEquals(1, l1.tickCount.get());
+        assertEquals(0, l2.tickCount.get());
+    }
+
+    private static void registerWheelProperties() {
+        HystrixTimerThreadPoolProperties.Setter builder = HystrixTimerThreadPoolProperties.Setter()
+                .withCoreSize(2)
+                .withWheelEnabled(true)
+                .withWheelTickInMilliseconds(1)
+                .withWheelTicksPerWheel(50);
+        final HystrixTimerThreadPoolProperties props = new HystrixTimerThreadPoolProperties(builder) {
+        };
+
+        HystrixPropertiesStrategy strategy = new HystrixPropertiesStrategy() {
+            @Override
+            public HystrixTimerThreadPoolProperties getTimerThreadPoolProperties() {
+                return props;
+            }
+        };
+
+        HystrixPlugins.getInstance().registerPropertiesStrategy(strategy);
+    }
+
     private static class TestListener implements TimerListener {
 
         private final int interval;
@@ -0,0 +1,162 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class HystrixTimerWheelTest {
+
+    private static final ThreadFactory threadFactory = new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "HystrixTimerWheelTest");
+            t.setDaemon(true);
+            return t;
+        }
+    };
+
+    private static final Executor callerRuns = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private HystrixTimerWheel wheel;
+
+    @Before
+    public void setUp() {
+        wheel = new HystrixTimerWheel(1, 8, threadFactory, callerRuns);
+    }
+
+    @After
+    public void tearDown() {
+        wheel.shutdown();
+    }
+
+    @Test
+    public void testTicksPerWheelRoundedUpToPowerOfTwo() {
+        assertEquals(8, wheel.getTicksPerWheel());
+        HystrixTimerWheel other = new HystrixTimerWheel(1, 100, threadFactory, callerRuns);
+        try {
+            assertEquals(128, other.getTicksPerWheel());
+        } finally {
+            other.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTickDuration() {
+        new HystrixTimerWheel(0, 8, threadFactory, callerRuns);
+    }
+
+    @Test
+    public void testTimeoutExpires() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        HystrixTimerWheel.Timeout timeout = wheel.schedule(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 20);
+
+        assertTrue(latch.await(1000, TimeUnit.MILLISECONDS));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue("expired after " + elapsed + "ms", elapsed >= 20);
+        assertTrue(timeout.isExpired());
+        assertFalse(timeout.cancel());
+    }
+
+    @Test
+    public void testTimeoutBeyondOneRotationExpires() throws InterruptedException {
+        // 8 buckets of 1ms, so this goes around the wheel several times
+        final CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        wheel.schedule(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 50);
+
+        assertTrue(latch.await(1000, TimeUnit.MILLISECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 50);
+    }
+
+    @Test
+    public void testCancelledTimeoutDoesNotRun() throws InterruptedException {
+        final AtomicInteger count = new AtomicInteger();
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                count.incrementAndGet();
+            }
+        };
+        HystrixTimerWheel.Timeout t1 = wheel.schedule(task, 10);
+        HystrixTimerWheel.Timeout t2 = wheel.schedule(task, 10);
+        assertTrue(t1.cancel());
+        assertFalse(t1.cancel());
+
+        Thread.sleep(100);
+
+        assertTrue(t1.isCancelled());
+        assertTrue(t2.isExpired());
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void testManyTimeoutsMostlyCancelled() throws InterruptedException {
+        final AtomicInteger count = new AtomicInteger();
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                count.incrementAndGet();
+            }
+        };
+        for (int i = 0; i < 10000; i++) {
+            HystrixTimerWheel.Timeout t = wheel.schedule(task, 10 + i % 30);
+            if (i % 100 != 0) {
+                t.cancel();
+            }
+        }
+
+        Thread.sleep(200);
+
+        assertEquals(100, count.get());
+    }
+
+    @Test
+    public void testScheduleAfterShutdownIsCancelled() {
+        wheel.shutdown();
+        HystrixTimerWheel.Timeout t = wheel.schedule(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }, 10);
+        assertTrue(t.isCancelled());
+    }
+}
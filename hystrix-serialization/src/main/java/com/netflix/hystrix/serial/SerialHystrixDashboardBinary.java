@@ -0,0 +1,504 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.serial;
+
+import com.netflix.hystrix.HystrixCircuitBreaker;
+import com.netflix.hystrix.HystrixCollapserMetrics;
+import com.netflix.hystrix.HystrixCollapserProperties;
+import com.netflix.hystrix.HystrixCommandMetrics;
+import com.netflix.hystrix.HystrixCommandProperties;
+import com.netflix.hystrix.HystrixEventType;
+import com.netflix.hystrix.HystrixThreadPoolMetrics;
+import com.netflix.hystrix.HystrixThreadPoolProperties;
+import com.netflix.hystrix.metric.consumer.HystrixDashboardStream;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of {@link HystrixDashboardStream.DashboardData}, carrying the same fields as the JSON written by
+ * {@link SerialHystrixDashboardData}.
+ * <p>
+ * An {@link Encoder} and a {@link Decoder} are stateful and belong to one stream, since each frame is encoded against the frames before it:
+ * <ul>
+ *     <li>every number is written as a zig-zag varint of its difference to the same field of the same key in the previous frame, so
+ *     unchanged counters and properties take a single byte</li>
+ *     <li>every string (keys, groups and string properties) is written once and referred to by its index afterwards: 0 is null, 1 is
+ *     followed by the length and UTF-8 bytes of a string new to the stream, and n refers to the (n - 2)th string of the stream</li>
+ * </ul>
+ * Booleans are numbers 0 and 1.  A frame is a varint count of records, each of them a type byte, the key name and the fields of that type
+ * in the order of the JSON document.
+ * <p>
+ * Streaming endpoints send {@link #CONTENT_TYPE} to clients that accept it, prefixing every frame with its length as a 4-byte big-endian int.
+ * A length of 0 is a ping.
+ */
+public class SerialHystrixDashboardBinary extends SerialHystrixMetric {
+
+    /**
+     * Media type of a stream of length-prefixed frames.
+     */
+    public static final String CONTENT_TYPE = "application/vnd.hystrix.dashboard+binary";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final byte TYPE_COMMAND = 0;
+    private static final byte TYPE_THREAD_POOL = 1;
+    private static final byte TYPE_COLLAPSER = 2;
+
+    private static final String[] TYPE_NAMES = {"HystrixCommand", "HystrixThreadPool", "HystrixCollapser"};
+
+    private static final char NUMBER = 'n';
+    private static final char BOOLEAN = 'b';
+    private static final char STRING = 's';
+
+    private static final String[] PERCENTILES = {"0", "25", "50", "75", "90", "95", "99", "99.5", "100"};
+    private static final double[] PERCENTILE_VALUES = {0, 25, 50, 75, 90, 95, 99, 99.5, 100};
+
+    /* fields of each record type after its key, in the order they are encoded; a name with a '.' is nested in the JSON document */
+    private static final Field[][] FIELDS = new Field[3][];
+
+    static {
+        List<Field> command = new ArrayList<Field>();
+        command.add(new Field(STRING, "group"));
+        command.add(new Field(NUMBER, "currentTime"));
+        command.add(new Field(BOOLEAN, "isCircuitBreakerOpen"));
+        command.add(new Field(NUMBER, "errorPercentage"));
+        command.add(new Field(NUMBER, "errorCount"));
+        command.add(new Field(NUMBER, "requestCount"));
+        for (String name : new String[] {"rollingCountBadRequests", "rollingCountCollapsedRequests", "rollingCountEmit", "rollingCountExceptionsThrown",
+                "rollingCountFailure", "rollingCountFallbackEmit", "rollingCountFallbackFailure", "rollingCountFallbackMissing",
+                "rollingCountFallbackRejection", "rollingCountFallbackSuccess", "rollingCountResponsesFromCache", "rollingCountSemaphoreRejected",
+                "rollingCountShortCircuited", "rollingCountSuccess", "rollingCountThreadPoolRejected", "rollingCountTimeout",
+                "currentConcurrentExecutionCount", "rollingMaxConcurrentExecutionCount", "latencyExecute_mean"}) {
+            command.add(new Field(NUMBER, name));
+        }
+        for (String percentile : PERCENTILES) {
+            command.add(new Field(NUMBER, "latencyExecute." + percentile));
+        }
+        command.add(new Field(NUMBER, "latencyTotal_mean"));
+        for (String percentile : PERCENTILES) {
+            command.add(new Field(NUMBER, "latencyTotal." + percentile));
+        }
+        command.add(new Field(NUMBER, "propertyValue_circuitBreakerRequestVolumeThreshold"));
+        command.add(new Field(NUMBER, "propertyValue_circuitBreakerSleepWindowInMilliseconds"));
+        command.add(new Field(NUMBER, "propertyValue_circuitBreakerErrorThresholdPercentage"));
+        command.add(new Field(BOOLEAN, "propertyValue_circuitBreakerForceOpen"));
+        command.add(new Field(BOOLEAN, "propertyValue_circuitBreakerForceClosed"));
+        command.add(new Field(BOOLEAN, "propertyValue_circuitBreakerEnabled"));
+        command.add(new Field(STRING, "propertyValue_executionIsolationStrategy"));
+        command.add(new Field(NUMBER, "propertyValue_executionIsolationThreadTimeoutInMilliseconds"));
+        command.add(new Field(NUMBER, "propertyValue_executionTimeoutInMilliseconds"));
+        command.add(new Field(BOOLEAN, "propertyValue_executionIsolationThreadInterruptOnTimeout"));
+        command.add(new Field(STRING, "propertyValue_executionIsolationThreadPoolKeyOverride"));
+        command.add(new Field(NUMBER, "propertyValue_executionIsolationSemaphoreMaxConcurrentRequests"));
+        command.add(new Field(NUMBER, "propertyValue_fallbackIsolationSemaphoreMaxConcurrentRequests"));
+        command.add(new Field(NUMBER, "propertyValue_metricsRollingStatisticalWindowInMilliseconds"));
+        command.add(new Field(BOOLEAN, "propertyValue_requestCacheEnabled"));
+        command.add(new Field(BOOLEAN, "propertyValue_requestLogEnabled"));
+        command.add(new Field(NUMBER, "reportingHosts"));
+        command.add(new Field(STRING, "threadPool"));
+        FIELDS[TYPE_COMMAND] = command.toArray(new Field[command.size()]);
+
+        List<Field> threadPool = new ArrayList<Field>();
+        for (String name : new String[] {"currentTime", "currentActiveCount", "currentCompletedTaskCount", "currentCorePoolSize",
+                "currentLargestPoolSize", "currentMaximumPoolSize", "currentPoolSize", "currentQueueSize", "currentTaskCount",
+                "rollingCountThreadsExecuted", "rollingMaxActiveThreads", "rollingCountCommandRejections",
+                "propertyValue_queueSizeRejectionThreshold", "propertyValue_metricsRollingStatisticalWindowInMilliseconds", "reportingHosts"}) {
+            threadPool.add(new Field(NUMBER, name));
+        }
+        FIELDS[TYPE_THREAD_POOL] = threadPool.toArray(new Field[threadPool.size()]);
+
+        List<Field> collapser = new ArrayList<Field>();
+        for (String name : new String[] {"currentTime", "rollingCountRequestsBatched", "rollingCountBatches", "rollingCountResponsesFromCache",
+                "batchSize_mean"}) {
+            collapser.add(new Field(NUMBER, name));
+        }
+        // the JSON has no 0th batch size percentile
+        for (int i = 1; i < PERCENTILES.length; i++) {
+            collapser.add(new Field(NUMBER, "batchSize." + PERCENTILES[i]));
+        }
+        collapser.add(new Field(NUMBER, "propertyValue_metricsRollingStatisticalWindowInMilliseconds"));
+        collapser.add(new Field(BOOLEAN, "propertyValue_requestCacheEnabled"));
+        collapser.add(new Field(NUMBER, "propertyValue_maxRequestsInBatch"));
+        collapser.add(new Field(NUMBER, "propertyValue_timerDelayInMilliseconds"));
+        collapser.add(new Field(NUMBER, "currentTimerDelayInMilliseconds"));
+        collapser.add(new Field(NUMBER, "reportingHosts"));
+        FIELDS[TYPE_COLLAPSER] = collapser.toArray(new Field[collapser.size()]);
+    }
+
+    private static class Field {
+        private final char kind;
+        private final String name;
+        private final int dot;
+
+        private Field(char kind, String name) {
+            this.kind = kind;
+            this.name = name;
+            this.dot = name.indexOf('.');
+        }
+    }
+
+    /**
+     * Encodes {@link HystrixDashboardStream.DashboardData} of one stream into a buffer that is reused from frame to frame.
+     * <p>
+     * Not thread-safe.
+     */
+    public static class Encoder {
+        private final Map<String, Integer> strings = new HashMap<String, Integer>();
+        private final Map<String, long[]> previousValues = new HashMap<String, long[]>();
+        private ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+        private long[] previous;
+        private int fieldIndex;
+
+        /**
+         * @return the frame, valid until the next call of this encoder
+         */
+        public ByteBuffer encode(HystrixDashboardStream.DashboardData dashboardData) {
+            return encode(dashboardData.getCommandMetrics(), dashboardData.getThreadPoolMetrics(), dashboardData.getCollapserMetrics());
+        }
+
+        /**
+         * @return the frame, valid until the next call of this encoder
+         */
+        public ByteBuffer encode(Collection<HystrixCommandMetrics> commandMetrics, Collection<HystrixThreadPoolMetrics> threadPoolMetrics,
+                                 Collection<HystrixCollapserMetrics> collapserMetrics) {
+            // the collections are usually live views of the registered metrics, so copy them to write the same records that were counted
+            final List<HystrixCommandMetrics> commands = new ArrayList<HystrixCommandMetrics>(commandMetrics);
+            final List<HystrixThreadPoolMetrics> threadPools = new ArrayList<HystrixThreadPoolMetrics>(threadPoolMetrics);
+            final List<HystrixCollapserMetrics> collapsers = new ArrayList<HystrixCollapserMetrics>(collapserMetrics);
+            buffer.clear();
+            writeVarint(commands.size() + threadPools.size() + collapsers.size());
+            for (HystrixCommandMetrics metrics : commands) {
+                writeCommandMetrics(metrics);
+            }
+            for (HystrixThreadPoolMetrics metrics : threadPools) {
+                writeThreadPoolMetrics(metrics);
+            }
+            for (HystrixCollapserMetrics metrics : collapsers) {
+                writeCollapserMetrics(metrics);
+            }
+            buffer.flip();
+            return buffer;
+        }
+
+        private void writeCommandMetrics(HystrixCommandMetrics commandMetrics) {
+            HystrixCircuitBreaker circuitBreaker = HystrixCircuitBreaker.Factory.getInstance(commandMetrics.getCommandKey());
+            HystrixCommandMetrics.HealthCounts healthCounts = commandMetrics.getHealthCounts();
+            HystrixCommandProperties properties = commandMetrics.getProperties();
+
+            startRecord(TYPE_COMMAND, commandMetrics.getCommandKey().name());
+            writeString(commandMetrics.getCommandGroup().name());
+            writeNumber(System.currentTimeMillis());
+            // circuit breaker is disabled and thus never open if there is none
+            writeBoolean(circuitBreaker != null && circuitBreaker.isOpen());
+            writeNumber(healthCounts.getErrorPercentage());
+            writeNumber(healthCounts.getErrorCount());
+            writeNumber(healthCounts.getTotalRequests());
+
+            writeNumber(commandMetrics.getRollingCount(HystrixEventType.BAD_REQUEST));
+            writeNumber(commandMetrics.getRollingCount(HystrixEventType.COLLAPSED));
+            writeNumber(commandMetrics.getRollingCount(HystrixEventType.EMIT));
+            writeNumber(commandMetrics.getRollingCount(HystrixEventType.EXCEPTION_THROWN));
+            writeNumber(commandMetrics.getRollingCount(HystrixEventType.FAILURE));
+            writeNumber(commandMetrics.getRollingCount(HystrixEventType.FALLBACK_EMIT));
+            writeNumber(commandMetrics.getRollingCount(HystrixEventType.FALLBACK_FAILURE));
+            writeNumber(commandMetrics.getRollingCount(HystrixEventType.FALLBACK_MISSING));
+            writeNumber(commandMetrics.getRollingCount(HystrixEventType.FALLBACK_REJECTION));
+            writeNumber(commandMetrics.getRollingCount(HystrixEventType.FALLBACK_SUCCESS));
+            writeNumber(commandMetrics.getRollingCount(HystrixEventType.RESPONSE_FROM_CACHE));
+            writeNumber(commandMetrics.getRollingCount(HystrixEventType.SEMAPHORE_REJECTED));
+            writeNumber(commandMetrics.getRollingCount(HystrixEventType.SHORT_CIRCUITED));
+            writeNumber(commandMetrics.getRollingCount(HystrixEventType.SUCCESS));
+            writeNumber(commandMetrics.getRollingCount(HystrixEventType.THREAD_POOL_REJECTED));
+            writeNumber(commandMetrics.getRollingCount(HystrixEventType.TIMEOUT));
+            writeNumber(commandMetrics.getCurrentConcurrentExecutionCount());
+            writeNumber(commandMetrics.getRollingMaxConcurrentExecutions());
+
+            writeNumber(commandMetrics.getExecutionTimeMean());
+            for (double percentile : PERCENTILE_VALUES) {
+                writeNumber(commandMetrics.getExecutionTimePercentile(percentile));
+            }
+            writeNumber(commandMetrics.getTotalTimeMean());
+            for (double percentile : PERCENTILE_VALUES) {
+                writeNumber(commandMetrics.getTotalTimePercentile(percentile));
+            }
+
+            writeNumber(properties.circuitBreakerRequestVolumeThreshold().get());
+            writeNumber(properties.circuitBreakerSleepWindowInMilliseconds().get());
+            writeNumber(properties.circuitBreakerErrorThresholdPercentage().get());
+            writeBoolean(properties.circuitBreakerForceOpen().get());
+            writeBoolean(properties.circuitBreakerForceClosed().get());
+            writeBoolean(properties.circuitBreakerEnabled().get());
+            writeString(properties.executionIsolationStrategy().get().name());
+            writeNumber(properties.executionTimeoutInMilliseconds().get());
+            writeNumber(properties.executionTimeoutInMilliseconds().get());
+            writeBoolean(properties.executionIsolationThreadInterruptOnTimeout().get());
+            writeString(properties.executionIsolationThreadPoolKeyOverride().get());
+            writeNumber(properties.executionIsolationSemaphoreMaxConcurrentRequests().get());
+            writeNumber(properties.fallbackIsolationSemaphoreMaxConcurrentRequests().get());
+            writeNumber(properties.metricsRollingStatisticalWindowInMilliseconds().get());
+            writeBoolean(properties.requestCacheEnabled().get());
+            writeBoolean(properties.requestLogEnabled().get());
+
+            writeNumber(1); // reportingHosts, which will get summed across all instances in a cluster
+            writeString(commandMetrics.getThreadPoolKey().name());
+            endRecord(TYPE_COMMAND);
+        }
+
+        private void writeThreadPoolMetrics(HystrixThreadPoolMetrics threadPoolMetrics) {
+            HystrixThreadPoolProperties properties = threadPoolMetrics.getProperties();
+
+            startRecord(TYPE_THREAD_POOL, threadPoolMetrics.getThreadPoolKey().name());
+            writeNumber(System.currentTimeMillis());
+            writeNumber(threadPoolMetrics.getCurrentActiveCount().longValue());
+            writeNumber(threadPoolMetrics.getCurrentCompletedTaskCount().longValue());
+            writeNumber(threadPoolMetrics.getCurrentCorePoolSize().longValue());
+            writeNumber(threadPoolMetrics.getCurrentLargestPoolSize().longValue());
+            writeNumber(threadPoolMetrics.getCurrentMaximumPoolSize().longValue());
+            writeNumber(threadPoolMetrics.getCurrentPoolSize().longValue());
+            writeNumber(threadPoolMetrics.getCurrentQueueSize().longValue());
+            writeNumber(threadPoolMetrics.getCurrentTaskCount().longValue());
+            writeNumber(threadPoolMetrics.getRollingCount(HystrixEventType.ThreadPool.EXECUTED));
+            writeNumber(threadPoolMetrics.getRollingMaxActiveThreads());
+            writeNumber(threadPoolMetrics.getRollingCount(HystrixEventType.ThreadPool.REJECTED));
+            writeNumber(properties.queueSizeRejectionThreshold().get());
+            writeNumber(properties.metricsRollingStatisticalWindowInMilliseconds().get());
+            writeNumber(1); // reportingHosts
+            endRecord(TYPE_THREAD_POOL);
+        }
+
+        private void writeCollapserMetrics(HystrixCollapserMetrics collapserMetrics) {
+            HystrixCollapserProperties properties = collapserMetrics.getProperties();
+
+            startRecord(TYPE_COLLAPSER, collapserMetrics.getCollapserKey().name());
+            writeNumber(System.currentTimeMillis());
+            writeNumber(collapserMetrics.getRollingCount(HystrixEventType.Collapser.ADDED_TO_BATCH));
+            writeNumber(collapserMetrics.getRollingCount(HystrixEventType.Collapser.BATCH_EXECUTED));
+            writeNumber(collapserMetrics.getRollingCount(HystrixEventType.Collapser.RESPONSE_FROM_CACHE));
+            writeNumber(collapserMetrics.getBatchSizeMean());
+            for (int i = 1; i < PERCENTILE_VALUES.length; i++) {
+                writeNumber(collapserMetrics.getBatchSizePercentile(PERCENTILE_VALUES[i]));
+            }
+            writeNumber(properties.metricsRollingStatisticalWindowInMilliseconds().get());
+            writeBoolean(properties.requestCacheEnabled().get());
+            writeNumber(properties.maxRequestsInBatch().get());
+            writeNumber(properties.timerDelayInMilliseconds().get());
+            writeNumber(collapserMetrics.getCurrentTimerDelayInMilliseconds());
+            writeNumber(1); // reportingHosts
+            endRecord(TYPE_COLLAPSER);
+        }
+
+        private void startRecord(byte type, String name) {
+            ensureCapacity(1);
+            buffer.put(type);
+            previous = null;
+            writeString(name);
+            final String stateKey = TYPE_NAMES[type] + name;
+            previous = previousValues.get(stateKey);
+            if (previous == null) {
+                previous = new long[FIELDS[type].length];
+                previousValues.put(stateKey, previous);
+            }
+            fieldIndex = 0;
+        }
+
+        private void endRecord(byte type) {
+            if (fieldIndex != FIELDS[type].length) {
+                throw new IllegalStateException("Encoded " + fieldIndex + " fields of a " + TYPE_NAMES[type] + " instead of " + FIELDS[type].length);
+            }
+        }
+
+        private void writeNumber(long value) {
+            writeVarint(zigZag(value - previous[fieldIndex]));
+            previous[fieldIndex++] = value;
+        }
+
+        private void writeBoolean(boolean value) {
+            writeNumber(value ? 1 : 0);
+        }
+
+        private void writeString(String value) {
+            if (value == null) {
+                writeVarint(0);
+            } else {
+                Integer index = strings.get(value);
+                if (index != null) {
+                    writeVarint(index + 2);
+                } else {
+                    strings.put(value, strings.size());
+                    byte[] bytes = value.getBytes(UTF_8);
+                    writeVarint(1);
+                    writeVarint(bytes.length);
+                    ensureCapacity(bytes.length);
+                    buffer.put(bytes);
+                }
+            }
+            if (previous != null && fieldIndex < previous.length) {
+                fieldIndex++;
+            }
+        }
+
+        private void writeVarint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        private void ensureCapacity(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+        }
+
+        private static long zigZag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+    }
+
+    /**
+     * Decodes the frames of one stream written by an {@link Encoder} into records shaped like the JSON documents of
+     * {@link SerialHystrixDashboardData}: a map of field names to {@link Long}, {@link Boolean} or {@link String} values, with percentiles in
+     * nested maps.
+     * <p>
+     * Frames must be decoded in the order they were encoded.  Not thread-safe.
+     */
+    public static class Decoder {
+        private final List<String> strings = new ArrayList<String>();
+        private final Map<String, long[]> previousValues = new HashMap<String, long[]>();
+
+        public List<Map<String, Object>> decode(ByteBuffer frame) {
+            try {
+                int records = (int) readVarint(frame);
+                List<Map<String, Object>> decoded = new ArrayList<Map<String, Object>>(records);
+                for (int i = 0; i < records; i++) {
+                    decoded.add(readRecord(frame));
+                }
+                if (frame.hasRemaining()) {
+                    // the string table and previous values would be out of sync with the encoder from here on
+                    throw new IllegalArgumentException("Hystrix dashboard frame has " + frame.remaining() + " bytes after its " + records + " records");
+                }
+                return decoded;
+            } catch (BufferUnderflowException e) {
+                throw new IllegalArgumentException("Truncated Hystrix dashboard frame", e);
+            }
+        }
+
+        /**
+         * @return the JSON documents {@link SerialHystrixDashboardData#toMultipleJsonStrings} would write for the decoded frame
+         */
+        public List<String> decodeToJsonStrings(ByteBuffer frame) {
+            List<String> jsonStrings = new ArrayList<String>();
+            try {
+                for (Map<String, Object> record : decode(frame)) {
+                    jsonStrings.add(mapper.writeValueAsString(record));
+                }
+            } catch (IllegalArgumentException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            return jsonStrings;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Map<String, Object> readRecord(ByteBuffer frame) {
+            final int type = frame.get();
+            if (type < 0 || type >= FIELDS.length) {
+                throw new IllegalArgumentException("Unknown Hystrix dashboard record type: " + type);
+            }
+            final String name = readString(frame);
+            final String stateKey = TYPE_NAMES[type] + name;
+            long[] previous = previousValues.get(stateKey);
+            if (previous == null) {
+                previous = new long[FIELDS[type].length];
+                previousValues.put(stateKey, previous);
+            }
+
+            Map<String, Object> record = new LinkedHashMap<String, Object>();
+            record.put("type", TYPE_NAMES[type]);
+            record.put("name", name);
+            for (int i = 0; i < FIELDS[type].length; i++) {
+                final Field field = FIELDS[type][i];
+                final Object value;
+                if (field.kind == STRING) {
+                    value = readString(frame);
+                } else {
+                    previous[i] += unZigZag(readVarint(frame));
+                    value = field.kind == BOOLEAN ? Boolean.valueOf(previous[i] != 0) : Long.valueOf(previous[i]);
+                }
+                if (field.dot < 0) {
+                    record.put(field.name, value);
+                } else {
+                    final String parent = field.name.substring(0, field.dot);
+                    Map<String, Object> nested = (Map<String, Object>) record.get(parent);
+                    if (nested == null) {
+                        nested = new LinkedHashMap<String, Object>();
+                        record.put(parent, nested);
+                    }
+                    nested.put(field.name.substring(field.dot + 1), value);
+                }
+            }
+            return record;
+        }
+
+        private String readString(ByteBuffer frame) {
+            final int index = (int) readVarint(frame);
+            if (index == 0) {
+                return null;
+            } else if (index == 1) {
+                byte[] bytes = new byte[(int) readVarint(frame)];
+                frame.get(bytes);
+                String value = new String(bytes, UTF_8);
+                strings.add(value);
+                return value;
+            } else if (index - 2 < strings.size()) {
+                return strings.get(index - 2);
+            } else {
+                throw new IllegalArgumentException("Hystrix dashboard frame refers to unknown string " + index + ", frames must be decoded in order");
+            }
+        }
+
+        private static long readVarint(ByteBuffer frame) {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                final byte b = frame.get();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in Hystrix dashboard frame");
+        }
+
+        private static long unZigZag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
@@ -32,6 +32,7 @@ import rx.functions.Func0;
 
 import java.io.IOException;
 import java.io.StringWriter;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -39,9 +40,16 @@ public class SerialHystrixDashboardData extends SerialHystrixMetric {
 
     private static final Logger logger = LoggerFactory.getLogger(SerialHystrixDashboardData.class);
 
+    /**
+     * @return a self-contained {@link SerialHystrixDashboardBinary} frame of the given data.  Streams should rather keep one
+     * {@link SerialHystrixDashboardBinary.Encoder} per connection, so each frame only carries what changed since the last one.
+     */
     @Deprecated
     public static byte[] toBytes(HystrixDashboardStream.DashboardData dashboardData) {
-        throw new UnsupportedOperationException("Not implemented anymore.  Will be implemented in a new class shortly");
+        ByteBuffer frame = new SerialHystrixDashboardBinary.Encoder().encode(dashboardData);
+        byte[] bytes = new byte[frame.remaining()];
+        frame.get(bytes);
+        return bytes;
     }
 
     public static String toJsonString(HystrixDashboardStream.DashboardData dashboardData) {
@@ -420,10 +428,11 @@ public class SerialHystrixDashboardData extends SerialHystrixMetric {
         //json.writeNumberField("100", collapserMetrics.getShardSizePercentile(100));
         //json.writeEndObject();
 
-        //json.writeNumberField("propertyValue_metricsRollingStatisticalWindowInMilliseconds", collapserMetrics.getProperties().metricsRollingStatisticalWindowInMilliseconds().get());
+        json.writeNumberField("propertyValue_metricsRollingStatisticalWindowInMilliseconds", collapserMetrics.getProperties().metricsRollingStatisticalWindowInMilliseconds().get());
         json.writeBooleanField("propertyValue_requestCacheEnabled", collapserMetrics.getProperties().requestCacheEnabled().get());
         json.writeNumberField("propertyValue_maxRequestsInBatch", collapserMetrics.getProperties().maxRequestsInBatch().get());
         json.writeNumberField("propertyValue_timerDelayInMilliseconds", collapserMetrics.getProperties().timerDelayInMilliseconds().get());
+        json.writeNumberField("currentTimerDelayInMilliseconds", collapserMetrics.getCurrentTimerDelayInMilliseconds());
 
         json.writeNumberField("reportingHosts", 1); // this will get summed across all instances in a cluster
 
@@ -0,0 +1,141 @@
+/**
+ * Copyright 2017 Netflix, Inc.
+ * <p/>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p/>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p/>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.netflix.hystrix.serial;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.hystrix.HystrixCollapserKey;
+import com.netflix.hystrix.HystrixCollapserMetrics;
+import com.netflix.hystrix.HystrixCollapserProperties;
+import com.netflix.hystrix.HystrixCommandGroupKey;
+import com.netflix.hystrix.HystrixCommandKey;
+import com.netflix.hystrix.HystrixCommandMetrics;
+import com.netflix.hystrix.HystrixCommandProperties;
+import com.netflix.hystrix.HystrixThreadPoolKey;
+import com.netflix.hystrix.HystrixThreadPoolMetrics;
+import com.netflix.hystrix.strategy.properties.HystrixPropertiesCollapserDefault;
+import com.netflix.hystrix.strategy.properties.HystrixPropertiesCommandDefault;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SerialHystrixDashboardBinaryTest {
+
+    private static final HystrixCommandGroupKey groupKey = HystrixCommandGroupKey.Factory.asKey("BinaryGroup");
+    private static final HystrixThreadPoolKey threadPoolKey = HystrixThreadPoolKey.Factory.asKey("BinaryThreadPool");
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void testCommandRoundTripMatchesJson() throws Exception {
+        HystrixCommandMetrics metrics = getMetrics("BinaryFoo");
+
+        SerialHystrixDashboardBinary.Decoder decoder = new SerialHystrixDashboardBinary.Decoder();
+        List<String> decoded = decoder.decodeToJsonStrings(encode(new SerialHystrixDashboardBinary.Encoder(), metrics));
+        assertEquals(1, decoded.size());
+
+        Map<?, ?> expected = mapper.readValue(SerialHystrixDashboardData.toJsonString(metrics), Map.class);
+        Map<?, ?> actual = mapper.readValue(decoded.get(0), Map.class);
+        expected.remove("currentTime");
+        actual.remove("currentTime");
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testCollapserRoundTripMatchesJson() throws Exception {
+        HystrixCollapserKey key = HystrixCollapserKey.Factory.asKey("BinaryCollapser");
+        HystrixCollapserMetrics metrics = HystrixCollapserMetrics.getInstance(key,
+                new HystrixPropertiesCollapserDefault(key, HystrixCollapserProperties.Setter()));
+
+        SerialHystrixDashboardBinary.Decoder decoder = new SerialHystrixDashboardBinary.Decoder();
+        List<String> decoded = decoder.decodeToJsonStrings(new SerialHystrixDashboardBinary.Encoder().encode(
+                Collections.<HystrixCommandMetrics>emptyList(), Collections.<HystrixThreadPoolMetrics>emptyList(), Collections.singletonList(metrics)));
+        assertEquals(1, decoded.size());
+
+        Map<?, ?> expected = mapper.readValue(SerialHystrixDashboardData.toJsonString(metrics), Map.class);
+        Map<?, ?> actual = mapper.readValue(decoded.get(0), Map.class);
+        expected.remove("currentTime");
+        actual.remove("currentTime");
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testUnchangedFramesOnlyCarryDeltas() throws Exception {
+        HystrixCommandMetrics foo = getMetrics("BinaryDeltaFoo");
+        HystrixCommandMetrics bar = getMetrics("BinaryDeltaBar");
+        SerialHystrixDashboardBinary.Encoder encoder = new SerialHystrixDashboardBinary.Encoder();
+        SerialHystrixDashboardBinary.Decoder decoder = new SerialHystrixDashboardBinary.Decoder();
+
+        ByteBuffer first = encode(encoder, foo, bar);
+        int firstSize = first.remaining();
+        List<Map<String, Object>> firstRecords = decoder.decode(first);
+
+        ByteBuffer second = encode(encoder, foo, bar);
+        int secondSize = second.remaining();
+        List<Map<String, Object>> secondRecords = decoder.decode(second);
+
+        assertTrue("second frame of " + secondSize + " bytes should be smaller than first of " + firstSize, secondSize < firstSize / 4);
+        assertEquals(2, secondRecords.size());
+        for (int i = 0; i < 2; i++) {
+            firstRecords.get(i).remove("currentTime");
+            secondRecords.get(i).remove("currentTime");
+            assertEquals(firstRecords.get(i), secondRecords.get(i));
+        }
+        assertEquals("BinaryDeltaFoo", secondRecords.get(0).get("name"));
+        assertEquals("BinaryGroup", secondRecords.get(1).get("group"));
+        assertNull(secondRecords.get(1).get("propertyValue_executionIsolationThreadPoolKeyOverride"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodingOutOfOrderFails() {
+        HystrixCommandMetrics metrics = getMetrics("BinaryOrderFoo");
+        SerialHystrixDashboardBinary.Encoder encoder = new SerialHystrixDashboardBinary.Encoder();
+        encode(encoder, metrics);
+        ByteBuffer second = encode(encoder, metrics);
+
+        // the second frame refers to strings sent in the first one
+        new SerialHystrixDashboardBinary.Decoder().decode(second);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodingTrailingBytesFails() {
+        ByteBuffer frame = encode(new SerialHystrixDashboardBinary.Encoder(), getMetrics("BinaryTrailingFoo"));
+        ByteBuffer padded = ByteBuffer.allocate(frame.remaining() + 1);
+        padded.put(frame);
+        padded.put((byte) 0);
+        padded.flip();
+
+        new SerialHystrixDashboardBinary.Decoder().decode(padded);
+    }
+
+    private static HystrixCommandMetrics getMetrics(String name) {
+        HystrixCommandKey key = HystrixCommandKey.Factory.asKey(name);
+        HystrixCommandProperties properties = new HystrixPropertiesCommandDefault(key, HystrixCommandProperties.Setter());
+        return HystrixCommandMetrics.getInstance(key, groupKey, threadPoolKey, properties);
+    }
+
+    private static ByteBuffer encode(SerialHystrixDashboardBinary.Encoder encoder, HystrixCommandMetrics... metrics) {
+        List<HystrixCommandMetrics> commandMetrics = new ArrayList<HystrixCommandMetrics>();
+        Collections.addAll(commandMetrics, metrics);
+        return encoder.encode(commandMetrics, Collections.<HystrixThreadPoolMetrics>emptyList(), Collections.<HystrixCollapserMetrics>emptyList());
+    }
+}